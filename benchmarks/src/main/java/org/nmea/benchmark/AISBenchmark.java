@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.nmea.ais.message.AISMessage;
+import org.nmea.ais.parser.AISMessageEncoder;
+import org.nmea.ais.parser.AISMessageFactory;
+import org.nmea.ais.util.Sixbit;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.AISSentence;
+import org.nmea.sentence.Sentence;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * AIS payload de-armoring, bit field extraction, message decoding and
+ * encoding of the AIS messages in the recorded corpus, per message type.
+ *
+ * @author Key Bridge
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AISBenchmark {
+
+  /**
+   * Message type; 24 is the part B of a static data report.
+   */
+  @Param({"1", "5", "18", "24"})
+  public int messageType;
+
+  private final AISMessageFactory factory = AISMessageFactory.getInstance();
+  private AISSentence[] sentences;
+  private Sixbit payload;
+  private AISMessage message;
+  private final AISMessageEncoder encoder = new AISMessageEncoder();
+  private final StringBuilder buffer = new StringBuilder(256);
+  private final StringBuilder fragments = new StringBuilder(256);
+
+  @Setup
+  public void setup() {
+    Map<Integer, AISSentence[]> messages = new LinkedHashMap<>();
+    List<AISSentence> fragments = new ArrayList<>();
+    for (String line : Corpus.lines(Corpus.RECORDED)) {
+      if (!line.startsWith("!")) {
+        continue;
+      }
+      Sentence s = SentenceFactory.getInstance().createParser(line);
+      AISSentence ais = (AISSentence) s;
+      fragments.add(ais);
+      if (ais.isLastFragment()) {
+        AISSentence[] message = fragments.toArray(new AISSentence[fragments.size()]);
+        messages.put(factory.create(message).getMessageType(), message);
+        fragments.clear();
+      }
+    }
+    sentences = messages.get(messageType);
+    if (sentences == null) {
+      throw new IllegalStateException("No message of type " + messageType);
+    }
+    payload = sixbit();
+    message = create();
+  }
+
+  /**
+   * Joins the payloads of all fragments and de-armors them into a bit vector,
+   * using the fill bits of the last fragment.
+   */
+  @Benchmark
+  public Sixbit sixbit() {
+    AISSentence last = sentences[sentences.length - 1];
+    if (sentences.length == 1) {
+      return new Sixbit(last.getPayload(), last.getFillBits());
+    }
+    fragments.setLength(0);
+    for (AISSentence s : sentences) {
+      fragments.append(s.getPayload());
+    }
+    return new Sixbit(fragments.toString(), last.getFillBits());
+  }
+
+  /**
+   * Reads the common message header fields from the bit vector.
+   */
+  @Benchmark
+  public int bitVector() {
+    return payload.getInt(0, 6) ^ payload.getInt(6, 8) ^ payload.getInt(8, 38);
+  }
+
+  /**
+   * Decodes the message from its sentences, including de-armoring.
+   */
+  @Benchmark
+  public AISMessage create() {
+    return factory.create(sentences);
+  }
+
+  /**
+   * Encodes the decoded message into sentences in a reusable buffer.
+   */
+  @Benchmark
+  public int encode() {
+    buffer.setLength(0);
+    return encoder.encode(message, buffer);
+  }
+
+  /**
+   * Encodes the decoded message and decodes the resulting sentences.
+   */
+  @Benchmark
+  public AISMessage roundTrip() {
+    return factory.create(encoder.toSentences(message).toArray(new AISSentence[0]));
+  }
+}
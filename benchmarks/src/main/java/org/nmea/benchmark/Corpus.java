@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark input data loaded from class path resources.
+ * <p>
+ * <code>recorded.txt</code> is a GPS receiver recording (GGA, GSA, GSV and RMC
+ * sentences) interleaved with synthetic AIS traffic, and
+ * <code>sentences.txt</code> holds one realistic sample of each sentence type
+ * registered in the default SentenceFactory.
+ * <p>
+ * The AIS sentences are not a capture: they were generated with a fixed seed
+ * for 500 stations (class A and B vessels, base stations and aids to
+ * navigation) with varying positions, names and destinations, so that the
+ * working set resembles a busy receiver rather than a handful of repeated
+ * sentences. The message mix is roughly that of a coastal feed: about 60%
+ * type 1, 2 and 3, 16% type 18, 6% type 5, 6% type 24 parts A and B, 7% type
+ * 4, 5% type 21 (some with name extension) and 2% type 19. About 3% of the
+ * messages repeat a recent one, as if heard by a second receiver.
+ *
+ * @author Key Bridge
+ */
+final class Corpus {
+
+  static final String RECORDED = "recorded.txt";
+  static final String SENTENCES = "sentences.txt";
+
+  private Corpus() {
+  }
+
+  /**
+   * Returns all lines of a corpus resource.
+   *
+   * @param name Resource name
+   * @return List of lines
+   */
+  static List<String> lines(String name) {
+    InputStream in = Corpus.class.getResourceAsStream(name);
+    if (in == null) {
+      throw new IllegalArgumentException("Corpus not found: " + name);
+    }
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (!line.isEmpty()) {
+          lines.add(line);
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return lines;
+  }
+
+  /**
+   * Returns the raw bytes of a corpus resource, CRLF terminated.
+   *
+   * @param name Resource name
+   * @return byte array
+   */
+  static byte[] bytes(String name) {
+    StringBuilder sb = new StringBuilder();
+    for (String line : lines(name)) {
+      sb.append(line).append("\r\n");
+    }
+    return sb.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Returns the sample sentences keyed by sentence id, as registered in
+   * SentenceFactory (e.g. "GGA" or "ALK").
+   *
+   * @return Map of sentence id and sentence
+   */
+  static Map<String, String> samples() {
+    Map<String, String> samples = new LinkedHashMap<>();
+    for (String line : lines(SENTENCES)) {
+      samples.put(line.substring(3, line.indexOf(',')), line);
+    }
+    return samples;
+  }
+}
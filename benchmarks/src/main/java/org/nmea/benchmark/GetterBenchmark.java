@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.GGASentence;
+import org.nmea.sentence.RMCSentence;
+import org.nmea.type.Date;
+import org.nmea.type.Position;
+import org.nmea.type.Time;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Typed field getters of the most common GPS sentences. The parsers are
+ * created once; only the field conversion is measured.
+ *
+ * @author Key Bridge
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetterBenchmark {
+
+  private GGASentence gga;
+  private RMCSentence rmc;
+
+  @Setup
+  public void setup() {
+    SentenceFactory factory = SentenceFactory.getInstance();
+    gga = (GGASentence) factory.createParser(Corpus.samples().get("GGA"));
+    rmc = (RMCSentence) factory.createParser(Corpus.samples().get("RMC"));
+  }
+
+  @Benchmark
+  public Position ggaPosition() {
+    return gga.getPosition();
+  }
+
+  @Benchmark
+  public Time ggaTime() {
+    return gga.getTime();
+  }
+
+  @Benchmark
+  public double ggaHorizontalDOP() {
+    return gga.getHorizontalDOP();
+  }
+
+  @Benchmark
+  public Position rmcPosition() {
+    return rmc.getPosition();
+  }
+
+  @Benchmark
+  public Date rmcDate() {
+    return rmc.getDate();
+  }
+
+  @Benchmark
+  public double rmcSpeed() {
+    return rmc.getSpeed();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.Sentence;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Parser creation for each sentence type registered in the default
+ * SentenceFactory, and encoding of the parsed sentence back to its string
+ * representation.
+ *
+ * @author Key Bridge
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  @Param({"APB", "ALK", "BOD", "CUR", "DBT", "DPT", "DTM", "GGA", "GLL", "GNS",
+    "GSA", "GSV", "HDG", "HDM", "HDT", "MHU", "MMB", "MTA", "MTW", "MWV", "RMB",
+    "RMC", "RPM", "ROT", "RTE", "RSA", "TTM", "VBW", "VDM", "VDO", "VDR", "VHW",
+    "VLW", "VTG", "VWR", "VWT", "WPL", "XTE", "XDR", "ZDA", "MDA", "MWD"})
+  public String type;
+
+  private final SentenceFactory factory = SentenceFactory.getInstance();
+  private String nmea;
+  private Sentence sentence;
+
+  @Setup
+  public void setup() {
+    nmea = Corpus.samples().get(type);
+    if (nmea == null) {
+      throw new IllegalStateException("No sample sentence for " + type);
+    }
+    sentence = factory.createParser(nmea);
+  }
+
+  @Benchmark
+  public Sentence createParser() {
+    return factory.createParser(nmea);
+  }
+
+  @Benchmark
+  public String toSentence() {
+    return sentence.toSentence();
+  }
+}
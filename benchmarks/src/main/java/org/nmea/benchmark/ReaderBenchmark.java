@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.nmea.event.SentenceEvent;
+import org.nmea.event.SentenceListener;
+import org.nmea.io.SentenceReader;
+import org.nmea.sentence.SentenceValidator;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * End-to-end throughput of SentenceReader: each operation reads the whole
+ * recorded corpus from an in-memory stream, validates and parses each line and
+ * dispatches it to a listener. The score is corpus passes per second; multiply
+ * by {@link #sentences} for sentences per second.
+ *
+ * @author Key Bridge
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReaderBenchmark {
+
+  private byte[] data;
+  private int sentences;
+
+  @Setup
+  public void setup() {
+    data = Corpus.bytes(Corpus.RECORDED);
+    for (String line : Corpus.lines(Corpus.RECORDED)) {
+      if (SentenceValidator.isValidSentence(line)) {
+        sentences++;
+      }
+    }
+  }
+
+  @Benchmark
+  public int read() throws InterruptedException {
+    Counter counter = new Counter(sentences);
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(data));
+    reader.addSentenceListener(counter);
+    reader.start();
+    try {
+      if (!counter.done.await(1, TimeUnit.MINUTES)) {
+        throw new IllegalStateException("Reader did not dispatch all sentences");
+      }
+    } finally {
+      reader.stop();
+    }
+    return counter.count;
+  }
+
+  /**
+   * Listener counting dispatched sentences, releasing a latch when all
+   * sentences of the corpus have been received.
+   */
+  private static class Counter implements SentenceListener {
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final int expected;
+    private int count;
+
+    Counter(int expected) {
+      this.expected = expected;
+    }
+
+    @Override
+    public void readingPaused() {
+    }
+
+    @Override
+    public void readingStarted() {
+    }
+
+    @Override
+    public void readingStopped() {
+    }
+
+    @Override
+    public void sentenceRead(SentenceEvent event) {
+      if (++count == expected) {
+        done.countDown();
+      }
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.nmea.sentence.Checksum;
+import org.nmea.sentence.SentenceValidator;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Sentence validation and checksum calculation over the recorded corpus. Each
+ * invocation processes the next line of the corpus, so that the measurement
+ * covers the actual mix of sentence types and lengths.
+ *
+ * @author Key Bridge
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+  private String[] lines;
+  private int next;
+
+  @Setup
+  public void setup() {
+    List<String> corpus = Corpus.lines(Corpus.RECORDED);
+    lines = corpus.toArray(new String[corpus.size()]);
+  }
+
+  private String nextLine() {
+    String line = lines[next];
+    next = next + 1 == lines.length ? 0 : next + 1;
+    return line;
+  }
+
+  @Benchmark
+  public boolean isValidSentence() {
+    return SentenceValidator.isValidSentence(nextLine());
+  }
+
+  @Benchmark
+  public String checksum() {
+    return Checksum.calculate(nextLine());
+  }
+}
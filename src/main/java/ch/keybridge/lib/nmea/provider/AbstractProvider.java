@@ -24,8 +24,9 @@ import org.nmea.type.SentenceType;
 import ch.keybridge.lib.nmea.provider.event.ProviderEvent;
 import ch.keybridge.lib.nmea.provider.event.ProviderListener;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 /**
  * Abstract base class for providers. Defines methods that all providers must
@@ -35,6 +36,11 @@ import java.util.List;
  * When constructing {@link ch.keybridge.lib.nmea.provider.event.PositionEvent}, the
  * maximum age for all captured sentences is 1000 ms, i.e. all sentences are
  * from within the default NMEA update rate (1/s).
+ * <p>
+ * Sentences are captured in the reader thread. Listeners may be added and
+ * removed from any thread at any time; events are dispatched without locking,
+ * either in the reader thread or, if an executor has been set with
+ * {@link #setExecutor(Executor)}, asynchronously by the executor.
  *
  * @author Kimmo Tuukkanen
  * @param <T> the ProviderEvent type
@@ -42,9 +48,11 @@ import java.util.List;
 public abstract class AbstractProvider<T extends ProviderEvent> implements
   SentenceListener {
 
-  private SentenceReader reader;
-  private List<SentenceEvent> events = new ArrayList<>();
-  private List<ProviderListener<T>> listeners = new ArrayList<>();
+  private final SentenceReader reader;
+  // captured sentences, accessed by reader thread only
+  private final List<SentenceEvent> events = new ArrayList<>();
+  private final List<ProviderListener<T>> listeners = new CopyOnWriteArrayList<>();
+  private volatile Executor executor;
 
   /**
    * Creates a new instance of AbstractProvider.
@@ -93,12 +101,41 @@ public abstract class AbstractProvider<T extends ProviderEvent> implements
    *
    * @param event TPVUpdateEvent to dispatch
    */
-  private void fireProviderEvent(T event) {
-    for (ProviderListener<T> listener : listeners) {
-      listener.providerUpdate(event);
+  protected void fireProviderEvent(T event) {
+    Executor e = executor;
+    if (e == null) {
+      for (ProviderListener<T> listener : listeners) {
+        listener.providerUpdate(event);
+      }
+    } else {
+      for (ProviderListener<T> listener : listeners) {
+        e.execute(() -> listener.providerUpdate(event));
+      }
     }
   }
 
+  /**
+   * Sets the executor used to dispatch events to listeners. By default,
+   * listeners are notified in the reader thread. Use a single-threaded
+   * executor to preserve the event order for each listener.
+   *
+   * @param executor Executor to use, or <code>null</code> to dispatch in the
+   *                 reader thread.
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Returns the executor used to dispatch events.
+   *
+   * @return Executor, or <code>null</code> if events are dispatched in the
+   *         reader thread.
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
   /**
    * Returns the collected sentences.
    *
@@ -135,10 +172,12 @@ public abstract class AbstractProvider<T extends ProviderEvent> implements
    *         captured sentences.
    */
   protected final boolean hasOne(String... id) {
-    List<String> ids = Arrays.asList(id);
-    for (Sentence s : getSentences()) {
-      if (ids.contains(s.getSentenceId())) {
-        return true;
+    for (int i = 0; i < events.size(); i++) {
+      String sid = events.get(i).getSentence().getSentenceId();
+      for (String s : id) {
+        if (s.equals(sid)) {
+          return true;
+        }
       }
     }
     return false;
@@ -207,7 +246,7 @@ public abstract class AbstractProvider<T extends ProviderEvent> implements
    * org.nmea.event.SentenceEvent)
    */
   public void sentenceRead(SentenceEvent event) {
-    events.add(event);
+    events.add(event.retain());
     if (isReady()) {
       if (validate()) {
         T pEvent = createProviderEvent();
@@ -0,0 +1,511 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.keybridge.lib.nmea.provider;
+
+import ch.keybridge.lib.nmea.provider.event.PositionEvent;
+import org.nmea.event.SentenceEvent;
+import org.nmea.io.SentenceReader;
+import org.nmea.parser.DataNotAvailableException;
+import org.nmea.sentence.GGASentence;
+import org.nmea.sentence.GSASentence;
+import org.nmea.sentence.RMCSentence;
+import org.nmea.sentence.Sentence;
+import org.nmea.sentence.VTGSentence;
+import org.nmea.type.DataStatusType;
+import org.nmea.type.Date;
+import org.nmea.type.FaaModeType;
+import org.nmea.type.GpsFixQualityType;
+import org.nmea.type.Position;
+import org.nmea.type.SentenceType;
+import org.nmea.type.TalkerType;
+import org.nmea.type.Time;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fuses the positions reported by several GNSS receivers or constellations
+ * (e.g. GP, GL and GN talkers and a backup receiver on the same bus) into one
+ * smoothed stream of position events.
+ * <p>
+ * State is kept separately per talker; unrecognized talkers are kept apart by
+ * their id as read. Each talker is weighted by its fix
+ * quality, satellite count and horizontal dilution of precision (from GSA of
+ * the same talker, GN GSA of a combined receiver, or GGA if no GSA is
+ * received); talkers without a fix or silent for more than two seconds get no
+ * weight. The weighted mean of all talkers is smoothed with an alpha-beta
+ * filter, and an event is dispatched for each fix of the talker with the
+ * highest weight. The primary talker changes only when another one gets
+ * clearly better, so the output does not flip between sources.
+ * <p>
+ * Positions are taken from GGA, or from RMC for talkers that send no GGA.
+ * Speed and course are taken from RMC or VTG of the primary talker when
+ * available, otherwise they are estimated by the filter. The filter itself
+ * does not allocate; the sentence getters (positions, times) and the
+ * dispatched events do.
+ *
+ * @author Key Bridge
+ * @see PositionProvider
+ */
+public class FusedPositionProvider extends AbstractProvider<PositionEvent> {
+
+  /**
+   * Default filter position gain.
+   */
+  public static final double DEFAULT_ALPHA = 0.5;
+  /**
+   * Default filter velocity gain.
+   */
+  public static final double DEFAULT_BETA = 0.1;
+
+  // talker is ignored when silent for longer than this, ms
+  private static final long MAX_AGE = 2000;
+  // filter is restarted after a gap longer than this, ms
+  private static final long MAX_GAP = 5000;
+  // weight ratio required to switch primary talker
+  private static final double SWITCH_RATIO = 1.5;
+  // HDOP assumed when not reported
+  private static final double DEFAULT_HDOP = 2.0;
+  private static final long DAY = 24 * 3600 * 1000;
+  private static final int TALKERS = TalkerType.values().length;
+
+  private final double alpha;
+  private final double beta;
+  // recognized talkers by ordinal, unrecognized talkers after them
+  private Source[] sources = new Source[TALKERS];
+  private final Map<String, Integer> unknown = new HashMap<>();
+  private Source primary;
+  private Date date;
+
+  // filter state: degrees, meters and per second rates
+  private boolean initialized;
+  private long filterTime;
+  private double latitude;
+  private double longitude;
+  private double altitude;
+  private double latitudeRate;
+  private double longitudeRate;
+  private double altitudeRate;
+
+  /**
+   * Creates a new instance with default filter gains.
+   *
+   * @param reader SentenceReader that provides the required sentences.
+   */
+  public FusedPositionProvider(SentenceReader reader) {
+    this(reader, DEFAULT_ALPHA, DEFAULT_BETA);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param reader SentenceReader that provides the required sentences.
+   * @param alpha  Position gain, 0 to 1; 1 disables smoothing.
+   * @param beta   Velocity gain, 0 to 1
+   * @throws IllegalArgumentException If gains are out of range.
+   */
+  public FusedPositionProvider(SentenceReader reader, double alpha, double beta) {
+    super(reader, SentenceType.GGA, SentenceType.RMC, SentenceType.GSA, SentenceType.VTG);
+    if (!(alpha > 0 && alpha <= 1 && beta >= 0 && beta <= 1)) {
+      throw new IllegalArgumentException("Filter gains out of range");
+    }
+    this.alpha = alpha;
+    this.beta = beta;
+  }
+
+  /**
+   * Returns the talker whose fixes currently drive the output.
+   *
+   * @return TalkerType, or <code>null</code> if no talker has a fix.
+   */
+  public TalkerType getPrimaryTalker() {
+    Source p = primary;
+    return p == null ? null : p.talker;
+  }
+
+  /**
+   * Returns the current weight of a talker.
+   *
+   * @param talker Talker
+   * @return Weight, 0 if talker has no valid fix; always 0 for
+   *         {@link TalkerType#UNKNOWN}, as unrecognized talkers are weighted
+   *         separately.
+   */
+  public double getWeight(TalkerType talker) {
+    Source s = sources[talker.ordinal()];
+    return s == null ? 0 : s.weight;
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#createProviderEvent()
+   */
+  @Override
+  protected PositionEvent createProviderEvent() {
+    Position p = Double.isNaN(altitude)
+                 ? new Position(latitude, wrap(longitude))
+                 : new Position(latitude, wrap(longitude), altitude);
+    double sog;
+    Double cog;
+    if (!Double.isNaN(primary.speed)) {
+      sog = primary.speed;
+      cog = Double.isNaN(primary.course) ? null : primary.course;
+    } else {
+      // nm per degree of latitude, seconds per hour
+      double north = latitudeRate * 60 * 3600;
+      double east = longitudeRate * Math.cos(Math.toRadians(latitude)) * 60 * 3600;
+      sog = Math.hypot(north, east);
+      cog = (Math.toDegrees(Math.atan2(east, north)) + 360) % 360;
+    }
+    return new PositionEvent(this, p, sog, cog, date == null ? new Date() : date,
+                             primary.time, primary.mode, primary.quality);
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.provider.AbstractProvider#isReady()
+   */
+  @Override
+  protected boolean isReady() {
+    return primary != null && initialized;
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.provider.AbstractProvider#isValid()
+   */
+  @Override
+  protected boolean isValid() {
+    return primary.weight > 0;
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#readingStarted()
+   */
+  @Override
+  public void readingStarted() {
+    super.readingStarted();
+    clear();
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#readingStopped()
+   */
+  @Override
+  public void readingStopped() {
+    super.readingStopped();
+    clear();
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#sentenceRead(
+   * org.nmea.event.SentenceEvent)
+   */
+  @Override
+  public void sentenceRead(SentenceEvent event) {
+    Sentence s = event.getSentence();
+    Source src = sourceOf(s);
+    long now = event.getTimeStamp();
+
+    try {
+      if (s instanceof GGASentence) {
+        GGASentence gga = (GGASentence) s;
+        src.hasGGA = true;
+        src.quality = gga.getFixQuality();
+        if (GpsFixQualityType.INVALID.equals(src.quality)) {
+          src.weight = 0;
+          return;
+        }
+        Position p = gga.getPosition();
+        src.time = gga.getTime();
+        src.satellites = gga.getSatelliteCount();
+        src.hdop = gga.getHorizontalDOP();
+        updatePosition(src, p.getLatitude(), p.getLongitude(), p.getAltitude(), now);
+      } else if (s instanceof RMCSentence) {
+        RMCSentence rmc = (RMCSentence) s;
+        if (DataStatusType.VOID.equals(rmc.getStatus())) {
+          src.speed = Double.NaN;
+          return;
+        }
+        date = rmc.getDate();
+        src.mode = rmc.getFieldCount() > 11 ? rmc.getMode() : null;
+        src.speed = rmc.getSpeed();
+        src.course = courseOf(rmc);
+        if (!src.hasGGA) {
+          Position p = rmc.getPosition();
+          src.time = rmc.getTime();
+          src.quality = GpsFixQualityType.NORMAL;
+          updatePosition(src, p.getLatitude(), p.getLongitude(), Double.NaN, now);
+        }
+      } else if (s instanceof GSASentence) {
+        src.gsaHdop = ((GSASentence) s).getHorizontalDOP();
+      } else if (s instanceof VTGSentence) {
+        VTGSentence vtg = (VTGSentence) s;
+        src.speed = vtg.getSpeedKnots();
+        try {
+          src.course = vtg.getTrueCourse();
+        } catch (DataNotAvailableException e) {
+          src.course = Double.NaN;
+        }
+      }
+    } catch (DataNotAvailableException e) {
+      // incomplete fix, talker keeps its previous state
+    }
+  }
+
+  /**
+   * Returns the state of the talker of a sentence, adding a new talker.
+   */
+  private Source sourceOf(Sentence s) {
+    TalkerType talker = s.getTalkerId();
+    int index = talker.ordinal();
+    if (talker == TalkerType.UNKNOWN) {
+      Integer i = unknown.get(s.getTalkerString());
+      if (i == null) {
+        i = TALKERS + unknown.size();
+        unknown.put(s.getTalkerString(), i);
+        if (i == sources.length) {
+          sources = Arrays.copyOf(sources, i * 2);
+        }
+      }
+      index = i;
+    }
+    Source src = sources[index];
+    if (src == null) {
+      src = new Source(talker);
+      sources[index] = src;
+    }
+    return src;
+  }
+
+  /**
+   * Updates the position of a talker, and if it is the primary talker, the
+   * fused position and the filter.
+   */
+  private void updatePosition(Source src, double lat, double lon, double alt, long now) {
+    src.latitude = lat;
+    src.longitude = lon;
+    src.altitude = alt;
+    src.received = now;
+    src.weight = weight(src, sources[TalkerType.GN.ordinal()]);
+    selectPrimary(now);
+    if (src != primary || primary.weight <= 0) {
+      return;
+    }
+
+    // weighted mean of fresh talkers, longitudes relative to primary
+    double sum = 0;
+    double sumLat = 0;
+    double sumLon = 0;
+    double sumAltWeight = 0;
+    double sumAlt = 0;
+    for (Source s : sources) {
+      if (s == null || s.weight <= 0 || now - s.received > MAX_AGE) {
+        continue;
+      }
+      sum += s.weight;
+      sumLat += s.weight * s.latitude;
+      sumLon += s.weight * (primary.longitude + wrap(s.longitude - primary.longitude));
+      if (!Double.isNaN(s.altitude)) {
+        sumAltWeight += s.weight;
+        sumAlt += s.weight * s.altitude;
+      }
+    }
+    filter(sumLat / sum, sumLon / sum, sumAltWeight > 0 ? sumAlt / sumAltWeight : Double.NaN, fixTime(src, now));
+
+    if (isReady() && isValid()) {
+      fireProviderEvent(createProviderEvent());
+    }
+  }
+
+  /**
+   * Alpha-beta filter update with a measurement at time t (ms).
+   */
+  private void filter(double lat, double lon, double alt, long t) {
+    long dt = initialized ? Math.floorMod(t - filterTime, DAY) : 0;
+    if (!initialized || dt > MAX_GAP) {
+      latitude = lat;
+      longitude = lon;
+      altitude = alt;
+      latitudeRate = 0;
+      longitudeRate = 0;
+      altitudeRate = 0;
+      initialized = true;
+      filterTime = t;
+      return;
+    }
+    double seconds = dt / 1000.0;
+    double predictedLat = latitude + latitudeRate * seconds;
+    double predictedLon = longitude + longitudeRate * seconds;
+    double rLat = lat - predictedLat;
+    double rLon = wrap(lon - predictedLon);
+    latitude = predictedLat + alpha * rLat;
+    longitude = wrap(predictedLon + alpha * rLon);
+    if (seconds > 0) {
+      latitudeRate += beta * rLat / seconds;
+      longitudeRate += beta * rLon / seconds;
+    }
+    if (Double.isNaN(alt)) {
+      altitude = Double.NaN;
+    } else if (Double.isNaN(altitude)) {
+      altitude = alt;
+      altitudeRate = 0;
+    } else {
+      double predictedAlt = altitude + altitudeRate * seconds;
+      double rAlt = alt - predictedAlt;
+      altitude = predictedAlt + alpha * rAlt;
+      if (seconds > 0) {
+        altitudeRate += beta * rAlt / seconds;
+      }
+    }
+    filterTime = t;
+  }
+
+  /**
+   * Selects the primary talker, switching only if the current one is stale or
+   * clearly outweighed.
+   */
+  private void selectPrimary(long now) {
+    Source best = null;
+    for (Source s : sources) {
+      if (s != null && s.weight > 0 && now - s.received <= MAX_AGE
+        && (best == null || s.weight > best.weight)) {
+        best = s;
+      }
+    }
+    if (primary == null || primary.weight <= 0 || now - primary.received > MAX_AGE
+      || (best != null && best.weight > primary.weight * SWITCH_RATIO)) {
+      primary = best;
+    }
+  }
+
+  /**
+   * Clears all talker and filter state.
+   */
+  private void clear() {
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = null;
+    }
+    unknown.clear();
+    primary = null;
+    date = null;
+    initialized = false;
+  }
+
+  /**
+   * Returns the weight of a talker from its fix quality, satellite count and
+   * HDOP.
+   */
+  static double weight(GpsFixQualityType quality, int satellites, double hdop) {
+    double q;
+    switch (quality) {
+      case NORMAL:
+        q = 1;
+        break;
+      case DGPS:
+      case PPS:
+        q = 2;
+        break;
+      case FRTK:
+        q = 4;
+        break;
+      case RTK:
+        q = 8;
+        break;
+      case ESTIMATED:
+        q = 0.1;
+        break;
+      default:
+        return 0;
+    }
+    double s;
+    if (satellites < 0) {
+      s = 0.5;
+    } else if (satellites < 4) {
+      return 0;
+    } else {
+      s = Math.min(satellites, 12) / 12.0;
+    }
+    double h = hdop > 0 ? hdop : DEFAULT_HDOP;
+    return q * s / (h * h);
+  }
+
+  /**
+   * Returns the weight of a talker, taking HDOP from its own GSA, or from GN
+   * GSA of a combined receiver, or from its GGA.
+   */
+  private static double weight(Source src, Source combined) {
+    double hdop = src.gsaHdop;
+    if (Double.isNaN(hdop) && combined != null) {
+      hdop = combined.gsaHdop;
+    }
+    if (Double.isNaN(hdop)) {
+      hdop = src.hdop;
+    }
+    return weight(src.quality, src.satellites, hdop);
+  }
+
+  /**
+   * Returns the fix time of day of a talker in ms, or the receive time if not
+   * available.
+   */
+  private static long fixTime(Source src, long now) {
+    return src.time == null ? Math.floorMod(now, DAY) : src.time.getMilliseconds();
+  }
+
+  private static double courseOf(RMCSentence rmc) {
+    try {
+      return rmc.getCourse();
+    } catch (DataNotAvailableException e) {
+      return Double.NaN;
+    }
+  }
+
+  /**
+   * Wraps a longitude, or a difference of longitudes, to -180..180.
+   */
+  private static double wrap(double lon) {
+    return lon - 360 * Math.floor((lon + 180) / 360);
+  }
+
+  /**
+   * Latest state of one talker.
+   */
+  private static final class Source {
+
+    private final TalkerType talker;
+    private double latitude;
+    private double longitude;
+    private double altitude = Double.NaN;
+    private GpsFixQualityType quality = GpsFixQualityType.INVALID;
+    private int satellites = -1;
+    private double hdop = Double.NaN;
+    private double gsaHdop = Double.NaN;
+    private double speed = Double.NaN;
+    private double course = Double.NaN;
+    private FaaModeType mode;
+    private Time time;
+    private boolean hasGGA;
+    private long received;
+    private double weight;
+
+    Source(TalkerType talker) {
+      this.talker = talker;
+    }
+  }
+}
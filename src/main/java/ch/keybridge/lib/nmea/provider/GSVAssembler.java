@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.keybridge.lib.nmea.provider;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.nmea.parser.DataNotAvailableException;
+import org.nmea.parser.SentenceParser;
+import org.nmea.sentence.GSVSentence;
+import org.nmea.type.Satellite;
+import org.nmea.type.TalkerType;
+
+/**
+ * Assembles GSV sentence sequences separately per talker, so that interleaved
+ * sequences of several constellations do not mix. Each talker has a slot:
+ * recognized talkers the ordinal of their {@link TalkerType}, unrecognized
+ * talkers a slot after those per talker id as read. Satellite data is kept in
+ * fixed tables indexed by satellite id (PRN), with a small overflow list for
+ * larger ids such as the 3-digit Galileo and BeiDou ids of some receivers; a
+ * sequence is published when its last sentence is received in order, and
+ * discarded if a sentence is missing. Satellite fields of {@link SentenceParser}
+ * sentences are read directly, without creating {@link Satellite} objects.
+ * Not thread-safe.
+ *
+ * @author Key Bridge
+ */
+final class GSVAssembler {
+
+  /**
+   * Largest satellite id of the fixed tables; larger ids are kept in an
+   * overflow list.
+   */
+  static final int MAX_PRN = 255;
+
+  // GSV satellite fields: four satellites of id, elevation, azimuth and noise
+  private static final int FIRST_SATELLITE = 3;
+  private static final int SATELLITE_FIELDS = 4;
+  private static final int SATELLITES = 4;
+
+  // value of missing satellite data; elevation may be negative
+  private static final int MISSING = Integer.MIN_VALUE;
+
+  private static final TalkerType[] TALKERS = TalkerType.values();
+
+  private Sequence[] sequences = new Sequence[TALKERS.length];
+  // slots of unrecognized talkers by id
+  private final Map<String, Integer> unknown = new HashMap<>();
+
+  /**
+   * Adds a GSV sentence to the sequence of its talker.
+   *
+   * @param gsv Sentence to add
+   * @return Slot of the talker if the sentence completed a sequence,
+   *         otherwise -1.
+   */
+  int add(GSVSentence gsv) {
+    int slot = slotOf(gsv);
+    Sequence s = sequences[slot];
+    if (s == null) {
+      s = new Sequence();
+      sequences[slot] = s;
+    }
+    int index;
+    int count;
+    try {
+      index = gsv.getSentenceIndex();
+      count = gsv.getSentenceCount();
+    } catch (DataNotAvailableException e) {
+      s.building.size = 0;
+      s.next = 0;
+      return -1;
+    }
+    if (index == 1) {
+      s.building.size = 0;
+      s.count = count;
+    } else if (index != s.next || count != s.count) {
+      // out of sequence, wait for next first sentence
+      s.next = 0;
+      return -1;
+    }
+    if (gsv instanceof SentenceParser) {
+      SentenceParser fields = (SentenceParser) gsv;
+      for (int i = 0; i < SATELLITES; i++) {
+        int id = FIRST_SATELLITE + i * SATELLITE_FIELDS;
+        int prn = fields.getIntOr(id, -1);
+        int elev = fields.getIntOr(id + 1, MISSING);
+        int azm = fields.getIntOr(id + 2, MISSING);
+        int snr = fields.getIntOr(id + 3, MISSING);
+        // skip satellites with missing or invalid info, like GSVParser
+        if (prn >= 0 && elev != MISSING && azm != MISSING && snr != MISSING) {
+          s.building.put(prn, elev, azm, snr);
+        }
+      }
+    } else {
+      for (Satellite sat : gsv.getSatelliteInfo()) {
+        int prn = parsePRN(sat.getId());
+        if (prn >= 0) {
+          s.building.put(prn, sat.getElevation(), sat.getAzimuth(), sat.getNoise());
+        }
+      }
+    }
+    if (index == count) {
+      Table done = s.building;
+      s.building = s.complete;
+      s.complete = done;
+      s.hasComplete = true;
+      s.next = 0;
+      return slot;
+    }
+    s.next = index + 1;
+    return -1;
+  }
+
+  /**
+   * Returns the numeric value of a satellite id, or -1 if not a number.
+   */
+  private static int parsePRN(String id) {
+    if (id == null || id.isEmpty() || id.length() > 9) {
+      return -1;
+    }
+    int prn = 0;
+    for (int i = 0; i < id.length(); i++) {
+      char c = id.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      prn = prn * 10 + (c - '0');
+    }
+    return prn;
+  }
+
+  /**
+   * Returns the slot of the talker of a sentence, adding a slot for a new
+   * unrecognized talker.
+   */
+  private int slotOf(GSVSentence gsv) {
+    TalkerType talker = gsv.getTalkerId();
+    if (talker != TalkerType.UNKNOWN) {
+      return talker.ordinal();
+    }
+    Integer slot = unknown.get(gsv.getTalkerString());
+    if (slot == null) {
+      slot = TALKERS.length + unknown.size();
+      unknown.put(gsv.getTalkerString(), slot);
+      if (slot == sequences.length) {
+        sequences = Arrays.copyOf(sequences, slot * 2);
+      }
+    }
+    return slot;
+  }
+
+  /**
+   * Returns the talker of a slot; {@link TalkerType#UNKNOWN} for all
+   * unrecognized talkers.
+   *
+   * @param slot Slot returned by {@link #add(GSVSentence)}
+   * @return Talker
+   */
+  TalkerType talkerOf(int slot) {
+    return slot < TALKERS.length ? TALKERS[slot] : TalkerType.UNKNOWN;
+  }
+
+  /**
+   * Adds the satellites of the latest complete sequence of a talker to a list.
+   *
+   * @param slot Slot returned by {@link #add(GSVSentence)}
+   * @param into List to add to
+   */
+  void collect(int slot, List<Satellite> into) {
+    Sequence s = sequences[slot];
+    if (s == null || !s.hasComplete) {
+      return;
+    }
+    Table t = s.complete;
+    for (int i = 0; i < t.size; i++) {
+      int prn = t.prns[i];
+      String id = prn < 10 ? "0" + prn : Integer.toString(prn);
+      if (prn <= MAX_PRN) {
+        into.add(new Satellite(id, t.elevation[prn], t.azimuth[prn], t.noise[prn]));
+      } else {
+        int e = t.find(prn);
+        into.add(new Satellite(id, t.overflow[e + 1], t.overflow[e + 2], t.overflow[e + 3]));
+      }
+    }
+  }
+
+  /**
+   * Discards all sequences.
+   */
+  void clear() {
+    for (int i = 0; i < sequences.length; i++) {
+      sequences[i] = null;
+    }
+    unknown.clear();
+  }
+
+  /**
+   * Sequence state of one talker, double buffered.
+   */
+  private static final class Sequence {
+
+    private Table building = new Table();
+    private Table complete = new Table();
+    private boolean hasComplete;
+    private int count;
+    private int next;
+  }
+
+  /**
+   * Satellite table indexed by PRN, with PRNs listed in order of reception.
+   * Satellites with PRN above {@link #MAX_PRN} are listed in the overflow
+   * array as groups of PRN, elevation, azimuth and noise.
+   */
+  private static final class Table {
+
+    private int[] prns = new int[MAX_PRN + 1];
+    private final int[] elevation = new int[MAX_PRN + 1];
+    private final int[] azimuth = new int[MAX_PRN + 1];
+    private final int[] noise = new int[MAX_PRN + 1];
+    // sequence number of the entry of each PRN, to detect duplicates
+    private final int[] stamp = new int[MAX_PRN + 1];
+    private int[] overflow = new int[4 * SATELLITE_FIELDS];
+    private int overflowSize;
+    private int generation;
+    private int size;
+
+    void put(int prn, int elev, int azm, int snr) {
+      if (size == 0) {
+        generation++;
+        overflowSize = 0;
+      }
+      if (prn > MAX_PRN) {
+        int e = find(prn);
+        if (e < 0) {
+          if (overflowSize == overflow.length) {
+            overflow = Arrays.copyOf(overflow, overflowSize * 2);
+          }
+          e = overflowSize;
+          overflowSize += SATELLITE_FIELDS;
+          overflow[e] = prn;
+          add(prn);
+        }
+        overflow[e + 1] = elev;
+        overflow[e + 2] = azm;
+        overflow[e + 3] = snr;
+        return;
+      }
+      if (stamp[prn] != generation) {
+        stamp[prn] = generation;
+        add(prn);
+      }
+      elevation[prn] = elev;
+      azimuth[prn] = azm;
+      noise[prn] = snr;
+    }
+
+    /**
+     * Returns the overflow array position of a PRN, or -1 if not listed.
+     */
+    int find(int prn) {
+      for (int e = 0; e < overflowSize; e += SATELLITE_FIELDS) {
+        if (overflow[e] == prn) {
+          return e;
+        }
+      }
+      return -1;
+    }
+
+    private void add(int prn) {
+      if (size == prns.length) {
+        prns = Arrays.copyOf(prns, size * 2);
+      }
+      prns[size++] = prn;
+    }
+  }
+}
@@ -16,15 +16,37 @@
  */
 package ch.keybridge.lib.nmea.provider;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.nmea.event.SentenceEvent;
 import org.nmea.io.SentenceReader;
+import org.nmea.parser.DataNotAvailableException;
+import org.nmea.sentence.HDGSentence;
 import org.nmea.sentence.HeadingSentence;
+import org.nmea.sentence.ROTSentence;
 import org.nmea.sentence.Sentence;
+import org.nmea.type.DataStatusType;
 import org.nmea.type.SentenceType;
 import ch.keybridge.lib.nmea.provider.event.HeadingEvent;
 
 /**
  * Heading provider reports the vessel's current heading. Data is captured from
  * HDT, HDM or HDG sentences.
+ * <p>
+ * True heading from HDT is preferred. When no HDT is received, compass heading
+ * from HDG or HDM is used, corrected by the deviation reported in HDG and, if
+ * HDG also reports the magnetic variation, converted to true heading. Rate of
+ * turn from ROT is used to extrapolate the heading between updates.
+ * <p>
+ * By default, an event is dispatched for each heading sentence of the
+ * preferred source, i.e. compass headings are not reported while HDT is
+ * received. When created with a scheduler, the provider only updates its
+ * state on incoming sentences and dispatches the extrapolated heading at a
+ * fixed rate, independent of the input rate.
  *
  * @author Kimmo Tuukkanen
  * @see ch.keybridge.lib.nmea.provider.event.HeadingEvent
@@ -32,13 +54,65 @@ import ch.keybridge.lib.nmea.provider.event.HeadingEvent;
  */
 public class HeadingProvider extends AbstractProvider<HeadingEvent> {
 
+  // source data older than this is ignored, ms
+  private static final long MAX_AGE = 2000;
+  // maximum time to extrapolate heading with rate of turn, ms
+  private static final long MAX_EXTRAPOLATION = 1000;
+  // time of data never received, safe to subtract from
+  private static final long NEVER = Long.MIN_VALUE / 2;
+  private static final Logger LOGGER = Logger.getLogger(HeadingProvider.class.getName());
+
+  private final ScheduledExecutorService scheduler;
+  private final long period;
+  private final TimeUnit unit;
+  // fixed-rate dispatching, scheduled while reading
+  private ScheduledFuture<?> task;
+
+  // latest true heading
+  private double trueHeading;
+  private long trueTime = NEVER;
+  // latest compass heading corrected by deviation, and variation
+  private double compassHeading;
+  private double variation = Double.NaN;
+  private long compassTime = NEVER;
+  // latest rate of turn, degrees per minute
+  private double rateOfTurn;
+  private long rotTime = NEVER;
+
   /**
    * Creates a new intance of HeadingProvider.
    *
    * @param reader Reader for capturing heading sentences.
    */
   public HeadingProvider(SentenceReader reader) {
-    super(reader, SentenceType.HDT, SentenceType.HDM, SentenceType.HDG);
+    super(reader, SentenceType.HDT, SentenceType.HDM, SentenceType.HDG, SentenceType.ROT);
+    this.scheduler = null;
+    this.period = 0;
+    this.unit = null;
+  }
+
+  /**
+   * Creates a new instance of HeadingProvider dispatching events at a fixed
+   * rate. Dispatching is scheduled when reading starts, or immediately if the
+   * reader is already running, and cancelled when reading stops.
+   *
+   * @param reader    Reader for capturing heading sentences.
+   * @param scheduler Scheduler for dispatching events
+   * @param period    Time between events
+   * @param unit      Unit of period
+   */
+  public HeadingProvider(SentenceReader reader, ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+    super(reader, SentenceType.HDT, SentenceType.HDM, SentenceType.HDG, SentenceType.ROT);
+    if (period <= 0) {
+      throw new IllegalArgumentException("Period must be positive");
+    }
+    this.scheduler = scheduler;
+    this.period = period;
+    this.unit = unit;
+    if (reader.isRunning()) {
+      // reading started event may already have been fired
+      schedule();
+    }
   }
 
   /*
@@ -46,20 +120,16 @@ public class HeadingProvider extends AbstractProvider<HeadingEvent> {
    */
   @Override
   protected HeadingEvent createProviderEvent() {
-    for (Sentence s : getSentences()) {
-      if (s instanceof HeadingSentence) {
-        return new HeadingEvent(this, (HeadingSentence) s);
-      }
-    }
-    return null;
+    return estimate(System.currentTimeMillis());
   }
 
   /*
    * (non-Javadoc) @see org.nmea.provider.AbstractProvider#isReady()
    */
   @Override
-  protected boolean isReady() {
-    return hasOne("HDT", "HDM", "HDG");
+  protected synchronized boolean isReady() {
+    long now = System.currentTimeMillis();
+    return now - trueTime <= MAX_AGE || now - compassTime <= MAX_AGE;
   }
 
   /*
@@ -70,4 +140,142 @@ public class HeadingProvider extends AbstractProvider<HeadingEvent> {
     return true;
   }
 
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#readingStarted()
+   */
+  @Override
+  public void readingStarted() {
+    super.readingStarted();
+    if (scheduler != null) {
+      schedule();
+    }
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#readingStopped()
+   */
+  @Override
+  public void readingStopped() {
+    super.readingStopped();
+    synchronized (this) {
+      if (task != null) {
+        task.cancel(false);
+        task = null;
+      }
+    }
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#sentenceRead(
+   * org.nmea.event.SentenceEvent)
+   */
+  @Override
+  public void sentenceRead(SentenceEvent event) {
+    Sentence s = event.getSentence();
+    long time = event.getTimeStamp();
+    boolean preferred;
+    try {
+      synchronized (this) {
+        if (s instanceof ROTSentence) {
+          ROTSentence rot = (ROTSentence) s;
+          if (DataStatusType.ACTIVE.equals(rot.getStatus())) {
+            rateOfTurn = rot.getRateOfTurn();
+            rotTime = time;
+          }
+          return;
+        }
+        HeadingSentence hs = (HeadingSentence) s;
+        if (hs.isTrue()) {
+          trueHeading = hs.getHeading();
+          trueTime = time;
+          preferred = true;
+        } else {
+          compassHeading = hs.getHeading();
+          if (s instanceof HDGSentence) {
+            HDGSentence hdg = (HDGSentence) s;
+            compassHeading += valueOf(hdg::getDeviation, 0);
+            variation = valueOf(hdg::getVariation, Double.NaN);
+          } else {
+            variation = Double.NaN;
+          }
+          compassTime = time;
+          preferred = time - trueTime > MAX_AGE;
+        }
+      }
+    } catch (DataNotAvailableException e) {
+      return;
+    }
+    if (scheduler == null && preferred) {
+      HeadingEvent e = estimate(time);
+      if (e != null) {
+        fireProviderEvent(e);
+      }
+    }
+  }
+
+  /**
+   * Returns the heading estimated at specified time.
+   *
+   * @param now Time in ms since epoch
+   * @return HeadingEvent, or <code>null</code> if no recent heading.
+   */
+  synchronized HeadingEvent estimate(long now) {
+    double heading;
+    long time;
+    boolean isTrue;
+    if (now - trueTime <= MAX_AGE) {
+      heading = trueHeading;
+      time = trueTime;
+      isTrue = true;
+    } else if (now - compassTime <= MAX_AGE) {
+      isTrue = !Double.isNaN(variation);
+      heading = isTrue ? compassHeading + variation : compassHeading;
+      time = compassTime;
+    } else {
+      return null;
+    }
+    if (now - rotTime <= MAX_AGE && now > time) {
+      heading += rateOfTurn / 60 * Math.min(now - time, MAX_EXTRAPOLATION) / 1000;
+    }
+    heading %= 360;
+    return new HeadingEvent(this, heading < 0 ? heading + 360 : heading, isTrue);
+  }
+
+  /**
+   * Schedules fixed-rate dispatching, unless already scheduled.
+   */
+  private synchronized void schedule() {
+    if (task == null) {
+      task = scheduler.scheduleAtFixedRate(this::tick, period, period, unit);
+    }
+  }
+
+  /**
+   * Dispatches the current heading; invoked by scheduler.
+   */
+  private void tick() {
+    try {
+      HeadingEvent e = estimate(System.currentTimeMillis());
+      if (e != null) {
+        fireProviderEvent(e);
+      }
+    } catch (RuntimeException e) {
+      // keep the schedule running
+      LOGGER.log(Level.WARNING, "Exception caught from HeadingListener", e);
+    }
+  }
+
+  /**
+   * Returns an optional field value, or default if not available.
+   */
+  private static double valueOf(DoubleSupplier field, double missing) {
+    try {
+      return field.getAsDouble();
+    } catch (DataNotAvailableException e) {
+      return missing;
+    }
+  }
 }
@@ -16,8 +16,10 @@
  */
 package ch.keybridge.lib.nmea.provider;
 
+import org.nmea.event.SentenceEvent;
 import org.nmea.type.SentenceType;
 import org.nmea.sentence.Sentence;
+import org.nmea.sentence.TimeSentence;
 import org.nmea.sentence.GGASentence;
 import org.nmea.sentence.VTGSentence;
 import org.nmea.sentence.GLLSentence;
@@ -43,6 +45,16 @@ import ch.keybridge.lib.nmea.provider.event.PositionEvent;
  * {@link org.nmea.util.DataStatusType#ACTIVE}. FAA mode transmitted in
  * RMC is also checked and captured when available, but may be <code>null</code>
  * depending on used NMEA version.
+ * <p>
+ * Sentences are grouped in fix epochs by their UTC time field rather than by
+ * arrival order: the latest sentence of each type is kept in a fixed slot, a
+ * sentence with a new time starts a new epoch, and an event is dispatched
+ * once per epoch as soon as the slots hold speed/course (RMC or VTG) and
+ * position (GGA or GLL). Once RMC has been received, it is required as the
+ * speed/course source of each epoch. VTG has no time field and is assigned to
+ * the current epoch; a VTG received after the current epoch was reported
+ * belongs to that epoch and is dropped, unless the stream has no RMC, in which
+ * case it is kept for the next epoch.
  *
  * @author Kimmo Tuukkanen
  * @see ch.keybridge.lib.nmea.provider.event.PositionListener
@@ -51,6 +63,28 @@ import ch.keybridge.lib.nmea.provider.event.PositionEvent;
  */
 public class PositionProvider extends AbstractProvider<PositionEvent> {
 
+  // slot bits of the ready mask
+  private static final int RMC = 1;
+  private static final int GGA = 2;
+  private static final int GLL = 4;
+  private static final int VTG = 8;
+  // maximum age of captured sentences, ms
+  private static final long MAX_AGE = 1000;
+  private static final long NO_EPOCH = -1;
+
+  private RMCSentence rmc;
+  private GGASentence gga;
+  private GLLSentence gll;
+  private VTGSentence vtg;
+  // receive time of each slot, indexed by slot bit number
+  private final long[] received = new long[4];
+  private int mask;
+  // time of day of current epoch in ms, and whether it has been reported
+  private long epoch = NO_EPOCH;
+  private boolean reported;
+  // whether the stream provides RMC
+  private boolean hasRMC;
+
   /**
    * Creates a new instance of PositionProvider.
    *
@@ -74,46 +108,39 @@ public class PositionProvider extends AbstractProvider<PositionEvent> {
     FaaModeType mode = null;
     GpsFixQualityType fix = null;
 
-    for (Sentence s : getSentences()) {
-      if (s instanceof RMCSentence) {
-        RMCSentence rmc = (RMCSentence) s;
-        sog = rmc.getSpeed();
-        try {
-          cog = rmc.getCourse();
-        } catch (DataNotAvailableException e) {
-          // If we are not moving, cource can be undefined. Leave null in that case.
-        }
-        d = rmc.getDate();
-        t = rmc.getTime();
-        if (p == null) {
-          p = rmc.getPosition();
-          if (rmc.getFieldCount() > 11) {
-            mode = rmc.getMode();
-          }
-        }
-      } else if (s instanceof VTGSentence) {
-        VTGSentence vtg = (VTGSentence) s;
-        sog = vtg.getSpeedKnots();
-        try {
-          cog = vtg.getTrueCourse();
-        } catch (DataNotAvailableException e) {
-          // If we are not moving, cource can be undefined. Leave null in that case.
-        }
-      } else if (s instanceof GGASentence) {
-        // Using GGA as primary position source as it contains both
-        // position and altitude
-        GGASentence gga = (GGASentence) s;
-        p = gga.getPosition();
-        fix = gga.getFixQuality();
-
-        // Some receivers do not provide RMC message
-        if (t == null) {
-          t = gga.getTime();
-        }
-      } else if (s instanceof GLLSentence && p == null) {
-        GLLSentence gll = (GLLSentence) s;
-        p = gll.getPosition();
+    if ((mask & RMC) != 0) {
+      sog = rmc.getSpeed();
+      try {
+        cog = rmc.getCourse();
+      } catch (DataNotAvailableException e) {
+        // If we are not moving, cource can be undefined. Leave null in that case.
+      }
+      d = rmc.getDate();
+      t = rmc.getTime();
+      p = rmc.getPosition();
+      if (rmc.getFieldCount() > 11) {
+        mode = rmc.getMode();
+      }
+    } else if ((mask & VTG) != 0) {
+      sog = vtg.getSpeedKnots();
+      try {
+        cog = vtg.getTrueCourse();
+      } catch (DataNotAvailableException e) {
+        // If we are not moving, cource can be undefined. Leave null in that case.
+      }
+    }
+
+    if ((mask & GGA) != 0) {
+      // Using GGA as primary position source as it contains both
+      // position and altitude
+      p = gga.getPosition();
+      fix = gga.getFixQuality();
+      // Some receivers do not provide RMC message
+      if (t == null) {
+        t = gga.getTime();
       }
+    } else if ((mask & GLL) != 0) {
+      p = gll.getPosition();
     }
 
     // Ag-Star reciever does not provide RMC sentence. So we have to guess what date it is
@@ -129,7 +156,8 @@ public class PositionProvider extends AbstractProvider<PositionEvent> {
    */
   @Override
   protected boolean isReady() {
-    return hasOne("RMC", "VTG") && hasOne("GGA", "GLL");
+    int speed = hasRMC ? RMC : RMC | VTG;
+    return (mask & speed) != 0 && (mask & (GGA | GLL)) != 0;
   }
 
   /*
@@ -137,29 +165,140 @@ public class PositionProvider extends AbstractProvider<PositionEvent> {
    */
   @Override
   protected boolean isValid() {
+    if ((mask & RMC) != 0) {
+      if (DataStatusType.VOID.equals(rmc.getStatus())
+        || (rmc.getFieldCount() > 11 && FaaModeType.NONE.equals(rmc.getMode()))) {
+        return false;
+      }
+    }
+    if ((mask & GGA) != 0 && GpsFixQualityType.INVALID.equals(gga.getFixQuality())) {
+      return false;
+    }
+    if ((mask & GLL) != 0 && DataStatusType.VOID.equals(gll.getStatus())) {
+      return false;
+    }
+    return true;
+  }
 
-    for (Sentence s : getSentences()) {
-
-      if (s instanceof RMCSentence) {
-        RMCSentence rmc = (RMCSentence) s;
-        DataStatusType ds = rmc.getStatus();
-        if (DataStatusType.VOID.equals(ds)
-          || (rmc.getFieldCount() > 11 && FaaModeType.NONE.equals(rmc.getMode()))) {
-          return false;
-        }
-      } else if (s instanceof GGASentence) {
-        GpsFixQualityType fq = ((GGASentence) s).getFixQuality();
-        if (GpsFixQualityType.INVALID.equals(fq)) {
-          return false;
-        }
-      } else if (s instanceof GLLSentence) {
-        DataStatusType ds = ((GLLSentence) s).getStatus();
-        if (DataStatusType.VOID.equals(ds)) {
-          return false;
-        }
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#readingStarted()
+   */
+  @Override
+  public void readingStarted() {
+    super.readingStarted();
+    clear();
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#readingStopped()
+   */
+  @Override
+  public void readingStopped() {
+    super.readingStopped();
+    clear();
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#sentenceRead(
+   * org.nmea.event.SentenceEvent)
+   */
+  @Override
+  public void sentenceRead(SentenceEvent event) {
+    Sentence s = event.getSentence();
+    int slot;
+    if (s instanceof RMCSentence) {
+      slot = RMC;
+    } else if (s instanceof GGASentence) {
+      slot = GGA;
+    } else if (s instanceof GLLSentence) {
+      slot = GLL;
+    } else if (s instanceof VTGSentence) {
+      slot = VTG;
+    } else {
+      return;
+    }
+
+    if (slot == RMC) {
+      hasRMC = true;
+    }
+
+    long time = slot == VTG ? NO_EPOCH : timeOf((TimeSentence) s);
+    if (time != NO_EPOCH && time != epoch) {
+      // new epoch; without RMC, keep VTG received after last report
+      mask = hasRMC ? 0 : mask & VTG;
+      epoch = time;
+      reported = false;
+    } else if (reported && (time != NO_EPOCH || hasRMC)) {
+      // late sentence of an epoch already reported
+      return;
+    }
+
+    // kept until the epoch is complete
+    s = event.retain().getSentence();
+    switch (slot) {
+      case RMC:
+        rmc = (RMCSentence) s;
+        break;
+      case GGA:
+        gga = (GGASentence) s;
+        break;
+      case GLL:
+        gll = (GLLSentence) s;
+        break;
+      default:
+        vtg = (VTGSentence) s;
+    }
+    mask |= slot;
+    received[Integer.numberOfTrailingZeros(slot)] = event.getTimeStamp();
+
+    if (isReady()) {
+      if (isFresh() && isValid()) {
+        fireProviderEvent(createProviderEvent());
       }
+      mask = 0;
+      reported = true;
     }
+  }
 
+  /**
+   * Tells if all captured sentences are within the maximum age.
+   */
+  private boolean isFresh() {
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < received.length; i++) {
+      if ((mask & (1 << i)) != 0 && now - received[i] > MAX_AGE) {
+        return false;
+      }
+    }
     return true;
   }
+
+  /**
+   * Clears all slots and the current epoch.
+   */
+  private void clear() {
+    rmc = null;
+    gga = null;
+    gll = null;
+    vtg = null;
+    mask = 0;
+    epoch = NO_EPOCH;
+    reported = false;
+    hasRMC = false;
+  }
+
+  /**
+   * Returns the time of day of a sentence in ms, or {@link #NO_EPOCH} if not
+   * available.
+   */
+  private static long timeOf(TimeSentence s) {
+    try {
+      return s.getTime().getMilliseconds();
+    } catch (DataNotAvailableException e) {
+      return NO_EPOCH;
+    }
+  }
 }
@@ -16,23 +16,43 @@
  */
 package ch.keybridge.lib.nmea.provider;
 
+import org.nmea.event.SentenceEvent;
 import org.nmea.io.SentenceReader;
 import org.nmea.sentence.GSASentence;
 import org.nmea.sentence.GSVSentence;
 import org.nmea.sentence.Sentence;
 import org.nmea.type.Satellite;
+import org.nmea.type.TalkerType;
 import ch.keybridge.lib.nmea.provider.event.SatelliteInfoEvent;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * SatelliteInfoProvider collects GPS satellite information from sequence of GSV
  * sentences and reports all the information in a single event.
+ * <p>
+ * GSV sequences are assembled separately per talker, so multi-constellation
+ * receivers interleaving e.g. GP, GL, GA and GB sequences are supported. The
+ * sequences completed within one epoch are reported together in one event. An
+ * epoch ends when a GSA sentence follows GSV sentences, or when a talker
+ * completes a second sequence; the event is dispatched early when all talkers
+ * of the previous epoch have completed their sequences.
  *
  * @author Kimmo Tuukkanen
  */
 public class SatelliteInfoProvider extends AbstractProvider<SatelliteInfoEvent> {
 
+  private final GSVAssembler assembler = new GSVAssembler();
+  // assembler slots completed in current epoch, and in last reported epoch
+  private final BitSet completed = new BitSet();
+  private final BitSet active = new BitSet();
+  private GSASentence gsa;
+  private boolean hasGSV;
+  private boolean reported;
+
   /**
    * Creates a new instance of SatelliteInfoProvider with specified reader.
    *
@@ -48,19 +68,12 @@ public class SatelliteInfoProvider extends AbstractProvider<SatelliteInfoEvent>
    */
   @Override
   protected SatelliteInfoEvent createProviderEvent() {
-
-    GSASentence gsa = null;
-    List<Satellite> info = new ArrayList<>();
-
-    for (Sentence sentence : getSentences()) {
-      if ("GSA".equals(sentence.getSentenceId())) {
-        gsa = (GSASentence) sentence;
-      } else if ("GSV".equals(sentence.getSentenceId())) {
-        GSVSentence gsv = (GSVSentence) sentence;
-        info.addAll(gsv.getSatelliteInfo());
-      }
+    Map<TalkerType, List<Satellite>> info = new EnumMap<>(TalkerType.class);
+    for (int i = completed.nextSetBit(0); i >= 0; i = completed.nextSetBit(i + 1)) {
+      // unrecognized talkers are reported together as UNKNOWN
+      List<Satellite> list = info.computeIfAbsent(assembler.talkerOf(i), t -> new ArrayList<>());
+      assembler.collect(i, list);
     }
-
     return new SatelliteInfoEvent(this, gsa, info);
   }
 
@@ -69,33 +82,101 @@ public class SatelliteInfoProvider extends AbstractProvider<SatelliteInfoEvent>
    */
   @Override
   protected boolean isReady() {
+    return gsa != null && !completed.isEmpty();
+  }
 
-    boolean hasFirstGSV = false;
-    boolean hasLastGSV = false;
-    boolean hasAllGSV = false;
-    int count = 0;
+  /*
+   * (non-Javadoc) @see org.nmea.provider.AbstractProvider#isValid()
+   */
+  @Override
+  protected boolean isValid() {
+    return true;
+  }
 
-    for (Sentence s : getSentences()) {
-      if ("GSV".equals(s.getSentenceId())) {
-        GSVSentence gsv = (GSVSentence) s;
-        if (!hasFirstGSV) {
-          hasFirstGSV = gsv.isFirst();
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#readingStarted()
+   */
+  @Override
+  public void readingStarted() {
+    super.readingStarted();
+    clear();
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#readingStopped()
+   */
+  @Override
+  public void readingStopped() {
+    super.readingStopped();
+    clear();
+  }
+
+  /*
+   * (non-Javadoc) @see
+   * org.nmea.provider.AbstractProvider#sentenceRead(
+   * org.nmea.event.SentenceEvent)
+   */
+  @Override
+  public void sentenceRead(SentenceEvent event) {
+    Sentence s = event.getSentence();
+    if (s instanceof GSASentence) {
+      if (hasGSV) {
+        endEpoch();
+      }
+      gsa = (GSASentence) event.retain().getSentence();
+    } else if (s instanceof GSVSentence) {
+      hasGSV = true;
+      int slot = assembler.add((GSVSentence) s);
+      if (slot >= 0) {
+        if (completed.get(slot)) {
+          endEpoch();
         }
-        if (!hasLastGSV) {
-          hasLastGSV = gsv.isLast();
+        completed.set(slot);
+        if (!reported && completed.equals(active)) {
+          report();
         }
-        hasAllGSV = (gsv.getSentenceCount() == ++count);
       }
     }
+  }
+
+  /**
+   * Reports the current epoch if not yet reported, and starts a new one.
+   */
+  private void endEpoch() {
+    if (!reported) {
+      report();
+    } else {
+      // learn talkers completed after the early report
+      active.or(completed);
+    }
+    completed.clear();
+    hasGSV = false;
+    reported = false;
+  }
 
-    return hasOne("GSA") && hasAllGSV && hasFirstGSV && hasLastGSV;
+  /**
+   * Dispatches the sequences completed in current epoch.
+   */
+  private void report() {
+    if (isReady()) {
+      fireProviderEvent(createProviderEvent());
+      active.clear();
+      active.or(completed);
+    }
+    reported = true;
   }
 
-  /*
-   * (non-Javadoc) @see org.nmea.provider.AbstractProvider#isValid()
+  /**
+   * Clears all captured data.
    */
-  @Override
-  protected boolean isValid() {
-    return true;
+  private void clear() {
+    assembler.clear();
+    completed.clear();
+    active.clear();
+    gsa = null;
+    hasGSV = false;
+    reported = false;
   }
 }
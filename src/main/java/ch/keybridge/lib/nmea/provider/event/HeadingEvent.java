@@ -40,6 +40,19 @@ public class HeadingEvent extends ProviderEvent {
     isTrue = s.isTrue();
   }
 
+  /**
+   * Creates a new instance with specified heading.
+   *
+   * @param source  Source object of event
+   * @param heading Heading in degrees
+   * @param isTrue  true if relative to true north, false if magnetic.
+   */
+  public HeadingEvent(Object source, double heading, boolean isTrue) {
+    super(source);
+    this.heading = heading;
+    this.isTrue = isTrue;
+  }
+
   /**
    * Returns the current heading.
    *
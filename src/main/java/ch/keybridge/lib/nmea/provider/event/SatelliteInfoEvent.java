@@ -20,7 +20,13 @@ import org.nmea.sentence.GSASentence;
 import org.nmea.type.FaaModeType;
 import org.nmea.type.GpsFixStatusType;
 import org.nmea.type.Satellite;
+import org.nmea.type.TalkerType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * SatelliteInfoEvent contains the satellite information collected by
@@ -37,6 +43,7 @@ public class SatelliteInfoEvent extends ProviderEvent {
 
   private final GSASentence gsa;
   private final List<Satellite> info;
+  private final Map<TalkerType, List<Satellite>> talkers;
 
   /**
    * @param source
@@ -46,6 +53,49 @@ public class SatelliteInfoEvent extends ProviderEvent {
     super(source);
     this.gsa = gsa;
     this.info = info;
+    this.talkers = Collections.emptyMap();
+  }
+
+  /**
+   * Creates an event with satellites of several constellations.
+   *
+   * @param source Source object of event
+   * @param gsa    Latest GSA sentence
+   * @param info   Satellites in view per talker, e.g. GP, GL and GA.
+   */
+  public SatelliteInfoEvent(
+    Object source, GSASentence gsa, Map<TalkerType, List<Satellite>> info) {
+    super(source);
+    this.gsa = gsa;
+    Map<TalkerType, List<Satellite>> copy = new EnumMap<>(TalkerType.class);
+    copy.putAll(info);
+    this.talkers = Collections.unmodifiableMap(copy);
+    List<Satellite> all = new ArrayList<>();
+    for (List<Satellite> list : info.values()) {
+      all.addAll(list);
+    }
+    this.info = all;
+  }
+
+  /**
+   * Returns the talkers of which satellite information is included.
+   *
+   * @return Set of talkers, empty if not known.
+   */
+  public Set<TalkerType> getTalkers() {
+    return talkers.keySet();
+  }
+
+  /**
+   * Returns the satellite information reported by a talker. Notice that
+   * satellite ids are unique only within a constellation.
+   *
+   * @param talker Talker, e.g. GL for GLONASS satellites.
+   * @return List of satellites, empty if none.
+   */
+  public List<Satellite> getSatelliteInfo(TalkerType talker) {
+    List<Satellite> list = talkers.get(talker);
+    return list == null ? Collections.<Satellite>emptyList() : list;
   }
 
   /**
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.nmea.event.SentenceEvent;
+import org.nmea.event.SentenceListener;
+import org.nmea.sentence.AISSentence;
+import org.nmea.sentence.Sentence;
+
+/**
+ * Sentence listener that drops duplicate AIS messages before passing sentences
+ * on to its own listeners. Every message is checked against the
+ * {@link AISDuplicateFilter} once, whatever the number of listeners, so the
+ * dispatcher may be registered in several readers receiving the same traffic
+ * and downstream listeners of any message type all receive each distinct
+ * message once.
+ * <p>
+ * Fragments of a multi-sentence message are held back until the last one
+ * arrives and are then dispatched together, or dropped if the message is a
+ * duplicate. Other sentences are passed on immediately.
+ *
+ * @author Key Bridge
+ */
+public class AISDuplicateDispatcher implements SentenceListener {
+
+  private static final Logger LOGGER = Logger.getLogger(AISDuplicateDispatcher.class.getName());
+  private static final String LOG_MSG = "Exception caught from SentenceListener";
+
+  private final AISDuplicateFilter filter;
+  private final List<SentenceListener> listeners = new CopyOnWriteArrayList<>();
+  // pending fragments by reader
+  private final Map<Object, List<SentenceEvent>> fragments = new HashMap<>();
+
+  /**
+   * Creates a new dispatcher.
+   *
+   * @param filter Duplicate filter to check messages with
+   * @throws IllegalArgumentException If filter is <code>null</code>.
+   */
+  public AISDuplicateDispatcher(AISDuplicateFilter filter) {
+    if (filter == null) {
+      throw new IllegalArgumentException("Filter cannot be null");
+    }
+    this.filter = filter;
+  }
+
+  /**
+   * Adds a listener to receive the sentences of distinct messages.
+   *
+   * @param listener Listener to add
+   */
+  public void addSentenceListener(SentenceListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener.
+   *
+   * @param listener Listener to remove
+   */
+  public void removeSentenceListener(SentenceListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Returns the duplicate filter.
+   *
+   * @return AISDuplicateFilter
+   */
+  public AISDuplicateFilter getFilter() {
+    return filter;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#sentenceRead(org.nmea.event.SentenceEvent)
+   */
+  @Override
+  public void sentenceRead(SentenceEvent event) {
+    Sentence s = event.getSentence();
+    if (!s.isAISSentence()) {
+      dispatch(event);
+      return;
+    }
+    AISSentence sentence = (AISSentence) s;
+    List<SentenceEvent> message;
+    synchronized (fragments) {
+      Object source = event.getSource();
+      if (sentence.isFirstFragment()) {
+        message = new ArrayList<>(sentence.getNumberOfFragments());
+        fragments.put(source, message);
+      } else {
+        message = fragments.get(source);
+        if (message == null) {
+          // first fragment missed
+          return;
+        }
+      }
+      if (!sentence.isLastFragment()) {
+        // kept until the last fragment arrives
+        message.add(event.retain());
+        return;
+      }
+      message.add(event);
+      fragments.remove(source);
+    }
+    AISSentence[] sentences = new AISSentence[message.size()];
+    for (int i = 0; i < sentences.length; i++) {
+      sentences[i] = (AISSentence) message.get(i).getSentence();
+    }
+    if (!filter.isDuplicate(sentences, event.getTimeStamp())) {
+      for (SentenceEvent e : message) {
+        dispatch(e);
+      }
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingPaused()
+   */
+  @Override
+  public void readingPaused() {
+    for (SentenceListener listener : listeners) {
+      try {
+        listener.readingPaused();
+      } catch (RuntimeException e) {
+        LOGGER.log(Level.WARNING, LOG_MSG, e);
+      }
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingStarted()
+   */
+  @Override
+  public void readingStarted() {
+    for (SentenceListener listener : listeners) {
+      try {
+        listener.readingStarted();
+      } catch (RuntimeException e) {
+        LOGGER.log(Level.WARNING, LOG_MSG, e);
+      }
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingStopped()
+   */
+  @Override
+  public void readingStopped() {
+    synchronized (fragments) {
+      fragments.clear();
+    }
+    for (SentenceListener listener : listeners) {
+      try {
+        listener.readingStopped();
+      } catch (RuntimeException e) {
+        LOGGER.log(Level.WARNING, LOG_MSG, e);
+      }
+    }
+  }
+
+  private void dispatch(SentenceEvent event) {
+    for (SentenceListener listener : listeners) {
+      try {
+        listener.sentenceRead(event);
+      } catch (RuntimeException e) {
+        LOGGER.log(Level.WARNING, LOG_MSG, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.event;
+
+import java.util.Arrays;
+import org.nmea.sentence.AISSentence;
+
+/**
+ * Detects AIS messages received more than once within a time window, for
+ * example through several base stations and a satellite feed. Messages are
+ * identified by a 64-bit hash of their armored payload, optionally ignoring the
+ * repeat indicator so that messages repeated by a station are also detected.
+ * <p>
+ * Hashes are stored in a rotating pair of Bloom filters: new hashes go in the
+ * current filter, which replaces the previous one after each window, so a
+ * message is remembered for at least one and at most two windows and memory
+ * does not depend on traffic volume. As with any Bloom filter, a small fraction
+ * of distinct messages may be reported as duplicates once the expected message
+ * count per window is exceeded.
+ * <p>
+ * Each call records the message, so a message must be checked exactly once:
+ * use a single {@link AISDuplicateDispatcher} in front of all listeners rather
+ * than checking in each listener.
+ *
+ * @author Key Bridge
+ * @see AISDuplicateDispatcher
+ */
+public class AISDuplicateFilter {
+
+  /**
+   * Default time window, 30 seconds.
+   */
+  public static final long DEFAULT_WINDOW = 30000;
+  /**
+   * Default expected number of messages per window.
+   */
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+  /**
+   * Number of hash functions, for about 1% false positives at capacity.
+   */
+  private static final int HASHES = 7;
+
+  private final long window;
+  private final boolean ignoreRepeat;
+  private final int mask;
+  private long[] current;
+  private long[] previous;
+  private long rotated = Long.MIN_VALUE;
+  private long messages;
+  private long duplicates;
+
+  /**
+   * Creates a new filter with default window and capacity, ignoring repeat
+   * indicator.
+   */
+  public AISDuplicateFilter() {
+    this(DEFAULT_WINDOW, DEFAULT_CAPACITY, true);
+  }
+
+  /**
+   * Creates a new filter.
+   *
+   * @param window       Time window in milliseconds
+   * @param capacity     Expected number of distinct messages per window
+   * @param ignoreRepeat Whether messages differing only by repeat indicator are
+   *                     duplicates
+   * @throws IllegalArgumentException If window or capacity is not positive.
+   */
+  public AISDuplicateFilter(long window, int capacity, boolean ignoreRepeat) {
+    if (window <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("Window and capacity must be positive");
+    }
+    // about 10 bits per message, rounded up to a power of two
+    int bits = Integer.highestOneBit(Math.min(capacity, 1 << 26) * 10 - 1) << 1;
+    this.window = window;
+    this.ignoreRepeat = ignoreRepeat;
+    this.mask = bits - 1;
+    this.current = new long[Math.max(1, bits >>> 6)];
+    this.previous = new long[current.length];
+  }
+
+  /**
+   * Tells whether a message has been seen within the time window, and
+   * remembers it.
+   *
+   * @param sentences All sentences of the message, in order
+   * @param time      Receive time in milliseconds
+   * @return true if the message is a duplicate.
+   */
+  public synchronized boolean isDuplicate(AISSentence[] sentences, long time) {
+    rotate(time);
+    long h = hash(sentences);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32) | 1;
+    boolean inCurrent = true;
+    boolean inPrevious = true;
+    for (int i = 0; i < HASHES; i++) {
+      int bit = (h1 + i * h2) & mask;
+      long word = 1L << bit;
+      int index = bit >>> 6;
+      inCurrent &= (current[index] & word) != 0;
+      inPrevious &= (previous[index] & word) != 0;
+      current[index] |= word;
+    }
+    messages++;
+    if (inCurrent || inPrevious) {
+      duplicates++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of messages checked.
+   *
+   * @return message count
+   */
+  public synchronized long getMessageCount() {
+    return messages;
+  }
+
+  /**
+   * Returns the number of messages found to be duplicates.
+   *
+   * @return duplicate count
+   */
+  public synchronized long getDuplicateCount() {
+    return duplicates;
+  }
+
+  /**
+   * Returns the fraction of messages found to be duplicates.
+   *
+   * @return hit rate from 0.0 to 1.0, or 0.0 if no messages checked.
+   */
+  public synchronized double getHitRate() {
+    return messages == 0 ? 0.0 : (double) duplicates / messages;
+  }
+
+  /**
+   * Forgets all messages and resets the counters.
+   */
+  public synchronized void clear() {
+    Arrays.fill(current, 0);
+    Arrays.fill(previous, 0);
+    rotated = Long.MIN_VALUE;
+    messages = 0;
+    duplicates = 0;
+  }
+
+  /**
+   * Replaces the previous filter by the current one after each window, or
+   * clears both after a gap of two windows.
+   */
+  private void rotate(long time) {
+    if (rotated == Long.MIN_VALUE) {
+      rotated = time;
+    } else if (time - rotated >= 2 * window) {
+      Arrays.fill(current, 0);
+      Arrays.fill(previous, 0);
+      rotated = time;
+    } else if (time - rotated >= window) {
+      long[] cleared = previous;
+      Arrays.fill(cleared, 0);
+      previous = current;
+      current = cleared;
+      rotated += window;
+    }
+  }
+
+  /**
+   * FNV-1a over the six-bit values of the payload, with a final mix.
+   */
+  private long hash(AISSentence[] sentences) {
+    long h = 0xCBF29CE484222325L;
+    for (int s = 0; s < sentences.length; s++) {
+      String payload = sentences[s].getPayload();
+      for (int i = 0; i < payload.length(); i++) {
+        int c = payload.charAt(i) - 48;
+        if (c > 40) {
+          c -= 8;
+        }
+        if (s == 0 && i == 1 && ignoreRepeat) {
+          // repeat indicator is the two highest bits of second character
+          c &= 0x0F;
+        }
+        h = (h ^ c) * 0x100000001B3L;
+      }
+    }
+    h = (h ^ sentences[sentences.length - 1].getFillBits()) * 0x100000001B3L;
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
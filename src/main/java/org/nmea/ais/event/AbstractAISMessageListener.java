@@ -24,7 +24,6 @@ import org.nmea.sentence.AISSentence;
 import org.nmea.sentence.Sentence;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -58,7 +57,12 @@ public abstract class AbstractAISMessageListener<T extends AISMessage> implement
   public void sentenceRead(SentenceEvent event) {
     Sentence s = event.getSentence();
     if (s.isAISSentence()) {
-      handleAIS((AISSentence) s);
+      AISSentence sentence = (AISSentence) s;
+      if (!sentence.isLastFragment()) {
+        // kept until the last fragment arrives
+        sentence = (AISSentence) event.retain().getSentence();
+      }
+      handleAIS(sentence);
     }
   }
 
@@ -76,15 +80,12 @@ public abstract class AbstractAISMessageListener<T extends AISMessage> implement
     if (sentence.isLastFragment()) {
       AISSentence[] sentences = queue.toArray(new AISSentence[queue.size()]);
       try {
-        AISMessage message = factory.create(sentences);
-        if (message != null) {
-          Class<?>[] interfaces = message.getClass().getInterfaces();
-          if (Arrays.asList(interfaces).contains(expectedMessageType)) {
-            onMessage((T) message);
-          }
+        AISMessage message = factory.decode(sentences);
+        if (expectedMessageType.isInstance(message)) {
+          onMessage((T) message);
         }
       } catch (IllegalArgumentException iae) {
-        // nevermind unsupported message types
+        // nevermind malformed messages
       }
     }
   }
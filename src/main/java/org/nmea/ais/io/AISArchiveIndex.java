@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.io;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Block table and per-MMSI posting lists of an AIS archive.
+ * <p>
+ * Index file format:
+ * <pre>
+ * [int magic][int block count]
+ * per block: [long offset][int compressed length][int raw length][int record count][long min time][long max time]
+ * [int MMSI count]
+ * per MMSI: [int mmsi][varint block count][varint block id delta]...
+ * </pre>
+ *
+ * @author Key Bridge
+ */
+class AISArchiveIndex {
+
+  private static final int MAGIC = 0x41495331; // "AIS1"
+
+  long[] offsets = new long[16];
+  int[] lengths = new int[16];
+  int[] rawLengths = new int[16];
+  int[] counts = new int[16];
+  long[] minTimes = new long[16];
+  long[] maxTimes = new long[16];
+  int size;
+  final Map<Integer, Postings> postings = new HashMap<>();
+
+  /**
+   * Returns the index file of specified archive data file.
+   */
+  static File getIndexFile(File file) {
+    return new File(file.getPath() + ".idx");
+  }
+
+  /**
+   * Appends a block to block table.
+   *
+   * @return Block id
+   */
+  int addBlock(long offset, int length, int rawLength, int count, long minTime, long maxTime) {
+    if (size == offsets.length) {
+      int n = size * 2;
+      offsets = Arrays.copyOf(offsets, n);
+      lengths = Arrays.copyOf(lengths, n);
+      rawLengths = Arrays.copyOf(rawLengths, n);
+      counts = Arrays.copyOf(counts, n);
+      minTimes = Arrays.copyOf(minTimes, n);
+      maxTimes = Arrays.copyOf(maxTimes, n);
+    }
+    offsets[size] = offset;
+    lengths[size] = length;
+    rawLengths[size] = rawLength;
+    counts[size] = count;
+    minTimes[size] = minTime;
+    maxTimes[size] = maxTime;
+    return size++;
+  }
+
+  /**
+   * Adds block to posting list of specified MMSI.
+   */
+  void addPosting(int mmsi, int block) {
+    Postings p = postings.get(mmsi);
+    if (p == null) {
+      p = new Postings();
+      postings.put(mmsi, p);
+    }
+    p.add(block);
+  }
+
+  /**
+   * Returns the end offset of last block, i.e. the length of valid data.
+   */
+  long getDataLength() {
+    return size == 0 ? 0 : offsets[size - 1] + lengths[size - 1];
+  }
+
+  /**
+   * Reads the index from file.
+   */
+  void load(File file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not an AIS archive index: " + file);
+      }
+      int blocks = in.readInt();
+      for (int i = 0; i < blocks; i++) {
+        addBlock(in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readLong(), in.readLong());
+      }
+      int n = in.readInt();
+      for (int i = 0; i < n; i++) {
+        Postings p = new Postings();
+        int mmsi = in.readInt();
+        int count = readVarInt(in);
+        p.blocks = new int[Math.max(count, 4)];
+        int block = 0;
+        for (int j = 0; j < count; j++) {
+          block += readVarInt(in);
+          p.blocks[j] = block;
+        }
+        p.size = count;
+        postings.put(mmsi, p);
+      }
+    }
+  }
+
+  /**
+   * Writes the index in file, replacing the file atomically.
+   */
+  void save(File file) throws IOException {
+    File tmp = new File(file.getPath() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(size);
+      for (int i = 0; i < size; i++) {
+        out.writeLong(offsets[i]);
+        out.writeInt(lengths[i]);
+        out.writeInt(rawLengths[i]);
+        out.writeInt(counts[i]);
+        out.writeLong(minTimes[i]);
+        out.writeLong(maxTimes[i]);
+      }
+      out.writeInt(postings.size());
+      for (Map.Entry<Integer, Postings> e : postings.entrySet()) {
+        Postings p = e.getValue();
+        out.writeInt(e.getKey());
+        writeVarInt(out, p.size);
+        int previous = 0;
+        for (int j = 0; j < p.size; j++) {
+          writeVarInt(out, p.blocks[j] - previous);
+          previous = p.blocks[j];
+        }
+      }
+    }
+    if (!tmp.renameTo(file)) {
+      file.delete();
+      if (!tmp.renameTo(file)) {
+        throw new IOException("Failed to replace index " + file);
+      }
+    }
+  }
+
+  private static void writeVarInt(DataOutput out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int readVarInt(DataInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  /**
+   * Ascending list of block ids containing messages of one MMSI.
+   */
+  static final class Postings {
+
+    int[] blocks = new int[4];
+    int size;
+
+    void add(int block) {
+      if (size > 0 && blocks[size - 1] == block) {
+        return;
+      }
+      if (size == blocks.length) {
+        blocks = Arrays.copyOf(blocks, size * 2);
+      }
+      blocks[size++] = block;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.io;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * Reads messages from an archive written by {@link AISArchiveWriter}. Queries
+ * by MMSI decompress only the blocks listed in the posting list of the MMSI and
+ * overlapping the requested time range, and decode only the payloads of
+ * matching messages.
+ *
+ * @author Key Bridge
+ * @see AISArchiveWriter
+ */
+public class AISArchiveReader implements Closeable {
+
+  private final AISArchiveIndex index = new AISArchiveIndex();
+  private final RandomAccessFile data;
+  private final Inflater inflater = new Inflater();
+  private byte[] compressed = new byte[8192];
+  private byte[] raw = new byte[8192];
+  private int position;
+
+  /**
+   * Opens an archive for reading.
+   *
+   * @param file Archive data file
+   * @throws IOException If the archive or its index cannot be read.
+   */
+  public AISArchiveReader(File file) throws IOException {
+    File indexFile = AISArchiveIndex.getIndexFile(file);
+    if (!indexFile.isFile()) {
+      throw new FileNotFoundException("Archive index not found: " + indexFile);
+    }
+    index.load(indexFile);
+    data = new RandomAccessFile(file, "r");
+  }
+
+  /**
+   * Returns the number of blocks in archive.
+   *
+   * @return block count
+   */
+  public int getBlockCount() {
+    return index.size;
+  }
+
+  /**
+   * Returns the MMSIs having messages in archive.
+   *
+   * @return Set of MMSIs
+   */
+  public Set<Integer> getMMSIs() {
+    return Collections.unmodifiableSet(index.postings.keySet());
+  }
+
+  /**
+   * Returns all messages of specified MMSI received within a time range, in
+   * archive order.
+   *
+   * @param mmsi MMSI to look for
+   * @param from Start of time range, inclusive (ms since epoch)
+   * @param to   End of time range, inclusive (ms since epoch)
+   * @return List of records, empty if none found.
+   * @throws IOException If reading fails.
+   */
+  public List<AISArchiveRecord> find(int mmsi, long from, long to) throws IOException {
+    List<AISArchiveRecord> result = new ArrayList<>();
+    AISArchiveIndex.Postings p = index.postings.get(mmsi);
+    if (p != null) {
+      for (int i = 0; i < p.size; i++) {
+        readBlock(p.blocks[i], mmsi, from, to, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns all messages received within a time range, in archive order.
+   *
+   * @param from Start of time range, inclusive (ms since epoch)
+   * @param to   End of time range, inclusive (ms since epoch)
+   * @return List of records, empty if none found.
+   * @throws IOException If reading fails.
+   */
+  public List<AISArchiveRecord> find(long from, long to) throws IOException {
+    List<AISArchiveRecord> result = new ArrayList<>();
+    for (int i = 0; i < index.size; i++) {
+      readBlock(i, -1, from, to, result);
+    }
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.io.Closeable#close()
+   */
+  @Override
+  public void close() throws IOException {
+    inflater.end();
+    data.close();
+  }
+
+  /**
+   * Decompresses a block overlapping the time range and collects the matching
+   * records; MMSI -1 matches any.
+   */
+  private void readBlock(int block, int mmsi, long from, long to, List<AISArchiveRecord> result) throws IOException {
+    if (index.maxTimes[block] < from || index.minTimes[block] > to) {
+      return;
+    }
+    int length = index.lengths[block];
+    int rawLength = index.rawLengths[block];
+    if (compressed.length < length) {
+      compressed = new byte[length];
+    }
+    if (raw.length < rawLength) {
+      raw = new byte[rawLength];
+    }
+    data.seek(index.offsets[block]);
+    data.readFully(compressed, 0, length);
+    inflater.reset();
+    inflater.setInput(compressed, 0, length);
+    try {
+      if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+        throw new IOException("Corrupted archive block " + block);
+      }
+    } catch (DataFormatException ex) {
+      throw new IOException("Corrupted archive block " + block, ex);
+    }
+
+    position = 0;
+    long time = 0;
+    for (int i = 0; i < index.counts[block]; i++) {
+      time += unzigzag(getVarLong());
+      int bits = (int) getVarLong();
+      int start = position;
+      int bytes = (bits + 7) >>> 3;
+      position += bytes;
+      if (time < from || time > to) {
+        continue;
+      }
+      // MMSI is bits 8-37 of payload
+      int m = (raw[start + 1] & 0xFF) << 22 | (raw[start + 2] & 0xFF) << 14
+        | (raw[start + 3] & 0xFF) << 6 | (raw[start + 4] & 0xFF) >>> 2;
+      if (mmsi >= 0 && m != mmsi) {
+        continue;
+      }
+      byte[] payload = Arrays.copyOfRange(raw, start, start + bytes);
+      result.add(new AISArchiveRecord(time, m, new Sixbit(payload, bits)));
+    }
+  }
+
+  private long getVarLong() {
+    long value = 0;
+    for (int shift = 0;; shift += 7) {
+      byte b = raw[position++];
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  private static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
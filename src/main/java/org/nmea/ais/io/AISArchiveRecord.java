@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.io;
+
+import org.nmea.ais.message.AISMessage;
+import org.nmea.ais.parser.AISMessageFactory;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * AIS message read from an archive, with its receive time.
+ *
+ * @author Key Bridge
+ * @see AISArchiveReader
+ */
+public class AISArchiveRecord {
+
+  private final long time;
+  private final int mmsi;
+  private final Sixbit payload;
+
+  /**
+   * Creates a new record.
+   *
+   * @param time    Receive time, milliseconds since epoch
+   * @param mmsi    MMSI of the message
+   * @param payload Message payload
+   */
+  public AISArchiveRecord(long time, int mmsi, Sixbit payload) {
+    this.time = time;
+    this.mmsi = mmsi;
+    this.payload = payload;
+  }
+
+  /**
+   * Returns the receive time.
+   *
+   * @return Milliseconds since epoch
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Returns the MMSI of the message.
+   *
+   * @return MMSI
+   */
+  public int getMMSI() {
+    return mmsi;
+  }
+
+  /**
+   * Returns the message type.
+   *
+   * @return message type
+   */
+  public int getMessageType() {
+    return payload.getInt(0, 6);
+  }
+
+  /**
+   * Returns the message payload bits.
+   *
+   * @return Sixbit
+   */
+  public Sixbit getPayload() {
+    return payload;
+  }
+
+  /**
+   * Decodes the message.
+   *
+   * @return AISMessage instance
+   * @throws IllegalArgumentException If the message type is not supported.
+   * @see AISMessageFactory#create(Sixbit)
+   */
+  public AISMessage getMessage() {
+    return AISMessageFactory.getInstance().create(payload);
+  }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.io;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.nmea.ais.parser.AISMessageParser;
+import org.nmea.ais.util.Sixbit;
+import org.nmea.sentence.AISSentence;
+
+/**
+ * Writes AIS messages in a compressed archive readable by
+ * {@link AISArchiveReader}.
+ * <p>
+ * Instead of the armored <code>!AIVDM</code> text, the archive stores the
+ * de-armored payload bits of each message, together with the time it was
+ * received. Messages are collected in blocks that are compressed with
+ * deflate. For each block the index records its time range, and for each MMSI
+ * the index keeps a posting list of the blocks containing its messages, so
+ * that the messages of one vessel can be read by decompressing only the
+ * matching blocks.
+ * <p>
+ * Each block is preceded in the data file by a header:
+ * <pre>
+ * [int compressed length][int raw length][int record count][long min time][long max time]
+ * </pre> Block record format, before compression:
+ * <pre>
+ * [varint zig-zag time delta][varint bit length][payload bytes]
+ * </pre> The index file is rewritten on {@link #flush()} and {@link #close()}.
+ * When an existing archive is opened, complete blocks written after the index
+ * was last saved are scanned and added to the index, a partial trailing block
+ * is discarded and new messages are appended.
+ *
+ * @author Key Bridge
+ * @see AISArchiveReader
+ */
+public class AISArchiveWriter implements Closeable, Flushable {
+
+  /**
+   * Default uncompressed block size in bytes.
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+  /**
+   * Length of the block header in bytes.
+   */
+  private static final int HEADER_LENGTH = 28;
+
+  private final File file;
+  private final int blockSize;
+  private final AISArchiveIndex index = new AISArchiveIndex();
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final DataOutputStream out;
+  private long offset;
+
+  // current block
+  private byte[] raw;
+  private int position;
+  private int count;
+  private long minTime;
+  private long maxTime;
+  private long lastTime;
+  private byte[] compressed = new byte[8192];
+
+  /**
+   * Creates a new writer with default block size.
+   *
+   * @param file Archive data file
+   * @throws IOException If the archive cannot be opened.
+   */
+  public AISArchiveWriter(File file) throws IOException {
+    this(file, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Creates a new writer.
+   *
+   * @param file      Archive data file
+   * @param blockSize Uncompressed block size in bytes
+   * @throws IOException If the archive cannot be opened.
+   */
+  public AISArchiveWriter(File file, int blockSize) throws IOException {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("Block size must be positive");
+    }
+    this.file = file;
+    this.blockSize = blockSize;
+    this.raw = new byte[blockSize + 64];
+    File indexFile = AISArchiveIndex.getIndexFile(file);
+    if (indexFile.isFile()) {
+      index.load(indexFile);
+    }
+    offset = index.getDataLength();
+    if (file.length() > offset) {
+      recover();
+    }
+    this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+  }
+
+  /**
+   * Writes an AIS message.
+   *
+   * @param time      Receive time, milliseconds since epoch
+   * @param sentences One or more AIS sentences of the message in correct
+   *                  sequence order.
+   * @throws IOException If writing fails.
+   */
+  public void write(long time, AISSentence... sentences) throws IOException {
+    AISMessageParser parser = new AISMessageParser();
+    for (AISSentence v : sentences) {
+      parser.append(v.getPayload(), v.getFragmentNumber(), v.getFillBits());
+    }
+    write(time, parser.getMessageBody());
+  }
+
+  /**
+   * Writes an AIS message.
+   *
+   * @param time    Receive time, milliseconds since epoch
+   * @param payload Message payload
+   * @throws IOException If writing fails.
+   */
+  public void write(long time, Sixbit payload) throws IOException {
+    int length = payload.length();
+    if (length < 38) {
+      throw new IllegalArgumentException("Payload too short: " + length);
+    }
+    byte[] bits = payload.toByteArray();
+    if (raw.length - position < bits.length + 15) {
+      raw = Arrays.copyOf(raw, Math.max(raw.length * 2, position + bits.length + 15));
+    }
+    if (count == 0) {
+      minTime = time;
+      maxTime = time;
+      lastTime = 0;
+    } else {
+      minTime = Math.min(minTime, time);
+      maxTime = Math.max(maxTime, time);
+    }
+    putVarLong(zigzag(time - lastTime));
+    putVarLong(length);
+    System.arraycopy(bits, 0, raw, position, bits.length);
+    position += bits.length;
+    lastTime = time;
+    count++;
+    index.addPosting(payload.getInt(8, 38), index.size);
+    if (position >= blockSize) {
+      writeBlock();
+    }
+  }
+
+  /**
+   * Writes the current block and the index.
+   *
+   * @throws IOException If writing fails.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (count > 0) {
+      writeBlock();
+    }
+    out.flush();
+    index.save(AISArchiveIndex.getIndexFile(file));
+  }
+
+  /**
+   * Writes the current block and the index, and closes the archive.
+   *
+   * @throws IOException If writing fails.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      out.close();
+      deflater.end();
+    }
+  }
+
+  /**
+   * Compresses and writes the current block.
+   */
+  private void writeBlock() throws IOException {
+    deflater.reset();
+    deflater.setInput(raw, 0, position);
+    deflater.finish();
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == compressed.length) {
+        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+      }
+      length += deflater.deflate(compressed, length, compressed.length - length);
+    }
+    out.writeInt(length);
+    out.writeInt(position);
+    out.writeInt(count);
+    out.writeLong(minTime);
+    out.writeLong(maxTime);
+    out.write(compressed, 0, length);
+    index.addBlock(offset + HEADER_LENGTH, length, position, count, minTime, maxTime);
+    offset += HEADER_LENGTH + length;
+    position = 0;
+    count = 0;
+  }
+
+  /**
+   * Adds the complete blocks following the indexed data to the index and
+   * truncates a partial trailing block, then saves the index if it changed.
+   */
+  private void recover() throws IOException {
+    int blocks = index.size;
+    Inflater inflater = new Inflater();
+    try (RandomAccessFile f = new RandomAccessFile(file, "rw")) {
+      long end = f.length();
+      while (end - offset >= HEADER_LENGTH) {
+        f.seek(offset);
+        int length = f.readInt();
+        int rawLength = f.readInt();
+        int records = f.readInt();
+        long min = f.readLong();
+        long max = f.readLong();
+        if (length <= 0 || rawLength <= 0 || records <= 0
+          || end - offset - HEADER_LENGTH < length) {
+          break;
+        }
+        byte[] data = new byte[length];
+        byte[] block = new byte[rawLength];
+        f.readFully(data);
+        inflater.reset();
+        inflater.setInput(data);
+        try {
+          if (inflater.inflate(block) != rawLength || !inflater.finished()) {
+            break;
+          }
+        } catch (DataFormatException ex) {
+          break;
+        }
+        int id = index.size;
+        int[] mmsis = readMMSIs(block, records);
+        if (mmsis == null) {
+          break;
+        }
+        for (int mmsi : mmsis) {
+          index.addPosting(mmsi, id);
+        }
+        index.addBlock(offset + HEADER_LENGTH, length, rawLength, records, min, max);
+        offset += HEADER_LENGTH + length;
+      }
+      if (end > offset) {
+        // drop partial trailing block
+        f.setLength(offset);
+      }
+    } finally {
+      inflater.end();
+    }
+    if (index.size > blocks) {
+      index.save(AISArchiveIndex.getIndexFile(file));
+    }
+  }
+
+  /**
+   * Returns the MMSI of each record of a decompressed block, or null if the
+   * block is malformed.
+   */
+  private static int[] readMMSIs(byte[] block, int records) {
+    int[] mmsis = new int[records];
+    int p = 0;
+    for (int i = 0; i < records; i++) {
+      long bits = 0;
+      for (int n = 0; n < 2; n++) {
+        // time delta, then bit length
+        bits = 0;
+        for (int shift = 0;; shift += 7) {
+          if (p == block.length || shift > 63) {
+            return null;
+          }
+          byte b = block[p++];
+          bits |= (long) (b & 0x7F) << shift;
+          if (b >= 0) {
+            break;
+          }
+        }
+      }
+      int bytes = (int) ((bits + 7) >>> 3);
+      if (bits < 38 || block.length - p < bytes) {
+        return null;
+      }
+      // MMSI is bits 8-37 of payload
+      mmsis[i] = (block[p + 1] & 0xFF) << 22 | (block[p + 2] & 0xFF) << 14
+        | (block[p + 3] & 0xFF) << 6 | (block[p + 4] & 0xFF) >>> 2;
+      p += bytes;
+    }
+    return p == block.length ? mmsis : null;
+  }
+
+  private void putVarLong(long value) {
+    while ((value & ~0x7FL) != 0) {
+      raw[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    raw[position++] = (byte) value;
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+}
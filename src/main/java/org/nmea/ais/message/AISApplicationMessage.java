@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Application specific message carried in the data of a binary message (type 6
+ * or 8), identified by its Designated Area Code and Function Identifier.
+ *
+ * @author Key Bridge
+ * @see org.nmea.ais.parser.AISApplicationFactory
+ */
+public interface AISApplicationMessage {
+
+  /**
+   * Returns the Designated Area Code (DAC) of the application.
+   *
+   * @return DAC, 1 for international applications
+   */
+  int getDesignatedAreaCode();
+
+  /**
+   * Returns the Function Identifier (FI) of the application.
+   *
+   * @return FI, 0-63
+   */
+  int getFunctionalId();
+
+  /**
+   * Returns the binary message carrying the application data.
+   *
+   * @return binary message
+   */
+  AISBinaryMessage getMessage();
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Area Notice (IMO SN.1/Circ.289, DAC 1, FI 22).
+ *
+ * @author Key Bridge
+ */
+public interface AISAreaNotice extends AISApplicationMessage {
+
+  /**
+   * Returns the message linkage id, linking related messages.
+   *
+   * @return linkage id
+   */
+  int getLinkageId();
+
+  /**
+   * Returns the type of notice.
+   *
+   * @return notice type, 0-127
+   */
+  int getNoticeType();
+
+  /**
+   * Returns the UTC month of start time.
+   *
+   * @return month 1-12, 0 if not available
+   */
+  int getMonth();
+
+  /**
+   * Returns the UTC day of start time.
+   *
+   * @return day 1-31, 0 if not available
+   */
+  int getDay();
+
+  /**
+   * Returns the UTC hour of start time.
+   *
+   * @return hour 0-23, 24 if not available
+   */
+  int getHour();
+
+  /**
+   * Returns the UTC minute of start time.
+   *
+   * @return minute 0-59, 60 if not available
+   */
+  int getMinute();
+
+  /**
+   * Returns the duration of the notice.
+   *
+   * @return minutes, 262143 if undefined
+   */
+  int getDuration();
+
+  /**
+   * Returns the number of sub-areas defining the area.
+   *
+   * @return sub-area count
+   */
+  int getSubAreaCount();
+
+  /**
+   * Returns the shape of a sub-area.
+   *
+   * @param index Sub-area index, 0 to count - 1
+   * @return 0 = circle or point, 1 = rectangle, 2 = sector, 3 = polyline,
+   *         4 = polygon, 5 = text
+   */
+  int getSubAreaShape(int index);
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * Common interface of binary messages (types 6 and 8), carrying application
+ * data identified by a Designated Area Code and a Function Identifier.
+ *
+ * @author Key Bridge
+ */
+public interface AISBinaryMessage extends AISMessage {
+
+  /**
+   * Returns the Designated Area Code (DAC) of the application.
+   *
+   * @return DAC, 1 for international applications
+   */
+  int getDesignatedAreaCode();
+
+  /**
+   * Returns the Function Identifier (FI) of the application.
+   *
+   * @return FI, 0-63
+   */
+  int getFunctionalId();
+
+  /**
+   * Returns the application data following the DAC and FI.
+   *
+   * @return application data bits
+   */
+  Sixbit getData();
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Binary Addressed Message
+ * <p>
+ * Binary data addressed to a single station. Total number of bits is 88 to
+ * 1008.
+ *
+ * @author Key Bridge
+ */
+public interface AISMessage06 extends AISBinaryMessage {
+
+  /**
+   * Returns the sequence number of the message.
+   *
+   * @return sequence number, 0-3
+   */
+  int getSequenceNumber();
+
+  /**
+   * Returns the MMSI of the destination station.
+   *
+   * @return destination MMSI
+   */
+  int getDestinationMMSI();
+
+  /**
+   * Returns the retransmit flag.
+   *
+   * @return true if the message has been retransmitted
+   */
+  boolean getRetransmitFlag();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Safety-Related Broadcast Message
+ * <p>
+ * Text broadcast to all stations. Total number of bits is 40 to 1008.
+ *
+ * @author Key Bridge
+ */
+public interface AISMessage14 extends AISMessage {
+
+  /**
+   * Returns the text of the message.
+   *
+   * @return text, up to 161 characters
+   */
+  String getText();
+}
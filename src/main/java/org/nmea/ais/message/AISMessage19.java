@@ -52,6 +52,12 @@ public interface AISMessage19 extends AISPositionReportB {
    */
   int getPort();
 
+  /**
+   * Returns the distance from the reference point to the starboard side of the
+   * ship.
+   */
+  int getStarboard();
+
   /**
    * Returns the type of electronic position fixing device.
    *
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Data Link Management Message
+ * <p>
+ * Reserves slots for base stations. Total number of bits is 72 to 160.
+ *
+ * @author Key Bridge
+ */
+public interface AISMessage20 extends AISMessage {
+
+  /**
+   * Returns the number of slot reservations in the message.
+   *
+   * @return reservation count, 1-4
+   */
+  int getReservationCount();
+
+  /**
+   * Returns the reserved offset number of a reservation.
+   *
+   * @param index Reservation index, 0 to count - 1
+   * @return offset number
+   */
+  int getOffsetNumber(int index);
+
+  /**
+   * Returns the number of reserved consecutive slots of a reservation.
+   *
+   * @param index Reservation index, 0 to count - 1
+   * @return number of slots, 1-15
+   */
+  int getNumberOfSlots(int index);
+
+  /**
+   * Returns the time-out of a reservation.
+   *
+   * @param index Reservation index, 0 to count - 1
+   * @return time-out in minutes
+   */
+  int getTimeout(int index);
+
+  /**
+   * Returns the increment of a reservation.
+   *
+   * @param index Reservation index, 0 to count - 1
+   * @return increment in slots
+   */
+  int getIncrement(int index);
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Channel Management
+ * <p>
+ * Assigns channels and transmit modes to stations within a region or to
+ * addressed stations. Total number of bits is 168.
+ *
+ * @author Key Bridge
+ */
+public interface AISMessage22 extends AISMessage {
+
+  /**
+   * Returns the channel number of channel A.
+   *
+   * @return channel number (ITU-R M.1084)
+   */
+  int getChannelA();
+
+  /**
+   * Returns the channel number of channel B.
+   *
+   * @return channel number (ITU-R M.1084)
+   */
+  int getChannelB();
+
+  /**
+   * Returns the transmit/receive mode.
+   *
+   * @return 0 = TxA/TxB, RxA/RxB; 1 = TxA, RxA/RxB; 2 = TxB, RxA/RxB
+   */
+  int getTxRxMode();
+
+  /**
+   * Returns the power level.
+   *
+   * @return true for low power
+   */
+  boolean isLowPower();
+
+  /**
+   * Tells whether the message is addressed to stations instead of a region.
+   *
+   * @return true if addressed
+   */
+  boolean isAddressed();
+
+  /**
+   * Returns the MMSI of the first addressed station.
+   *
+   * @return MMSI, or -1 if not addressed
+   */
+  int getDestinationMMSI1();
+
+  /**
+   * Returns the MMSI of the second addressed station.
+   *
+   * @return MMSI, or -1 if not addressed
+   */
+  int getDestinationMMSI2();
+
+  /**
+   * Returns the longitude of the north-east corner of the region.
+   *
+   * @return longitude in degrees, NaN if addressed
+   */
+  double getNorthEastLongitude();
+
+  /**
+   * Returns the latitude of the north-east corner of the region.
+   *
+   * @return latitude in degrees, NaN if addressed
+   */
+  double getNorthEastLatitude();
+
+  /**
+   * Returns the longitude of the south-west corner of the region.
+   *
+   * @return longitude in degrees, NaN if addressed
+   */
+  double getSouthWestLongitude();
+
+  /**
+   * Returns the latitude of the south-west corner of the region.
+   *
+   * @return latitude in degrees, NaN if addressed
+   */
+  double getSouthWestLatitude();
+
+  /**
+   * Returns the bandwidth flag of channel A.
+   *
+   * @return true for 12.5 kHz
+   */
+  boolean getChannelABandwidth();
+
+  /**
+   * Returns the bandwidth flag of channel B.
+   *
+   * @return true for 12.5 kHz
+   */
+  boolean getChannelBBandwidth();
+
+  /**
+   * Returns the size of the transitional zone.
+   *
+   * @return zone size in nautical miles minus one, 0-7
+   */
+  int getZoneSize();
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Group Assignment Command
+ * <p>
+ * Assigns reporting parameters to stations within a region, selected by
+ * station type and ship type. Total number of bits is 160.
+ *
+ * @author Key Bridge
+ */
+public interface AISMessage23 extends AISMessage {
+
+  /**
+   * Returns the longitude of the north-east corner of the region.
+   *
+   * @return longitude in degrees
+   */
+  double getNorthEastLongitude();
+
+  /**
+   * Returns the latitude of the north-east corner of the region.
+   *
+   * @return latitude in degrees
+   */
+  double getNorthEastLatitude();
+
+  /**
+   * Returns the longitude of the south-west corner of the region.
+   *
+   * @return longitude in degrees
+   */
+  double getSouthWestLongitude();
+
+  /**
+   * Returns the latitude of the south-west corner of the region.
+   *
+   * @return latitude in degrees
+   */
+  double getSouthWestLatitude();
+
+  /**
+   * Returns the station type selected.
+   *
+   * @return station type, 0 for all
+   */
+  int getStationType();
+
+  /**
+   * Returns the type of ship and cargo selected.
+   *
+   * @return ship type, 0 for all
+   */
+  int getTypeOfShipAndCargoType();
+
+  /**
+   * Returns the transmit/receive mode.
+   *
+   * @return 0 = TxA/TxB, RxA/RxB; 1 = TxA, RxA/RxB; 2 = TxB, RxA/RxB
+   */
+  int getTxRxMode();
+
+  /**
+   * Returns the assigned reporting interval.
+   *
+   * @return reporting interval code, 0-15
+   */
+  int getReportingInterval();
+
+  /**
+   * Returns the quiet time.
+   *
+   * @return quiet time in minutes, 0 for none
+   */
+  int getQuietTime();
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Long Range AIS Broadcast Message
+ * <p>
+ * Position report for long range (satellite) reception, with reduced
+ * resolution. Total number of bits is 96.
+ *
+ * @author Key Bridge
+ */
+public interface AISMessage27 extends AISPositionInfo {
+
+  /**
+   * Returns the RAIM flag.
+   *
+   * @return RAIM flag
+   */
+  boolean getRAIMFlag();
+
+  /**
+   * Returns the navigational status.
+   *
+   * @return navigational status
+   * @see org.nmea.ais.util.NavigationalStatus
+   */
+  int getNavigationalStatus();
+
+  /**
+   * Returns the speed over ground.
+   *
+   * @return speed in knots, 63 if not available
+   */
+  int getSpeedOverGround();
+
+  /**
+   * Returns the course over ground.
+   *
+   * @return course in degrees, 511 if not available
+   */
+  int getCourseOverGround();
+
+  /**
+   * Returns the GNSS position status.
+   *
+   * @return true if position is not from current GNSS fix
+   */
+  boolean getGNSSPositionStatus();
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.message;
+
+/**
+ * Meteorological and Hydrographic Data (IMO SN.1/Circ.289, DAC 1, FI 31).
+ * <p>
+ * Values are in the units of the message, with the special values indicating
+ * data not available as documented on each method.
+ *
+ * @author Key Bridge
+ */
+public interface AISMeteoHydroData extends AISApplicationMessage {
+
+  /**
+   * Returns the longitude of the station.
+   *
+   * @return longitude in degrees, 181 if not available
+   */
+  double getLongitudeInDegrees();
+
+  /**
+   * Returns the latitude of the station.
+   *
+   * @return latitude in degrees, 91 if not available
+   */
+  double getLatitudeInDegrees();
+
+  /**
+   * Returns the position accuracy.
+   *
+   * @return true for high accuracy
+   */
+  boolean getPositionAccuracy();
+
+  /**
+   * Returns the UTC day of the observation.
+   *
+   * @return day 1-31, 0 if not available
+   */
+  int getUtcDay();
+
+  /**
+   * Returns the UTC hour of the observation.
+   *
+   * @return hour 0-23, 24 if not available
+   */
+  int getUtcHour();
+
+  /**
+   * Returns the UTC minute of the observation.
+   *
+   * @return minute 0-59, 60 if not available
+   */
+  int getUtcMinute();
+
+  /**
+   * Returns the average wind speed over the last 10 minutes.
+   *
+   * @return knots, 127 if not available
+   */
+  int getWindSpeed();
+
+  /**
+   * Returns the wind gust speed over the last 10 minutes.
+   *
+   * @return knots, 127 if not available
+   */
+  int getWindGust();
+
+  /**
+   * Returns the wind direction.
+   *
+   * @return degrees, 360 if not available
+   */
+  int getWindDirection();
+
+  /**
+   * Returns the air temperature.
+   *
+   * @return 1/10 degrees Celsius, -1024 if not available
+   */
+  int getAirTemperature();
+
+  /**
+   * Returns the relative humidity.
+   *
+   * @return percent, 101 if not available
+   */
+  int getRelativeHumidity();
+
+  /**
+   * Returns the dew point.
+   *
+   * @return 1/10 degrees Celsius, 501 if not available
+   */
+  int getDewPoint();
+
+  /**
+   * Returns the air pressure.
+   *
+   * @return hPa, 1310 if not available
+   */
+  int getAirPressure();
+
+  /**
+   * Returns the horizontal visibility.
+   *
+   * @return 1/10 nautical miles, 127 if not available
+   */
+  int getVisibility();
+
+  /**
+   * Returns the water level, including tide, relative to chart datum.
+   *
+   * @return 1/100 meters, 3001 if not available
+   */
+  int getWaterLevel();
+
+  /**
+   * Returns the significant wave height.
+   *
+   * @return 1/10 meters, 251 if not available
+   */
+  int getWaveHeight();
+
+  /**
+   * Returns the water temperature.
+   *
+   * @return 1/10 degrees Celsius, 501 if not available
+   */
+  int getWaterTemperature();
+
+  /**
+   * Returns the salinity.
+   *
+   * @return 1/10 parts per thousand, 501 if not available
+   */
+  int getSalinity();
+}
@@ -21,7 +21,7 @@ package org.nmea.ais.message;
  *
  * @author Lázár József
  */
-interface AISPositionInfo extends AISMessage {
+public interface AISPositionInfo extends AISMessage {
 
   /**
    * Returns the position accuracy.
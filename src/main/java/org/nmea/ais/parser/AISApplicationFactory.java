@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import org.nmea.ais.message.AISApplicationMessage;
+import org.nmea.ais.message.AISBinaryMessage;
+import org.nmea.ais.message.AISMessage;
+import org.nmea.sentence.AISSentence;
+
+/**
+ * Factory for decoding the application data of binary messages (types 6 and
+ * 8), dispatching on Designated Area Code and Function Identifier.
+ * <p>
+ * Decoders are held in a table indexed by the 16 bits of DAC and FI, so
+ * dispatch is an array lookup. The table includes decoders for the
+ * international (DAC 1) Area Notice (FI 22) and Meteorological and Hydrographic
+ * Data (FI 31) and may be extended with {@link #register(int, int, Function)}.
+ * {@link #decode(AISSentence...)} reads DAC and FI from the armored payload and
+ * skips messages without a decoder before de-armoring the rest of the payload.
+ * <p>
+ * Example:
+ * <pre>
+ * AISApplicationMessage m = AISApplicationFactory.getInstance().decode(sentences);
+ * if (m instanceof AISMeteoHydroData) {
+ *   ...
+ * }
+ * </pre>
+ *
+ * @author Key Bridge
+ */
+public class AISApplicationFactory {
+
+  private static final AISApplicationFactory INSTANCE = new AISApplicationFactory();
+  private final AtomicReferenceArray<Function<AISBinaryMessage, ? extends AISApplicationMessage>> decoders
+    = new AtomicReferenceArray<>(1 << 16);
+
+  /**
+   * Hidden constructor.
+   */
+  private AISApplicationFactory() {
+    register(1, 22, AISAreaNoticeParser::new);
+    register(1, 31, AISMeteoHydroParser::new);
+  }
+
+  /**
+   * Returns the factory singleton.
+   *
+   * @return AISApplicationFactory
+   */
+  public static AISApplicationFactory getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers a decoder for an application, replacing the existing one.
+   *
+   * @param dac     Designated Area Code, 0-1023
+   * @param fi      Function Identifier, 0-63
+   * @param decoder Function creating the application message from a binary
+   *                message; may throw IllegalArgumentException for malformed
+   *                data.
+   * @throws IllegalArgumentException If DAC or FI is out of range, or decoder
+   *                                  is <code>null</code>.
+   */
+  public void register(int dac, int fi, Function<AISBinaryMessage, ? extends AISApplicationMessage> decoder) {
+    if (decoder == null) {
+      throw new IllegalArgumentException("Decoder cannot be null");
+    }
+    decoders.set(indexOf(dac, fi), decoder);
+  }
+
+  /**
+   * Removes the decoder of an application.
+   *
+   * @param dac Designated Area Code, 0-1023
+   * @param fi  Function Identifier, 0-63
+   * @throws IllegalArgumentException If DAC or FI is out of range.
+   */
+  public void unregister(int dac, int fi) {
+    decoders.set(indexOf(dac, fi), null);
+  }
+
+  /**
+   * Tells whether an application has a decoder.
+   *
+   * @param dac Designated Area Code
+   * @param fi  Function Identifier
+   * @return true if supported
+   */
+  public boolean isSupported(int dac, int fi) {
+    return dac >= 0 && dac < 1024 && fi >= 0 && fi < 64 && decoders.get(dac << 6 | fi) != null;
+  }
+
+  /**
+   * Decodes the application data of a binary message.
+   *
+   * @param message Binary message
+   * @return Application message, or <code>null</code> if the application is not
+   *         supported.
+   * @throws IllegalArgumentException If the application data is malformed.
+   */
+  public AISApplicationMessage decode(AISBinaryMessage message) {
+    Function<AISBinaryMessage, ? extends AISApplicationMessage> decoder
+      = decoders.get(message.getDesignatedAreaCode() << 6 | message.getFunctionalId());
+    return decoder == null ? null : decoder.apply(message);
+  }
+
+  /**
+   * Decodes the application data of a binary message from its sentences. The
+   * message type, DAC and FI are read from the armored payload, so messages of
+   * other types or unsupported applications are skipped without decoding.
+   *
+   * @param sentences One or more AIS sentences in correct sequence order.
+   * @return Application message, or <code>null</code> if not a binary message
+   *         or the application is not supported.
+   * @throws IllegalArgumentException If the message is malformed.
+   */
+  public AISApplicationMessage decode(AISSentence... sentences) {
+    String payload = sentences[0].getPayload();
+    int type = peek(payload, 0, 6);
+    int offset;
+    if (type == 6) {
+      offset = 72;
+    } else if (type == 8) {
+      offset = 40;
+    } else {
+      return null;
+    }
+    int index = peek(payload, offset, 16);
+    if (index < 0 || decoders.get(index) == null) {
+      return null;
+    }
+    AISMessage message = AISMessageFactory.getInstance().decode(sentences);
+    return message instanceof AISBinaryMessage ? decode((AISBinaryMessage) message) : null;
+  }
+
+  /**
+   * Reads bits from armored payload characters.
+   *
+   * @return value, or -1 if payload is too short or invalid.
+   */
+  private static int peek(String payload, int from, int bits) {
+    int first = from / 6;
+    int last = (from + bits - 1) / 6;
+    if (payload == null || payload.length() <= last) {
+      return -1;
+    }
+    long value = 0;
+    for (int i = first; i <= last; i++) {
+      int c = payload.charAt(i) - 48;
+      if (c > 40) {
+        c -= 8;
+      }
+      if (c < 0 || c > 63) {
+        return -1;
+      }
+      value = value << 6 | c;
+    }
+    int shift = (last + 1) * 6 - from - bits;
+    return (int) (value >>> shift) & ((1 << bits) - 1);
+  }
+
+  private static int indexOf(int dac, int fi) {
+    if (dac < 0 || dac >= 1024 || fi < 0 || fi >= 64) {
+      throw new IllegalArgumentException("Invalid DAC/FI: " + dac + "/" + fi);
+    }
+    return dac << 6 | fi;
+  }
+}
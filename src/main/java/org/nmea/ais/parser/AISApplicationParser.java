@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISApplicationMessage;
+import org.nmea.ais.message.AISBinaryMessage;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * Base class of application message parsers. Fields are not decoded up front:
+ * getters read them from the application data bits on each call, so consumers
+ * pay only for the fields they use.
+ *
+ * @author Key Bridge
+ * @see AISApplicationFactory
+ */
+public abstract class AISApplicationParser implements AISApplicationMessage {
+
+  private final AISBinaryMessage message;
+  private final Sixbit data;
+
+  /**
+   * Creates a new parser.
+   *
+   * @param message    Binary message carrying the application data
+   * @param dataLength Minimum length of application data, in bits
+   * @throws IllegalArgumentException If the application data is too short.
+   */
+  protected AISApplicationParser(AISBinaryMessage message, int dataLength) {
+    this.message = message;
+    this.data = message.getData();
+    if (data.length() < dataLength) {
+      throw new IllegalArgumentException("Wrong application data length");
+    }
+  }
+
+  @Override
+  public int getDesignatedAreaCode() {
+    return message.getDesignatedAreaCode();
+  }
+
+  @Override
+  public int getFunctionalId() {
+    return message.getFunctionalId();
+  }
+
+  @Override
+  public AISBinaryMessage getMessage() {
+    return message;
+  }
+
+  /**
+   * Returns the application data bits.
+   *
+   * @return data bits
+   */
+  protected Sixbit getData() {
+    return data;
+  }
+
+  /**
+   * Reads an unsigned integer from the application data.
+   *
+   * @param from begin index (inclusive)
+   * @param to   end index (exclusive)
+   * @return unsigned value
+   */
+  protected int getInt(int from, int to) {
+    return data.getInt(from, to);
+  }
+
+  /**
+   * Reads a two's complement integer from the application data.
+   *
+   * @param from begin index (inclusive)
+   * @param to   end index (exclusive)
+   * @return signed value
+   */
+  protected int getSignedInt(int from, int to) {
+    int value = data.getInt(from, to);
+    int sign = 1 << (to - from - 1);
+    return value >= sign ? value - (sign << 1) : value;
+  }
+
+  /**
+   * Reads a single bit from the application data.
+   *
+   * @param index bit index
+   * @return bit value
+   */
+  protected boolean getBoolean(int index) {
+    return data.getBoolean(index + 1);
+  }
+}
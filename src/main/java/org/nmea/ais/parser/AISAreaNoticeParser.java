@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISAreaNotice;
+import org.nmea.ais.message.AISBinaryMessage;
+
+/**
+ * Area Notice, DAC 1, FI 22. The header is followed by sub-areas of 87 bits
+ * each, starting with a 3-bit shape.
+ *
+ * @author Key Bridge
+ */
+class AISAreaNoticeParser extends AISApplicationParser implements AISAreaNotice {
+
+  private static final int HEADER = 55;
+  private static final int SUBAREA = 87;
+
+  public AISAreaNoticeParser(AISBinaryMessage message) {
+    super(message, HEADER);
+  }
+
+  @Override
+  public int getLinkageId() {
+    return getInt(0, 10);
+  }
+
+  @Override
+  public int getNoticeType() {
+    return getInt(10, 17);
+  }
+
+  @Override
+  public int getMonth() {
+    return getInt(17, 21);
+  }
+
+  @Override
+  public int getDay() {
+    return getInt(21, 26);
+  }
+
+  @Override
+  public int getHour() {
+    return getInt(26, 31);
+  }
+
+  @Override
+  public int getMinute() {
+    return getInt(31, 37);
+  }
+
+  @Override
+  public int getDuration() {
+    return getInt(37, 55);
+  }
+
+  @Override
+  public int getSubAreaCount() {
+    return (getData().length() - HEADER) / SUBAREA;
+  }
+
+  @Override
+  public int getSubAreaShape(int index) {
+    if (index < 0 || index >= getSubAreaCount()) {
+      throw new IndexOutOfBoundsException("Sub-area " + index + " of " + getSubAreaCount());
+    }
+    int from = HEADER + index * SUBAREA;
+    return getInt(from, from + 3);
+  }
+
+  @Override
+  public String toString() {
+    return "\tNotice:  " + getNoticeType() + "\n\tAreas:   " + getSubAreaCount();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISMessage06;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * AIS Message 6 implementation: Binary Addressed Message.
+ *
+ * @author Key Bridge
+ */
+class AISMessage06Parser extends AISMessageParser implements AISMessage06 {
+
+  private static final int SEQUENCENUMBER = 0;
+  private static final int DESTINATIONMMSI = 1;
+  private static final int RETRANSMITFLAG = 2;
+  private static final int DAC = 3;
+  private static final int FI = 4;
+  private static final int[] FROM = new int[]{38, 40, 70, 72, 82};
+  private static final int[] TO = new int[]{40, 70, 71, 82, 88};
+
+  private final int fSequenceNumber;
+  private final int fDestinationMMSI;
+  private final boolean fRetransmitFlag;
+  private final int fDAC;
+  private final int fFI;
+  private final Sixbit fContent;
+  private Sixbit fData;
+
+  public AISMessage06Parser(Sixbit content) {
+    super(content);
+    if (content.length() < 88 || content.length() > 1008) {
+      throw new IllegalArgumentException("Wrong message length");
+    }
+    fSequenceNumber = content.getInt(FROM[SEQUENCENUMBER], TO[SEQUENCENUMBER]);
+    fDestinationMMSI = content.getInt(FROM[DESTINATIONMMSI], TO[DESTINATIONMMSI]);
+    fRetransmitFlag = content.getBoolean(TO[RETRANSMITFLAG]);
+    fDAC = content.getInt(FROM[DAC], TO[DAC]);
+    fFI = content.getInt(FROM[FI], TO[FI]);
+    fContent = content;
+  }
+
+  @Override
+  public int getSequenceNumber() {
+    return fSequenceNumber;
+  }
+
+  @Override
+  public int getDestinationMMSI() {
+    return fDestinationMMSI;
+  }
+
+  @Override
+  public boolean getRetransmitFlag() {
+    return fRetransmitFlag;
+  }
+
+  @Override
+  public int getDesignatedAreaCode() {
+    return fDAC;
+  }
+
+  @Override
+  public int getFunctionalId() {
+    return fFI;
+  }
+
+  @Override
+  public Sixbit getData() {
+    // sliced on demand, as most consumers only dispatch on DAC and FI
+    if (fData == null) {
+      fData = fContent.slice(TO[FI], fContent.length());
+    }
+    return fData;
+  }
+
+  @Override
+  public String toString() {
+    return "\tDest:    " + fDestinationMMSI + "\n\tDAC:     " + fDAC + "\n\tFI:      " + fFI;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISMessage08;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * AIS Message 8 implementation: Binary Broadcast Message.
+ *
+ * @author Key Bridge
+ */
+class AISMessage08Parser extends AISMessageParser implements AISMessage08 {
+
+  private static final int DAC = 0;
+  private static final int FI = 1;
+  private static final int[] FROM = new int[]{40, 50};
+  private static final int[] TO = new int[]{50, 56};
+
+  private final int fDAC;
+  private final int fFI;
+  private final Sixbit fContent;
+  private Sixbit fData;
+
+  public AISMessage08Parser(Sixbit content) {
+    super(content);
+    if (content.length() < 56 || content.length() > 1008) {
+      throw new IllegalArgumentException("Wrong message length");
+    }
+    fDAC = content.getInt(FROM[DAC], TO[DAC]);
+    fFI = content.getInt(FROM[FI], TO[FI]);
+    fContent = content;
+  }
+
+  @Override
+  public int getDesignatedAreaCode() {
+    return fDAC;
+  }
+
+  @Override
+  public int getFunctionalId() {
+    return fFI;
+  }
+
+  @Override
+  public Sixbit getData() {
+    // sliced on demand, as most consumers only dispatch on DAC and FI
+    if (fData == null) {
+      fData = fContent.slice(TO[FI], fContent.length());
+    }
+    return fData;
+  }
+
+  @Override
+  public String toString() {
+    return "\tDAC:     " + fDAC + "\n\tFI:      " + fFI;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISMessage14;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * AIS Message 14 implementation: Safety-Related Broadcast Message.
+ *
+ * @author Key Bridge
+ */
+class AISMessage14Parser extends AISMessageParser implements AISMessage14 {
+
+  private static final int TEXT = 40;
+
+  private final String fText;
+
+  public AISMessage14Parser(Sixbit content) {
+    super(content);
+    if (content.length() < TEXT || content.length() > 1008) {
+      throw new IllegalArgumentException("Wrong message length");
+    }
+    int chars = (content.length() - TEXT) / Sixbit.BITSPERCHAR;
+    fText = content.getString(TEXT, TEXT + chars * Sixbit.BITSPERCHAR);
+  }
+
+  @Override
+  public String getText() {
+    return fText;
+  }
+
+  @Override
+  public String toString() {
+    return "\tText:    " + fText;
+  }
+}
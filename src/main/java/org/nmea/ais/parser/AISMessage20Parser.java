@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISMessage20;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * AIS Message 20 implementation: Data Link Management Message.
+ *
+ * @author Key Bridge
+ */
+class AISMessage20Parser extends AISMessageParser implements AISMessage20 {
+
+  // each reservation: offset 12, slots 4, timeout 3, increment 11 bits
+  private static final int FIRST = 40;
+  private static final int RESERVATION = 30;
+
+  private final int fCount;
+  private final int[] fReservations;
+
+  public AISMessage20Parser(Sixbit content) {
+    super(content);
+    if (content.length() < FIRST + RESERVATION || content.length() > 160) {
+      throw new IllegalArgumentException("Wrong message length");
+    }
+    fCount = (content.length() - FIRST) / RESERVATION;
+    fReservations = new int[fCount * 4];
+    for (int i = 0; i < fCount; i++) {
+      int from = FIRST + i * RESERVATION;
+      fReservations[i * 4] = content.getInt(from, from + 12);
+      fReservations[i * 4 + 1] = content.getInt(from + 12, from + 16);
+      fReservations[i * 4 + 2] = content.getInt(from + 16, from + 19);
+      fReservations[i * 4 + 3] = content.getInt(from + 19, from + 30);
+    }
+  }
+
+  @Override
+  public int getReservationCount() {
+    return fCount;
+  }
+
+  @Override
+  public int getOffsetNumber(int index) {
+    return fReservations[check(index) * 4];
+  }
+
+  @Override
+  public int getNumberOfSlots(int index) {
+    return fReservations[check(index) * 4 + 1];
+  }
+
+  @Override
+  public int getTimeout(int index) {
+    return fReservations[check(index) * 4 + 2];
+  }
+
+  @Override
+  public int getIncrement(int index) {
+    return fReservations[check(index) * 4 + 3];
+  }
+
+  private int check(int index) {
+    if (index < 0 || index >= fCount) {
+      throw new IndexOutOfBoundsException("Reservation " + index + " of " + fCount);
+    }
+    return index;
+  }
+
+  @Override
+  public String toString() {
+    return "\tReservations: " + fCount;
+  }
+}
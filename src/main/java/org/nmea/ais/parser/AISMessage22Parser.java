@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISMessage22;
+import org.nmea.ais.util.Latitude17;
+import org.nmea.ais.util.Longitude18;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * AIS Message 22 implementation: Channel Management.
+ *
+ * @author Key Bridge
+ */
+class AISMessage22Parser extends AISMessageParser implements AISMessage22 {
+
+  private static final int CHANNELA = 0;
+  private static final int CHANNELB = 1;
+  private static final int TXRXMODE = 2;
+  private static final int POWER = 3;
+  private static final int NELONGITUDE = 4;
+  private static final int NELATITUDE = 5;
+  private static final int SWLONGITUDE = 6;
+  private static final int SWLATITUDE = 7;
+  private static final int ADDRESSED = 8;
+  private static final int BANDA = 9;
+  private static final int BANDB = 10;
+  private static final int ZONESIZE = 11;
+  private static final int DESTINATION1 = 12;
+  private static final int DESTINATION2 = 13;
+  private static final int[] FROM = new int[]{40, 52, 64, 68, 69, 87, 104, 122, 139, 140, 141, 142, 69, 104};
+  private static final int[] TO = new int[]{52, 64, 68, 69, 87, 104, 122, 139, 140, 141, 142, 145, 99, 134};
+
+  private final int fChannelA;
+  private final int fChannelB;
+  private final int fTxRxMode;
+  private final boolean fLowPower;
+  private final boolean fAddressed;
+  private final int fDestination1;
+  private final int fDestination2;
+  private final double fNELongitude;
+  private final double fNELatitude;
+  private final double fSWLongitude;
+  private final double fSWLatitude;
+  private final boolean fBandA;
+  private final boolean fBandB;
+  private final int fZoneSize;
+
+  public AISMessage22Parser(Sixbit content) {
+    super(content);
+    if (content.length() != 168) {
+      throw new IllegalArgumentException("Wrong message length");
+    }
+    fChannelA = content.getInt(FROM[CHANNELA], TO[CHANNELA]);
+    fChannelB = content.getInt(FROM[CHANNELB], TO[CHANNELB]);
+    fTxRxMode = content.getInt(FROM[TXRXMODE], TO[TXRXMODE]);
+    fLowPower = content.getBoolean(TO[POWER]);
+    fAddressed = content.getBoolean(TO[ADDRESSED]);
+    if (fAddressed) {
+      fDestination1 = content.getInt(FROM[DESTINATION1], TO[DESTINATION1]);
+      fDestination2 = content.getInt(FROM[DESTINATION2], TO[DESTINATION2]);
+      fNELongitude = Double.NaN;
+      fNELatitude = Double.NaN;
+      fSWLongitude = Double.NaN;
+      fSWLatitude = Double.NaN;
+    } else {
+      fDestination1 = -1;
+      fDestination2 = -1;
+      fNELongitude = Longitude18.toDegrees(content.getAs18BitInt(FROM[NELONGITUDE], TO[NELONGITUDE]));
+      fNELatitude = Latitude17.toDegrees(content.getAs17BitInt(FROM[NELATITUDE], TO[NELATITUDE]));
+      fSWLongitude = Longitude18.toDegrees(content.getAs18BitInt(FROM[SWLONGITUDE], TO[SWLONGITUDE]));
+      fSWLatitude = Latitude17.toDegrees(content.getAs17BitInt(FROM[SWLATITUDE], TO[SWLATITUDE]));
+    }
+    fBandA = content.getBoolean(TO[BANDA]);
+    fBandB = content.getBoolean(TO[BANDB]);
+    fZoneSize = content.getInt(FROM[ZONESIZE], TO[ZONESIZE]);
+  }
+
+  @Override
+  public int getChannelA() {
+    return fChannelA;
+  }
+
+  @Override
+  public int getChannelB() {
+    return fChannelB;
+  }
+
+  @Override
+  public int getTxRxMode() {
+    return fTxRxMode;
+  }
+
+  @Override
+  public boolean isLowPower() {
+    return fLowPower;
+  }
+
+  @Override
+  public boolean isAddressed() {
+    return fAddressed;
+  }
+
+  @Override
+  public int getDestinationMMSI1() {
+    return fDestination1;
+  }
+
+  @Override
+  public int getDestinationMMSI2() {
+    return fDestination2;
+  }
+
+  @Override
+  public double getNorthEastLongitude() {
+    return fNELongitude;
+  }
+
+  @Override
+  public double getNorthEastLatitude() {
+    return fNELatitude;
+  }
+
+  @Override
+  public double getSouthWestLongitude() {
+    return fSWLongitude;
+  }
+
+  @Override
+  public double getSouthWestLatitude() {
+    return fSWLatitude;
+  }
+
+  @Override
+  public boolean getChannelABandwidth() {
+    return fBandA;
+  }
+
+  @Override
+  public boolean getChannelBBandwidth() {
+    return fBandB;
+  }
+
+  @Override
+  public int getZoneSize() {
+    return fZoneSize;
+  }
+
+  @Override
+  public String toString() {
+    return "\tChannels: " + fChannelA + "/" + fChannelB + "\n\tAddressed: " + (fAddressed ? "yes" : "no");
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISMessage23;
+import org.nmea.ais.util.Latitude17;
+import org.nmea.ais.util.Longitude18;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * AIS Message 23 implementation: Group Assignment Command.
+ *
+ * @author Key Bridge
+ */
+class AISMessage23Parser extends AISMessageParser implements AISMessage23 {
+
+  private static final int NELONGITUDE = 0;
+  private static final int NELATITUDE = 1;
+  private static final int SWLONGITUDE = 2;
+  private static final int SWLATITUDE = 3;
+  private static final int STATIONTYPE = 4;
+  private static final int SHIPTYPE = 5;
+  private static final int TXRXMODE = 6;
+  private static final int INTERVAL = 7;
+  private static final int QUIETTIME = 8;
+  private static final int[] FROM = new int[]{40, 58, 75, 93, 110, 114, 144, 146, 150};
+  private static final int[] TO = new int[]{58, 75, 93, 110, 114, 122, 146, 150, 154};
+
+  private final double fNELongitude;
+  private final double fNELatitude;
+  private final double fSWLongitude;
+  private final double fSWLatitude;
+  private final int fStationType;
+  private final int fShipType;
+  private final int fTxRxMode;
+  private final int fInterval;
+  private final int fQuietTime;
+
+  public AISMessage23Parser(Sixbit content) {
+    super(content);
+    if (content.length() != 160) {
+      throw new IllegalArgumentException("Wrong message length");
+    }
+    fNELongitude = Longitude18.toDegrees(content.getAs18BitInt(FROM[NELONGITUDE], TO[NELONGITUDE]));
+    fNELatitude = Latitude17.toDegrees(content.getAs17BitInt(FROM[NELATITUDE], TO[NELATITUDE]));
+    fSWLongitude = Longitude18.toDegrees(content.getAs18BitInt(FROM[SWLONGITUDE], TO[SWLONGITUDE]));
+    fSWLatitude = Latitude17.toDegrees(content.getAs17BitInt(FROM[SWLATITUDE], TO[SWLATITUDE]));
+    fStationType = content.getInt(FROM[STATIONTYPE], TO[STATIONTYPE]);
+    fShipType = content.getInt(FROM[SHIPTYPE], TO[SHIPTYPE]);
+    fTxRxMode = content.getInt(FROM[TXRXMODE], TO[TXRXMODE]);
+    fInterval = content.getInt(FROM[INTERVAL], TO[INTERVAL]);
+    fQuietTime = content.getInt(FROM[QUIETTIME], TO[QUIETTIME]);
+  }
+
+  @Override
+  public double getNorthEastLongitude() {
+    return fNELongitude;
+  }
+
+  @Override
+  public double getNorthEastLatitude() {
+    return fNELatitude;
+  }
+
+  @Override
+  public double getSouthWestLongitude() {
+    return fSWLongitude;
+  }
+
+  @Override
+  public double getSouthWestLatitude() {
+    return fSWLatitude;
+  }
+
+  @Override
+  public int getStationType() {
+    return fStationType;
+  }
+
+  @Override
+  public int getTypeOfShipAndCargoType() {
+    return fShipType;
+  }
+
+  @Override
+  public int getTxRxMode() {
+    return fTxRxMode;
+  }
+
+  @Override
+  public int getReportingInterval() {
+    return fInterval;
+  }
+
+  @Override
+  public int getQuietTime() {
+    return fQuietTime;
+  }
+
+  @Override
+  public String toString() {
+    return "\tStation type: " + fStationType + "\n\tInterval: " + fInterval;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISMessage27;
+import org.nmea.ais.util.AISRuleViolation;
+import org.nmea.ais.util.Latitude17;
+import org.nmea.ais.util.Longitude18;
+import org.nmea.ais.util.NavigationalStatus;
+import org.nmea.ais.util.Sixbit;
+
+/**
+ * AIS Message 27 implementation: Long Range AIS Broadcast Message.
+ *
+ * @author Key Bridge
+ */
+class AISMessage27Parser extends AISMessageParser implements AISMessage27 {
+
+  private static final int POSITIONACCURACY = 0;
+  private static final int RAIMFLAG = 1;
+  private static final int NAVIGATIONALSTATUS = 2;
+  private static final int LONGITUDE = 3;
+  private static final int LATITUDE = 4;
+  private static final int SPEEDOVERGROUND = 5;
+  private static final int COURSEOVERGROUND = 6;
+  private static final int GNSS = 7;
+  private static final int[] FROM = new int[]{38, 39, 40, 44, 62, 79, 85, 94};
+  private static final int[] TO = new int[]{39, 40, 44, 62, 79, 85, 94, 95};
+
+  private final boolean fPositionAccuracy;
+  private final boolean fRAIMFlag;
+  private final int fNavigationalStatus;
+  private final double fLongitude;
+  private final double fLatitude;
+  private final int fSOG;
+  private final int fCOG;
+  private final boolean fGNSS;
+
+  public AISMessage27Parser(Sixbit content) {
+    super(content);
+    if (content.length() != 96) {
+      throw new IllegalArgumentException("Wrong message length");
+    }
+    fPositionAccuracy = content.getBoolean(TO[POSITIONACCURACY]);
+    fRAIMFlag = content.getBoolean(TO[RAIMFLAG]);
+    fNavigationalStatus = content.getInt(FROM[NAVIGATIONALSTATUS], TO[NAVIGATIONALSTATUS]);
+    if (!NavigationalStatus.isCorrect(fNavigationalStatus)) {
+      fViolations.add(new AISRuleViolation("NavigationalStatus", fNavigationalStatus, NavigationalStatus.RANGE));
+    }
+    fLongitude = Longitude18.toDegrees(content.getAs18BitInt(FROM[LONGITUDE], TO[LONGITUDE]));
+    fLatitude = Latitude17.toDegrees(content.getAs17BitInt(FROM[LATITUDE], TO[LATITUDE]));
+    fSOG = content.getInt(FROM[SPEEDOVERGROUND], TO[SPEEDOVERGROUND]);
+    fCOG = content.getInt(FROM[COURSEOVERGROUND], TO[COURSEOVERGROUND]);
+    fGNSS = content.getBoolean(TO[GNSS]);
+  }
+
+  @Override
+  public boolean getPositionAccuracy() {
+    return fPositionAccuracy;
+  }
+
+  @Override
+  public double getLongitudeInDegrees() {
+    return fLongitude;
+  }
+
+  @Override
+  public double getLatitudeInDegrees() {
+    return fLatitude;
+  }
+
+  @Override
+  public boolean getRAIMFlag() {
+    return fRAIMFlag;
+  }
+
+  @Override
+  public int getNavigationalStatus() {
+    return fNavigationalStatus;
+  }
+
+  @Override
+  public int getSpeedOverGround() {
+    return fSOG;
+  }
+
+  @Override
+  public int getCourseOverGround() {
+    return fCOG;
+  }
+
+  @Override
+  public boolean getGNSSPositionStatus() {
+    return fGNSS;
+  }
+
+  @Override
+  public String toString() {
+    return "\tLon:     " + fLongitude + "\n\tLat:     " + fLatitude + "\n\tSOG:     " + fSOG;
+  }
+}
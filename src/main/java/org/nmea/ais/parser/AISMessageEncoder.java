@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.nmea.ais.message.*;
+import org.nmea.ais.util.SixbitWriter;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.AISSentence;
+import org.nmea.sentence.Checksum;
+import org.nmea.type.SentenceType;
+import org.nmea.type.TalkerType;
+
+/**
+ * Encodes AIS messages into VDM or VDO sentences; the reverse of
+ * {@link AISMessageFactory}. Supports message types 1, 2, 3, 4, 5, 9, 18, 19,
+ * 21 and 24. Fields not exposed by the message
+ * interfaces, such as radio status and spare bits, are written as zero.
+ * <p>
+ * Message fields are packed into a reusable {@link SixbitWriter} and the
+ * sentences are written straight into a caller supplied buffer, so encoding
+ * does not allocate apart from growing the buffer. Payloads longer than the
+ * maximum sentence payload are split in fragments sharing a sequential message
+ * id from 0 to 9. Not thread-safe.
+ * <p>
+ * Example:
+ * <pre>
+ * AISMessageEncoder encoder = new AISMessageEncoder();
+ * StringBuilder out = new StringBuilder();
+ * encoder.encode(message, out);
+ * </pre>
+ *
+ * @author Key Bridge
+ */
+public class AISMessageEncoder {
+
+  /**
+   * Default maximum number of payload characters per sentence.
+   */
+  public static final int DEFAULT_MAX_PAYLOAD = 60;
+
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  private final SixbitWriter bits = new SixbitWriter();
+  private final String header;
+  private final StringBuilder buffer = new StringBuilder(256);
+  private int maxPayload = DEFAULT_MAX_PAYLOAD;
+  private char channel = 'A';
+  private int sequence;
+
+  /**
+   * Creates a new encoder writing AIVDM sentences.
+   */
+  public AISMessageEncoder() {
+    this(TalkerType.AI, SentenceType.VDM);
+  }
+
+  /**
+   * Creates a new encoder.
+   *
+   * @param talker Talker id of sentences
+   * @param type   Sentence type, VDM or VDO
+   * @throws IllegalArgumentException If type is not VDM or VDO.
+   */
+  public AISMessageEncoder(TalkerType talker, SentenceType type) {
+    if (type != SentenceType.VDM && type != SentenceType.VDO) {
+      throw new IllegalArgumentException("Sentence type must be VDM or VDO");
+    }
+    this.header = "!" + talker.name() + type.name() + ",";
+  }
+
+  /**
+   * Sets the radio channel of sentences.
+   *
+   * @param channel Radio channel, 'A' or 'B'
+   */
+  public void setRadioChannel(char channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Sets the maximum number of payload characters per sentence.
+   *
+   * @param chars Maximum payload characters
+   * @throws IllegalArgumentException If value is less than 1.
+   */
+  public void setMaxPayload(int chars) {
+    if (chars < 1) {
+      throw new IllegalArgumentException("Payload length must be positive");
+    }
+    this.maxPayload = chars;
+  }
+
+  /**
+   * Encodes a message, appending its sentences to a buffer. Each sentence is
+   * terminated by CR LF.
+   *
+   * @param message Message to encode
+   * @param out     Buffer to append to
+   * @return number of sentences written
+   * @throws IllegalArgumentException If the message type is not supported.
+   */
+  public int encode(AISMessage message, StringBuilder out) {
+    bits.reset();
+    write(message, bits);
+    int chars = bits.getCharCount();
+    int fragments = Math.max(1, (chars + maxPayload - 1) / maxPayload);
+    int id = -1;
+    if (fragments > 1) {
+      id = sequence;
+      sequence = (sequence + 1) % 10;
+    }
+    for (int i = 0; i < fragments; i++) {
+      int start = out.length();
+      out.append(header).append(fragments).append(',').append(i + 1).append(',');
+      if (id >= 0) {
+        out.append(id);
+      }
+      out.append(',').append(channel).append(',');
+      int from = i * maxPayload;
+      int to = Math.min(chars, from + maxPayload);
+      bits.armor(out, from, to);
+      out.append(',').append(i == fragments - 1 ? bits.getFillBits() : 0);
+      int sum = Checksum.xor(out, start + 1, out.length());
+      out.append('*').append(HEX[sum >>> 4]).append(HEX[sum & 0xF]).append("\r\n");
+    }
+    return fragments;
+  }
+
+  /**
+   * Encodes a message into parsed sentences.
+   *
+   * @param message Message to encode
+   * @return Sentences of the message, in order
+   * @throws IllegalArgumentException If the message type is not supported.
+   */
+  public List<AISSentence> toSentences(AISMessage message) {
+    buffer.setLength(0);
+    encode(message, buffer);
+    List<AISSentence> sentences = new ArrayList<>();
+    SentenceFactory factory = SentenceFactory.getInstance();
+    for (int start = 0; start < buffer.length();) {
+      int end = buffer.indexOf("\r\n", start);
+      sentences.add((AISSentence) factory.createParser(buffer.substring(start, end)));
+      start = end + 2;
+    }
+    return sentences;
+  }
+
+  /**
+   * Packs the fields of a message into payload bits.
+   *
+   * @param message Message to encode
+   * @param out     Writer to append to
+   * @throws IllegalArgumentException If the message type is not supported.
+   */
+  public static void write(AISMessage message, SixbitWriter out) {
+    out.putInt(message.getMessageType(), 6);
+    out.putInt(message.getRepeatIndicator(), 2);
+    out.putInt(message.getMMSI(), 30);
+    switch (message.getMessageType()) {
+      case 1:
+      case 2:
+      case 3:
+        writePositionReport((AISPositionReport) message, out);
+        break;
+      case 4:
+        writeUTCReport((AISUTCReport) message, out);
+        break;
+      case 5:
+        writeStaticData((AISMessage05) message, out);
+        break;
+      case 9:
+        writeSARReport((AISMessage09) message, out);
+        break;
+      case 18:
+        writePositionReportB((AISPositionReportB) message, out);
+        out.putInt(0, 29);
+        break;
+      case 19:
+        writeExtendedReportB((AISMessage19) message, out);
+        break;
+      case 21:
+        writeAidToNavigation((AISMessage21) message, out);
+        break;
+      case 24:
+        writeStaticDataB((AISMessage24) message, out);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported message type " + message.getMessageType());
+    }
+  }
+
+  private static void writePositionReport(AISPositionReport m, SixbitWriter out) {
+    out.putInt(m.getNavigationalStatus(), 4);
+    out.putInt(m.getRateOfTurn(), 8);
+    out.putInt(m.getSpeedOverGround(), 10);
+    out.putBoolean(m.getPositionAccuracy());
+    out.putLongitude(m.getLongitudeInDegrees());
+    out.putLatitude(m.getLatitudeInDegrees());
+    out.putInt(m.getCourseOverGround(), 12);
+    out.putInt(m.getTrueHeading(), 9);
+    out.putInt(m.getTimeStamp(), 6);
+    out.putInt(m.getManouverIndicator(), 2);
+    // spare, RAIM and radio status
+    out.putInt(0, 23);
+  }
+
+  private static void writeUTCReport(AISUTCReport m, SixbitWriter out) {
+    out.putInt(m.getUtcYear(), 14);
+    out.putInt(m.getUtcMonth(), 4);
+    out.putInt(m.getUtcDay(), 5);
+    out.putInt(m.getUtcHour(), 5);
+    out.putInt(m.getUtcMinute(), 6);
+    out.putInt(m.getUtcSecond(), 6);
+    AISPositionInfo p = (AISPositionInfo) m;
+    out.putBoolean(p.getPositionAccuracy());
+    out.putLongitude(p.getLongitudeInDegrees());
+    out.putLatitude(p.getLatitudeInDegrees());
+    out.putInt(m.getTypeOfEPFD(), 4);
+    // spare, RAIM and radio status
+    out.putInt(0, 30);
+  }
+
+  private static void writeStaticData(AISMessage05 m, SixbitWriter out) {
+    out.putInt(m.getAISVersionIndicator(), 2);
+    out.putInt(m.getIMONumber(), 30);
+    out.putString(m.getCallSign(), 7);
+    out.putString(m.getName(), 20);
+    out.putInt(m.getTypeOfShipAndCargoType(), 8);
+    out.putInt(m.getBow(), 9);
+    out.putInt(m.getStern(), 9);
+    out.putInt(m.getPort(), 6);
+    out.putInt(m.getStarboard(), 6);
+    out.putInt(m.getTypeOfEPFD(), 4);
+    out.putInt(m.getETAMonth(), 4);
+    out.putInt(m.getETADay(), 5);
+    out.putInt(m.getETAHour(), 5);
+    out.putInt(m.getETAMinute(), 6);
+    out.putInt(m.getMaximumDraught(), 8);
+    out.putString(m.getDestination(), 20);
+    // DTE and spare
+    out.putInt(0, 2);
+  }
+
+  private static void writeSARReport(AISMessage09 m, SixbitWriter out) {
+    out.putInt(m.getAltitude(), 12);
+    out.putInt(m.getSpeedOverGround(), 10);
+    out.putBoolean(m.getPositionAccuracy());
+    out.putLongitude(m.getLongitudeInDegrees());
+    out.putLatitude(m.getLatitudeInDegrees());
+    out.putInt(m.getCourseOverGround(), 12);
+    out.putInt(m.getTimeStamp(), 6);
+    // regional
+    out.putInt(0, 8);
+    out.putBoolean(m.getDTEFlag());
+    out.putInt(0, 3);
+    out.putBoolean(m.getAssignedModeFlag());
+    out.putBoolean(m.getRAIMFlag());
+    out.putInt(m.getRadioStatus(), 20);
+  }
+
+  /**
+   * Writes the fields common to messages 18 and 19, up to the time stamp.
+   */
+  private static void writePositionReportB(AISPositionReportB m, SixbitWriter out) {
+    out.putInt(0, 8);
+    out.putInt(m.getSpeedOverGround(), 10);
+    out.putBoolean(m.getPositionAccuracy());
+    out.putLongitude(m.getLongitudeInDegrees());
+    out.putLatitude(m.getLatitudeInDegrees());
+    out.putInt(m.getCourseOverGround(), 12);
+    out.putInt(m.getTrueHeading(), 9);
+    out.putInt(m.getTimeStamp(), 6);
+  }
+
+  private static void writeExtendedReportB(AISMessage19 m, SixbitWriter out) {
+    writePositionReportB(m, out);
+    out.putInt(0, 4);
+    out.putString(m.getName(), 20);
+    out.putInt(m.getTypeOfShipAndCargoType(), 8);
+    out.putInt(m.getBow(), 9);
+    out.putInt(m.getStern(), 9);
+    out.putInt(m.getPort(), 6);
+    out.putInt(m.getStarboard(), 6);
+    out.putInt(m.getTypeOfEPFD(), 4);
+    // RAIM, DTE, assigned mode and spare
+    out.putInt(0, 7);
+  }
+
+  private static void writeAidToNavigation(AISMessage21 m, SixbitWriter out) {
+    out.putInt(m.getAidType(), 5);
+    out.putString(m.getName(), 20);
+    out.putBoolean(m.getPositionAccuracy());
+    out.putLongitude(m.getLongitudeInDegrees());
+    out.putLatitude(m.getLatitudeInDegrees());
+    out.putInt(m.getBow(), 9);
+    out.putInt(m.getStern(), 9);
+    out.putInt(m.getPort(), 6);
+    out.putInt(m.getStarboard(), 6);
+    out.putInt(m.getTypeOfEPFD(), 4);
+    out.putInt(m.getUtcSecond(), 6);
+    out.putBoolean(m.getOffPositionIndicator());
+    out.putInt(m.getRegional(), 8);
+    out.putBoolean(m.getRAIMFlag());
+    out.putBoolean(m.getVirtualAidFlag());
+    out.putBoolean(m.getAssignedModeFlag());
+    out.putInt(0, 1);
+    String extension = m.getNameExtension();
+    if (extension != null && !extension.isEmpty()) {
+      out.putString(extension, Math.min(14, extension.length()));
+    }
+  }
+
+  private static void writeStaticDataB(AISMessage24 m, SixbitWriter out) {
+    out.putInt(m.getPartNumber(), 2);
+    if (m.getPartNumber() == 0) {
+      out.putString(m.getName(), 20);
+    } else {
+      out.putInt(m.getTypeOfShipAndCargoType(), 8);
+      out.putString(m.getVendorId(), 3);
+      out.putInt(m.getUnitModelCode(), 4);
+      out.putInt(m.getSerialNumber(), 20);
+      out.putString(m.getCallSign(), 7);
+      out.putInt(m.getBow(), 9);
+      out.putInt(m.getStern(), 9);
+      out.putInt(m.getPort(), 6);
+      out.putInt(m.getStarboard(), 6);
+      // EPFD type and spare
+      out.putInt(0, 6);
+    }
+  }
+}
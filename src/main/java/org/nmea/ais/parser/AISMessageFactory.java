@@ -16,38 +16,92 @@
  */
 package org.nmea.ais.parser;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
 import org.nmea.ais.message.AISMessage;
 import org.nmea.ais.util.Sixbit;
 import org.nmea.sentence.AISSentence;
-import java.lang.reflect.Constructor;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Factory for creating AIS message parsers.
+ * <p>
+ * Decoders are held in a registry indexed by the 6-bit message type, so
+ * finding the decoder of a message is an array lookup. The registry includes
+ * decoders for message types 1-6, 8, 9, 14, 18-24 and 27 and may be extended
+ * with {@link #register(int, Function)}. Messages of types without a decoder
+ * are rejected by {@link #decode(AISSentence...)} before their payload is
+ * de-armored, and without throwing an exception.
  *
  * @author Kimmo Tuukkanen
  */
 public class AISMessageFactory {
 
-  private static AISMessageFactory instance;
-  private final Map<Integer, Class<? extends AISMessage>> parsers;
+  /**
+   * Number of message types, the message type being a 6-bit value.
+   */
+  public static final int MESSAGE_TYPES = 64;
+
+  private static final AISMessageFactory INSTANCE = new AISMessageFactory();
+  private final AtomicReferenceArray<Function<Sixbit, ? extends AISMessage>> decoders
+    = new AtomicReferenceArray<>(MESSAGE_TYPES);
 
   /**
    * Hidden constructor.
    */
   private AISMessageFactory() {
-    parsers = new HashMap<>(7);
-    parsers.put(1, AISMessage01Parser.class);
-    parsers.put(2, AISMessage02Parser.class);
-    parsers.put(3, AISMessage03Parser.class);
-    parsers.put(4, AISMessage04Parser.class);
-    parsers.put(5, AISMessage05Parser.class);
-    parsers.put(9, AISMessage09Parser.class);
-    parsers.put(18, AISMessage18Parser.class);
-    parsers.put(19, AISMessage19Parser.class);
-    parsers.put(21, AISMessage21Parser.class);
-    parsers.put(24, AISMessage24Parser.class);
+    register(1, AISMessage01Parser::new);
+    register(2, AISMessage02Parser::new);
+    register(3, AISMessage03Parser::new);
+    register(4, AISMessage04Parser::new);
+    register(5, AISMessage05Parser::new);
+    register(6, AISMessage06Parser::new);
+    register(8, AISMessage08Parser::new);
+    register(9, AISMessage09Parser::new);
+    register(14, AISMessage14Parser::new);
+    register(18, AISMessage18Parser::new);
+    register(19, AISMessage19Parser::new);
+    register(20, AISMessage20Parser::new);
+    register(21, AISMessage21Parser::new);
+    register(22, AISMessage22Parser::new);
+    register(23, AISMessage23Parser::new);
+    register(24, AISMessage24Parser::new);
+    register(27, AISMessage27Parser::new);
+  }
+
+  /**
+   * Registers a decoder for a message type, replacing the existing one.
+   *
+   * @param type    Message type, 0-63
+   * @param decoder Function creating the message from its payload bits; may
+   *                throw IllegalArgumentException for a malformed payload.
+   * @throws IllegalArgumentException If type is out of range or decoder is
+   *                                  <code>null</code>.
+   */
+  public void register(int type, Function<Sixbit, ? extends AISMessage> decoder) {
+    if (decoder == null) {
+      throw new IllegalArgumentException("Decoder cannot be null");
+    }
+    decoders.set(checkType(type), decoder);
+  }
+
+  /**
+   * Removes the decoder of a message type.
+   *
+   * @param type Message type, 0-63
+   * @throws IllegalArgumentException If type is out of range.
+   */
+  public void unregister(int type) {
+    decoders.set(checkType(type), null);
+  }
+
+  /**
+   * Tells whether a message type has a decoder.
+   *
+   * @param type Message type
+   * @return true if supported
+   */
+  public boolean isSupported(int type) {
+    return type >= 0 && type < MESSAGE_TYPES && decoders.get(type) != null;
   }
 
   /**
@@ -55,29 +109,66 @@ public class AISMessageFactory {
    *
    * @param sentences One or more AIS sentences in correct sequence order.
    * @return AISMessage instance
+   * @throws IllegalArgumentException If the message type is not supported or
+   *                                  the payload is malformed.
    */
   public AISMessage create(AISSentence... sentences) {
-
-    AISMessageParser parser = new AISMessageParser();
-    for (AISSentence v : sentences) {
-      parser.append(v.getPayload(), v.getFragmentNumber(), v.getFillBits());
+    AISMessage message = decode(sentences);
+    if (message == null) {
+      throw unsupported(typeOf(sentences[0].getPayload()));
     }
+    return message;
+  }
 
-    if (!parsers.containsKey(parser.getMessageType())) {
-      String msg = String.format("no parser for message type %d", parser.getMessageType());
-      throw new IllegalArgumentException(msg);
+  /**
+   * Creates a new AIS message parser based on de-armored payload bits.
+   *
+   * @param payload Complete message payload
+   * @return AISMessage instance
+   * @throws IllegalArgumentException If the message type is not supported or
+   *                                  the payload is malformed.
+   */
+  public AISMessage create(Sixbit payload) {
+    AISMessage message = decode(payload);
+    if (message == null) {
+      throw unsupported(payload.getInt(0, 6));
     }
+    return message;
+  }
 
-    AISMessage result;
-    Class<? extends AISMessage> clazz = parsers.get(parser.getMessageType());
-    try {
-      Constructor<? extends AISMessage> c = clazz.getConstructor(Sixbit.class);
-      result = c.newInstance(parser.getMessageBody());
-    } catch (Exception e) {
-      throw new IllegalStateException(e.getCause());
+  /**
+   * Decodes a message from its sentences. The message type is read from the
+   * first payload character, so sentences of unsupported types are not
+   * de-armored.
+   *
+   * @param sentences One or more AIS sentences in correct sequence order.
+   * @return AISMessage instance, or <code>null</code> if the message type is
+   *         not supported.
+   * @throws IllegalArgumentException If the payload is malformed.
+   */
+  public AISMessage decode(AISSentence... sentences) {
+    int type = typeOf(sentences[0].getPayload());
+    if (type < 0 || decoders.get(type) == null) {
+      return null;
     }
+    AISMessageParser parser = new AISMessageParser();
+    for (AISSentence v : sentences) {
+      parser.append(v.getPayload(), v.getFragmentNumber(), v.getFillBits());
+    }
+    return decode(parser.getMessageBody());
+  }
 
-    return result;
+  /**
+   * Decodes a message from its payload bits.
+   *
+   * @param payload Complete message payload
+   * @return AISMessage instance, or <code>null</code> if the message type is
+   *         not supported.
+   * @throws IllegalArgumentException If the payload is malformed.
+   */
+  public AISMessage decode(Sixbit payload) {
+    Function<Sixbit, ? extends AISMessage> decoder = decoders.get(payload.getInt(0, 6));
+    return decoder == null ? null : decoder.apply(payload);
   }
 
   /**
@@ -86,9 +177,33 @@ public class AISMessageFactory {
    * @return AISMessageFactory
    */
   public static AISMessageFactory getInstance() {
-    if (instance == null) {
-      instance = new AISMessageFactory();
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the message type encoded in the first payload character.
+   *
+   * @return message type, or -1 if payload is empty or invalid.
+   */
+  private static int typeOf(String payload) {
+    if (payload == null || payload.isEmpty()) {
+      return -1;
     }
-    return instance;
+    int c = payload.charAt(0) - 48;
+    if (c > 40) {
+      c -= 8;
+    }
+    return c < 0 || c >= MESSAGE_TYPES ? -1 : c;
+  }
+
+  private static int checkType(int type) {
+    if (type < 0 || type >= MESSAGE_TYPES) {
+      throw new IllegalArgumentException("Invalid message type: " + type);
+    }
+    return type;
+  }
+
+  private static IllegalArgumentException unsupported(int type) {
+    return new IllegalArgumentException(String.format("no parser for message type %d", type));
   }
 }
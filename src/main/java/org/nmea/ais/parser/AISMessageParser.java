@@ -60,6 +60,7 @@ public class AISMessageParser implements AISMessage {
    */
   protected AISMessageParser(Sixbit sb) {
     this.decoder = sb;
+    parseHeader();
   }
 
   /**
@@ -130,9 +131,13 @@ public class AISMessageParser implements AISMessage {
   private void parseAIS() {
     if (decoder == null) {
       decoder = new Sixbit(message, fillbits);
-      messageType = decoder.getInt(FROM[MESSAGE_TYPE], TO[MESSAGE_TYPE]);
-      repeatIndicator = decoder.getInt(FROM[REPEAT_INDICATOR], TO[REPEAT_INDICATOR]);
-      mmsi = decoder.getInt(FROM[MMSI], TO[MMSI]);
+      parseHeader();
     }
   }
+
+  private void parseHeader() {
+    messageType = decoder.getInt(FROM[MESSAGE_TYPE], TO[MESSAGE_TYPE]);
+    repeatIndicator = decoder.getInt(FROM[REPEAT_INDICATOR], TO[REPEAT_INDICATOR]);
+    mmsi = decoder.getInt(FROM[MMSI], TO[MMSI]);
+  }
 }
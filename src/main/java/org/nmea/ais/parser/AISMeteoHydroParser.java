@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.nmea.ais.message.AISBinaryMessage;
+import org.nmea.ais.message.AISMeteoHydroData;
+
+/**
+ * Meteorological and Hydrographic Data, DAC 1, FI 31. Bit ranges are relative
+ * to the application data.
+ * <p>
+ * <pre>
+ * Field                     Bits  (from, to )
+ * -------------------------------------------
+ * longitude                   25  (  0,  25)
+ * latitude                    24  ( 25,  49)
+ * positionAccuracy             1  ( 49,  50)
+ * day, hour, minute        5+5+6  ( 50,  66)
+ * windSpeed, windGust        7+7  ( 66,  80)
+ * windDirection, gustDir     9+9  ( 80,  98)
+ * airTemperature              11  ( 98, 109)
+ * relativeHumidity             7  (109, 116)
+ * dewPoint                    10  (116, 126)
+ * airPressure                  9  (126, 135)
+ * pressureTendency             2  (135, 137)
+ * visibility                   8  (137, 145)
+ * waterLevel                  12  (145, 157)
+ * ...currents, waves, swell  ...  (157, 270)
+ * waterTemperature            10  (270, 280)
+ * precipitation                3  (280, 283)
+ * salinity                     9  (283, 292)
+ * ice, spare                  12  (292, 304)
+ * </pre>
+ *
+ * @author Key Bridge
+ */
+class AISMeteoHydroParser extends AISApplicationParser implements AISMeteoHydroData {
+
+  private static final int LENGTH = 304;
+  private static final double TO_DEGREES = 1.0 / (60.0 * 1000.0);
+
+  public AISMeteoHydroParser(AISBinaryMessage message) {
+    super(message, LENGTH);
+  }
+
+  @Override
+  public double getLongitudeInDegrees() {
+    return getSignedInt(0, 25) * TO_DEGREES;
+  }
+
+  @Override
+  public double getLatitudeInDegrees() {
+    return getSignedInt(25, 49) * TO_DEGREES;
+  }
+
+  @Override
+  public boolean getPositionAccuracy() {
+    return getBoolean(49);
+  }
+
+  @Override
+  public int getUtcDay() {
+    return getInt(50, 55);
+  }
+
+  @Override
+  public int getUtcHour() {
+    return getInt(55, 60);
+  }
+
+  @Override
+  public int getUtcMinute() {
+    return getInt(60, 66);
+  }
+
+  @Override
+  public int getWindSpeed() {
+    return getInt(66, 73);
+  }
+
+  @Override
+  public int getWindGust() {
+    return getInt(73, 80);
+  }
+
+  @Override
+  public int getWindDirection() {
+    return getInt(80, 89);
+  }
+
+  @Override
+  public int getAirTemperature() {
+    return getSignedInt(98, 109);
+  }
+
+  @Override
+  public int getRelativeHumidity() {
+    return getInt(109, 116);
+  }
+
+  @Override
+  public int getDewPoint() {
+    return getSignedInt(116, 126);
+  }
+
+  @Override
+  public int getAirPressure() {
+    return getInt(126, 135) + 799;
+  }
+
+  @Override
+  public int getVisibility() {
+    return getInt(138, 145);
+  }
+
+  @Override
+  public int getWaterLevel() {
+    return getInt(145, 157) - 1000;
+  }
+
+  @Override
+  public int getWaveHeight() {
+    return getInt(220, 228);
+  }
+
+  @Override
+  public int getWaterTemperature() {
+    return getInt(270, 280) - 100;
+  }
+
+  @Override
+  public int getSalinity() {
+    return getInt(283, 292);
+  }
+
+  @Override
+  public String toString() {
+    return "\tWind:    " + getWindSpeed() + " kn " + getWindDirection() + "\n\tAir:     " + getAirTemperature() / 10.0
+      + " C " + getAirPressure() + " hPa";
+  }
+}
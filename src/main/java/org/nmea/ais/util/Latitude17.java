@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.util;
+
+/**
+ * Converts a 17-bit signed integer latitude value, in 1/10 minutes, as used by
+ * channel management, group assignment and long range messages.
+ *
+ * @author Key Bridge
+ */
+public class Latitude17 {
+
+  private static final double TO_DEGREES = 1.0 / (60.0 * 10.0);
+
+  /**
+   * Converts the latitude value (in 1/10 minutes) to degrees.
+   *
+   * @return the latitude value in degrees
+   */
+  public static double toDegrees(int value) {
+    return value * TO_DEGREES;
+  }
+}
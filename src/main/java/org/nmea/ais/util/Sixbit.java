@@ -27,24 +27,82 @@ public class Sixbit {
 
   public static final int BITSPERCHAR = 6;
 
-  private final String fPayload;
+  private static volatile SixbitStringCache stringCache = new SixbitStringCache();
+
+  private final int fLength;	      // Number of payload bits, excluding fill bits
   private BitVector fBitVector;
-  private int fFillBits;	      // Number of padding bits at end
 
   public Sixbit(String payload, int fillBits) {
-    fPayload = payload;
-    if (!isValidString(fPayload)) {
+    if (!isValidString(payload)) {
       throw new IllegalArgumentException("Invalid payload characters");
     }
 
-    fBitVector = new BitVector(fPayload.length() * BITSPERCHAR);
-    for (int i = 0; i < fPayload.length(); i++) {
-      char c = fPayload.charAt(i);
+    fBitVector = new BitVector(payload.length() * BITSPERCHAR);
+    for (int i = 0; i < payload.length(); i++) {
+      char c = payload.charAt(i);
       int b = transportToBinary(c);
       convert(b, i * BITSPERCHAR, BITSPERCHAR);
     }
 //		fBitVector.dump();
-    fFillBits = fillBits;
+    fLength = payload.length() * BITSPERCHAR - fillBits;
+  }
+
+  /**
+   * Creates a new instance from de-armored payload bits, as returned by
+   * {@link #toByteArray()}.
+   *
+   * @param bits   Payload bits, MSB first
+   * @param length Number of bits
+   */
+  public Sixbit(byte[] bits, int length) {
+    if (length < 0 || length > bits.length * 8) {
+      throw new IllegalArgumentException("Invalid payload length: " + length);
+    }
+    fBitVector = new BitVector(length);
+    for (int i = 0; i < length; i++) {
+      if ((bits[i >>> 3] & (0x80 >>> (i & 7))) != 0) {
+        fBitVector.set(i + 1);
+      }
+    }
+    fLength = length;
+  }
+
+  /**
+   * Returns the payload bits packed in bytes, MSB first. The last byte is
+   * padded with zero bits; fill bits are not included.
+   *
+   * @return payload bits
+   * @see #Sixbit(byte[], int)
+   */
+  public byte[] toByteArray() {
+    byte[] bits = new byte[(fLength + 7) >>> 3];
+    for (int i = 0; i < fLength; i++) {
+      if (fBitVector.getBoolean(i + 1)) {
+        bits[i >>> 3] |= 0x80 >>> (i & 7);
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Returns a range of the payload bits as a new instance, for example the
+   * application data of a binary message.
+   *
+   * @param from begin index (inclusive)
+   * @param to   end index (exclusive), at most {@link #length()}
+   * @return Sixbit of the range
+   */
+  public Sixbit slice(int from, int to) {
+    if (from < 0 || to > fLength || from > to) {
+      throw new IllegalArgumentException("Invalid range: " + from + "-" + to);
+    }
+    byte[] bits = new byte[(to - from + 7) >>> 3];
+    for (int i = from; i < to; i++) {
+      if (fBitVector.getBoolean(i + 1)) {
+        bits[(i - from) >>> 3] |= 0x80 >>> ((i - from) & 7);
+      }
+    }
+    return new Sixbit(bits, to - from);
   }
 
   private void convert(int value, int from, int length) {
@@ -80,7 +138,7 @@ public class Sixbit {
   }
 
   public int length() {
-    return fPayload.length() * BITSPERCHAR - fFillBits;
+    return fLength;
   }
 
   /**
@@ -116,7 +174,7 @@ public class Sixbit {
    * strings within the datastream itself. eg. Ship Name, Callsign and
    * Destination.
    */
-  private char binaryToContent(int value) {
+  static char binaryToContent(int value) {
     if (value < 0x20) {
       return (char) (value + 0x40);
     } else {
@@ -166,12 +224,22 @@ public class Sixbit {
   }
 
   /**
-   * Return string from bit vector
+   * Return string from bit vector. Strings are resolved through the shared
+   * {@link SixbitStringCache}, so repeated names and call signs return the same
+   * instance.
    *
    * @param fromIndex begin index (inclusive)
    * @param toIndex   end index (inclusive)
    */
   public String getString(int fromIndex, int toIndex) {
+    SixbitStringCache cache = stringCache;
+    return cache == null ? decodeString(fromIndex, toIndex) : cache.get(this, fromIndex, toIndex);
+  }
+
+  /**
+   * Decodes a string from bit vector, bypassing the cache.
+   */
+  String decodeString(int fromIndex, int toIndex) {
     StringBuilder sb = new StringBuilder();
     for (int i = fromIndex; i < toIndex; i += BITSPERCHAR) {
       int value = getInt(i, i + BITSPERCHAR);
@@ -180,6 +248,24 @@ public class Sixbit {
     return stripAtSigns(sb.toString());
   }
 
+  /**
+   * Returns the cache used by {@link #getString(int, int)}.
+   *
+   * @return string cache, or <code>null</code> if disabled.
+   */
+  public static SixbitStringCache getStringCache() {
+    return stringCache;
+  }
+
+  /**
+   * Sets the cache used by {@link #getString(int, int)}.
+   *
+   * @param cache String cache, or <code>null</code> to disable caching.
+   */
+  public static void setStringCache(SixbitStringCache cache) {
+    stringCache = cache;
+  }
+
   public static String stripAtSigns(String orig) {
     int end = orig.length() - 1;
     for (int i = orig.length() - 1; i >= 0; i--) {
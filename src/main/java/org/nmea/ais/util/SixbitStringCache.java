@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of strings decoded from AIS payloads, such as vessel names,
+ * call signs and destinations. Static data is repeated every few minutes by
+ * each vessel, so the same bits are decoded again and again; the cache maps
+ * the raw bits of a string field to the decoded String, so that a repeated
+ * field resolves to the same instance without decoding or allocating.
+ * <p>
+ * The cache is direct-mapped by a hash of the packed bits. Each slot holds an
+ * immutable entry with the complete key, so a colliding field simply replaces
+ * the entry and lookups never return a wrong string. Fields longer than
+ * {@link #MAX_BITS} are not cached. Safe for concurrent use.
+ *
+ * @author Key Bridge
+ * @see Sixbit#getString(int, int)
+ */
+public class SixbitStringCache {
+
+  /**
+   * Longest field cached, in bits: 21 characters.
+   */
+  public static final int MAX_BITS = 126;
+  /**
+   * Default number of entries.
+   */
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  // bits read at a time, five characters
+  private static final int CHUNK = 30;
+
+  private final Entry[] entries;
+  private final int mask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Creates a new cache with default capacity.
+   */
+  public SixbitStringCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new cache.
+   *
+   * @param capacity Number of entries, rounded up to a power of two
+   * @throws IllegalArgumentException If capacity is not positive.
+   */
+  public SixbitStringCache(int capacity) {
+    if (capacity <= 0 || capacity > 1 << 24) {
+      throw new IllegalArgumentException("Capacity must be from 1 to 2^24");
+    }
+    int size = Integer.highestOneBit(capacity * 2 - 1);
+    entries = new Entry[size];
+    mask = size - 1;
+  }
+
+  /**
+   * Returns the string encoded in a range of bits, with trailing '@'
+   * characters removed.
+   *
+   * @param bits      Payload bits
+   * @param fromIndex begin index (inclusive)
+   * @param toIndex   end index (inclusive)
+   * @return decoded String, same instance for repeated fields while cached.
+   */
+  public String get(Sixbit bits, int fromIndex, int toIndex) {
+    int length = toIndex - fromIndex;
+    if (length <= 0 || length > MAX_BITS || length % Sixbit.BITSPERCHAR != 0) {
+      misses.increment();
+      return bits.decodeString(fromIndex, toIndex);
+    }
+    long high = 0;
+    long low = 0;
+    for (int i = fromIndex; i < toIndex; i += CHUNK) {
+      int n = Math.min(CHUNK, toIndex - i);
+      // shift the 128-bit key left by n bits and append the chunk
+      high = high << n | low >>> (64 - n);
+      low = low << n | bits.getInt(i, i + n);
+    }
+    int slot = hash(high, low, length) & mask;
+    Entry e = entries[slot];
+    if (e != null && e.low == low && e.high == high && e.length == length) {
+      hits.increment();
+      return e.value;
+    }
+    misses.increment();
+    String value = decode(high, low, length);
+    entries[slot] = new Entry(high, low, length, value);
+    return value;
+  }
+
+  /**
+   * Returns the number of lookups resolved from cache.
+   *
+   * @return hit count
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups that decoded the string.
+   *
+   * @return miss count
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the fraction of lookups resolved from cache.
+   *
+   * @return hit rate from 0.0 to 1.0, or 0.0 if no lookups.
+   */
+  public double getHitRate() {
+    long h = hits.sum();
+    long total = h + misses.sum();
+    return total == 0 ? 0.0 : (double) h / total;
+  }
+
+  /**
+   * Removes all entries and resets the counters.
+   */
+  public void clear() {
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = null;
+    }
+    hits.reset();
+    misses.reset();
+  }
+
+  /**
+   * Decodes the characters of a packed key, last character in lowest bits.
+   */
+  private static String decode(long high, long low, int length) {
+    char[] chars = new char[length / Sixbit.BITSPERCHAR];
+    for (int i = chars.length - 1; i >= 0; i--) {
+      chars[i] = Sixbit.binaryToContent((int) (low & 0x3F));
+      low = low >>> Sixbit.BITSPERCHAR | high << (64 - Sixbit.BITSPERCHAR);
+      high = high >>> Sixbit.BITSPERCHAR;
+    }
+    return Sixbit.stripAtSigns(new String(chars));
+  }
+
+  private static int hash(long high, long low, int length) {
+    long h = (high * 0x9E3779B97F4A7C15L + low) * 0xC2B2AE3D27D4EB4FL + length;
+    h ^= h >>> 29;
+    return (int) (h ^ h >>> 32);
+  }
+
+  /**
+   * Cached string with its key.
+   */
+  private static class Entry {
+
+    private final long high;
+    private final long low;
+    private final int length;
+    private final String value;
+
+    Entry(long high, long low, int length, String value) {
+      this.high = high;
+      this.low = low;
+      this.length = length;
+      this.value = value;
+    }
+  }
+}
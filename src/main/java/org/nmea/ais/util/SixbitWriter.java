@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.util;
+
+/**
+ * Packs message fields into AIS payload bits and armors them into six-bit
+ * payload characters; the reverse of {@link Sixbit}. Bits are stored in a
+ * reusable array of longs, so an instance can encode any number of messages
+ * without allocating. Not thread-safe.
+ *
+ * @author Key Bridge
+ * @see org.nmea.ais.parser.AISMessageEncoder
+ */
+public class SixbitWriter {
+
+  /**
+   * Maximum payload length of an AIS message (five slots), in bits.
+   */
+  public static final int MAX_BITS = 1008;
+
+  private final long[] words = new long[(MAX_BITS + 63) >>> 6];
+  private int length;
+
+  /**
+   * Discards the bits written.
+   */
+  public void reset() {
+    for (int i = 0; i < words.length; i++) {
+      words[i] = 0;
+    }
+    length = 0;
+  }
+
+  /**
+   * Returns the number of bits written.
+   *
+   * @return bit count
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Returns the number of payload characters needed for the bits written.
+   *
+   * @return character count
+   */
+  public int getCharCount() {
+    return (length + Sixbit.BITSPERCHAR - 1) / Sixbit.BITSPERCHAR;
+  }
+
+  /**
+   * Returns the number of fill bits padding the last payload character.
+   *
+   * @return fill bits, 0 to 5
+   */
+  public int getFillBits() {
+    return getCharCount() * Sixbit.BITSPERCHAR - length;
+  }
+
+  /**
+   * Appends the lowest bits of a value, MSB first. Negative values are written
+   * in two's complement.
+   *
+   * @param value Value to write
+   * @param bits  Number of bits, 1 to 32
+   * @throws IllegalArgumentException If bit count is out of range.
+   * @throws IllegalStateException    If payload would exceed
+   *                                  {@link #MAX_BITS}.
+   */
+  public void putInt(int value, int bits) {
+    if (bits < 1 || bits > 32) {
+      throw new IllegalArgumentException("Invalid bit count: " + bits);
+    }
+    if (length + bits > MAX_BITS) {
+      throw new IllegalStateException("Payload too long");
+    }
+    long v = value & (-1L >>> (64 - bits));
+    int index = length >>> 6;
+    int free = 64 - (length & 63);
+    if (bits <= free) {
+      words[index] |= v << (free - bits);
+    } else {
+      words[index] |= v >>> (bits - free);
+      words[index + 1] |= v << (64 - bits + free);
+    }
+    length += bits;
+  }
+
+  /**
+   * Appends a single bit.
+   *
+   * @param value Value to write
+   */
+  public void putBoolean(boolean value) {
+    putInt(value ? 1 : 0, 1);
+  }
+
+  /**
+   * Appends a string as six-bit characters, padded with '@' or truncated to
+   * specified length. Lower case letters are converted to upper case and
+   * characters outside the AIS character set are written as '?'.
+   *
+   * @param value String to write, <code>null</code> writes only padding.
+   * @param chars Number of characters
+   */
+  public void putString(String value, int chars) {
+    int n = value == null ? 0 : Math.min(chars, value.length());
+    for (int i = 0; i < n; i++) {
+      char c = value.charAt(i);
+      if (c >= 'a' && c <= 'z') {
+        c -= 'a' - 'A';
+      } else if (c < 0x20 || c > 0x5F) {
+        c = '?';
+      }
+      putInt(c & 0x3F, Sixbit.BITSPERCHAR);
+    }
+    for (int i = n; i < chars; i++) {
+      putInt(0, Sixbit.BITSPERCHAR);
+    }
+  }
+
+  /**
+   * Appends a latitude as 1/10000 minutes in 27 bits.
+   *
+   * @param degrees Latitude in degrees, 91 if not available
+   */
+  public void putLatitude(double degrees) {
+    putInt((int) Math.round(degrees * 600000.0), 27);
+  }
+
+  /**
+   * Appends a longitude as 1/10000 minutes in 28 bits.
+   *
+   * @param degrees Longitude in degrees, 181 if not available
+   */
+  public void putLongitude(double degrees) {
+    putInt((int) Math.round(degrees * 600000.0), 28);
+  }
+
+  /**
+   * Appends armored payload characters; bits after the end of payload are
+   * written as zero fill bits.
+   *
+   * @param out  Buffer to append to
+   * @param from Index of first character
+   * @param to   Index after last character
+   */
+  public void armor(StringBuilder out, int from, int to) {
+    for (int i = from; i < to; i++) {
+      int bit = i * Sixbit.BITSPERCHAR;
+      int index = bit >>> 6;
+      int offset = bit & 63;
+      long v = words[index] << offset;
+      if (offset > 64 - Sixbit.BITSPERCHAR && index + 1 < words.length) {
+        v |= words[index + 1] >>> (64 - offset);
+      }
+      int c = (int) (v >>> (64 - Sixbit.BITSPERCHAR));
+      out.append((char) (c < 40 ? c + 48 : c + 56));
+    }
+  }
+
+  /**
+   * Returns the bits written as a new Sixbit.
+   *
+   * @return Sixbit of the payload
+   */
+  public Sixbit toSixbit() {
+    byte[] bytes = new byte[(length + 7) >>> 3];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (words[i >>> 3] >>> (56 - ((i & 7) << 3)));
+    }
+    return new Sixbit(bytes, length);
+  }
+}
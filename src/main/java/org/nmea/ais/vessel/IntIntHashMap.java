@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative int keys (MMSI) to non-negative int
+ * values, without boxing. Not thread-safe.
+ *
+ * @author Key Bridge
+ */
+class IntIntHashMap {
+
+  private static final int EMPTY = -1;
+  private static final int REMOVED = -2;
+
+  private int[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+  private int used;
+
+  IntIntHashMap(int capacity) {
+    allocate(Integer.highestOneBit(Math.max(16, capacity * 4 - 1)));
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the value of a key, or -1 if not found.
+   */
+  int get(int key) {
+    for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+      int k = keys[slot];
+      if (k == key) {
+        return values[slot];
+      } else if (k == EMPTY) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Associates a value with a key.
+   *
+   * @return previous value, or -1 if none.
+   */
+  int put(int key, int value) {
+    int free = -1;
+    int slot = hash(key) & mask;
+    for (;; slot = (slot + 1) & mask) {
+      int k = keys[slot];
+      if (k == key) {
+        int previous = values[slot];
+        values[slot] = value;
+        return previous;
+      } else if (k == EMPTY) {
+        break;
+      } else if (k == REMOVED && free < 0) {
+        free = slot;
+      }
+    }
+    if (free >= 0) {
+      slot = free;
+    } else {
+      used++;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+    if (used > keys.length / 2) {
+      rehash();
+    }
+    return -1;
+  }
+
+  /**
+   * Removes a key.
+   *
+   * @return removed value, or -1 if not found.
+   */
+  int remove(int key) {
+    for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+      int k = keys[slot];
+      if (k == key) {
+        keys[slot] = REMOVED;
+        size--;
+        return values[slot];
+      } else if (k == EMPTY) {
+        return -1;
+      }
+    }
+  }
+
+  private void rehash() {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(Integer.highestOneBit(Math.max(16, size * 4 - 1)));
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] >= 0) {
+        int slot = hash(oldKeys[i]) & mask;
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+        used++;
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+    mask = capacity - 1;
+    used = 0;
+  }
+
+  static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+import java.util.Arrays;
+import java.util.Objects;
+import org.nmea.ais.message.AISMessage24;
+
+/**
+ * Combines parts A and B of AIS message type 24 (Class B static data report)
+ * by MMSI. Part A carries the name of the vessel and part B the ship type,
+ * vendor, call sign and dimensions; {@link #update(AISMessage24, long)} returns
+ * a combined record when both parts have been received within the maximum age
+ * and their data differs from the record returned previously, so consumers only
+ * see changes.
+ * <p>
+ * The cache has a fixed number of rows, indexed by an {@link IntIntHashMap},
+ * and stores keys, times and numeric fields in primitive arrays, so updates do
+ * not allocate unless data changes. Rows not updated for longer than the
+ * maximum age are removed a few at a time on each update. When the cache is
+ * full, the row at the expiry cursor is evicted. Not thread-safe: call from one
+ * thread, typically the thread of the {@link org.nmea.io.SentenceReader}.
+ *
+ * @author Key Bridge
+ */
+public class StaticDataMerger {
+
+  /**
+   * Default maximum age of a part, 15 minutes. Class B stations send static
+   * data every 6 minutes.
+   */
+  public static final long DEFAULT_MAX_AGE = 15 * 60 * 1000L;
+
+  // marks a part not received
+  private static final long NEVER = Long.MIN_VALUE / 2;
+  // number of rows inspected for expiry on each update
+  private static final int EXPIRY_STEP = 4;
+
+  private final IntIntHashMap index;
+  private final int[] mmsis;
+  private final long[] timesA;
+  private final long[] timesB;
+  private final boolean[] changed;
+  private final String[] names;
+  private final String[] vendorIds;
+  private final String[] callSigns;
+  private final int[] shipTypes;
+  private final int[] unitModelCodes;
+  private final int[] serialNumbers;
+  // bow, stern, port and starboard of each row
+  private final int[] dimensions;
+  private final int[] free;
+  private int freeCount;
+  private int cursor;
+  private long maxAge = DEFAULT_MAX_AGE;
+
+  /**
+   * Creates a new merger for 65536 vessels.
+   */
+  public StaticDataMerger() {
+    this(1 << 16);
+  }
+
+  /**
+   * Creates a new merger.
+   *
+   * @param capacity Maximum number of vessels
+   * @throws IllegalArgumentException If capacity is not positive.
+   */
+  public StaticDataMerger(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    index = new IntIntHashMap(capacity);
+    mmsis = new int[capacity];
+    timesA = new long[capacity];
+    timesB = new long[capacity];
+    changed = new boolean[capacity];
+    names = new String[capacity];
+    vendorIds = new String[capacity];
+    callSigns = new String[capacity];
+    shipTypes = new int[capacity];
+    unitModelCodes = new int[capacity];
+    serialNumbers = new int[capacity];
+    dimensions = new int[capacity * 4];
+    free = new int[capacity];
+    for (int i = 0; i < capacity; i++) {
+      free[i] = capacity - 1 - i;
+      mmsis[i] = -1;
+    }
+    freeCount = capacity;
+  }
+
+  /**
+   * Returns the number of vessels in cache.
+   *
+   * @return vessel count
+   */
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   * Returns the maximum age of a part.
+   *
+   * @return milliseconds
+   */
+  public long getMaxAge() {
+    return maxAge;
+  }
+
+  /**
+   * Sets the maximum age of a part. Parts older than this are not combined
+   * and vessels not heard for longer are removed.
+   *
+   * @param millis Maximum age in milliseconds
+   * @throws IllegalArgumentException If value is not positive.
+   */
+  public void setMaxAge(long millis) {
+    if (millis <= 0) {
+      throw new IllegalArgumentException("Maximum age must be positive");
+    }
+    this.maxAge = millis;
+  }
+
+  /**
+   * Updates the cache with a message received now.
+   *
+   * @param message Static data report
+   * @return Combined data if changed, otherwise <code>null</code>.
+   */
+  public StaticVesselData update(AISMessage24 message) {
+    return update(message, System.currentTimeMillis());
+  }
+
+  /**
+   * Updates the cache with a message.
+   *
+   * @param message Static data report
+   * @param time    Receive time, milliseconds since epoch
+   * @return Combined data if both parts are known and either has changed since
+   *         last returned, otherwise <code>null</code>.
+   */
+  public StaticVesselData update(AISMessage24 message, long time) {
+    int mmsi = message.getMMSI();
+    int row = index.get(mmsi);
+    if (row < 0) {
+      row = insert(mmsi, time);
+    }
+    if (message.getPartNumber() == 0) {
+      String name = trim(message.getName());
+      changed[row] |= !Objects.equals(name, names[row]);
+      names[row] = name;
+      timesA[row] = time;
+    } else {
+      String vendorId = trim(message.getVendorId());
+      String callSign = trim(message.getCallSign());
+      int d = row * 4;
+      changed[row] |= shipTypes[row] != message.getTypeOfShipAndCargoType()
+        || unitModelCodes[row] != message.getUnitModelCode()
+        || serialNumbers[row] != message.getSerialNumber()
+        || dimensions[d] != message.getBow() || dimensions[d + 1] != message.getStern()
+        || dimensions[d + 2] != message.getPort() || dimensions[d + 3] != message.getStarboard()
+        || !Objects.equals(vendorId, vendorIds[row]) || !Objects.equals(callSign, callSigns[row]);
+      vendorIds[row] = vendorId;
+      callSigns[row] = callSign;
+      shipTypes[row] = message.getTypeOfShipAndCargoType();
+      unitModelCodes[row] = message.getUnitModelCode();
+      serialNumbers[row] = message.getSerialNumber();
+      dimensions[d] = message.getBow();
+      dimensions[d + 1] = message.getStern();
+      dimensions[d + 2] = message.getPort();
+      dimensions[d + 3] = message.getStarboard();
+      timesB[row] = time;
+    }
+    StaticVesselData data = null;
+    if (changed[row] && isComplete(row, time)) {
+      changed[row] = false;
+      data = toData(row);
+    }
+    expire(time, EXPIRY_STEP);
+    return data;
+  }
+
+  /**
+   * Returns the combined data of a vessel now.
+   *
+   * @param mmsi MMSI of the vessel
+   * @return Combined data, or <code>null</code> if not known.
+   * @see #get(int, long)
+   */
+  public StaticVesselData get(int mmsi) {
+    return get(mmsi, System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the combined data of a vessel, if both parts are in cache and
+   * neither is older than the maximum age, as required by
+   * {@link #update(AISMessage24, long)}.
+   *
+   * @param mmsi MMSI of the vessel
+   * @param now  Current time, milliseconds since epoch
+   * @return Combined data, or <code>null</code> if not known.
+   */
+  public StaticVesselData get(int mmsi, long now) {
+    int row = mmsi < 0 ? -1 : index.get(mmsi);
+    if (row < 0 || !isComplete(row, now)) {
+      return null;
+    }
+    return toData(row);
+  }
+
+  /**
+   * Removes all vessels not heard for longer than the maximum age.
+   *
+   * @param now Current time, milliseconds since epoch
+   * @return number of vessels removed
+   */
+  public int expire(long now) {
+    return expire(now, mmsis.length);
+  }
+
+  /**
+   * Inspects a number of rows from the expiry cursor onwards, removing stale
+   * vessels.
+   */
+  private int expire(long now, int rows) {
+    long limit = now - maxAge;
+    int removed = 0;
+    for (int i = 0; i < rows; i++) {
+      int row = cursor = (cursor + 1) % mmsis.length;
+      if (mmsis[row] >= 0 && Math.max(timesA[row], timesB[row]) < limit) {
+        remove(row);
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  private int insert(int mmsi, long time) {
+    if (freeCount == 0) {
+      remove(cursor = (cursor + 1) % mmsis.length);
+    }
+    int row = free[--freeCount];
+    mmsis[row] = mmsi;
+    timesA[row] = NEVER;
+    timesB[row] = NEVER;
+    index.put(mmsi, row);
+    return row;
+  }
+
+  private void remove(int row) {
+    index.remove(mmsis[row]);
+    mmsis[row] = -1;
+    changed[row] = false;
+    names[row] = null;
+    vendorIds[row] = null;
+    callSigns[row] = null;
+    shipTypes[row] = 0;
+    unitModelCodes[row] = 0;
+    serialNumbers[row] = 0;
+    Arrays.fill(dimensions, row * 4, row * 4 + 4, 0);
+    free[freeCount++] = row;
+  }
+
+  private boolean isComplete(int row, long time) {
+    long limit = time - maxAge;
+    return timesA[row] >= limit && timesB[row] >= limit;
+  }
+
+  private StaticVesselData toData(int row) {
+    int d = row * 4;
+    return new StaticVesselData(mmsis[row], names[row], shipTypes[row], vendorIds[row],
+                                unitModelCodes[row], serialNumbers[row], callSigns[row],
+                                dimensions[d], dimensions[d + 1], dimensions[d + 2], dimensions[d + 3]);
+  }
+
+  private static String trim(String s) {
+    return s == null ? null : s.trim();
+  }
+}
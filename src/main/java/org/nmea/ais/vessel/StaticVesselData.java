@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+import java.util.Objects;
+
+/**
+ * Static data of a Class B vessel, combined from parts A and B of AIS message
+ * type 24 by {@link StaticDataMerger}. Instances are immutable.
+ *
+ * @author Key Bridge
+ */
+public class StaticVesselData {
+
+  private final int mmsi;
+  private final String name;
+  private final int shipType;
+  private final String vendorId;
+  private final int unitModelCode;
+  private final int serialNumber;
+  private final String callSign;
+  private final int bow;
+  private final int stern;
+  private final int port;
+  private final int starboard;
+
+  StaticVesselData(int mmsi, String name, int shipType, String vendorId, int unitModelCode,
+                   int serialNumber, String callSign, int bow, int stern, int port, int starboard) {
+    this.mmsi = mmsi;
+    this.name = name;
+    this.shipType = shipType;
+    this.vendorId = vendorId;
+    this.unitModelCode = unitModelCode;
+    this.serialNumber = serialNumber;
+    this.callSign = callSign;
+    this.bow = bow;
+    this.stern = stern;
+    this.port = port;
+    this.starboard = starboard;
+  }
+
+  /**
+   * Returns the MMSI of the vessel.
+   *
+   * @return MMSI
+   */
+  public int getMMSI() {
+    return mmsi;
+  }
+
+  /**
+   * Returns the name of the vessel, from part A.
+   *
+   * @return name, trimmed
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the type of ship and cargo, from part B.
+   *
+   * @return ship type
+   * @see org.nmea.ais.util.ShipType
+   */
+  public int getShipType() {
+    return shipType;
+  }
+
+  /**
+   * Returns the vendor id, from part B.
+   *
+   * @return vendor id
+   */
+  public String getVendorId() {
+    return vendorId;
+  }
+
+  /**
+   * Returns the unit model code, from part B.
+   *
+   * @return unit model code
+   */
+  public int getUnitModelCode() {
+    return unitModelCode;
+  }
+
+  /**
+   * Returns the serial number, from part B.
+   *
+   * @return serial number
+   */
+  public int getSerialNumber() {
+    return serialNumber;
+  }
+
+  /**
+   * Returns the call sign, from part B.
+   *
+   * @return call sign, trimmed
+   */
+  public String getCallSign() {
+    return callSign;
+  }
+
+  /**
+   * Returns the distance from the reference point to the bow.
+   *
+   * @return distance in meters
+   */
+  public int getBow() {
+    return bow;
+  }
+
+  /**
+   * Returns the distance from the reference point to the stern.
+   *
+   * @return distance in meters
+   */
+  public int getStern() {
+    return stern;
+  }
+
+  /**
+   * Returns the distance from the reference point to port side.
+   *
+   * @return distance in meters
+   */
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * Returns the distance from the reference point to starboard side.
+   *
+   * @return distance in meters
+   */
+  public int getStarboard() {
+    return starboard;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof StaticVesselData)) {
+      return false;
+    }
+    StaticVesselData other = (StaticVesselData) obj;
+    return mmsi == other.mmsi && shipType == other.shipType
+      && unitModelCode == other.unitModelCode && serialNumber == other.serialNumber
+      && bow == other.bow && stern == other.stern && port == other.port && starboard == other.starboard
+      && Objects.equals(name, other.name) && Objects.equals(vendorId, other.vendorId)
+      && Objects.equals(callSign, other.callSign);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(mmsi, name, callSign, shipType);
+  }
+
+  @Override
+  public String toString() {
+    return "StaticVesselData{" + "mmsi=" + mmsi + ", name=" + name + ", shipType=" + shipType
+      + ", vendorId=" + vendorId + ", callSign=" + callSign + ", bow=" + bow + ", stern=" + stern
+      + ", port=" + port + ", starboard=" + starboard + '}';
+  }
+}
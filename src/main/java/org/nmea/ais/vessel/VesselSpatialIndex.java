@@ -0,0 +1,501 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import org.nmea.ais.message.AISMessage;
+import org.nmea.ais.message.AISPositionInfo;
+import org.nmea.type.Position;
+
+/**
+ * Spatial index of vessel positions for radius, bounding box and nearest
+ * neighbour queries, keyed by MMSI and updated in place as position reports
+ * arrive.
+ * <p>
+ * The index is a fixed latitude/longitude grid. Each grid cell holds an
+ * intrusive linked list of the vessels in it, stored in primitive arrays, so
+ * moving a vessel from one cell to another does not allocate. Queries examine
+ * only the cells overlapping the search area and compute exact distances with
+ * the haversine formula, using the same earth radius as
+ * {@link Position#distanceTo(Position)}. Longitudes wrap at the antimeridian.
+ * <p>
+ * The index is thread-safe; updates take an exclusive lock and queries a shared
+ * lock.
+ *
+ * @author Key Bridge
+ * @see VesselStateTable
+ */
+public class VesselSpatialIndex {
+
+  /**
+   * Default grid cell size in degrees.
+   */
+  public static final double DEFAULT_CELL_SIZE = 0.25;
+
+  // earth radius in meters, see Position#distanceTo
+  private static final double EARTH_RADIUS = 6366707.02;
+  private static final double METERS_PER_DEGREE = EARTH_RADIUS * Math.PI / 180;
+  private static final int NONE = -1;
+
+  private final double cellSize;
+  private final int rows;
+  private final int cols;
+  private final int[] heads;
+  private final IntIntHashMap entries = new IntIntHashMap(1024);
+  private final StampedLock lock = new StampedLock();
+
+  // entry columns
+  private int[] mmsis = new int[1024];
+  private double[] latitudes = new double[1024];
+  private double[] longitudes = new double[1024];
+  private long[] times = new long[1024];
+  private int[] cells = new int[1024];
+  private int[] next = new int[1024];
+  private int[] previous = new int[1024];
+  private int count;
+  private int free = NONE;
+
+  /**
+   * Creates a new index with default cell size.
+   */
+  public VesselSpatialIndex() {
+    this(DEFAULT_CELL_SIZE);
+  }
+
+  /**
+   * Creates a new index.
+   *
+   * @param cellSize Grid cell size in degrees; should be in the order of the
+   *                 typical search radius.
+   */
+  public VesselSpatialIndex(double cellSize) {
+    if (!(cellSize > 0 && cellSize <= 90)) {
+      throw new IllegalArgumentException("Invalid cell size: " + cellSize);
+    }
+    this.cellSize = cellSize;
+    this.rows = (int) Math.ceil(180 / cellSize);
+    this.cols = (int) Math.ceil(360 / cellSize);
+    this.heads = new int[rows * cols];
+    Arrays.fill(heads, NONE);
+  }
+
+  /**
+   * Returns the number of vessels in index.
+   *
+   * @return vessel count
+   */
+  public int size() {
+    long stamp = lock.readLock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Updates the position of a vessel from a position report received now.
+   *
+   * @param message AIS message
+   * @return <code>true</code> if the message is a position report
+   */
+  public boolean update(AISMessage message) {
+    return update(message, System.currentTimeMillis());
+  }
+
+  /**
+   * Updates the position of a vessel from a position report. Reports without
+   * valid position remove the vessel from index.
+   *
+   * @param message AIS message
+   * @param time    Receive time, milliseconds since epoch
+   * @return <code>true</code> if the message is a position report
+   */
+  public boolean update(AISMessage message, long time) {
+    if (!(message instanceof AISPositionInfo)) {
+      return false;
+    }
+    AISPositionInfo p = (AISPositionInfo) message;
+    update(message.getMMSI(), p.getLatitudeInDegrees(), p.getLongitudeInDegrees(), time);
+    return true;
+  }
+
+  /**
+   * Updates the position of a vessel. Invalid or not available position (91,
+   * 181) removes the vessel from index.
+   *
+   * @param mmsi      MMSI of the vessel
+   * @param latitude  Latitude in degrees
+   * @param longitude Longitude in degrees
+   * @param time      Time of position, milliseconds since epoch
+   */
+  public void update(int mmsi, double latitude, double longitude, long time) {
+    if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+      remove(mmsi);
+      return;
+    }
+    int cell = cellOf(latitude, longitude);
+    long stamp = lock.writeLock();
+    try {
+      int e = entries.get(mmsi);
+      if (e == NONE) {
+        e = allocate();
+        mmsis[e] = mmsi;
+        entries.put(mmsi, e);
+        link(e, cell);
+      } else if (cells[e] != cell) {
+        unlink(e);
+        link(e, cell);
+      }
+      latitudes[e] = latitude;
+      longitudes[e] = longitude;
+      times[e] = time;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Removes a vessel from index.
+   *
+   * @param mmsi MMSI of the vessel
+   * @return <code>true</code> if removed, <code>false</code> if not found.
+   */
+  public boolean remove(int mmsi) {
+    long stamp = lock.writeLock();
+    try {
+      int e = entries.remove(mmsi);
+      if (e == NONE) {
+        return false;
+      }
+      release(e);
+      return true;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Removes the vessels whose position is older than specified time.
+   *
+   * @param time Milliseconds since epoch
+   * @return number of vessels removed
+   */
+  public int removeOlderThan(long time) {
+    long stamp = lock.writeLock();
+    try {
+      int removed = 0;
+      for (int e = 0; e < count; e++) {
+        if (cells[e] != NONE && times[e] < time) {
+          entries.remove(mmsis[e]);
+          release(e);
+          removed++;
+        }
+      }
+      return removed;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Finds the vessels within a distance from a position.
+   *
+   * @param position Center position
+   * @param meters   Radius in meters
+   * @return MMSIs of the vessels found, in no particular order.
+   */
+  public int[] findWithinRadius(Position position, double meters) {
+    return findWithinRadius(position.getLatitude(), position.getLongitude(), meters);
+  }
+
+  /**
+   * Finds the vessels within a distance from a position.
+   *
+   * @param latitude  Latitude of center, in degrees
+   * @param longitude Longitude of center, in degrees
+   * @param meters    Radius in meters
+   * @return MMSIs of the vessels found, in no particular order.
+   */
+  public int[] findWithinRadius(double latitude, double longitude, double meters) {
+    long stamp = lock.readLock();
+    try {
+      Result result = new Result();
+      collectWithinRadius(latitude, longitude, meters, result);
+      return Arrays.copyOf(result.mmsis, result.size);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Finds the vessels within a bounding box. If west is greater than east, the
+   * box is taken to cross the antimeridian.
+   *
+   * @param south Southern latitude, in degrees
+   * @param west  Western longitude, in degrees
+   * @param north Northern latitude, in degrees
+   * @param east  Eastern longitude, in degrees
+   * @return MMSIs of the vessels found, in no particular order.
+   */
+  public int[] findWithinBox(double south, double west, double north, double east) {
+    if (south > north) {
+      throw new IllegalArgumentException("South is greater than north");
+    }
+    long stamp = lock.readLock();
+    try {
+      Result result = new Result();
+      int minRow = rowOf(south);
+      int maxRow = rowOf(north);
+      int minCol = colOf(west);
+      int span = (colOf(east) - minCol + cols) % cols;
+      if (west > east && span == 0) {
+        span = cols - 1;
+      }
+      for (int r = minRow; r <= maxRow; r++) {
+        for (int c = 0; c <= span; c++) {
+          for (int e = heads[r * cols + (minCol + c) % cols]; e != NONE; e = next[e]) {
+            double lat = latitudes[e];
+            double lon = longitudes[e];
+            boolean inLon = west <= east ? lon >= west && lon <= east : lon >= west || lon <= east;
+            if (lat >= south && lat <= north && inLon) {
+              result.add(mmsis[e], 0);
+            }
+          }
+        }
+      }
+      return Arrays.copyOf(result.mmsis, result.size);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Finds the vessels nearest to a position.
+   *
+   * @param latitude  Latitude in degrees
+   * @param longitude Longitude in degrees
+   * @param k         Maximum number of vessels to find
+   * @return MMSIs of up to <code>k</code> vessels, nearest first.
+   */
+  public int[] findNearest(double latitude, double longitude, int k) {
+    if (k <= 0) {
+      return new int[0];
+    }
+    long stamp = lock.readLock();
+    try {
+      // expand rings of cells until k candidates are found; the k:th
+      // smallest candidate distance bounds the search radius. With no more
+      // vessels than k, or once more cells were visited than there are
+      // vessels, scanning all vessels is cheaper.
+      int row = rowOf(latitude);
+      int col = colOf(longitude);
+      int live = entries.size();
+      Result candidates = new Result();
+      boolean all = live <= k;
+      long visited = 0;
+      for (int ring = 0; !all && candidates.size < k; ring++) {
+        if (2 * ring + 1 >= cols || visited > live) {
+          // rings wrap around the globe or cost more than a full scan
+          all = true;
+          break;
+        }
+        for (int r = row - ring; r <= row + ring; r++) {
+          if (r < 0 || r >= rows) {
+            continue;
+          }
+          boolean edge = r == row - ring || r == row + ring;
+          for (int c = col - ring; c <= col + ring; c += edge ? 1 : 2 * Math.max(ring, 1)) {
+            visited++;
+            for (int e = heads[r * cols + Math.floorMod(c, cols)]; e != NONE; e = next[e]) {
+              candidates.add(mmsis[e], distance(latitude, longitude, latitudes[e], longitudes[e]));
+            }
+            if (ring == 0) {
+              break;
+            }
+          }
+        }
+      }
+      if (all) {
+        Result result = new Result();
+        for (int e = 0; e < count; e++) {
+          if (cells[e] != NONE) {
+            result.add(mmsis[e], distance(latitude, longitude, latitudes[e], longitudes[e]));
+          }
+        }
+        return result.nearest(k);
+      }
+      if (candidates.size == 0) {
+        return new int[0];
+      }
+      double[] d = Arrays.copyOf(candidates.distances, candidates.size);
+      Arrays.sort(d);
+      double radius = d[Math.min(k, d.length) - 1];
+
+      Result result = new Result();
+      collectWithinRadius(latitude, longitude, radius, result);
+      return result.nearest(k);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Collects the vessels within radius, called with the lock held.
+   */
+  private void collectWithinRadius(double latitude, double longitude, double meters, Result result) {
+    double dLat = meters / METERS_PER_DEGREE;
+    double south = latitude - dLat;
+    double north = latitude + dLat;
+    int minRow = rowOf(Math.max(-90, south));
+    int maxRow = rowOf(Math.min(90, north));
+    int minCol;
+    int span;
+    double maxAbsLat = Math.max(Math.abs(south), Math.abs(north));
+    double dLon = maxAbsLat >= 90 ? 180 : dLat / Math.cos(Math.toRadians(maxAbsLat));
+    if (dLon >= 180) {
+      minCol = 0;
+      span = cols - 1;
+    } else {
+      minCol = colOf(longitude - dLon);
+      span = (int) Math.floor((longitude + dLon + 180) / cellSize) - (int) Math.floor((longitude - dLon + 180) / cellSize);
+      span = Math.min(span, cols - 1);
+    }
+    for (int r = minRow; r <= maxRow; r++) {
+      for (int c = 0; c <= span; c++) {
+        for (int e = heads[r * cols + (minCol + c) % cols]; e != NONE; e = next[e]) {
+          double d = distance(latitude, longitude, latitudes[e], longitudes[e]);
+          if (d <= meters) {
+            result.add(mmsis[e], d);
+          }
+        }
+      }
+    }
+  }
+
+  private int cellOf(double latitude, double longitude) {
+    return rowOf(latitude) * cols + colOf(longitude);
+  }
+
+  private int rowOf(double latitude) {
+    return Math.min(rows - 1, Math.max(0, (int) ((latitude + 90) / cellSize)));
+  }
+
+  private int colOf(double longitude) {
+    return Math.floorMod((int) Math.floor((longitude + 180) / cellSize), cols);
+  }
+
+  private void link(int e, int cell) {
+    int head = heads[cell];
+    next[e] = head;
+    previous[e] = NONE;
+    if (head != NONE) {
+      previous[head] = e;
+    }
+    heads[cell] = e;
+    cells[e] = cell;
+  }
+
+  private void unlink(int e) {
+    int n = next[e];
+    int p = previous[e];
+    if (p != NONE) {
+      next[p] = n;
+    } else {
+      heads[cells[e]] = n;
+    }
+    if (n != NONE) {
+      previous[n] = p;
+    }
+    cells[e] = NONE;
+  }
+
+  /**
+   * Returns a free entry, reusing released entries first.
+   */
+  private int allocate() {
+    if (free != NONE) {
+      int e = free;
+      free = next[e];
+      return e;
+    }
+    if (count == mmsis.length) {
+      int n = count * 2;
+      mmsis = Arrays.copyOf(mmsis, n);
+      latitudes = Arrays.copyOf(latitudes, n);
+      longitudes = Arrays.copyOf(longitudes, n);
+      times = Arrays.copyOf(times, n);
+      cells = Arrays.copyOf(cells, n);
+      next = Arrays.copyOf(next, n);
+      previous = Arrays.copyOf(previous, n);
+    }
+    return count++;
+  }
+
+  private void release(int e) {
+    unlink(e);
+    next[e] = free;
+    free = e;
+  }
+
+  /**
+   * Haversine distance in meters.
+   */
+  static double distance(double lat1, double lon1, double lat2, double lon2) {
+    double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+    double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+    double a = sinLat * sinLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+    return 2 * EARTH_RADIUS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  }
+
+  /**
+   * Growable query result of MMSIs and distances.
+   */
+  private static final class Result {
+
+    int[] mmsis = new int[32];
+    double[] distances = new double[32];
+    int size;
+
+    void add(int mmsi, double distance) {
+      if (size == mmsis.length) {
+        mmsis = Arrays.copyOf(mmsis, size * 2);
+        distances = Arrays.copyOf(distances, size * 2);
+      }
+      mmsis[size] = mmsi;
+      distances[size] = distance;
+      size++;
+    }
+
+    /**
+     * Returns up to k MMSIs ordered by distance.
+     */
+    int[] nearest(int k) {
+      Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+      int[] result = new int[Math.min(k, size)];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = mmsis[order[i]];
+      }
+      return result;
+    }
+  }
+}
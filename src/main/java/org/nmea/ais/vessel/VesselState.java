@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+/**
+ * Snapshot of the latest known state of a vessel, copied from
+ * {@link VesselStateTable}. Instances are mutable so that a reader may reuse
+ * one instance for repeated lookups.
+ * <p>
+ * Speed, course and heading are in the units of the AIS messages: speed in 1/10
+ * knots (1023 = not available), course in 1/10 degrees (3600 = not available)
+ * and heading in degrees (511 = not available). Latitude and longitude are in
+ * degrees, 91 and 181 denoting not available.
+ *
+ * @author Key Bridge
+ */
+public class VesselState {
+
+  int mmsi;
+  double latitude = 91;
+  double longitude = 181;
+  int speedOverGround = 1023;
+  int courseOverGround = 3600;
+  int trueHeading = 511;
+  int navigationalStatus = 15;
+  long lastSeen;
+  String name;
+  String callSign;
+
+  /**
+   * Returns the MMSI of the vessel.
+   *
+   * @return MMSI
+   */
+  public int getMMSI() {
+    return mmsi;
+  }
+
+  /**
+   * Returns the latitude of latest position report.
+   *
+   * @return Latitude in degrees, 91 if not available.
+   */
+  public double getLatitude() {
+    return latitude;
+  }
+
+  /**
+   * Returns the longitude of latest position report.
+   *
+   * @return Longitude in degrees, 181 if not available.
+   */
+  public double getLongitude() {
+    return longitude;
+  }
+
+  /**
+   * Returns the speed over ground.
+   *
+   * @return Speed in 1/10 knots, 1023 if not available.
+   */
+  public int getSpeedOverGround() {
+    return speedOverGround;
+  }
+
+  /**
+   * Returns the course over ground.
+   *
+   * @return Course in 1/10 degrees, 3600 if not available.
+   */
+  public int getCourseOverGround() {
+    return courseOverGround;
+  }
+
+  /**
+   * Returns the true heading.
+   *
+   * @return Heading in degrees, 511 if not available.
+   */
+  public int getTrueHeading() {
+    return trueHeading;
+  }
+
+  /**
+   * Returns the navigational status, as reported by class A position reports.
+   *
+   * @return Status code, 15 if not defined.
+   * @see org.nmea.ais.util.NavigationalStatus
+   */
+  public int getNavigationalStatus() {
+    return navigationalStatus;
+  }
+
+  /**
+   * Returns the time when the vessel was last heard.
+   *
+   * @return Milliseconds since epoch
+   */
+  public long getLastSeen() {
+    return lastSeen;
+  }
+
+  /**
+   * Returns the vessel name from static data.
+   *
+   * @return Name, or <code>null</code> if not received yet.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the call sign from static data.
+   *
+   * @return Call sign, or <code>null</code> if not received yet.
+   */
+  public String getCallSign() {
+    return callSign;
+  }
+
+  /**
+   * Tells if position is available.
+   *
+   * @return <code>true</code> if latitude and longitude are available.
+   */
+  public boolean hasPosition() {
+    return latitude <= 90 && latitude >= -90 && longitude <= 180 && longitude >= -180;
+  }
+
+  @Override
+  public String toString() {
+    return "VesselState{" + "mmsi=" + mmsi + ", latitude=" + latitude + ", longitude=" + longitude
+      + ", speedOverGround=" + speedOverGround + ", courseOverGround=" + courseOverGround
+      + ", trueHeading=" + trueHeading + ", navigationalStatus=" + navigationalStatus
+      + ", lastSeen=" + lastSeen + ", name=" + name + ", callSign=" + callSign + '}';
+  }
+}
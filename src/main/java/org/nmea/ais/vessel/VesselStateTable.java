@@ -0,0 +1,505 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import org.nmea.ais.message.*;
+
+/**
+ * Table of the latest known state of vessels, keyed by MMSI and fed with
+ * decoded AIS messages. Position reports (types 1, 2, 3, 18 and 19) update the
+ * position, speed, course, heading and navigational status; static data
+ * reports (types 5, 19 and 24) update the name and call sign. Other message
+ * types are ignored.
+ * <p>
+ * The table is an open-addressing hash table with the MMSI as primitive int
+ * key and a primitive array per column, so updates do not allocate. It has a
+ * single writer: the update methods must be called from one thread at a time,
+ * typically the thread of the {@link org.nmea.io.SentenceReader}. Lookups may
+ * be made from any thread. Rows are guarded by striped {@link StampedLock}s
+ * and read optimistically; only when the writer updates the same stripe during
+ * the read does a lookup take the read lock, briefly waiting for the writer.
+ * <p>
+ * Vessels not heard for longer than the maximum age are removed. Expiry is
+ * amortized: each update inspects a few rows of the table, so stale vessels
+ * are eventually removed without a periodic full sweep.
+ * <p>
+ * Example:
+ * <pre>
+ * final VesselStateTable table = new VesselStateTable();
+ * reader.addSentenceListener(new AbstractAISMessageListener&lt;AISMessage&gt;() {
+ *   public void onMessage(AISMessage msg) {
+ *     table.update(msg);
+ *   }
+ * });
+ * </pre>
+ *
+ * @author Key Bridge
+ */
+public class VesselStateTable {
+
+  /**
+   * Default maximum age of vessel state, 10 minutes.
+   */
+  public static final long DEFAULT_MAX_AGE = 10 * 60 * 1000L;
+
+  // key markers for empty and removed slots, MMSI is never negative
+  private static final int EMPTY = -1;
+  private static final int REMOVED = -2;
+  // number of lock stripes, power of two
+  private static final int STRIPES = 64;
+  // number of slots inspected for expiry on each update
+  private static final int EXPIRY_STEP = 4;
+
+  private final StampedLock[] locks = new StampedLock[STRIPES];
+  private volatile Table table;
+  private volatile int size;
+  private volatile long maxAge = DEFAULT_MAX_AGE;
+  private int cursor;
+
+  /**
+   * Creates a new table with default capacity.
+   */
+  public VesselStateTable() {
+    this(1024);
+  }
+
+  /**
+   * Creates a new table.
+   *
+   * @param capacity Initial number of vessels
+   */
+  public VesselStateTable(int capacity) {
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new StampedLock();
+    }
+    table = new Table(tableSize(capacity));
+  }
+
+  /**
+   * Returns the number of vessels in table.
+   *
+   * @return vessel count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the maximum age of vessel state.
+   *
+   * @return Age in milliseconds
+   */
+  public long getMaxAge() {
+    return maxAge;
+  }
+
+  /**
+   * Sets the maximum age of vessel state. Vessels not heard for longer are
+   * removed.
+   *
+   * @param millis Age in milliseconds
+   */
+  public void setMaxAge(long millis) {
+    if (millis <= 0) {
+      throw new IllegalArgumentException("Maximum age must be positive");
+    }
+    this.maxAge = millis;
+  }
+
+  /**
+   * Updates the table with a message received now.
+   *
+   * @param message AIS message
+   * @return <code>true</code> if the message type updates vessel state
+   */
+  public boolean update(AISMessage message) {
+    return update(message, System.currentTimeMillis());
+  }
+
+  /**
+   * Updates the table with a message. Must not be called concurrently.
+   *
+   * @param message AIS message
+   * @param time    Receive time, milliseconds since epoch
+   * @return <code>true</code> if the message type updates vessel state
+   */
+  public boolean update(AISMessage message, long time) {
+    if (!(message instanceof AISPositionReport || message instanceof AISPositionReportB
+          || message instanceof AISMessage05 || message instanceof AISMessage24)) {
+      return false;
+    }
+    int mmsi = message.getMMSI();
+    Table t = table;
+    int slot = find(t, mmsi);
+    if (slot < 0) {
+      slot = insert(mmsi);
+      t = table;
+    }
+    StampedLock lock = locks[slot & (STRIPES - 1)];
+    long stamp = lock.writeLock();
+    try {
+      t.lastSeen[slot] = time;
+      apply(t, slot, message);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+    expire(time, EXPIRY_STEP);
+    return true;
+  }
+
+  /**
+   * Looks up the state of a vessel.
+   *
+   * @param mmsi MMSI of the vessel
+   * @param into State to fill
+   * @return <code>true</code> if found, <code>false</code> if not in table.
+   */
+  public boolean get(int mmsi, VesselState into) {
+    if (mmsi < 0) {
+      return false;
+    }
+    while (true) {
+      Table t = table;
+      int slot = find(t, mmsi);
+      if (slot < 0) {
+        return false;
+      }
+      int found = read(t, slot, into);
+      if (found == mmsi) {
+        return true;
+      }
+      // row was removed or reused meanwhile, probe again
+    }
+  }
+
+  /**
+   * Looks up the state of a vessel.
+   *
+   * @param mmsi MMSI of the vessel
+   * @return VesselState, or <code>null</code> if not in table.
+   */
+  public VesselState get(int mmsi) {
+    VesselState state = new VesselState();
+    return get(mmsi, state) ? state : null;
+  }
+
+  /**
+   * Tells if the table contains specified vessel.
+   *
+   * @param mmsi MMSI of the vessel
+   * @return <code>true</code> if found
+   */
+  public boolean contains(int mmsi) {
+    return mmsi >= 0 && find(table, mmsi) >= 0;
+  }
+
+  /**
+   * Iterates over all vessels in table. The same state instance is reused for
+   * each vessel, so the consumer must copy the values it wants to keep.
+   *
+   * @param consumer Consumer of vessel states
+   */
+  public void forEach(Consumer<? super VesselState> consumer) {
+    Table t = table;
+    VesselState state = new VesselState();
+    for (int slot = 0; slot < t.keys.length; slot++) {
+      if (t.keys[slot] >= 0 && read(t, slot, state) >= 0) {
+        consumer.accept(state);
+      }
+    }
+  }
+
+  /**
+   * Removes a vessel. Must not be called concurrently with updates.
+   *
+   * @param mmsi MMSI of the vessel
+   * @return <code>true</code> if removed, <code>false</code> if not found.
+   */
+  public boolean remove(int mmsi) {
+    Table t = table;
+    int slot = mmsi < 0 ? -1 : find(t, mmsi);
+    if (slot < 0) {
+      return false;
+    }
+    remove(t, slot);
+    return true;
+  }
+
+  /**
+   * Removes all vessels not heard for longer than the maximum age. Must not be
+   * called concurrently with updates.
+   *
+   * @param now Current time, milliseconds since epoch
+   * @return number of vessels removed
+   */
+  public int expire(long now) {
+    return expire(now, table.keys.length);
+  }
+
+  /**
+   * Inspects a number of rows from the expiry cursor onwards, removing stale
+   * vessels.
+   */
+  private int expire(long now, int rows) {
+    Table t = table;
+    long limit = now - maxAge;
+    int removed = 0;
+    for (int i = 0; i < rows; i++) {
+      int slot = cursor = (cursor + 1) & t.mask;
+      if (t.keys[slot] >= 0 && t.lastSeen[slot] < limit) {
+        remove(t, slot);
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Copies a row into state, returning the key read or a negative value if the
+   * slot does not contain a vessel.
+   */
+  private int read(Table t, int slot, VesselState into) {
+    StampedLock lock = locks[slot & (STRIPES - 1)];
+    long stamp = lock.tryOptimisticRead();
+    int key = copy(t, slot, into);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        key = copy(t, slot, into);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return key;
+  }
+
+  private static int copy(Table t, int slot, VesselState into) {
+    int key = t.keys[slot];
+    into.mmsi = key;
+    into.latitude = t.latitudes[slot];
+    into.longitude = t.longitudes[slot];
+    into.speedOverGround = t.speeds[slot];
+    into.courseOverGround = t.courses[slot];
+    into.trueHeading = t.headings[slot];
+    into.navigationalStatus = t.statuses[slot];
+    into.lastSeen = t.lastSeen[slot];
+    into.name = t.names[slot];
+    into.callSign = t.callSigns[slot];
+    return key;
+  }
+
+  /**
+   * Applies message fields on a row, called with the write lock held.
+   */
+  private static void apply(Table t, int slot, AISMessage message) {
+    if (message instanceof AISPositionReport) {
+      AISPositionReport r = (AISPositionReport) message;
+      t.latitudes[slot] = r.getLatitudeInDegrees();
+      t.longitudes[slot] = r.getLongitudeInDegrees();
+      t.speeds[slot] = (short) r.getSpeedOverGround();
+      t.courses[slot] = (short) r.getCourseOverGround();
+      t.headings[slot] = (short) r.getTrueHeading();
+      t.statuses[slot] = (byte) r.getNavigationalStatus();
+    } else if (message instanceof AISPositionReportB) {
+      AISPositionReportB r = (AISPositionReportB) message;
+      t.latitudes[slot] = r.getLatitudeInDegrees();
+      t.longitudes[slot] = r.getLongitudeInDegrees();
+      t.speeds[slot] = (short) r.getSpeedOverGround();
+      t.courses[slot] = (short) r.getCourseOverGround();
+      t.headings[slot] = (short) r.getTrueHeading();
+      if (message instanceof AISMessage19) {
+        t.names[slot] = trim(((AISMessage19) message).getName());
+      }
+    } else if (message instanceof AISMessage05) {
+      AISMessage05 m = (AISMessage05) message;
+      t.names[slot] = trim(m.getName());
+      t.callSigns[slot] = trim(m.getCallSign());
+    } else if (message instanceof AISMessage24) {
+      AISMessage24 m = (AISMessage24) message;
+      if (m.getPartNumber() == 0) {
+        t.names[slot] = trim(m.getName());
+      } else {
+        t.callSigns[slot] = trim(m.getCallSign());
+      }
+    }
+  }
+
+  private static String trim(String s) {
+    return s == null ? null : s.trim();
+  }
+
+  /**
+   * Finds the slot of a key.
+   *
+   * @return slot index, or -1 if not found.
+   */
+  private static int find(Table t, int mmsi) {
+    int[] keys = t.keys;
+    for (int slot = hash(mmsi) & t.mask;; slot = (slot + 1) & t.mask) {
+      int key = keys[slot];
+      if (key == mmsi) {
+        return slot;
+      } else if (key == EMPTY) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Inserts a new row for a key not in table, growing or rehashing the table
+   * when necessary.
+   *
+   * @return slot index
+   */
+  private int insert(int mmsi) {
+    Table t = table;
+    if (t.used + 1 > t.keys.length / 2) {
+      t = rehash(tableSize(size + 1));
+    }
+    int slot = hash(mmsi) & t.mask;
+    while (t.keys[slot] >= 0) {
+      slot = (slot + 1) & t.mask;
+    }
+    StampedLock lock = locks[slot & (STRIPES - 1)];
+    long stamp = lock.writeLock();
+    try {
+      if (t.keys[slot] == EMPTY) {
+        t.used++;
+      }
+      t.clear(slot);
+      t.keys[slot] = mmsi;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+    size++;
+    return slot;
+  }
+
+  private void remove(Table t, int slot) {
+    StampedLock lock = locks[slot & (STRIPES - 1)];
+    long stamp = lock.writeLock();
+    try {
+      t.keys[slot] = REMOVED;
+      t.names[slot] = null;
+      t.callSigns[slot] = null;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+    size--;
+  }
+
+  /**
+   * Copies live rows in a new table and publishes it. The old table is left
+   * untouched for readers still using it.
+   */
+  private Table rehash(int capacity) {
+    Table old = table;
+    Table t = new Table(capacity);
+    for (int i = 0; i < old.keys.length; i++) {
+      int key = old.keys[i];
+      if (key >= 0) {
+        int slot = hash(key) & t.mask;
+        while (t.keys[slot] != EMPTY) {
+          slot = (slot + 1) & t.mask;
+        }
+        t.keys[slot] = key;
+        t.latitudes[slot] = old.latitudes[i];
+        t.longitudes[slot] = old.longitudes[i];
+        t.speeds[slot] = old.speeds[i];
+        t.courses[slot] = old.courses[i];
+        t.headings[slot] = old.headings[i];
+        t.statuses[slot] = old.statuses[i];
+        t.lastSeen[slot] = old.lastSeen[i];
+        t.names[slot] = old.names[i];
+        t.callSigns[slot] = old.callSigns[i];
+        t.used++;
+      }
+    }
+    table = t;
+    cursor = 0;
+    return t;
+  }
+
+  /**
+   * Returns the table size for a number of rows, keeping load at most 50%.
+   */
+  private static int tableSize(int rows) {
+    int n = Integer.highestOneBit(Math.max(16, rows * 4 - 1));
+    if (n < 0 || n > (1 << 30)) {
+      throw new IllegalArgumentException("Capacity too large: " + rows);
+    }
+    return n;
+  }
+
+  private static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Table columns. Replaced as a whole when resized.
+   */
+  private static final class Table {
+
+    final int mask;
+    final int[] keys;
+    final double[] latitudes;
+    final double[] longitudes;
+    final short[] speeds;
+    final short[] courses;
+    final short[] headings;
+    final byte[] statuses;
+    final long[] lastSeen;
+    final String[] names;
+    final String[] callSigns;
+    // number of slots not empty, including removed
+    int used;
+
+    Table(int capacity) {
+      mask = capacity - 1;
+      keys = new int[capacity];
+      Arrays.fill(keys, EMPTY);
+      latitudes = new double[capacity];
+      longitudes = new double[capacity];
+      speeds = new short[capacity];
+      courses = new short[capacity];
+      headings = new short[capacity];
+      statuses = new byte[capacity];
+      lastSeen = new long[capacity];
+      names = new String[capacity];
+      callSigns = new String[capacity];
+    }
+
+    /**
+     * Resets a row to not available values.
+     */
+    void clear(int slot) {
+      latitudes[slot] = 91;
+      longitudes[slot] = 181;
+      speeds[slot] = 1023;
+      courses[slot] = 3600;
+      headings[slot] = 511;
+      statuses[slot] = 15;
+      lastSeen[slot] = 0;
+      names[slot] = null;
+      callSigns[slot] = null;
+    }
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.nmea.io.SentenceReader;
+import org.nmea.sentence.AISSentence;
+import org.nmea.sentence.Sentence;
+import org.nmea.type.TalkerType;
+
+/**
+ * Conflates the sentences of a reader to the latest value per key, for
+ * consumers that cannot keep up with the data rate and only need the newest
+ * data, such as user interfaces. Sentences are keyed by talker and sentence id,
+ * AIS messages by MMSI of the sender. Unrecognized talkers are keyed by their
+ * id as read, so they do not overwrite each other.
+ * <p>
+ * The reader thread only replaces the value of a slot and, if the slot was not
+ * already pending, queues the slot. The queue never holds more entries than
+ * there are keys, regardless of the data rate. Consumers call
+ * {@link #drain(SentenceListener)} from any thread at their own pace and
+ * receive each changed slot once, with its latest value. Multi-sentence AIS
+ * messages are delivered as a whole, so they can be drained into an
+ * {@link org.nmea.ais.event.AbstractAISMessageListener}.
+ * <p>
+ * Slots that have been drained and not updated for the maximum idle time are
+ * removed, so that keys no longer seen, e.g. vessels that left the reception
+ * area, do not accumulate.
+ * <p>
+ * The slot map is updated by the reader thread only and takes no lock.
+ * {@link #clear()} replaces the map instead of modifying it, so a sentence
+ * read while clearing may still be delivered once.
+ *
+ * @author Key Bridge
+ */
+public class ConflatingDispatcher implements SentenceListener {
+
+  /**
+   * Key flag of AIS slots.
+   */
+  private static final long AIS = 1L << 62;
+
+  /**
+   * Number of talker types; unrecognized talkers are keyed after them.
+   */
+  private static final int TALKERS = TalkerType.values().length;
+
+  /**
+   * Default maximum idle time of drained slots, ms.
+   */
+  public static final long DEFAULT_MAX_IDLE = 10 * 60 * 1000L;
+
+  // updated by the reader thread only, replaced by clear()
+  private volatile LongObjectHashMap<Slot> slots = new LongObjectHashMap<>(256);
+  private final Queue<Slot> pending = new ConcurrentLinkedQueue<>();
+  private final List<SentenceEvent> fragments = new ArrayList<>();
+  private final long maxIdle;
+  private long lastEviction;
+
+  /**
+   * Creates a new dispatcher with default maximum idle time and registers it
+   * to specified reader.
+   *
+   * @param reader SentenceReader to conflate
+   */
+  public ConflatingDispatcher(SentenceReader reader) {
+    this(reader, DEFAULT_MAX_IDLE);
+  }
+
+  /**
+   * Creates a new dispatcher and registers it to specified reader.
+   *
+   * @param reader  SentenceReader to conflate
+   * @param maxIdle Time after which a drained slot without updates is removed,
+   *                ms
+   */
+  public ConflatingDispatcher(SentenceReader reader, long maxIdle) {
+    if (maxIdle <= 0) {
+      throw new IllegalArgumentException("Maximum idle time must be positive");
+    }
+    this.maxIdle = maxIdle;
+    reader.addSentenceListener(this);
+  }
+
+  /**
+   * Delivers the latest value of each slot changed since the previous call.
+   * Slots are delivered in the order they first changed, and each is delivered
+   * at most once per call.
+   *
+   * @param listener Listener to receive the sentences
+   * @return number of slots delivered
+   */
+  public int drain(SentenceListener listener) {
+    int count = 0;
+    for (int i = pending.size(); i > 0; i--) {
+      Slot slot = pending.poll();
+      if (slot == null) {
+        break;
+      }
+      SentenceEvent[] events = slot.take();
+      if (events != null) {
+        for (SentenceEvent event : events) {
+          listener.sentenceRead(event);
+        }
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of slots, i.e. distinct keys seen.
+   *
+   * @return slot count
+   */
+  public int size() {
+    return slots.size();
+  }
+
+  /**
+   * Returns the number of slots having values not yet drained.
+   *
+   * @return pending slot count
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Removes all slots. Values not yet drained are discarded.
+   */
+  public void clear() {
+    slots = new LongObjectHashMap<>(256);
+    pending.clear();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#sentenceRead(org.nmea.event.SentenceEvent)
+   */
+  @Override
+  public void sentenceRead(SentenceEvent event) {
+    Sentence s = event.getSentence();
+    if (s.isAISSentence()) {
+      handleAIS(event, (AISSentence) s);
+    } else {
+      put(keyOf(s), new SentenceEvent[]{event.retain()}, event.getTimeStamp());
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingPaused()
+   */
+  @Override
+  public void readingPaused() {
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingStarted()
+   */
+  @Override
+  public void readingStarted() {
+    fragments.clear();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingStopped()
+   */
+  @Override
+  public void readingStopped() {
+    fragments.clear();
+  }
+
+  /**
+   * Collects the fragments of an AIS message and stores the complete message by
+   * MMSI of the sender.
+   */
+  private void handleAIS(SentenceEvent event, AISSentence sentence) {
+    if (sentence.isFirstFragment()) {
+      fragments.clear();
+    } else if (fragments.isEmpty()) {
+      return;
+    }
+    fragments.add(event.retain());
+    if (sentence.isLastFragment()) {
+      SentenceEvent[] events = fragments.toArray(new SentenceEvent[fragments.size()]);
+      fragments.clear();
+      int mmsi = mmsiOf(((AISSentence) events[0].getSentence()).getPayload());
+      if (mmsi >= 0) {
+        put(AIS | mmsi, events, event.getTimeStamp());
+      }
+    }
+  }
+
+  private void put(long key, SentenceEvent[] events, long time) {
+    LongObjectHashMap<Slot> map = slots;
+    if (time - lastEviction >= maxIdle) {
+      evict(map, time);
+    }
+    Slot slot = map.get(key);
+    if (slot == null) {
+      slot = new Slot();
+      map.put(key, slot);
+    }
+    slot.updated = time;
+    if (slot.offer(events)) {
+      pending.add(slot);
+    }
+  }
+
+  /**
+   * Removes the drained slots not updated within maximum idle time. A slot is
+   * queued by the reader thread only, so a slot found not queued here cannot
+   * be in the pending queue.
+   */
+  private void evict(LongObjectHashMap<Slot> map, long now) {
+    lastEviction = now;
+    map.removeIf(slot -> !slot.queued.get() && now - slot.updated > maxIdle);
+  }
+
+  /**
+   * Packs talker and up to five characters of sentence id.
+   */
+  static long keyOf(Sentence s) {
+    TalkerType talker = s.getTalkerId();
+    long key = talker.ordinal();
+    if (talker == TalkerType.UNKNOWN) {
+      String id = s.getTalkerString();
+      key = TALKERS + ((id.charAt(0) & 0xFF) << 8 | id.charAt(1) & 0xFF);
+    }
+    String id = s.getSentenceId();
+    for (int i = 0; i < 5; i++) {
+      key = key << 8 | (i < id.length() ? id.charAt(i) & 0xFF : 0);
+    }
+    return key;
+  }
+
+  /**
+   * Decodes the MMSI (bits 8-37) from the first seven characters of a payload.
+   *
+   * @return MMSI, or -1 if payload is too short or invalid.
+   */
+  static int mmsiOf(String payload) {
+    if (payload.length() < 7) {
+      return -1;
+    }
+    long bits = 0;
+    for (int i = 0; i < 7; i++) {
+      int c = payload.charAt(i) - 48;
+      if (c > 40) {
+        c -= 8;
+      }
+      if (c < 0 || c > 63) {
+        return -1;
+      }
+      bits = bits << 6 | c;
+    }
+    return (int) (bits >>> 4) & 0x3FFFFFFF;
+  }
+
+  /**
+   * Latest value of a key and a flag telling whether the slot is queued.
+   */
+  private static class Slot {
+
+    private final AtomicReference<SentenceEvent[]> value = new AtomicReference<>();
+    private final AtomicBoolean queued = new AtomicBoolean();
+    // time of latest value, accessed by the reader thread only
+    private long updated;
+
+    /**
+     * Replaces the value.
+     *
+     * @return true if the slot must be queued.
+     */
+    boolean offer(SentenceEvent[] events) {
+      value.set(events);
+      return queued.compareAndSet(false, true);
+    }
+
+    /**
+     * Takes the value; a value offered after this is queued again.
+     *
+     * @return latest value, or null if already taken.
+     */
+    SentenceEvent[] take() {
+      queued.set(false);
+      return value.getAndSet(null);
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.event;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Open-addressing map from non-negative long keys to object values, without
+ * boxing. Not thread-safe, except that {@link #size()} may be read from any
+ * thread while one thread updates the map.
+ *
+ * @param <V> Value type
+ * @author Key Bridge
+ */
+class LongObjectHashMap<V> {
+
+  private static final long EMPTY = -1;
+  private static final long REMOVED = -2;
+
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private volatile int size;
+  private int used;
+
+  LongObjectHashMap(int capacity) {
+    allocate(Integer.highestOneBit(Math.max(16, capacity * 4 - 1)));
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the value of a key, or null if not found.
+   */
+  @SuppressWarnings("unchecked")
+  V get(long key) {
+    for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+      long k = keys[slot];
+      if (k == key) {
+        return (V) values[slot];
+      } else if (k == EMPTY) {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Associates a value with a key.
+   *
+   * @return previous value, or null if none.
+   */
+  @SuppressWarnings("unchecked")
+  V put(long key, V value) {
+    int free = -1;
+    int slot = hash(key) & mask;
+    for (;; slot = (slot + 1) & mask) {
+      long k = keys[slot];
+      if (k == key) {
+        V previous = (V) values[slot];
+        values[slot] = value;
+        return previous;
+      } else if (k == EMPTY) {
+        break;
+      } else if (k == REMOVED && free < 0) {
+        free = slot;
+      }
+    }
+    if (free >= 0) {
+      slot = free;
+    } else {
+      used++;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+    if (used > keys.length / 2) {
+      rehash();
+    }
+    return null;
+  }
+
+  /**
+   * Removes the entries whose value matches the filter.
+   *
+   * @return number of entries removed
+   */
+  @SuppressWarnings("unchecked")
+  int removeIf(Predicate<? super V> filter) {
+    int removed = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] >= 0 && filter.test((V) values[slot])) {
+        keys[slot] = REMOVED;
+        values[slot] = null;
+        size--;
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Removes all entries.
+   */
+  void clear() {
+    Arrays.fill(keys, EMPTY);
+    Arrays.fill(values, null);
+    size = 0;
+    used = 0;
+  }
+
+  private void rehash() {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    allocate(Integer.highestOneBit(Math.max(16, size * 4 - 1)));
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] >= 0) {
+        int slot = hash(oldKeys[i]) & mask;
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+        used++;
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    Arrays.fill(keys, EMPTY);
+    mask = capacity - 1;
+    used = 0;
+  }
+
+  static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
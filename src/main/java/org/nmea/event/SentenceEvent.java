@@ -16,12 +16,19 @@
  */
 package org.nmea.event;
 
+import org.nmea.parser.SentenceFactory;
 import org.nmea.sentence.Sentence;
 import java.util.EventObject;
 
 /**
  * Sentence events occur when a valid NMEA 0183 sentence has been read from the
  * data source.
+ * <p>
+ * When the reader recycles parsers (see
+ * {@link org.nmea.io.SentenceReader#setRecycling(boolean)}), the sentence of
+ * an event is valid only until the listener returns, after which the same
+ * instance is re-filled with a later sentence. Listeners that keep sentences
+ * or events must store the result of {@link #retain()} instead.
  *
  * @author Kimmo Tuukkanen
  * @see SentenceListener
@@ -30,8 +37,9 @@ import java.util.EventObject;
 public class SentenceEvent extends EventObject {
 
   private static final long serialVersionUID = -2756954014186470514L;
-  private final long timestamp = System.currentTimeMillis();
+  private final long timestamp;
   private final Sentence sentence;
+  private final boolean recycled;
 
   /**
    * Creates a new SentenceEvent object.
@@ -41,11 +49,29 @@ public class SentenceEvent extends EventObject {
    * @throws IllegalArgumentException If specified sentence is <code>null</code>
    */
   public SentenceEvent(Object src, Sentence s) {
+    this(src, s, false);
+  }
+
+  /**
+   * Creates a new SentenceEvent object.
+   *
+   * @param src      Object that fired the event
+   * @param s        Sentence that triggered the event
+   * @param recycled True if the sentence instance is reused after dispatch
+   * @throws IllegalArgumentException If specified sentence is <code>null</code>
+   */
+  public SentenceEvent(Object src, Sentence s, boolean recycled) {
+    this(src, s, recycled, System.currentTimeMillis());
+  }
+
+  private SentenceEvent(Object src, Sentence s, boolean recycled, long timestamp) {
     super(src);
     if (s == null) {
       throw new IllegalArgumentException("Sentence cannot be null");
     }
     this.sentence = s;
+    this.recycled = recycled;
+    this.timestamp = timestamp;
   }
 
   /**
@@ -65,4 +91,30 @@ public class SentenceEvent extends EventObject {
   public long getTimeStamp() {
     return timestamp;
   }
+
+  /**
+   * Tells if the sentence instance is reused by the reader once the event has
+   * been dispatched.
+   *
+   * @return True if recycled, otherwise false.
+   * @see #retain()
+   */
+  public boolean isRecycled() {
+    return recycled;
+  }
+
+  /**
+   * Returns an event that may be kept after the listener returns. If the
+   * sentence is recycled, returns a copy of this event with a copy of the
+   * sentence and same timestamp; otherwise returns this event.
+   *
+   * @return Event safe to retain
+   */
+  public SentenceEvent retain() {
+    if (!recycled) {
+      return this;
+    }
+    Sentence copy = SentenceFactory.getInstance().createParser(sentence.toString());
+    return new SentenceEvent(getSource(), copy, false, timestamp);
+  }
 }
@@ -17,6 +17,7 @@
 package org.nmea.io;
 
 import org.nmea.parser.SentenceFactory;
+import org.nmea.parser.SentencePool;
 import org.nmea.sentence.Sentence;
 import org.nmea.sentence.SentenceValidator;
 
@@ -74,20 +75,38 @@ abstract class AbstractDataReader implements DataReader {
 
     ActivityMonitor monitor = new ActivityMonitor(parent);
     SentenceFactory factory = SentenceFactory.getInstance();
+    SentencePool pool = new SentencePool();
 
     while (isRunning) {
       try {
         String data = read();
         if (data == null) {
           Thread.sleep(SLEEP_TIME);
-        } else if (SentenceValidator.isValidSentence(data)) {
-          monitor.refresh();
-          Sentence s = factory.createParser(data);
-          parent.fireSentenceEvent(s);
-        } else if (!SentenceValidator.isSentence(data)) {
-          parent.fireDataEvent(data);
+        } else {
+          long start = parent.fireLineRead(data);
+          if (SentenceValidator.isValidSentence(data)) {
+            monitor.refresh();
+            boolean recycling = parent.isRecycling();
+            Sentence s;
+            try {
+              s = recycling ? pool.acquire(data) : factory.createParser(data);
+            } catch (RuntimeException e) {
+              parent.fireParseFailed(data, e);
+              parent.handleException("Sentence parse failed", e);
+              continue;
+            }
+            parent.fireSentenceEvent(s, start, recycling);
+            if (recycling) {
+              pool.release(s);
+            }
+          } else if (SentenceValidator.isSentence(data)) {
+            parent.fireChecksumFailed(data);
+          } else {
+            parent.fireDataEvent(data);
+          }
         }
       } catch (Exception e) {
+        parent.fireReadFailed(e);
         parent.handleException("Data read failed", e);
         try {
           Thread.sleep(SLEEP_TIME);
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Data reader replaying a time range of a {@link SentenceArchive}. Seeks
+ * directly to the requested start time using the archive index and stops
+ * reading at the end of the range or archive. Optionally paces the sentences
+ * according to their timestamps.
+ *
+ * @author Key Bridge
+ */
+class ArchiveDataReader extends AbstractDataReader {
+
+  private static final long NANOS_PER_MILLI = 1000000L;
+
+  private final SentenceArchive archive;
+  private final long from;
+  private final long to;
+  private final double speed;
+  private volatile DataInputStream input;
+  private byte[] buffer = new byte[128];
+  // replay clock, established by the first record
+  private long startTime = -1;
+  private long startNanos;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param archive Archive to read
+   * @param from    Start of time range, inclusive (ms since epoch)
+   * @param to      End of time range, inclusive (ms since epoch)
+   * @param speed   Replay speed factor, {@link SentenceArchive#MAX_SPEED} for
+   *                no pacing.
+   * @param parent  SentenceReader dispatching events for this reader.
+   */
+  public ArchiveDataReader(SentenceArchive archive, long from, long to, double speed, SentenceReader parent) {
+    super(parent);
+    if (from > to) {
+      throw new IllegalArgumentException("Invalid time range");
+    }
+    if (speed < 0 || Double.isNaN(speed)) {
+      throw new IllegalArgumentException("Speed must be zero or positive");
+    }
+    this.archive = archive;
+    this.from = from;
+    this.to = to;
+    this.speed = speed;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see org.nmea.io.AbstractDataReader#read()
+   */
+  @Override
+  public String read() throws Exception {
+    if (!isRunning()) {
+      return null;
+    }
+    if (input == null) {
+      open();
+    }
+    try {
+      return readRecord();
+    } catch (IOException ex) {
+      if (!isRunning()) {
+        // stream closed by stop()
+        return null;
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Reads the next record within time range.
+   *
+   * @return Sentence String, or <code>null</code> at the end of range.
+   */
+  private String readRecord() throws IOException, InterruptedException {
+    DataInputStream in = input;
+    while (true) {
+      long time;
+      int length;
+      try {
+        time = in.readLong();
+        length = in.readUnsignedShort();
+      } catch (EOFException eof) {
+        finish();
+        return null;
+      }
+      if (time > to) {
+        finish();
+        return null;
+      }
+      if (time < from) {
+        in.skipBytes(length);
+        continue;
+      }
+      if (buffer.length < length) {
+        buffer = new byte[length];
+      }
+      in.readFully(buffer, 0, length);
+      pace(time);
+      return new String(buffer, 0, length, StandardCharsets.US_ASCII);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see org.nmea.io.AbstractDataReader#stop()
+   */
+  @Override
+  public void stop() {
+    super.stop();
+    closeQuietly();
+  }
+
+  /**
+   * Opens the data file and seeks to the block containing the range start.
+   */
+  private void open() throws IOException {
+    FileInputStream fis = new FileInputStream(archive.getFile());
+    fis.getChannel().position(archive.findOffset(from));
+    input = new DataInputStream(new BufferedInputStream(fis));
+    if (!isRunning()) {
+      // stopped while opening
+      closeQuietly();
+    }
+  }
+
+  /**
+   * Waits until the record is due according to the replay speed.
+   */
+  private void pace(long time) throws InterruptedException {
+    if (speed == SentenceArchive.MAX_SPEED) {
+      return;
+    }
+    if (startTime < 0) {
+      startTime = time;
+      startNanos = System.nanoTime();
+      return;
+    }
+    long due = startNanos + (long) ((time - startTime) * NANOS_PER_MILLI / speed);
+    long wait = due - System.nanoTime();
+    if (wait > 0) {
+      Thread.sleep(wait / NANOS_PER_MILLI, (int) (wait % NANOS_PER_MILLI));
+    }
+  }
+
+  /**
+   * Ends replay at the end of range.
+   */
+  private void finish() {
+    super.stop();
+    closeQuietly();
+  }
+
+  private void closeQuietly() {
+    DataInputStream in = input;
+    if (in != null) {
+      try {
+        in.close();
+      } catch (IOException ex) {
+        // ignore, nothing more to read
+      }
+    }
+  }
+}
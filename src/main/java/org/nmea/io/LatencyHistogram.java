@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of latency values in nanoseconds, using log-linear
+ * buckets in the manner of HdrHistogram: each power of two range is split in
+ * 32 linear sub-buckets, giving a relative error below 3.2% over the whole
+ * range of 1 ns to about two hours. Larger values are counted in the last
+ * bucket.
+ * <p>
+ * Recording is lock-free and scales with concurrent writers; reading
+ * percentiles while recording gives an approximate snapshot.
+ *
+ * @author Key Bridge
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BITS = 5;
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+  private static final int MAX_EXPONENT = 42;
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+  private final LongAdder[] counts = new LongAdder[BUCKETS];
+  private final LongAdder total = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Creates a new empty histogram.
+   */
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records a value. Negative values are recorded as zero.
+   *
+   * @param nanos Latency in nanoseconds
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts[indexOf(value)].increment();
+    total.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return count
+   */
+  public long getCount() {
+    return total.sum();
+  }
+
+  /**
+   * Returns the largest recorded value.
+   *
+   * @return Maximum in nanoseconds, or 0 if empty.
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the arithmetic mean of recorded values.
+   *
+   * @return Mean in nanoseconds, or 0 if empty.
+   */
+  public double getMean() {
+    long n = total.sum();
+    return n == 0 ? 0 : (double) sum.sum() / n;
+  }
+
+  /**
+   * Returns the value below or at which the specified percentage of recorded
+   * values fall. The returned value is the highest value of the bucket, i.e.
+   * it is never below the exact percentile.
+   *
+   * @param percentile Percentile, 0 to 100.
+   * @return Value in nanoseconds, or 0 if empty.
+   * @throws IllegalArgumentException If percentile is out of range.
+   */
+  public long getPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile out of range: " + percentile);
+    }
+    long[] snapshot = new long[BUCKETS];
+    long n = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts[i].sum();
+      n += snapshot[i];
+    }
+    if (n == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(highestValueOf(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Clears all recorded values.
+   */
+  public void reset() {
+    for (LongAdder count : counts) {
+      count.reset();
+    }
+    total.reset();
+    sum.reset();
+    max.reset();
+  }
+
+  /**
+   * Returns the bucket index of a non-negative value.
+   */
+  static int indexOf(long value) {
+    if (value < SUB_COUNT) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    int shift = exponent - SUB_BITS;
+    return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+  }
+
+  /**
+   * Returns the highest value counted in a bucket.
+   */
+  static long highestValueOf(int index) {
+    if (index < SUB_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_COUNT - 1;
+    long lowest = (long) (SUB_COUNT + index % SUB_COUNT) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
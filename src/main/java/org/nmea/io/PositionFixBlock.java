@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.util.Arrays;
+import org.nmea.type.GpsFixQualityType;
+
+/**
+ * A block of position fixes decoded in primitive column arrays. Instances are
+ * filled by {@link PositionFixReader#read(PositionFixBlock)} and may be reused
+ * for reading consecutive blocks; the arrays are valid up to {@link #size()}.
+ * <p>
+ * Coordinates are stored in fixed-point format, as integer multiples of
+ * {@link #RESOLUTION} degrees.
+ *
+ * @author Key Bridge
+ * @see PositionFixWriter
+ * @see PositionFixReader
+ */
+public final class PositionFixBlock {
+
+  /**
+   * Resolution of fixed-point coordinates in degrees.
+   */
+  public static final double RESOLUTION = 1e-7;
+
+  // value of satellite count when not available
+  static final int NO_SATELLITES = -1;
+
+  private static final int SCALE = 10000000;
+
+  long[] times;
+  int[] latitudes;
+  int[] longitudes;
+  int[] qualities;
+  int[] satellites;
+  float[] hdops;
+  int size;
+
+  /**
+   * Creates a new empty block.
+   */
+  public PositionFixBlock() {
+    this(PositionFixWriter.DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Creates a new empty block with specified initial capacity.
+   *
+   * @param capacity Number of fixes
+   */
+  public PositionFixBlock(int capacity) {
+    times = new long[capacity];
+    latitudes = new int[capacity];
+    longitudes = new int[capacity];
+    qualities = new int[capacity];
+    satellites = new int[capacity];
+    hdops = new float[capacity];
+  }
+
+  /**
+   * Returns the number of fixes in block.
+   *
+   * @return Fix count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the time column, milliseconds since epoch.
+   *
+   * @return array of times
+   */
+  public long[] getTimes() {
+    return times;
+  }
+
+  /**
+   * Returns the latitude column in fixed-point format.
+   *
+   * @return array of latitudes
+   * @see #RESOLUTION
+   */
+  public int[] getLatitudes() {
+    return latitudes;
+  }
+
+  /**
+   * Returns the longitude column in fixed-point format.
+   *
+   * @return array of longitudes
+   * @see #RESOLUTION
+   */
+  public int[] getLongitudes() {
+    return longitudes;
+  }
+
+  /**
+   * Returns the fix quality column, as {@link GpsFixQualityType} codes.
+   *
+   * @return array of quality codes
+   */
+  public int[] getFixQualities() {
+    return qualities;
+  }
+
+  /**
+   * Returns the satellite count column; -1 if not available.
+   *
+   * @return array of satellite counts
+   */
+  public int[] getSatelliteCounts() {
+    return satellites;
+  }
+
+  /**
+   * Returns the horizontal dilution of precision column, with resolution of
+   * 0.1; <code>NaN</code> if not available.
+   *
+   * @return array of HDOP values
+   */
+  public float[] getHorizontalDOPs() {
+    return hdops;
+  }
+
+  /**
+   * Returns the time of specified fix.
+   *
+   * @param index Fix index
+   * @return Milliseconds since epoch
+   */
+  public long getTime(int index) {
+    return times[checkIndex(index)];
+  }
+
+  /**
+   * Returns the latitude of specified fix.
+   *
+   * @param index Fix index
+   * @return Latitude in degrees
+   */
+  public double getLatitude(int index) {
+    return toDegrees(latitudes[checkIndex(index)]);
+  }
+
+  /**
+   * Returns the longitude of specified fix.
+   *
+   * @param index Fix index
+   * @return Longitude in degrees
+   */
+  public double getLongitude(int index) {
+    return toDegrees(longitudes[checkIndex(index)]);
+  }
+
+  /**
+   * Returns the fix quality of specified fix.
+   *
+   * @param index Fix index
+   * @return GpsFixQualityType
+   */
+  public GpsFixQualityType getFixQuality(int index) {
+    return GpsFixQualityType.valueOf(qualities[checkIndex(index)]);
+  }
+
+  /**
+   * Converts degrees to fixed-point format.
+   *
+   * @param degrees Coordinate in degrees
+   * @return Coordinate in units of {@link #RESOLUTION}
+   */
+  public static int toFixedPoint(double degrees) {
+    return (int) Math.round(degrees * SCALE);
+  }
+
+  /**
+   * Converts fixed-point coordinate to degrees.
+   *
+   * @param value Coordinate in units of {@link #RESOLUTION}
+   * @return Coordinate in degrees
+   */
+  public static double toDegrees(int value) {
+    return value / (double) SCALE;
+  }
+
+  /**
+   * Removes all fixes, keeping the allocated arrays.
+   */
+  void clear() {
+    size = 0;
+  }
+
+  /**
+   * Ensures the arrays can hold specified number of fixes.
+   */
+  void ensureCapacity(int capacity) {
+    if (times.length < capacity) {
+      times = Arrays.copyOf(times, capacity);
+      latitudes = Arrays.copyOf(latitudes, capacity);
+      longitudes = Arrays.copyOf(longitudes, capacity);
+      qualities = Arrays.copyOf(qualities, capacity);
+      satellites = Arrays.copyOf(satellites, capacity);
+      hdops = Arrays.copyOf(hdops, capacity);
+    }
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+    return index;
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.io.*;
+
+/**
+ * Reads position fixes written by {@link PositionFixWriter}, one block at a
+ * time, decoding the columns directly in the primitive arrays of a
+ * {@link PositionFixBlock}.
+ * <p>
+ * Example:
+ * <pre>
+ * PositionFixBlock block = new PositionFixBlock();
+ * while (reader.read(block)) {
+ *   long[] times = block.getTimes();
+ *   int[] lat = block.getLatitudes();
+ *   for (int i = 0; i &lt; block.size(); i++) {
+ *     ...
+ *   }
+ * }
+ * </pre>
+ *
+ * @author Key Bridge
+ * @see PositionFixWriter
+ */
+public class PositionFixReader implements Closeable {
+
+  private static final int SATELLITE_SHIFT = PositionFixWriter.QUALITY_BITS;
+  private static final int HDOP_SHIFT = PositionFixWriter.QUALITY_BITS + PositionFixWriter.SATELLITE_BITS;
+
+  private final DataInputStream in;
+  private byte[] buffer = new byte[1024];
+  private int position;
+  // length of the block in buffer
+  private int limit;
+  private boolean headerRead;
+
+  /**
+   * Creates a new reader.
+   *
+   * @param in Stream to read from
+   */
+  public PositionFixReader(InputStream in) {
+    this.in = new DataInputStream(in);
+  }
+
+  /**
+   * Reads the next block of fixes, replacing the contents of given block.
+   *
+   * @param block Block to fill
+   * @return <code>true</code> if a block was read, <code>false</code> at end
+   *         of stream.
+   * @throws IOException If reading fails or the stream is not a position fix
+   *                     stream.
+   */
+  public boolean read(PositionFixBlock block) throws IOException {
+    block.clear();
+    if (!headerRead) {
+      int magic;
+      try {
+        magic = in.readInt();
+      } catch (EOFException eof) {
+        return false;
+      }
+      if (magic != PositionFixWriter.MAGIC) {
+        throw new IOException("Not a position fix stream");
+      }
+      headerRead = true;
+    }
+    int first = in.read();
+    if (first < 0) {
+      return false;
+    }
+    int n = readVarInt(first);
+    int length = readVarInt(in.readUnsignedByte());
+    if (n < 0 || length < 0 || n > length) {
+      // each fix takes at least one byte per column
+      throw new IOException("Corrupted position fix block");
+    }
+    if (buffer.length < length) {
+      buffer = new byte[length];
+    }
+    in.readFully(buffer, 0, length);
+    position = 0;
+    limit = length;
+
+    block.ensureCapacity(n);
+    long[] times = block.times;
+    long time = 0;
+    for (int i = 0; i < n; i++) {
+      time += unzigzag(getVarLong());
+      times[i] = time;
+    }
+    getDeltas(block.latitudes, n);
+    getDeltas(block.longitudes, n);
+    int[] qualities = block.qualities;
+    int[] satellites = block.satellites;
+    float[] hdops = block.hdops;
+    int word = 0;
+    for (int i = 0; i < n; i++) {
+      word += (int) unzigzag(getVarLong());
+      qualities[i] = word & ((1 << PositionFixWriter.QUALITY_BITS) - 1);
+      satellites[i] = ((word >>> SATELLITE_SHIFT) & ((1 << PositionFixWriter.SATELLITE_BITS) - 1)) - 1;
+      int dop = word >>> HDOP_SHIFT;
+      hdops[i] = dop == 0 ? Float.NaN : (dop - 1) / 10f;
+    }
+    if (position != length) {
+      throw new IOException("Corrupted position fix block");
+    }
+    block.size = n;
+    return true;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.io.Closeable#close()
+   */
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private void getDeltas(int[] column, int n) throws IOException {
+    int value = 0;
+    for (int i = 0; i < n; i++) {
+      value += (int) unzigzag(getVarLong());
+      column[i] = value;
+    }
+  }
+
+  private long getVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (position >= limit) {
+        throw new IOException("Corrupted position fix block");
+      }
+      byte b = buffer[position++];
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  private int readVarInt(int b) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+      b = in.readUnsignedByte();
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  private static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
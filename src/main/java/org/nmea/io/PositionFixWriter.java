@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.io.*;
+import java.util.Arrays;
+import org.nmea.parser.DataNotAvailableException;
+import org.nmea.sentence.GGASentence;
+import org.nmea.sentence.RMCSentence;
+import org.nmea.sentence.Sentence;
+import org.nmea.type.DataStatusType;
+import org.nmea.type.FaaModeType;
+import org.nmea.type.GpsFixQualityType;
+import org.nmea.type.Position;
+
+/**
+ * Writes position fixes derived from GGA and RMC sentences in a compact binary
+ * columnar format, readable with {@link PositionFixReader}.
+ * <p>
+ * The fixes are buffered and written in blocks. Within a block each column is
+ * stored separately:
+ * <ul>
+ * <li>time as zig-zag varint delta of milliseconds since epoch,</li>
+ * <li>latitude and longitude as zig-zag varint deltas in fixed-point units of
+ * {@link PositionFixBlock#RESOLUTION} degrees,</li>
+ * <li>fix quality, satellite count and HDOP bit-packed in one word, stored as
+ * zig-zag varint delta to previous word.</li>
+ * </ul>
+ * A GGA and an RMC sentence reporting the same time are merged in one fix. To
+ * merge them also across {@link #flush()}, the latest fix is held back until a
+ * fix with a different time is written or the writer is closed.
+ * GGA sentences are timestamped using the date of the latest RMC sentence, so
+ * fixes preceding the first RMC sentence are skipped.
+ *
+ * @author Key Bridge
+ * @see PositionFixReader
+ */
+public class PositionFixWriter implements Closeable, Flushable {
+
+  /**
+   * Default number of fixes per block.
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+  // stream header "NFX" + format version
+  static final int MAGIC = 0x4E465801;
+
+  // bit layout of the packed quality word
+  static final int QUALITY_BITS = 4;
+  static final int SATELLITE_BITS = 7;
+  static final int HDOP_BITS = 20;
+
+  private final DataOutputStream out;
+  private final PositionFixBlock block;
+  private final int blockSize;
+  private final StreamClock clock = new StreamClock();
+  private byte[] buffer = new byte[1024];
+  private int position;
+  private boolean headerWritten;
+
+  /**
+   * Creates a new writer with default block size.
+   *
+   * @param out Stream to write to
+   */
+  public PositionFixWriter(OutputStream out) {
+    this(out, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Creates a new writer.
+   *
+   * @param out       Stream to write to
+   * @param blockSize Number of fixes per block
+   */
+  public PositionFixWriter(OutputStream out, int blockSize) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("Block size must be positive");
+    }
+    this.out = new DataOutputStream(out);
+    this.blockSize = blockSize;
+    this.block = new PositionFixBlock(blockSize);
+  }
+
+  /**
+   * Writes a fix derived from GGA or RMC sentence. Other sentences, and
+   * sentences that cannot be timestamped or have no position, are ignored.
+   *
+   * @param sentence Sentence to write
+   * @return <code>true</code> if the sentence was written
+   * @throws IOException If writing fails.
+   */
+  public boolean write(Sentence sentence) throws IOException {
+    long time = clock.update(sentence);
+    if (time < 0) {
+      return false;
+    }
+    try {
+      if (sentence instanceof GGASentence) {
+        GGASentence gga = (GGASentence) sentence;
+        Position p = gga.getPosition();
+        write(time, p.getLatitude(), p.getLongitude(), gga.getFixQuality(),
+              gga.getSatelliteCount(), gga.getHorizontalDOP());
+      } else if (sentence instanceof RMCSentence) {
+        RMCSentence rmc = (RMCSentence) sentence;
+        Position p = rmc.getPosition();
+        write(time, p.getLatitude(), p.getLongitude(), getFixQuality(rmc), -1, Double.NaN);
+      } else {
+        return false;
+      }
+    } catch (DataNotAvailableException | IndexOutOfBoundsException ex) {
+      // empty or truncated fields
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Writes a fix. If the fix has the same time as the previous fix, the two
+   * are merged: satellite count and HDOP are filled in when available, and
+   * position and quality of a fix with satellite count (GGA) take precedence
+   * over a fix without (RMC).
+   *
+   * @param time       Milliseconds since epoch
+   * @param latitude   Latitude in degrees
+   * @param longitude  Longitude in degrees
+   * @param quality    Fix quality
+   * @param satellites Satellite count, or -1 if not available
+   * @param hdop       Horizontal dilution of precision, or <code>NaN</code> if
+   *                   not available
+   * @throws IOException If writing fails.
+   */
+  public void write(long time, double latitude, double longitude, GpsFixQualityType quality,
+                    int satellites, double hdop) throws IOException {
+    int i = block.size - 1;
+    if (i >= 0 && block.times[i] == time) {
+      // merge, fix with satellite count (GGA) takes precedence
+      if (satellites >= 0 || block.satellites[i] < 0) {
+        block.latitudes[i] = PositionFixBlock.toFixedPoint(latitude);
+        block.longitudes[i] = PositionFixBlock.toFixedPoint(longitude);
+        block.qualities[i] = quality.getCode();
+      }
+    } else {
+      if (block.size == blockSize) {
+        writeBlock(block.size);
+      }
+      i = block.size++;
+      block.times[i] = time;
+      block.latitudes[i] = PositionFixBlock.toFixedPoint(latitude);
+      block.longitudes[i] = PositionFixBlock.toFixedPoint(longitude);
+      block.qualities[i] = quality.getCode();
+      block.satellites[i] = PositionFixBlock.NO_SATELLITES;
+      block.hdops[i] = Float.NaN;
+    }
+    if (satellites >= 0) {
+      block.satellites[i] = satellites;
+    }
+    if (!Double.isNaN(hdop)) {
+      block.hdops[i] = (float) hdop;
+    }
+  }
+
+  /**
+   * Writes buffered fixes, except the latest one, as a block and flushes the
+   * underlying stream. The latest fix is kept for merging with a sentence of
+   * the same time.
+   *
+   * @throws IOException If writing fails.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (block.size > 1) {
+      writeBlock(block.size - 1);
+    }
+    out.flush();
+  }
+
+  /**
+   * Writes all buffered fixes and closes the underlying stream.
+   *
+   * @throws IOException If writing fails.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      if (block.size > 0) {
+        writeBlock(block.size);
+      }
+      out.flush();
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Packs fix quality, satellite count and HDOP in one word. Satellite count
+   * and HDOP are offset by one, zero denoting value not available.
+   */
+  static int pack(int quality, int satellites, float hdop) {
+    int sats = satellites < 0 ? 0 : Math.min(satellites + 1, (1 << SATELLITE_BITS) - 1);
+    int dop = Float.isNaN(hdop) || hdop < 0 ? 0 : Math.min(Math.round(hdop * 10), (1 << HDOP_BITS) - 2) + 1;
+    return quality | sats << QUALITY_BITS | dop << (QUALITY_BITS + SATELLITE_BITS);
+  }
+
+  /**
+   * Derives fix quality from RMC status and mode indicator.
+   */
+  private static GpsFixQualityType getFixQuality(RMCSentence rmc) {
+    if (rmc.getStatus() != DataStatusType.ACTIVE) {
+      return GpsFixQualityType.INVALID;
+    }
+    if (rmc.getFieldCount() < 12) {
+      // NMEA 2.2 and older have no mode indicator
+      return GpsFixQualityType.NORMAL;
+    }
+    try {
+      FaaModeType mode = rmc.getMode();
+      if (mode == FaaModeType.DGPS) {
+        return GpsFixQualityType.DGPS;
+      } else if (mode == FaaModeType.PRECISE) {
+        return GpsFixQualityType.PPS;
+      } else if (mode == FaaModeType.MANUAL) {
+        return GpsFixQualityType.MANUAL;
+      } else if (mode == FaaModeType.ESTIMATED) {
+        return GpsFixQualityType.ESTIMATED;
+      } else if (mode == FaaModeType.SIMULATED) {
+        return GpsFixQualityType.SIMULATED;
+      }
+    } catch (DataNotAvailableException ex) {
+      // mode indicator left empty
+    }
+    return GpsFixQualityType.NORMAL;
+  }
+
+  /**
+   * Encodes and writes the first n buffered fixes as a block, moving the
+   * remaining fixes to the start of the buffer.
+   */
+  private void writeBlock(int n) throws IOException {
+    if (!headerWritten) {
+      out.writeInt(MAGIC);
+      headerWritten = true;
+    }
+    position = 0;
+    long prevTime = 0;
+    for (int i = 0; i < n; i++) {
+      putVarLong(zigzag(block.times[i] - prevTime));
+      prevTime = block.times[i];
+    }
+    putDeltas(block.latitudes, n);
+    putDeltas(block.longitudes, n);
+    int prevWord = 0;
+    for (int i = 0; i < n; i++) {
+      int word = pack(block.qualities[i], block.satellites[i], block.hdops[i]);
+      putVarLong(zigzag(word - prevWord));
+      prevWord = word;
+    }
+    writeVarInt(n);
+    writeVarInt(position);
+    out.write(buffer, 0, position);
+    int remaining = block.size - n;
+    System.arraycopy(block.times, n, block.times, 0, remaining);
+    System.arraycopy(block.latitudes, n, block.latitudes, 0, remaining);
+    System.arraycopy(block.longitudes, n, block.longitudes, 0, remaining);
+    System.arraycopy(block.qualities, n, block.qualities, 0, remaining);
+    System.arraycopy(block.satellites, n, block.satellites, 0, remaining);
+    System.arraycopy(block.hdops, n, block.hdops, 0, remaining);
+    block.size = remaining;
+  }
+
+  private void putDeltas(int[] column, int n) {
+    long prev = 0;
+    for (int i = 0; i < n; i++) {
+      putVarLong(zigzag(column[i] - prev));
+      prev = column[i];
+    }
+  }
+
+  private void putVarLong(long value) {
+    if (buffer.length - position < 10) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+    while ((value & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+}
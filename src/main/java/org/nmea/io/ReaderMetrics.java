@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import org.nmea.event.SentenceListener;
+import org.nmea.sentence.Sentence;
+
+/**
+ * Call-back interface for collecting runtime metrics of a
+ * {@link SentenceReader}. Methods are invoked synchronously from the reader
+ * thread for each line read, so implementations must be fast and must not
+ * throw.
+ *
+ * @author Key Bridge
+ * @see SentenceReader#addMetrics(ReaderMetrics)
+ * @see ReaderStatistics
+ */
+public interface ReaderMetrics {
+
+  /**
+   * Invoked for every line read from the data source, before validation.
+   *
+   * @param line Line read, without line terminator
+   */
+  void lineRead(String line);
+
+  /**
+   * Invoked when a valid sentence has been parsed and dispatched to all
+   * listeners.
+   *
+   * @param sentence Dispatched sentence
+   * @param nanos    Time elapsed from line read to completion of the last
+   *                 listener, in nanoseconds.
+   */
+  void sentenceRead(Sentence sentence, long nanos);
+
+  /**
+   * Invoked when a line has the sentence format but the checksum does not
+   * match.
+   *
+   * @param line Line read
+   */
+  void checksumFailed(String line);
+
+  /**
+   * Invoked when a line begins like a sentence but is malformed.
+   *
+   * @param line Line read
+   */
+  void invalidSentence(String line);
+
+  /**
+   * Invoked when a line is not recognized as NMEA 0183 data.
+   *
+   * @param line Line read
+   */
+  void nonNMEA(String line);
+
+  /**
+   * Invoked when a valid sentence could not be parsed, e.g. because there is
+   * no parser for the sentence type.
+   *
+   * @param line Line read
+   * @param ex   Exception thrown by parser
+   */
+  void parseFailed(String line, Exception ex);
+
+  /**
+   * Invoked when a listener throws an exception.
+   *
+   * @param sentence Sentence being dispatched
+   * @param listener Listener that failed
+   * @param ex       Exception thrown by listener
+   */
+  void listenerFailed(Sentence sentence, SentenceListener listener, Exception ex);
+
+  /**
+   * Invoked when reading the data source fails.
+   *
+   * @param ex Exception thrown by data source
+   */
+  void readFailed(Exception ex);
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.nmea.event.SentenceListener;
+import org.nmea.sentence.Sentence;
+import org.nmea.type.TalkerType;
+
+/**
+ * Default {@link ReaderMetrics} implementation counting sentences per sentence
+ * id and talker, errors per category, and recording the read-to-dispatch
+ * latency in a {@link LatencyHistogram}. Counters are striped
+ * {@link LongAdder}s, so one instance may be shared by several readers with
+ * low contention.
+ * <p>
+ * Statistics may be published as a platform MXBean with
+ * {@link #register(String)}, e.g.
+ * <pre>
+ * ReaderStatistics stats = new ReaderStatistics();
+ * reader.addMetrics(stats);
+ * stats.register("gps");
+ * </pre>
+ *
+ * @author Key Bridge
+ */
+public class ReaderStatistics implements ReaderMetrics, ReaderStatisticsMXBean {
+
+  /**
+   * JMX domain of registered statistics.
+   */
+  public static final String DOMAIN = "org.nmea";
+
+  private final LongAdder lines = new LongAdder();
+  private final LongAdder characters = new LongAdder();
+  private final LongAdder sentences = new LongAdder();
+  private final LongAdder checksumFailures = new LongAdder();
+  private final LongAdder invalidSentences = new LongAdder();
+  private final LongAdder nonNMEA = new LongAdder();
+  private final LongAdder parseFailures = new LongAdder();
+  private final LongAdder listenerFailures = new LongAdder();
+  private final LongAdder readFailures = new LongAdder();
+  private final ConcurrentMap<String, LongAdder> sentenceCounts = new ConcurrentHashMap<>();
+  private final LongAdder[] talkerCounts = new LongAdder[TalkerType.values().length];
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private volatile long resetTime = System.currentTimeMillis();
+  private ObjectName objectName;
+
+  /**
+   * Creates a new instance with all counters zero.
+   */
+  public ReaderStatistics() {
+    for (int i = 0; i < talkerCounts.length; i++) {
+      talkerCounts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Registers the statistics in the platform MBean server with object name
+   * <code>org.nmea:type=SentenceReader,name=&lt;name&gt;</code>.
+   *
+   * @param name Name of the reader, e.g. device or port name.
+   * @return Registered object name
+   * @throws IllegalStateException If already registered or if registration
+   *                               fails.
+   */
+  public synchronized ObjectName register(String name) {
+    if (objectName != null) {
+      throw new IllegalStateException("Already registered as " + objectName);
+    }
+    try {
+      ObjectName on = new ObjectName(DOMAIN + ":type=SentenceReader,name=" + ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+      objectName = on;
+      return on;
+    } catch (JMException ex) {
+      throw new IllegalStateException("MBean registration failed", ex);
+    }
+  }
+
+  /**
+   * Removes the statistics from the platform MBean server, if registered.
+   */
+  public synchronized void unregister() {
+    if (objectName == null) {
+      return;
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(objectName)) {
+        server.unregisterMBean(objectName);
+      }
+    } catch (JMException ex) {
+      throw new IllegalStateException("MBean unregistration failed", ex);
+    } finally {
+      objectName = null;
+    }
+  }
+
+  /**
+   * Returns the latency histogram.
+   *
+   * @return LatencyHistogram
+   */
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  /**
+   * Returns the number of sentences dispatched with specified sentence id.
+   *
+   * @param sentenceId Sentence id, e.g. "GGA"
+   * @return count
+   */
+  public long getSentenceCount(String sentenceId) {
+    LongAdder count = sentenceCounts.get(sentenceId);
+    return count == null ? 0 : count.sum();
+  }
+
+  /**
+   * Returns the number of sentences dispatched from specified talker.
+   *
+   * @param talker Talker
+   * @return count
+   */
+  public long getTalkerCount(TalkerType talker) {
+    return talkerCounts[talker.ordinal()].sum();
+  }
+
+  @Override
+  public void lineRead(String line) {
+    lines.increment();
+    characters.add(line.length());
+  }
+
+  @Override
+  public void sentenceRead(Sentence sentence, long nanos) {
+    sentences.increment();
+    String id = sentence.getSentenceId();
+    LongAdder count = sentenceCounts.get(id);
+    if (count == null) {
+      count = sentenceCounts.computeIfAbsent(id, k -> new LongAdder());
+    }
+    count.increment();
+    talkerCounts[sentence.getTalkerId().ordinal()].increment();
+    latency.record(nanos);
+  }
+
+  @Override
+  public void checksumFailed(String line) {
+    checksumFailures.increment();
+  }
+
+  @Override
+  public void invalidSentence(String line) {
+    invalidSentences.increment();
+  }
+
+  @Override
+  public void nonNMEA(String line) {
+    nonNMEA.increment();
+  }
+
+  @Override
+  public void parseFailed(String line, Exception ex) {
+    parseFailures.increment();
+  }
+
+  @Override
+  public void listenerFailed(Sentence sentence, SentenceListener listener, Exception ex) {
+    listenerFailures.increment();
+  }
+
+  @Override
+  public void readFailed(Exception ex) {
+    readFailures.increment();
+  }
+
+  @Override
+  public long getLineCount() {
+    return lines.sum();
+  }
+
+  @Override
+  public long getCharacterCount() {
+    return characters.sum();
+  }
+
+  @Override
+  public long getSentenceCount() {
+    return sentences.sum();
+  }
+
+  @Override
+  public Map<String, Long> getSentenceCounts() {
+    Map<String, Long> result = new TreeMap<>();
+    for (Map.Entry<String, LongAdder> e : sentenceCounts.entrySet()) {
+      result.put(e.getKey(), e.getValue().sum());
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, Long> getTalkerCounts() {
+    Map<String, Long> result = new TreeMap<>();
+    for (TalkerType talker : TalkerType.values()) {
+      long count = talkerCounts[talker.ordinal()].sum();
+      if (count > 0) {
+        result.put(talker.name(), count);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public double getSentenceRate() {
+    long elapsed = System.currentTimeMillis() - resetTime;
+    return elapsed <= 0 ? 0 : sentences.sum() * 1000.0 / elapsed;
+  }
+
+  @Override
+  public long getChecksumFailureCount() {
+    return checksumFailures.sum();
+  }
+
+  @Override
+  public long getInvalidSentenceCount() {
+    return invalidSentences.sum();
+  }
+
+  @Override
+  public long getNonNMEACount() {
+    return nonNMEA.sum();
+  }
+
+  @Override
+  public long getParseFailureCount() {
+    return parseFailures.sum();
+  }
+
+  @Override
+  public long getListenerFailureCount() {
+    return listenerFailures.sum();
+  }
+
+  @Override
+  public long getReadFailureCount() {
+    return readFailures.sum();
+  }
+
+  @Override
+  public double getLatencyMean() {
+    return latency.getMean() / 1000;
+  }
+
+  @Override
+  public double getLatency50thPercentile() {
+    return latency.getPercentile(50) / 1000.0;
+  }
+
+  @Override
+  public double getLatency99thPercentile() {
+    return latency.getPercentile(99) / 1000.0;
+  }
+
+  @Override
+  public double getLatency999thPercentile() {
+    return latency.getPercentile(99.9) / 1000.0;
+  }
+
+  @Override
+  public double getLatencyMax() {
+    return latency.getMax() / 1000.0;
+  }
+
+  @Override
+  public void reset() {
+    lines.reset();
+    characters.reset();
+    sentences.reset();
+    checksumFailures.reset();
+    invalidSentences.reset();
+    nonNMEA.reset();
+    parseFailures.reset();
+    listenerFailures.reset();
+    readFailures.reset();
+    for (LongAdder count : sentenceCounts.values()) {
+      count.reset();
+    }
+    for (LongAdder count : talkerCounts) {
+      count.reset();
+    }
+    latency.reset();
+    resetTime = System.currentTimeMillis();
+  }
+}
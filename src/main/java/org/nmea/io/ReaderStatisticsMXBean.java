@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.util.Map;
+
+/**
+ * JMX management interface of {@link ReaderStatistics}. Latencies are
+ * measured from line read to completion of the last sentence listener.
+ *
+ * @author Key Bridge
+ */
+public interface ReaderStatisticsMXBean {
+
+  /**
+   * Returns the number of lines read from the data source.
+   *
+   * @return count
+   */
+  long getLineCount();
+
+  /**
+   * Returns the number of characters read from the data source, excluding
+   * line terminators.
+   *
+   * @return count
+   */
+  long getCharacterCount();
+
+  /**
+   * Returns the number of sentences dispatched to listeners.
+   *
+   * @return count
+   */
+  long getSentenceCount();
+
+  /**
+   * Returns the number of sentences dispatched per sentence id.
+   *
+   * @return Map of sentence id and count
+   */
+  Map<String, Long> getSentenceCounts();
+
+  /**
+   * Returns the number of sentences dispatched per talker id.
+   *
+   * @return Map of talker id and count
+   */
+  Map<String, Long> getTalkerCounts();
+
+  /**
+   * Returns the average sentence rate since creation or last reset.
+   *
+   * @return Sentences per second
+   */
+  double getSentenceRate();
+
+  /**
+   * Returns the number of sentences discarded due to checksum mismatch.
+   *
+   * @return count
+   */
+  long getChecksumFailureCount();
+
+  /**
+   * Returns the number of malformed sentences.
+   *
+   * @return count
+   */
+  long getInvalidSentenceCount();
+
+  /**
+   * Returns the number of lines not recognized as NMEA 0183.
+   *
+   * @return count
+   */
+  long getNonNMEACount();
+
+  /**
+   * Returns the number of valid sentences that could not be parsed.
+   *
+   * @return count
+   */
+  long getParseFailureCount();
+
+  /**
+   * Returns the number of exceptions thrown by sentence listeners.
+   *
+   * @return count
+   */
+  long getListenerFailureCount();
+
+  /**
+   * Returns the number of data source read errors.
+   *
+   * @return count
+   */
+  long getReadFailureCount();
+
+  /**
+   * Returns the mean latency.
+   *
+   * @return Latency in microseconds
+   */
+  double getLatencyMean();
+
+  /**
+   * Returns the median latency.
+   *
+   * @return Latency in microseconds
+   */
+  double getLatency50thPercentile();
+
+  /**
+   * Returns the 99th percentile latency.
+   *
+   * @return Latency in microseconds
+   */
+  double getLatency99thPercentile();
+
+  /**
+   * Returns the 99.9th percentile latency.
+   *
+   * @return Latency in microseconds
+   */
+  double getLatency999thPercentile();
+
+  /**
+   * Returns the maximum latency.
+   *
+   * @return Latency in microseconds
+   */
+  double getLatencyMax();
+
+  /**
+   * Resets all counters and the latency histogram.
+   */
+  void reset();
+}
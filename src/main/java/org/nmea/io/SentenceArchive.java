@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Read access to an append-only archive of raw NMEA 0183 sentences written by
+ * {@link SentenceArchiveWriter}.
+ * <p>
+ * The archive consists of two files. The data file holds the sentences as a
+ * sequence of records, each one prefixed by a UTC timestamp (milliseconds since
+ * epoch) and the record length:
+ * <pre>
+ * [long timestamp][short length][length bytes of ASCII sentence]
+ * </pre> The index file (data file name with {@link #INDEX_SUFFIX}) is a sparse
+ * time index with one entry per data block:
+ * <pre>
+ * [long timestamp of first record in block][long offset of block in data file]
+ * </pre> The timestamps are derived from the time and date fields of ZDA, RMC
+ * and GGA sentences and are non-decreasing throughout the archive. This allows
+ * seeking straight to a requested time without scanning the whole archive. If
+ * the index file is missing or does not match the data file, it is rebuilt by
+ * scanning the data file once. Records appended after the last index entry,
+ * e.g. when the writer was not closed properly, are indexed on open.
+ * <p>
+ * To replay a time range, create a {@link SentenceReader} with
+ * {@link SentenceReader#SentenceReader(SentenceArchive, long, long, double)}.
+ *
+ * @author Key Bridge
+ * @see SentenceArchiveWriter
+ * @see SentenceReader
+ */
+public class SentenceArchive {
+
+  /**
+   * File name suffix of the time index file.
+   */
+  public static final String INDEX_SUFFIX = ".idx";
+
+  /**
+   * Default minimum size of data blocks in bytes, i.e. the maximum number of
+   * bytes to scan after seeking to a block.
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+  /**
+   * Replay speed for playback as fast as possible, without pacing.
+   */
+  public static final double MAX_SPEED = 0;
+
+  /**
+   * Replay speed for real-time playback, pacing the sentences according to
+   * their original timestamps.
+   */
+  public static final double REAL_TIME = 1.0;
+
+  // size of a single index entry in bytes
+  static final int INDEX_ENTRY_SIZE = 16;
+
+  private final File file;
+  private long[] times;
+  private long[] offsets;
+  private int size;
+  // timestamp of last record and length of the complete records in data file
+  private long endTime = -1;
+  private long length;
+
+  /**
+   * Opens an existing archive for reading.
+   *
+   * @param file Archive data file
+   * @throws IOException If the archive or its index cannot be read.
+   */
+  public SentenceArchive(File file) throws IOException {
+    this(file, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Opens an existing archive, using specified block size when indexing
+   * records not covered by the index file.
+   *
+   * @param file      Archive data file
+   * @param blockSize Minimum number of bytes between index entries
+   * @throws IOException If the archive or its index cannot be read.
+   */
+  SentenceArchive(File file, int blockSize) throws IOException {
+    if (!file.isFile()) {
+      throw new FileNotFoundException("Archive not found: " + file);
+    }
+    this.file = file;
+    File index = getIndexFile(file);
+    if (!index.isFile() || !readIndex(index)) {
+      rebuildIndex(blockSize);
+    } else {
+      // scan the last indexed block for the end of archive and index the
+      // blocks appended after it
+      int entries = size;
+      long start = size > 0 ? offsets[size - 1] : 0;
+      scan(start, size > 0 ? start : -blockSize, blockSize);
+      if (size > entries) {
+        writeIndex();
+      }
+    }
+  }
+
+  /**
+   * Returns the archive data file.
+   *
+   * @return File
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Returns the number of indexed data blocks.
+   *
+   * @return block count
+   */
+  public int getBlockCount() {
+    return size;
+  }
+
+  /**
+   * Returns the timestamp of the first indexed record.
+   *
+   * @return Milliseconds since epoch, or -1 if the archive has no timestamped
+   *         records.
+   */
+  public long getStartTime() {
+    return size > 0 ? times[0] : -1;
+  }
+
+  /**
+   * Returns the timestamp of the last record in archive.
+   *
+   * @return Milliseconds since epoch, zero if the archive has no timestamped
+   *         records, or -1 if the archive is empty.
+   */
+  public long getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * Returns the data file offset from which to start scanning for records with
+   * timestamp equal to or greater than the given time. That is, the offset of
+   * the last block that starts before the given time.
+   *
+   * @param time Milliseconds since epoch
+   * @return Offset in data file
+   */
+  public long findOffset(long time) {
+    // last block with start time strictly before the requested time; records
+    // equal to time may reside at the end of the preceding block
+    int i = Arrays.binarySearch(times, 0, size, time);
+    if (i < 0) {
+      i = -i - 1;
+    } else {
+      while (i > 0 && times[i - 1] == time) {
+        i--;
+      }
+    }
+    return i == 0 ? 0 : offsets[i - 1];
+  }
+
+  /**
+   * Returns the index file for specified data file.
+   *
+   * @param file Archive data file
+   * @return Index file
+   */
+  static File getIndexFile(File file) {
+    return new File(file.getPath() + INDEX_SUFFIX);
+  }
+
+  /**
+   * Returns the length of the complete records in data file. A record
+   * truncated by an interrupted write is not included.
+   *
+   * @return Offset following the last complete record
+   */
+  long getDataLength() {
+    return length;
+  }
+
+  /**
+   * Reads the sparse index from specified index file.
+   *
+   * @return <code>false</code> if the index does not match the data file
+   */
+  private boolean readIndex(File index) throws IOException {
+    if (index.length() % INDEX_ENTRY_SIZE != 0) {
+      return false;
+    }
+    int entries = (int) (index.length() / INDEX_ENTRY_SIZE);
+    times = new long[Math.max(16, entries)];
+    offsets = new long[times.length];
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(index)))) {
+      for (int i = 0; i < entries; i++) {
+        times[i] = in.readLong();
+        offsets[i] = in.readLong();
+        if (times[i] <= 0 || i > 0 && (times[i] < times[i - 1] || offsets[i] <= offsets[i - 1])) {
+          return false;
+        }
+      }
+    }
+    size = entries;
+    if (size == 0) {
+      return true;
+    }
+    // last indexed record must be present with the indexed timestamp
+    try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+      long last = offsets[size - 1];
+      if (last + 10 > in.length()) {
+        return false;
+      }
+      in.seek(last);
+      return in.readLong() == times[size - 1];
+    }
+  }
+
+  /**
+   * Rebuilds the index in memory by scanning the data file and writes it in
+   * the index file.
+   */
+  private void rebuildIndex(int blockSize) throws IOException {
+    times = new long[16];
+    offsets = new long[16];
+    size = 0;
+    scan(0, -blockSize, blockSize);
+    writeIndex();
+  }
+
+  /**
+   * Scans the data file from specified record offset to the end, adding index
+   * entries for new blocks and tracking the last complete record.
+   */
+  private void scan(long start, long lastBlock, int blockSize) throws IOException {
+    long offset = start;
+    byte[] record = new byte[0xFFFF];
+    try (FileInputStream fis = new FileInputStream(file)) {
+      fis.getChannel().position(start);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(fis));
+      while (true) {
+        long time;
+        int len;
+        try {
+          time = in.readLong();
+          len = in.readUnsignedShort();
+          in.readFully(record, 0, len);
+        } catch (EOFException eof) {
+          break;
+        }
+        if (time > 0 && offset - lastBlock >= blockSize) {
+          add(time, offset);
+          lastBlock = offset;
+        }
+        endTime = time;
+        offset += 10 + len;
+      }
+    }
+    length = offset;
+  }
+
+  /**
+   * Writes the index entries in the index file.
+   */
+  private void writeIndex() throws IOException {
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getIndexFile(file))))) {
+      for (int i = 0; i < size; i++) {
+        out.writeLong(times[i]);
+        out.writeLong(offsets[i]);
+      }
+    }
+  }
+
+  /**
+   * Adds an index entry, growing the arrays when necessary.
+   */
+  private void add(long time, long offset) {
+    if (size == times.length) {
+      times = Arrays.copyOf(times, size * 2);
+      offsets = Arrays.copyOf(offsets, size * 2);
+    }
+    times[size] = time;
+    offsets[size] = offset;
+    size++;
+  }
+}
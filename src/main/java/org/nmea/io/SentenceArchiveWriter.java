@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import org.nmea.event.SentenceEvent;
+import org.nmea.event.SentenceListener;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.Sentence;
+import org.nmea.sentence.SentenceValidator;
+
+/**
+ * Appends raw NMEA 0183 sentences to an archive readable by
+ * {@link SentenceArchive}, maintaining a sparse time index as it goes.
+ * <p>
+ * Each sentence is stamped with the current UTC time of the data stream, as
+ * reported by the latest ZDA or RMC sentence (date and time) or GGA sentence
+ * (time of day on the latest known date, with midnight rollover). Sentences
+ * received before the first date is known are stamped with zero and are not
+ * indexed. Timestamps never decrease, so that the archive can be searched by
+ * time.
+ * <p>
+ * The writer may be registered directly as a listener of a live
+ * {@link SentenceReader}, or fed with lines of a log file using
+ * {@link #append(String)}.
+ *
+ * @author Key Bridge
+ * @see SentenceArchive
+ */
+public class SentenceArchiveWriter implements SentenceListener, Closeable {
+
+  private final DataOutputStream data;
+  private final DataOutputStream index;
+  private final int blockSize;
+  private long offset;
+  private long lastBlock;
+  private long timestamp;
+  private final StreamClock clock = new StreamClock();
+
+  /**
+   * Creates a new writer with default block size. If the archive already
+   * exists, new sentences are appended to it.
+   *
+   * @param file Archive data file
+   * @throws IOException If the archive cannot be opened.
+   */
+  public SentenceArchiveWriter(File file) throws IOException {
+    this(file, SentenceArchive.DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Creates a new writer. If the archive already exists, new sentences are
+   * appended to it, continuing from the date and time of its last record. A
+   * record truncated by an interrupted write is discarded, and a missing or
+   * stale index is rebuilt.
+   *
+   * @param file      Archive data file
+   * @param blockSize Minimum number of bytes between index entries
+   * @throws IOException If the archive cannot be opened.
+   */
+  public SentenceArchiveWriter(File file, int blockSize) throws IOException {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("Block size must be positive");
+    }
+    this.blockSize = blockSize;
+    if (file.isFile()) {
+      // validates the index and finds the last complete record
+      SentenceArchive archive = new SentenceArchive(file, blockSize);
+      timestamp = Math.max(0, archive.getEndTime());
+      clock.restore(timestamp);
+      offset = archive.getDataLength();
+      if (file.length() > offset) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+          raf.setLength(offset);
+        }
+      }
+    }
+    this.lastBlock = -blockSize;
+    this.data = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    this.index = new DataOutputStream(new BufferedOutputStream(
+      new FileOutputStream(SentenceArchive.getIndexFile(file), true)));
+  }
+
+  /**
+   * Appends a line of data to archive. Lines not containing a valid NMEA 0183
+   * sentence are ignored.
+   *
+   * @param nmea Sentence String
+   * @return <code>true</code> if the line was archived
+   * @throws IOException If writing fails.
+   */
+  public boolean append(String nmea) throws IOException {
+    if (!SentenceValidator.isValidSentence(nmea)) {
+      return false;
+    }
+    String s = nmea.trim();
+    if (StreamClock.isClockSentence(s)) {
+      try {
+        updateClock(SentenceFactory.getInstance().createParser(s));
+      } catch (RuntimeException ex) {
+        // unsupported or malformed, keep previous clock
+      }
+    }
+    write(s);
+    return true;
+  }
+
+  /**
+   * Appends a parsed sentence to archive.
+   *
+   * @param sentence Sentence to append
+   * @throws IOException If writing fails.
+   */
+  public void append(Sentence sentence) throws IOException {
+    try {
+      updateClock(sentence);
+    } catch (RuntimeException ex) {
+      // malformed, keep previous clock
+    }
+    write(sentence.toString());
+  }
+
+  /**
+   * Returns the timestamp of latest archived sentence.
+   *
+   * @return Milliseconds since epoch, or zero if not known yet.
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Flushes buffered records and index entries to disk.
+   *
+   * @throws IOException If writing fails.
+   */
+  public void flush() throws IOException {
+    data.flush();
+    index.flush();
+  }
+
+  /**
+   * Flushes and closes the archive.
+   *
+   * @throws IOException If writing fails.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      data.close();
+    } finally {
+      index.close();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#sentenceRead(org.nmea.event.SentenceEvent)
+   */
+  @Override
+  public void sentenceRead(SentenceEvent event) {
+    try {
+      append(event.getSentence());
+    } catch (IOException ex) {
+      throw new IllegalStateException("Archive write failed", ex);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingPaused()
+   */
+  @Override
+  public void readingPaused() {
+    try {
+      flush();
+    } catch (IOException ex) {
+      throw new IllegalStateException("Archive flush failed", ex);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingStarted()
+   */
+  @Override
+  public void readingStarted() {
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.nmea.event.SentenceListener#readingStopped()
+   */
+  @Override
+  public void readingStopped() {
+    readingPaused();
+  }
+
+  /**
+   * Writes a record and an index entry when a new block is started.
+   */
+  private void write(String nmea) throws IOException {
+    byte[] bytes = nmea.getBytes(StandardCharsets.US_ASCII);
+    if (timestamp > 0 && offset - lastBlock >= blockSize) {
+      index.writeLong(timestamp);
+      index.writeLong(offset);
+      lastBlock = offset;
+    }
+    data.writeLong(timestamp);
+    data.writeShort(bytes.length);
+    data.write(bytes);
+    offset += 10 + bytes.length;
+  }
+
+  /**
+   * Advances the archive timestamp from ZDA, RMC or GGA sentence.
+   */
+  private void updateClock(Sentence s) {
+    timestamp = Math.max(timestamp, clock.update(s));
+  }
+}
@@ -54,22 +54,29 @@ public class SentenceReader {
   // specific listeners are registered with sentence type String
   private static final String DISPATCH_ALL = "DISPATCH_ALL";
 
+  // read time of lines read without metrics attached
+  static final long NOT_MEASURED = Long.MIN_VALUE;
+
   // logging
   private static final Logger LOGGER = Logger.getLogger(SentenceReader.class.getName());
   private static final String LOG_MSG = "Exception caught from SentenceListener";
 
   // Thread for running the worker
-  private Thread thread;
+  private volatile Thread thread;
   // worker that reads the input stream
   private DataReader reader;
   // map of sentence listeners
   private ConcurrentMap<String, List<SentenceListener>> listeners = new ConcurrentHashMap<>();
   // timeout for "reading paused" in ms
   private volatile int pauseTimeout = DEFAULT_TIMEOUT;
+  // reuse parsers after dispatch
+  private volatile boolean recycling = false;
   // Non-NMEA data listener
   private DataListener dataListener;
   // Exception listener
   private ExceptionListener exceptionListener = null;
+  // attached metrics, copy-on-write
+  private volatile ReaderMetrics[] metrics = new ReaderMetrics[0];
 
   /**
    * Creates a SentenceReader for UDP/DatagramSocket.
@@ -89,6 +96,21 @@ public class SentenceReader {
     reader = new DefaultDataReader(source, this);
   }
 
+  /**
+   * Creates a SentenceReader replaying a time range of an archive. Reading
+   * stops automatically at the end of the range.
+   *
+   * @param archive Archive from which to read NMEA data
+   * @param from    Start of time range, inclusive (ms since epoch)
+   * @param to      End of time range, inclusive (ms since epoch)
+   * @param speed   Replay speed factor relative to real-time, or
+   *                {@link SentenceArchive#MAX_SPEED} to read as fast as
+   *                possible.
+   */
+  public SentenceReader(SentenceArchive archive, long from, long to, double speed) {
+    reader = new ArchiveDataReader(archive, from, to, speed, this);
+  }
+
   /**
    * Adds a {@link org.nmea.event.SentenceListener} that wants to
    * receive all sentences read by the reader.
@@ -125,10 +147,100 @@ public class SentenceReader {
     registerListener(sl, type);
   }
 
+  /**
+   * Attaches a metrics call-back receiving an event for each line read,
+   * sentence dispatched and error. Metrics may be attached while the reader is
+   * running.
+   *
+   * @param m Metrics to add
+   * @see ReaderStatistics
+   */
+  public synchronized void addMetrics(ReaderMetrics m) {
+    ReaderMetrics[] current = metrics;
+    ReaderMetrics[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = m;
+    metrics = updated;
+  }
+
+  /**
+   * Detaches a metrics call-back.
+   *
+   * @param m Metrics to remove
+   */
+  public synchronized void removeMetrics(ReaderMetrics m) {
+    ReaderMetrics[] current = metrics;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i] == m) {
+        ReaderMetrics[] updated = new ReaderMetrics[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, i);
+        System.arraycopy(current, i + 1, updated, i, updated.length - i);
+        metrics = updated;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Notifies metrics of a line read from the data source.
+   *
+   * @param line Line read
+   * @return Read time for latency measurement, or {@link #NOT_MEASURED} if no
+   *         metrics are attached.
+   */
+  long fireLineRead(String line) {
+    ReaderMetrics[] m = metrics;
+    if (m.length == 0) {
+      return NOT_MEASURED;
+    }
+    for (ReaderMetrics metric : m) {
+      metric.lineRead(line);
+    }
+    return System.nanoTime();
+  }
+
+  /**
+   * Notifies metrics of a sentence with invalid checksum.
+   */
+  void fireChecksumFailed(String line) {
+    for (ReaderMetrics metric : metrics) {
+      metric.checksumFailed(line);
+    }
+  }
+
+  /**
+   * Notifies metrics of a sentence that could not be parsed.
+   */
+  void fireParseFailed(String line, Exception ex) {
+    for (ReaderMetrics metric : metrics) {
+      metric.parseFailed(line, ex);
+    }
+  }
+
+  /**
+   * Notifies metrics of a data source read error.
+   */
+  void fireReadFailed(Exception ex) {
+    for (ReaderMetrics metric : metrics) {
+      metric.readFailed(ex);
+    }
+  }
+
   /**
    * Pass data to DataListener.
    */
   void fireDataEvent(String data) {
+    ReaderMetrics[] m = metrics;
+    if (m.length > 0) {
+      char first = data.isEmpty() ? 0 : data.charAt(0);
+      boolean nmea = first == Sentence.BEGIN_CHAR || first == Sentence.ALTERNATIVE_BEGIN_CHAR;
+      for (ReaderMetrics metric : m) {
+        if (nmea) {
+          metric.invalidSentence(data);
+        } else {
+          metric.nonNMEA(data);
+        }
+      }
+    }
     try {
       if (dataListener != null) {
         dataListener.dataRead(data);
@@ -182,8 +294,12 @@ public class SentenceReader {
    * Dispatch data to all listeners.
    *
    * @param sentence sentence string.
+   * @param start    Time the sentence was read, as returned by
+   *                 {@link #fireLineRead(String)}.
+   * @param recycled Recycling flag the sentence was acquired with, read once
+   *                 per line so listeners see the same value as the pool.
    */
-  void fireSentenceEvent(Sentence sentence) {
+  void fireSentenceEvent(Sentence sentence, long start, boolean recycled) {
 
     String type = sentence.getSentenceId();
     Set<SentenceListener> targets = new HashSet<>();
@@ -195,14 +311,24 @@ public class SentenceReader {
       targets.addAll(listeners.get(DISPATCH_ALL));
     }
 
+    SentenceEvent se = new SentenceEvent(this, sentence, recycled);
     for (SentenceListener listener : targets) {
       try {
-        SentenceEvent se = new SentenceEvent(this, sentence);
         listener.sentenceRead(se);
       } catch (Exception e) {
+        for (ReaderMetrics metric : metrics) {
+          metric.listenerFailed(sentence, listener, e);
+        }
         LOGGER.log(Level.WARNING, LOG_MSG, e);
       }
     }
+
+    if (start != NOT_MEASURED) {
+      long elapsed = System.nanoTime() - start;
+      for (ReaderMetrics metric : metrics) {
+        metric.sentenceRead(sentence, elapsed);
+      }
+    }
   }
 
   /**
@@ -224,6 +350,16 @@ public class SentenceReader {
     return this.pauseTimeout;
   }
 
+  /**
+   * Tells if parsers are recycled after dispatching.
+   *
+   * @return True if recycling, otherwise false.
+   * @see #setRecycling(boolean)
+   */
+  public boolean isRecycling() {
+    return recycling;
+  }
+
   /**
    * Returns all currently registered SentenceListeners.
    *
@@ -287,6 +423,25 @@ public class SentenceReader {
     }
   }
 
+  /**
+   * Sets an archive time range to be used as data source. If reader is
+   * running, it is first stopped and you must call {@link #start()} to resume
+   * reading.
+   *
+   * @param archive Archive from which to read NMEA data
+   * @param from    Start of time range, inclusive (ms since epoch)
+   * @param to      End of time range, inclusive (ms since epoch)
+   * @param speed   Replay speed factor relative to real-time, or
+   *                {@link SentenceArchive#MAX_SPEED} to read as fast as
+   *                possible.
+   */
+  public void setArchive(SentenceArchive archive, long from, long to, double speed) {
+    if (reader.isRunning()) {
+      stop();
+    }
+    reader = new ArchiveDataReader(archive, from, to, speed, this);
+  }
+
   /**
    * Sets the DatagramSocket to be used as data source. If reader is running, it
    * is first stopped and you must call {@link #start()} to resume reading.
@@ -341,6 +496,34 @@ public class SentenceReader {
     this.pauseTimeout = millis;
   }
 
+  /**
+   * Enables or disables recycling of parsers. When enabled, the reader keeps a
+   * small pool of parsers per sentence type and re-fills them with each new
+   * sentence, instead of creating a new parser for every sentence read.
+   * <p>
+   * A recycled sentence is valid only until all listeners have returned from
+   * {@link SentenceListener#sentenceRead(SentenceEvent)}. Listeners must not
+   * keep references to the sentence or event; those that need to, must keep
+   * the result of {@link SentenceEvent#retain()}. Disabled by default.
+   *
+   * @param recycling True to recycle parsers, false to create new ones.
+   */
+  public void setRecycling(boolean recycling) {
+    this.recycling = recycling;
+  }
+
+  /**
+   * Tells if the reader is running, i.e. it has been started and not stopped.
+   * Reading started events are fired only when data is received, so a
+   * listener added to a running reader may not receive one.
+   *
+   * @return True if running, otherwise false.
+   */
+  public boolean isRunning() {
+    Thread t = thread;
+    return t != null && t.isAlive() && reader != null && reader.isRunning();
+  }
+
   /**
    * Starts reading the input stream and dispatching events.
    *
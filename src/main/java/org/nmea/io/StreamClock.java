@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import org.nmea.parser.DataNotAvailableException;
+import org.nmea.sentence.DateSentence;
+import org.nmea.sentence.Sentence;
+import org.nmea.sentence.TimeSentence;
+import org.nmea.type.Date;
+
+/**
+ * Tracks the UTC time of a sentence stream. The date and time are taken from
+ * ZDA and RMC sentences, time of day from GGA sentences on the latest known
+ * date, advancing the date when time of day rolls over midnight.
+ *
+ * @author Key Bridge
+ */
+class StreamClock {
+
+  private static final long DAY_MILLIS = 24 * 3600 * 1000L;
+  private static final long HALF_DAY_MILLIS = DAY_MILLIS / 2;
+
+  // epoch day of latest known date, or -1 if not known
+  private long epochDay = -1;
+  private long timeOfDay = -1;
+
+  /**
+   * Tells if the sentence may update the clock by looking at the sentence id
+   * without parsing it.
+   *
+   * @param nmea Sentence String
+   * @return <code>true</code> for ZDA, RMC and GGA sentences
+   */
+  static boolean isClockSentence(String nmea) {
+    return nmea.startsWith("ZDA", 3) || nmea.startsWith("RMC", 3) || nmea.startsWith("GGA", 3);
+  }
+
+  /**
+   * Updates the clock from ZDA, RMC or GGA sentence; other sentences are
+   * ignored.
+   *
+   * @param s Sentence
+   * @return Time of the sentence in milliseconds since epoch, or -1 if the
+   *         sentence did not update the clock.
+   */
+  long update(Sentence s) {
+    String id = s.getSentenceId();
+    if (!"ZDA".equals(id) && !"RMC".equals(id) && !"GGA".equals(id)) {
+      return -1;
+    }
+    try {
+      long millis = ((TimeSentence) s).getTime().getMilliseconds();
+      long day = epochDay;
+      if (s instanceof DateSentence) {
+        Date d = ((DateSentence) s).getDate();
+        day = LocalDate.of(d.getYear(), d.getMonth(), d.getDay()).toEpochDay();
+      } else if (day < 0) {
+        return -1;
+      } else if (millis < timeOfDay - HALF_DAY_MILLIS) {
+        day++;
+      }
+      epochDay = day;
+      timeOfDay = millis;
+      return day * DAY_MILLIS + millis;
+    } catch (DataNotAvailableException | IllegalArgumentException | DateTimeException
+      | IndexOutOfBoundsException ex) {
+      // fields empty, invalid or truncated, keep previous clock
+      return -1;
+    }
+  }
+
+  /**
+   * Restores the clock to the time of a previously stamped sentence, e.g. the
+   * last record of an archive being appended to.
+   *
+   * @param timestamp Milliseconds since epoch; zero or negative leaves the
+   *                  clock unchanged.
+   */
+  void restore(long timestamp) {
+    if (timestamp > 0) {
+      epochDay = timestamp / DAY_MILLIS;
+      timeOfDay = timestamp % DAY_MILLIS;
+    }
+  }
+
+  /**
+   * Tells if the date is known, i.e. GGA sentences can be timestamped.
+   *
+   * @return <code>true</code> if known
+   */
+  boolean isDateKnown() {
+    return epochDay >= 0;
+  }
+}
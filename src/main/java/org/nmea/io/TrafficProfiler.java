@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.nmea.event.SentenceListener;
+import org.nmea.sentence.Sentence;
+
+/**
+ * Profiles the traffic of a serial NMEA 0183 bus per talker and sentence id,
+ * and estimates the bus utilization at a given baud rate. Attach to a reader
+ * with {@link SentenceReader#addMetrics(ReaderMetrics)}.
+ * <p>
+ * Rates are averaged over a sliding window of whole seconds, kept in ring
+ * buffers of per-second counters; memory use is fixed at construction. Every
+ * line read is accounted, including sentences with checksum errors. Lines that
+ * are not sentences, and sentences beyond the key capacity, are accounted
+ * under an empty talker and sentence id.
+ * <p>
+ * Bus utilization assumes 8N1 framing, i.e. 10 bits on the wire per byte.
+ *
+ * @author Key Bridge
+ */
+public class TrafficProfiler implements ReaderMetrics {
+
+  /**
+   * Default baud rate of NMEA 0183 links.
+   */
+  public static final int DEFAULT_BAUD_RATE = 4800;
+  /**
+   * Default length of sliding window, in seconds.
+   */
+  public static final int DEFAULT_WINDOW = 60;
+  /**
+   * Default maximum number of distinct talker and sentence id pairs.
+   */
+  public static final int DEFAULT_CAPACITY = 128;
+
+  // bits per byte with start and stop bit
+  private static final int BITS_PER_BYTE = 10;
+  // CR and LF
+  private static final int TERMINATOR_LENGTH = 2;
+  // slot of non-NMEA data and overflow
+  private static final int OTHER = 0;
+  private static final long EMPTY = -1;
+  // most chars packed in a key, i.e. 'P' and a seven char proprietary id
+  private static final int KEY_CHARS = 8;
+
+  private final int baudRate;
+  private final int window;
+  private final int capacity;
+  // packed talker and sentence id chars per slot, and hash table of them
+  private final long[] keys;
+  private final long[] table;
+  private final int[] tableSlots;
+  private int size = 1;
+  // ring buffers, [slot * window + second % window]
+  private final int[] sentences;
+  private final int[] bytes;
+  // second of each ring position
+  private final long[] seconds;
+  private long firstSecond = EMPTY;
+  private long lastSecond = EMPTY;
+
+  /**
+   * Creates a profiler for a {@value #DEFAULT_BAUD_RATE} baud bus with default
+   * window and capacity.
+   */
+  public TrafficProfiler() {
+    this(DEFAULT_BAUD_RATE, DEFAULT_WINDOW, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new profiler.
+   *
+   * @param baudRate Baud rate of the bus
+   * @param window   Sliding window length in seconds
+   * @param capacity Maximum number of distinct talker and sentence id pairs
+   * @throws IllegalArgumentException If any argument is not positive.
+   */
+  public TrafficProfiler(int baudRate, int window, int capacity) {
+    if (baudRate <= 0 || window <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("Baud rate, window and capacity must be positive");
+    }
+    this.baudRate = baudRate;
+    this.window = window;
+    this.capacity = capacity + 1;
+    keys = new long[this.capacity];
+    int tableSize = Integer.highestOneBit(this.capacity * 4 - 1);
+    table = new long[tableSize];
+    tableSlots = new int[tableSize];
+    Arrays.fill(table, EMPTY);
+    sentences = new int[this.capacity * window];
+    bytes = new int[this.capacity * window];
+    seconds = new long[window];
+    Arrays.fill(seconds, EMPTY);
+  }
+
+  /**
+   * Returns the baud rate used for utilization estimates.
+   *
+   * @return baud rate
+   */
+  public int getBaudRate() {
+    return baudRate;
+  }
+
+  /**
+   * Accounts a line read at specified time.
+   *
+   * @param line Line without terminator
+   * @param time Time of reception, ms since epoch
+   */
+  public synchronized void record(String line, long time) {
+    long second = Math.floorDiv(time, 1000);
+    if (second < lastSecond) {
+      // clock stepped back, account in latest second
+      second = lastSecond;
+    }
+    int position = (int) Math.floorMod(second, (long) window);
+    if (seconds[position] != second) {
+      for (int slot = 0; slot < capacity; slot++) {
+        sentences[slot * window + position] = 0;
+        bytes[slot * window + position] = 0;
+      }
+      seconds[position] = second;
+    }
+    if (firstSecond == EMPTY) {
+      firstSecond = second;
+    }
+    lastSecond = second;
+
+    int index = slotOf(line) * window + position;
+    sentences[index]++;
+    bytes[index] += line.length() + TERMINATOR_LENGTH;
+  }
+
+  /**
+   * Returns the traffic per talker and sentence id over the window ending at
+   * specified time, in descending order of byte rate.
+   *
+   * @param time Current time, ms since epoch
+   * @return List of statistics, empty if no traffic.
+   */
+  public synchronized List<TrafficStatistics> getStatistics(long time) {
+    List<TrafficStatistics> result = new ArrayList<>();
+    long now = Math.floorDiv(time, 1000);
+    if (firstSecond == EMPTY) {
+      return result;
+    }
+    long span = Math.max(1, Math.min(window, now - firstSecond + 1));
+    for (int slot = 0; slot < size; slot++) {
+      long count = 0;
+      long total = 0;
+      for (int position = 0; position < window; position++) {
+        long second = seconds[position];
+        if (second > now - span && second <= now) {
+          count += sentences[slot * window + position];
+          total += bytes[slot * window + position];
+        }
+      }
+      if (count > 0) {
+        double byteRate = (double) total / span;
+        result.add(new TrafficStatistics(talkerOf(keys[slot]), sentenceIdOf(keys[slot]),
+                                         (double) count / span, byteRate, byteRate * BITS_PER_BYTE / baudRate));
+      }
+    }
+    result.sort(Comparator.comparingDouble(TrafficStatistics::getByteRate).reversed());
+    return result;
+  }
+
+  /**
+   * Returns the estimated bus utilization over the window ending at specified
+   * time.
+   *
+   * @param time Current time, ms since epoch
+   * @return Utilization, where 1.0 is the full bus capacity.
+   */
+  public double getUtilization(long time) {
+    double utilization = 0;
+    for (TrafficStatistics s : getStatistics(time)) {
+      utilization += s.getUtilization();
+    }
+    return utilization;
+  }
+
+  /**
+   * Returns the sentences whose output rate should be reduced to bring the bus
+   * utilization down to a target. Candidates are selected greedily, largest
+   * byte rate first, assuming each selected sentence is reduced to
+   * <code>minRate</code>; sentences already at or below it are not selected.
+   *
+   * @param time              Current time, ms since epoch
+   * @param targetUtilization Target utilization, e.g. 0.7
+   * @param minRate           Reduced output rate, sentences per second,
+   *                          e.g. 1.0
+   * @return Candidates in order of selection, empty if already within target.
+   */
+  public List<TrafficStatistics> getReductionCandidates(long time, double targetUtilization, double minRate) {
+    List<TrafficStatistics> statistics = getStatistics(time);
+    List<TrafficStatistics> result = new ArrayList<>();
+    double utilization = 0;
+    for (TrafficStatistics s : statistics) {
+      utilization += s.getUtilization();
+    }
+    for (TrafficStatistics s : statistics) {
+      if (utilization <= targetUtilization) {
+        break;
+      }
+      if (s.getSentenceId().isEmpty() || s.getSentenceRate() <= minRate) {
+        continue;
+      }
+      utilization -= s.getUtilization() * (1 - minRate / s.getSentenceRate());
+      result.add(s);
+    }
+    return result;
+  }
+
+  /**
+   * Clears all counters and keys.
+   */
+  public synchronized void reset() {
+    Arrays.fill(table, EMPTY);
+    Arrays.fill(seconds, EMPTY);
+    Arrays.fill(sentences, 0);
+    Arrays.fill(bytes, 0);
+    size = 1;
+    firstSecond = EMPTY;
+    lastSecond = EMPTY;
+  }
+
+  @Override
+  public void lineRead(String line) {
+    record(line, System.currentTimeMillis());
+  }
+
+  @Override
+  public void sentenceRead(Sentence sentence, long nanos) {
+  }
+
+  @Override
+  public void checksumFailed(String line) {
+  }
+
+  @Override
+  public void invalidSentence(String line) {
+  }
+
+  @Override
+  public void nonNMEA(String line) {
+  }
+
+  @Override
+  public void parseFailed(String line, Exception ex) {
+  }
+
+  @Override
+  public void listenerFailed(Sentence sentence, SentenceListener listener, Exception ex) {
+  }
+
+  @Override
+  public void readFailed(Exception ex) {
+  }
+
+  /**
+   * Returns the counter slot of a line, adding a new key if needed.
+   */
+  private int slotOf(String line) {
+    long key = keyOf(line);
+    if (key == OTHER) {
+      return OTHER;
+    }
+    int mask = table.length - 1;
+    for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+      if (table[i] == key) {
+        return tableSlots[i];
+      } else if (table[i] == EMPTY) {
+        if (size == capacity) {
+          return OTHER;
+        }
+        table[i] = key;
+        tableSlots[i] = size;
+        keys[size] = key;
+        return size++;
+      }
+    }
+  }
+
+  /**
+   * Packs the talker and sentence id chars of a sentence in a long, or returns
+   * {@link #OTHER} if line does not look like a sentence. A 'P' after the
+   * begin char marks a proprietary sentence, whose id runs up to the end of
+   * the address field.
+   */
+  static long keyOf(String line) {
+    if (line.length() < 7 || (line.charAt(0) != Sentence.BEGIN_CHAR && line.charAt(0) != Sentence.ALTERNATIVE_BEGIN_CHAR)) {
+      return OTHER;
+    }
+    int end = 6;
+    if (line.charAt(1) == 'P') {
+      end = 2;
+      while (end < line.length() && line.charAt(end) != Sentence.FIELD_DELIMITER && line.charAt(end) != Sentence.CHECKSUM_DELIMITER) {
+        end++;
+      }
+      if (end == 2 || end > KEY_CHARS + 1) {
+        return OTHER;
+      }
+    }
+    long key = 0;
+    for (int i = 1; i < end; i++) {
+      char c = line.charAt(i);
+      if (c < '0' || c > 'Z') {
+        return OTHER;
+      }
+      key = key << 8 | c;
+    }
+    return key;
+  }
+
+  private static String talkerOf(long key) {
+    String address = addressOf(key);
+    return address.substring(0, talkerLength(address));
+  }
+
+  private static String sentenceIdOf(long key) {
+    String address = addressOf(key);
+    return address.substring(talkerLength(address));
+  }
+
+  private static String addressOf(long key) {
+    char[] chars = new char[KEY_CHARS];
+    int n = KEY_CHARS;
+    for (; key != 0; key >>>= 8) {
+      chars[--n] = (char) (key & 0xFF);
+    }
+    return new String(chars, n, KEY_CHARS - n);
+  }
+
+  private static int talkerLength(String address) {
+    return address.isEmpty() ? 0 : address.charAt(0) == 'P' ? 1 : 2;
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
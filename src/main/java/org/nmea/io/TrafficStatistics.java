@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+/**
+ * Traffic rates of one talker and sentence id, as measured by
+ * {@link TrafficProfiler}.
+ *
+ * @author Key Bridge
+ */
+public class TrafficStatistics {
+
+  private final String talkerId;
+  private final String sentenceId;
+  private final double sentenceRate;
+  private final double byteRate;
+  private final double utilization;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param talkerId     Talker id, empty for other data
+   * @param sentenceId   Sentence id, empty for other data
+   * @param sentenceRate Sentences per second
+   * @param byteRate     Bytes per second, including line terminators
+   * @param utilization  Share of bus capacity used, 0.0 to 1.0
+   */
+  public TrafficStatistics(String talkerId, String sentenceId, double sentenceRate, double byteRate, double utilization) {
+    this.talkerId = talkerId;
+    this.sentenceId = sentenceId;
+    this.sentenceRate = sentenceRate;
+    this.byteRate = byteRate;
+    this.utilization = utilization;
+  }
+
+  /**
+   * Returns the talker id, e.g. "GP".
+   *
+   * @return talker id, or empty String for non-NMEA data.
+   */
+  public String getTalkerId() {
+    return talkerId;
+  }
+
+  /**
+   * Returns the sentence id, e.g. "GGA".
+   *
+   * @return sentence id, or empty String for non-NMEA data.
+   */
+  public String getSentenceId() {
+    return sentenceId;
+  }
+
+  /**
+   * Returns the average sentence rate over the profiling window.
+   *
+   * @return Sentences per second
+   */
+  public double getSentenceRate() {
+    return sentenceRate;
+  }
+
+  /**
+   * Returns the average byte rate over the profiling window.
+   *
+   * @return Bytes per second
+   */
+  public double getByteRate() {
+    return byteRate;
+  }
+
+  /**
+   * Returns the share of serial bus capacity used by this traffic.
+   *
+   * @return Utilization, 0.0 to 1.0
+   */
+  public double getUtilization() {
+    return utilization;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s%s %.2f/s %.1f B/s %.1f%%", talkerId, sentenceId, sentenceRate, byteRate, utilization * 100);
+  }
+}
@@ -19,6 +19,11 @@ package org.nmea.parser;
 /**
  * Thrown to indicate that requested data is not available. For example, when
  * invoking a getter for sentence data field that contains no value.
+ * <p>
+ * Empty fields are common in normal sentence flow, so the exception and its
+ * subclasses do not fill in a stack trace. Use
+ * {@link SentenceParser#hasValue(int)} or the
+ * <code>get...Or</code> methods to avoid the exception altogether.
  *
  * @author Kimmo Tuukkanen
  */
@@ -32,7 +37,7 @@ public class DataNotAvailableException extends RuntimeException {
    * @param msg Exception message
    */
   public DataNotAvailableException(String msg) {
-    super(msg);
+    super(msg, null, false, false);
   }
 
   /**
@@ -42,6 +47,6 @@ public class DataNotAvailableException extends RuntimeException {
    * @param cause Throwable that caused the exception
    */
   public DataNotAvailableException(String msg, Throwable cause) {
-    super(msg, cause);
+    super(msg, cause, false, false);
   }
 }
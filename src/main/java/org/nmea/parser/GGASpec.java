@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser;
+
+import org.nmea.parser.spec.Field;
+import org.nmea.parser.spec.SentenceSpec;
+import org.nmea.sentence.GGASentence;
+import org.nmea.type.GpsFixQualityType;
+import org.nmea.type.Position;
+import org.nmea.type.Time;
+import org.nmea.type.UnitType;
+
+/**
+ * GGA sentence specification; <code>GGAParser</code> is generated from this.
+ * Position, time and enumerated values are composed of the field methods
+ * declared here, which the generated parser also makes public.
+ *
+ * @author Key Bridge
+ */
+@SentenceSpec(type = "GGA", fields = 14)
+interface GGASpec extends GGASentence {
+
+  @Field(index = 0)
+  String getUtcTime();
+
+  @Field(index = 0)
+  void setUtcTime(String time);
+
+  @Field(index = 1, coordinate = 2, hemisphere = 2, positive = 'N', negative = 'S')
+  double getLatitude();
+
+  @Field(index = 1, coordinate = 2, hemisphere = 2, positive = 'N', negative = 'S')
+  void setLatitude(double lat);
+
+  @Field(index = 3, coordinate = 3, hemisphere = 4, positive = 'E', negative = 'W')
+  double getLongitude();
+
+  @Field(index = 3, coordinate = 3, hemisphere = 4, positive = 'E', negative = 'W')
+  void setLongitude(double lon);
+
+  @Field(index = 5)
+  int getFixQualityCode();
+
+  @Field(index = 5)
+  void setFixQualityCode(int quality);
+
+  @Field(index = 6)
+  @Override
+  int getSatelliteCount();
+
+  @Field(index = 6, leading = 2)
+  void setSatellitesInUse(int count);
+
+  @Field(index = 7)
+  @Override
+  double getHorizontalDOP();
+
+  @Field(index = 7, leading = 1, decimals = 1)
+  @Override
+  void setHorizontalDOP(double hdop);
+
+  @Field(index = 8)
+  boolean hasAltitude();
+
+  @Field(index = 8)
+  @Override
+  double getAltitude();
+
+  @Field(index = 8, leading = 1, decimals = 1)
+  @Override
+  void setAltitude(double alt);
+
+  @Field(index = 9)
+  boolean hasAltitudeUnits();
+
+  @Field(index = 9)
+  char getAltitudeUnitCode();
+
+  @Field(index = 9)
+  void setAltitudeUnitCode(char unit);
+
+  @Field(index = 10)
+  @Override
+  double getGeoidalHeight();
+
+  @Field(index = 10, leading = 1, decimals = 1)
+  @Override
+  void setGeoidalHeight(double height);
+
+  @Field(index = 11)
+  char getGeoidalHeightUnitCode();
+
+  @Field(index = 11)
+  void setGeoidalHeightUnitCode(char unit);
+
+  @Field(index = 12)
+  @Override
+  double getDgpsAge();
+
+  @Field(index = 12, leading = 1, decimals = 1)
+  @Override
+  void setDgpsAge(double age);
+
+  @Field(index = 13)
+  @Override
+  String getDgpsStationId();
+
+  @Field(index = 13)
+  @Override
+  void setDgpsStationId(String id);
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.GGASentence#getAltitudeUnits()
+   */
+  @Override
+  default UnitType getAltitudeUnits() {
+    char ch = getAltitudeUnitCode();
+    if (ch != ALT_UNIT_METERS && ch != ALT_UNIT_FEET) {
+      String msg = "Invalid altitude unit indicator: %s";
+      throw new ParseException(String.format(msg, ch));
+    }
+    return UnitType.valueOf(ch);
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.GGASentence#setAltitudeUnits(org.nmea.type.UnitType)
+   */
+  @Override
+  default void setAltitudeUnits(UnitType unit) {
+    setAltitudeUnitCode(unit.getCode());
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.GGASentence#getFixQuality()
+   */
+  @Override
+  default GpsFixQualityType getFixQuality() {
+    return GpsFixQualityType.valueOf(getFixQualityCode());
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.GGASentence#setFixQuality(org.nmea.type.GpsFixQualityType)
+   */
+  @Override
+  default void setFixQuality(GpsFixQualityType quality) {
+    setFixQualityCode(quality.getCode());
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.GGASentence#getGeoidalHeightUnits()
+   */
+  @Override
+  default UnitType getGeoidalHeightUnits() {
+    return UnitType.valueOf(getGeoidalHeightUnitCode());
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.GGASentence#setGeoidalHeightUnits(org.nmea.type.UnitType)
+   */
+  @Override
+  default void setGeoidalHeightUnits(UnitType unit) {
+    setGeoidalHeightUnitCode(unit.getCode());
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.PositionSentence#getPosition()
+   */
+  @Override
+  default Position getPosition() {
+    Position pos = new Position(getLatitude(), getLongitude());
+    if (hasAltitude() && hasAltitudeUnits()) {
+      double alt = getAltitude();
+      if (getAltitudeUnits().equals(UnitType.FEET)) {
+        alt = (alt / 0.3048);
+      }
+      pos.setAltitude(alt);
+    }
+    return pos;
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.PositionSentence#setPosition(org.nmea.type.Position)
+   */
+  @Override
+  default void setPosition(Position pos) {
+    setLatitude(pos.getLatitude());
+    setLongitude(pos.getLongitude());
+    setAltitude(pos.getAltitude());
+    setAltitudeUnits(UnitType.METER);
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.GGASentence#setSatelliteCount(int)
+   */
+  @Override
+  default void setSatelliteCount(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Satelite count cannot be negative");
+    }
+    setSatellitesInUse(count);
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.TimeSentence#getTime()
+   */
+  @Override
+  default Time getTime() {
+    return new Time(getUtcTime());
+  }
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.TimeSentence#setTime(org.nmea.type.Time)
+   */
+  @Override
+  default void setTime(Time t) {
+    setUtcTime(t.toString());
+  }
+}
@@ -43,6 +43,9 @@ class GSVParser extends SentenceParser implements GSVSentence {
   private static final int AZIMUTH = 2;
   private static final int NOISE = 3;
 
+  // value of missing integer fields
+  private static final int MISSING = Integer.MIN_VALUE;
+
   /**
    * Constructor.
    *
@@ -78,18 +81,20 @@ class GSVParser extends SentenceParser implements GSVSentence {
     List<Satellite> satellites = new ArrayList<>(4);
 
     for (int idf : ID_FIELDS) {
-      try {
-        String id = getStringValue(idf);
-        int elev = getIntValue(idf + ELEVATION);
-        int azm = getIntValue(idf + AZIMUTH);
-        int snr = getIntValue(idf + NOISE);
-        satellites.add(new Satellite(id, elev, azm, snr));
-      } catch (DataNotAvailableException e) {
-        // nevermind missing satellite info
-      } catch (IndexOutOfBoundsException e) {
-        // less than four satellites, give up
+      if (getFieldCount() <= idf) {
+        // less than four satellites
         break;
       }
+      if (!hasValue(idf)) {
+        continue;
+      }
+      int elev = getIntOr(idf + ELEVATION, MISSING);
+      int azm = getIntOr(idf + AZIMUTH, MISSING);
+      int snr = getIntOr(idf + NOISE, MISSING);
+      // skip satellites with missing or invalid info
+      if (elev != MISSING && azm != MISSING && snr != MISSING) {
+        satellites.add(new Satellite(getStringValue(idf), elev, azm, snr));
+      }
     }
 
     return satellites;
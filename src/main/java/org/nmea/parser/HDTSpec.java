@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser;
+
+import org.nmea.parser.spec.Field;
+import org.nmea.parser.spec.SentenceSpec;
+import org.nmea.sentence.HDTSentence;
+
+/**
+ * HDT sentence specification; <code>HDTParser</code> is generated from this.
+ *
+ * @author Key Bridge
+ */
+@SentenceSpec(type = "HDT", fields = 2)
+interface HDTSpec extends HDTSentence {
+
+  @Field(index = 0)
+  @Override
+  double getHeading();
+
+  @Field(index = 0, degrees = true, unit = "T")
+  @Override
+  void setHeading(double hdt);
+
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.HeadingSentence#isTrue()
+   */
+  @Override
+  default boolean isTrue() {
+    return true;
+  }
+}
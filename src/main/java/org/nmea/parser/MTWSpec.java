@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser;
+
+import org.nmea.parser.spec.Field;
+import org.nmea.parser.spec.SentenceSpec;
+import org.nmea.sentence.MTWSentence;
+
+/**
+ * MTW sentence specification; <code>MTWParser</code> is generated from this.
+ *
+ * @author Key Bridge
+ */
+@SentenceSpec(type = "MTW", fields = 2)
+interface MTWSpec extends MTWSentence {
+
+  @Field(index = 0)
+  @Override
+  double getTemperature();
+
+  @Field(index = 0, leading = 1, decimals = 2, unit = "C")
+  @Override
+  void setTemperature(double temp);
+}
@@ -20,8 +20,6 @@ import org.nmea.type.SentenceType;
 import org.nmea.type.TalkerType;
 import org.nmea.type.CompassPointType;
 import org.nmea.type.Position;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 
 /**
  * Abstract base class for sentence parsers that provide geographic position or
@@ -86,10 +84,7 @@ abstract class PositionParser extends SentenceParser {
    * @return Latitude value in degrees
    */
   protected double parseLatitude(int index) {
-    String field = getStringValue(index);
-    int deg = Integer.parseInt(field.substring(0, 2));
-    double min = Double.parseDouble(field.substring(2));
-    return deg + (min / 60);
+    return getCoordinateValue(index, 2);
   }
 
   /**
@@ -100,10 +95,7 @@ abstract class PositionParser extends SentenceParser {
    * @return Longitude value in degrees
    */
   protected double parseLongitude(int index) {
-    String field = getStringValue(index);
-    int deg = Integer.parseInt(field.substring(0, 3));
-    double min = Double.parseDouble(field.substring(3));
-    return deg + (min / 60);
+    return getCoordinateValue(index, 3);
   }
 
   /**
@@ -154,17 +146,7 @@ abstract class PositionParser extends SentenceParser {
    * @param lat   Latitude value in degrees
    */
   protected void setLatitude(int index, double lat) {
-
-    int deg = (int) Math.floor(lat);
-    double min = (lat - deg) * 60;
-
-    DecimalFormat df = new DecimalFormat("00.000");
-    DecimalFormatSymbols dfs = new DecimalFormatSymbols();
-    dfs.setDecimalSeparator('.');
-    df.setDecimalFormatSymbols(dfs);
-
-    String result = String.format("%02d%s", deg, df.format(min));
-    setStringValue(index, result);
+    setCoordinateValue(index, lat, 2);
   }
 
   /**
@@ -176,17 +158,7 @@ abstract class PositionParser extends SentenceParser {
    * @param lon   Longitude value in degrees
    */
   protected void setLongitude(int index, double lon) {
-
-    int deg = (int) Math.floor(lon);
-    double min = (lon - deg) * 60;
-
-    DecimalFormat nf = new DecimalFormat("00.000");
-    DecimalFormatSymbols dfs = new DecimalFormatSymbols();
-    dfs.setDecimalSeparator('.');
-    nf.setDecimalFormatSymbols(dfs);
-
-    String result = String.format("%03d%s", deg, nf.format(min));
-    setStringValue(index, result);
+    setCoordinateValue(index, lon, 3);
   }
 
   /**
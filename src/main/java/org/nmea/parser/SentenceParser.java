@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.nmea.sentence.Checksum;
+import org.nmea.sentence.NumberParser;
 import org.nmea.sentence.Sentence;
 import org.nmea.sentence.SentenceValidator;
 import org.nmea.type.SentenceType;
@@ -65,16 +66,39 @@ public class SentenceParser implements Sentence {
    */
   private TalkerType talkerId;
 
+  /*
+   * Talker id as read, if not recognized.
+   */
+  private String unknownTalker;
+
   /**
    * The next three characters after talker id.
    */
   private final String sentenceId;
 
   /**
-   * Actual sentence data fields (sentence id and checksum omitted)
+   * Actual sentence data fields (sentence id and checksum omitted); not used
+   * while the fields are read from {@link #text}.
    */
   private List<String> fields = new ArrayList<>();
 
+  /*
+   * Sentence the fields were parsed from, or null once a field has been set.
+   * Getters decode the fields in place, without creating substrings.
+   */
+  private String text;
+
+  /*
+   * Positions of field delimiters in text; field i is between delimiters i and
+   * i + 1. The last one is the checksum delimiter or end of sentence.
+   */
+  private int[] delimiters = new int[24];
+
+  /*
+   * Number of data fields in text.
+   */
+  private int count;
+
   /**
    * Creates a new instance of SentenceParser. Validates the input String and
    * resolves talker id and sentence type.
@@ -91,15 +115,9 @@ public class SentenceParser implements Sentence {
     }
 
     beginChar = nmea.charAt(0);
-    talkerId = TalkerType.parse(nmea);
+    setTalker(nmea);
     sentenceId = SentenceType.parseStr(nmea);
-
-    int begin = nmea.indexOf(Sentence.FIELD_DELIMITER) + 1;
-    int end = Checksum.indexOfDelimiter(nmea);
-
-    String csv = nmea.substring(begin, end);
-    String[] values = csv.split(String.valueOf(FIELD_DELIMITER), -1);
-    fields.addAll(Arrays.asList(values));
+    parseFields(nmea);
   }
 
   /**
@@ -128,7 +146,7 @@ public class SentenceParser implements Sentence {
     if (size < 1) {
       throw new IllegalArgumentException("Minimum number of fields is 1");
     }
-    if (talker == null) {
+    if (talker == null || talker == TalkerType.UNKNOWN) {
       throw new IllegalArgumentException("Talker ID must be specified");
     }
     if (type == null || "".equals(type)) {
@@ -227,8 +245,8 @@ public class SentenceParser implements Sentence {
    * (non-Javadoc) @see org.nmea.sentence.Sentence#getFieldCount()
    */
   public final int getFieldCount() {
-    if (fields == null) {
-      return 0;
+    if (text != null) {
+      return count;
     }
     return fields.size();
   }
@@ -247,6 +265,13 @@ public class SentenceParser implements Sentence {
     return talkerId;
   }
 
+  /*
+   * (non-Javadoc) @see org.nmea.sentence.Sentence#getTalkerString()
+   */
+  public final String getTalkerString() {
+    return unknownTalker != null ? unknownTalker : talkerId.toString();
+  }
+
   /*
    * (non-Javadoc) @see java.lang.Object#hashCode()
    */
@@ -278,11 +303,118 @@ public class SentenceParser implements Sentence {
    * (non-Javadoc) @see org.nmea.sentence.Sentence#reset()
    */
   public final void reset() {
-    for (int i = 0; i < fields.size(); i++) {
-      fields.set(i, "");
+    List<String> list = fieldList();
+    for (int i = 0; i < list.size(); i++) {
+      list.set(i, "");
     }
   }
 
+  /**
+   * Re-initializes the parser with another sentence of the same type, reusing
+   * the instance and its field list. Used for recycling parsers when reading,
+   * see {@link SentencePool}.
+   *
+   * @param nmea A valid NMEA 0183 sentence of the type of this parser
+   * @throws IllegalArgumentException If the specified sentence is invalid or is
+   *                                  not of the type of this parser.
+   */
+  public final void reset(String nmea) {
+    if (!SentenceValidator.isValidSentence(nmea)) {
+      String msg = String.format("Invalid data [%s]", nmea);
+      throw new IllegalArgumentException(msg);
+    }
+    int begin = nmea.startsWith("$P") ? 2 : 3;
+    int end = nmea.indexOf(FIELD_DELIMITER);
+    if (end - begin != sentenceId.length() || !nmea.startsWith(sentenceId, begin)) {
+      String ptrn = "Sentence id mismatch; expected [%s], found [%s].";
+      String msg = String.format(ptrn, sentenceId, SentenceType.parseStr(nmea));
+      throw new IllegalArgumentException(msg);
+    }
+    beginChar = nmea.charAt(0);
+    setTalker(nmea);
+    fields.clear();
+    parseFields(nmea);
+  }
+
+  /**
+   * Sets the talker of a sentence, keeping the id as read if not recognized.
+   */
+  private void setTalker(String nmea) {
+    talkerId = TalkerType.lookup(nmea);
+    unknownTalker = talkerId == TalkerType.UNKNOWN ? nmea.substring(1, 3) : null;
+  }
+
+  /**
+   * Locates the data fields of a sentence, i.e. the values between the address
+   * field and checksum. The fields are read from the sentence until one of
+   * them is set, see {@link #fieldList()}.
+   */
+  private void parseFields(String nmea) {
+    int end = Checksum.indexOfDelimiter(nmea);
+    int n = 0;
+    int next = nmea.indexOf(FIELD_DELIMITER);
+    for (;;) {
+      if (n == delimiters.length) {
+        delimiters = Arrays.copyOf(delimiters, n * 2);
+      }
+      if (n > 0 && (next < 0 || next >= end)) {
+        delimiters[n] = end;
+        break;
+      }
+      delimiters[n++] = next;
+      next = nmea.indexOf(FIELD_DELIMITER, next + 1);
+    }
+    text = nmea;
+    count = n;
+  }
+
+  /**
+   * Returns the list of data fields for setting values, first copying the
+   * fields of the parsed sentence into it.
+   */
+  private List<String> fieldList() {
+    if (text != null) {
+      fields.clear();
+      for (int i = 0; i < count; i++) {
+        fields.add(text.substring(delimiters[i] + 1, delimiters[i + 1]));
+      }
+      text = null;
+    }
+    return fields;
+  }
+
+  /**
+   * Returns the characters containing a data field, i.e. the parsed sentence
+   * or the value set in field. The field is the range from
+   * {@link #start(int)} to {@link #end(int)}.
+   *
+   * @throws IndexOutOfBoundsException If index is out of range
+   */
+  private CharSequence chars(int index) {
+    if (text == null) {
+      return fields.get(index);
+    }
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("Field index: " + index);
+    }
+    return text;
+  }
+
+  /**
+   * Returns the index of first character of a field in {@link #chars(int)}.
+   */
+  private int start(int index) {
+    return text == null ? 0 : delimiters[index] + 1;
+  }
+
+  /**
+   * Returns the index after last character of a field in
+   * {@link #chars(int)}.
+   */
+  private int end(int index) {
+    return text == null ? fields.get(index).length() : delimiters[index + 1];
+  }
+
   /*
    * (non-Javadoc) @see org.nmea.sentence.Sentence#setBeginChar(char)
    */
@@ -299,7 +431,11 @@ public class SentenceParser implements Sentence {
    * nmea.util.TalkerId)
    */
   public final void setTalkerId(TalkerType id) {
+    if (id == null || id == TalkerType.UNKNOWN) {
+      throw new IllegalArgumentException("Talker ID must be specified");
+    }
     this.talkerId = id;
+    this.unknownTalker = null;
   }
 
   /*
@@ -333,12 +469,12 @@ public class SentenceParser implements Sentence {
   public String toString() {
 
     StringBuilder sb = new StringBuilder(MAX_LENGTH);
-    sb.append(talkerId.toString());
+    sb.append(unknownTalker != null ? unknownTalker : talkerId.toString());
     sb.append(sentenceId);
 
-    for (String field : fields) {
+    for (int i = 0; i < getFieldCount(); i++) {
       sb.append(FIELD_DELIMITER);
-      sb.append(field == null ? "" : field);
+      sb.append(chars(i), start(i), end(i));
     }
 
     final String checksum = Checksum.xor(sb.toString());
@@ -358,24 +494,86 @@ public class SentenceParser implements Sentence {
    *                                        character
    */
   protected final char getCharValue(int index) {
-    String val = getStringValue(index);
-    if (val.length() > 1) {
-      String msg = String.format("Expected char, found String [%s]", val);
+    CharSequence chars = chars(index);
+    int start = start(index);
+    int end = end(index);
+    if (end == start) {
+      throw new DataNotAvailableException("Data not available");
+    }
+    if (end - start > 1) {
+      String msg = String.format("Expected char, found String [%s]", chars.subSequence(start, end));
       throw new ParseException(msg);
     }
-    return val.charAt(0);
+    return chars.charAt(start);
+  }
+
+  /**
+   * Parse a coordinate in degrees and minutes from the specified field, e.g.
+   * latitude <code>ddmm.mmm</code> or longitude <code>dddmm.mmm</code>.
+   *
+   * @param index   Data field index in sentence
+   * @param degrees Number of degree digits, 2 for latitude and 3 for longitude
+   * @return Coordinate value in degrees
+   * @throws org.nmea.parser.ParseException If field does not contain a
+   *                                        coordinate
+   */
+  protected final double getCoordinateValue(int index, int degrees) {
+    CharSequence chars = chars(index);
+    int start = start(index);
+    int end = end(index);
+    if (end == start) {
+      throw new DataNotAvailableException("Data not available");
+    }
+    if (end - start <= degrees) {
+      throw new ParseException("Field does not contain coordinate value");
+    }
+    double value;
+    try {
+      int deg = NumberParser.parseInt(chars, start, start + degrees);
+      double min = NumberParser.parseDouble(chars, start + degrees, end);
+      value = deg + (min / 60);
+    } catch (NumberFormatException ex) {
+      throw new ParseException("Field does not contain coordinate value", ex);
+    }
+    return value;
+  }
+
+  /**
+   * Parse the sign of a value from a hemisphere or direction field, e.g. 'N' or
+   * 'S' for latitude.
+   *
+   * @param index    Data field index in sentence
+   * @param positive Indicator of positive values
+   * @param negative Indicator of negative values
+   * @return 1 if field contains <code>positive</code>, -1 if it contains
+   *         <code>negative</code>
+   * @throws org.nmea.parser.ParseException If field contains another value
+   */
+  protected final int getSignValue(int index, char positive, char negative) {
+    char ch = getCharValue(index);
+    if (ch != positive && ch != negative) {
+      String msg = String.format("Expected '%s' or '%s', found '%s'", positive, negative, ch);
+      throw new ParseException(msg);
+    }
+    return ch == negative ? -1 : 1;
   }
 
   /**
    * Parse double value from the specified sentence field.
    *
    * @param index Data field index in sentence
-   * @return Field as parsed by {@link java.lang.Double#parseDouble(String)}
+   * @return Field as parsed by {@link NumberParser#parseDouble(CharSequence, int, int)}
    */
   protected final double getDoubleValue(int index) {
+    CharSequence chars = chars(index);
+    int start = start(index);
+    int end = end(index);
+    if (end == start) {
+      throw new DataNotAvailableException("Data not available");
+    }
     double value;
     try {
-      value = Double.parseDouble(getStringValue(index));
+      value = NumberParser.parseDouble(chars, start, end);
     } catch (NumberFormatException ex) {
       throw new ParseException("Field does not contain double value", ex);
     }
@@ -386,12 +584,18 @@ public class SentenceParser implements Sentence {
    * Parse integer value from the specified sentence field.
    *
    * @param index Field index in sentence
-   * @return Field parsed by {@link java.lang.Integer#parseInt(String)}
+   * @return Field parsed by {@link NumberParser#parseInt(CharSequence, int, int)}
    */
   protected final int getIntValue(int index) {
+    CharSequence chars = chars(index);
+    int start = start(index);
+    int end = end(index);
+    if (end == start) {
+      throw new DataNotAvailableException("Data not available");
+    }
     int value;
     try {
-      value = Integer.parseInt(getStringValue(index));
+      value = NumberParser.parseInt(chars, start, end);
     } catch (NumberFormatException ex) {
       throw new ParseException("Field does not contain integer value", ex);
     }
@@ -412,21 +616,71 @@ public class SentenceParser implements Sentence {
    * @throws org.nmea.parser.DataNotAvailableException If the field is empty
    */
   protected final String getStringValue(int index) {
-    String value = fields.get(index);
-    if (value == null || "".equals(value)) {
+    CharSequence chars = chars(index);
+    int start = start(index);
+    int end = end(index);
+    if (end == start) {
       throw new DataNotAvailableException("Data not available");
     }
-    return value;
+    return chars.subSequence(start, end).toString();
   }
 
   /**
-   * Tells is if the field specified by the given index contains a value.
+   * Tells if the specified data field contains a value. Use this or the
+   * <code>get...Or</code> methods to test for optional fields, instead of
+   * catching {@link DataNotAvailableException} from the getters.
    *
-   * @param index Field index
-   * @return True if field contains value, otherwise false.
+   * @param index Data field index, zero-based
+   * @return True if field exists and is not empty, otherwise false.
+   */
+  public final boolean hasValue(int index) {
+    if (index < 0 || index >= getFieldCount()) {
+      return false;
+    }
+    return end(index) > start(index);
+  }
+
+  /**
+   * Returns the contents of a data field, or a default if it is empty or does
+   * not exist.
+   *
+   * @param index   Data field index, zero-based
+   * @param missing Value to return if field is not available
+   * @return Field value or <code>missing</code>
+   */
+  public final String getStringOr(int index, String missing) {
+    return hasValue(index) ? getStringValue(index) : missing;
+  }
+
+  /**
+   * Parses a double from a data field, or returns a default if the field is
+   * empty, does not exist or is not a number. Does not throw.
+   *
+   * @param index   Data field index, zero-based
+   * @param missing Value to return if field is not available, e.g.
+   *                {@link Double#NaN}
+   * @return Field value or <code>missing</code>
+   */
+  public final double getDoubleOr(int index, double missing) {
+    if (!hasValue(index)) {
+      return missing;
+    }
+    return NumberParser.parseDouble(chars(index), start(index), end(index), missing);
+  }
+
+  /**
+   * Parses an integer from a data field, or returns a default if the field is
+   * empty, does not exist or is not an integer. Does not throw.
+   *
+   * @param index   Data field index, zero-based
+   * @param missing Value to return if field is not available
+   * @return Field value or <code>missing</code>
    */
-  protected final boolean hasValue(int index) {
-    return fields.size() > index && fields.get(index) != null && !fields.get(index).isEmpty();
+  public final int getIntOr(int index, int missing) {
+    if (!hasValue(index)) {
+      return missing;
+    }
+    return NumberParser.parseInt(chars(index), start(index), end(index), missing);
   }
 
   /**
@@ -439,6 +693,28 @@ public class SentenceParser implements Sentence {
     setStringValue(index, String.valueOf(value));
   }
 
+  /**
+   * Set a coordinate in degrees and minutes, e.g. latitude
+   * <code>ddmm.mmm</code> or longitude <code>dddmm.mmm</code>.
+   *
+   * @param index   Field index
+   * @param value   Coordinate in degrees, zero or positive
+   * @param degrees Number of degree digits, 2 for latitude and 3 for longitude
+   */
+  protected final void setCoordinateValue(int index, double value, int degrees) {
+
+    int deg = (int) Math.floor(value);
+    double min = (value - deg) * 60;
+
+    DecimalFormat df = new DecimalFormat("00.000");
+    DecimalFormatSymbols dfs = new DecimalFormatSymbols();
+    dfs.setDecimalSeparator('.');
+    df.setDecimalFormatSymbols(dfs);
+
+    String result = String.format("%0" + degrees + "d%s", deg, df.format(min));
+    setStringValue(index, result);
+  }
+
   /**
    * Set degrees value, e.g. course or heading.
    *
@@ -514,8 +790,9 @@ public class SentenceParser implements Sentence {
         "Number of fields must be greater than zero.");
     }
 
+    List<String> fields = fieldList();
     if (size < fields.size()) {
-      fields = fields.subList(0, size);
+      fields.subList(size, fields.size()).clear();
     } else if (size > fields.size()) {
       for (int i = fields.size(); i < size; i++) {
         fields.add("");
@@ -556,7 +833,7 @@ public class SentenceParser implements Sentence {
    * @param value String to set, <code>null</code> converts to empty String.
    */
   protected final void setStringValue(int index, String value) {
-    fields.set(index, value == null ? "" : value);
+    fieldList().set(index, value == null ? "" : value);
   }
 
   /**
@@ -576,7 +853,7 @@ public class SentenceParser implements Sentence {
    */
   protected final void setStringValues(int first, String[] newFields) {
     List<String> temp = new ArrayList<>();
-    temp.addAll(fields.subList(0, first));
+    temp.addAll(fieldList().subList(0, first));
     for (String field : newFields) {
       temp.add(field == null ? "" : field);
     }
@@ -592,7 +869,8 @@ public class SentenceParser implements Sentence {
    * @return a string array
    */
   protected final String[] getStringValues(int first) {
-    String[] values = new String[fields.size() - first];
-    return fields.subList(first, fields.size()).toArray(values);
+    List<String> list = fieldList();
+    String[] values = new String[list.size() - first];
+    return list.subList(first, list.size()).toArray(values);
   }
 }
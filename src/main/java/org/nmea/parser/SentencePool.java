@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.nmea.sentence.Sentence;
+import org.nmea.type.SentenceType;
+
+/**
+ * Small pool of parsers per sentence type, for reading without allocating a
+ * new parser for each sentence. Acquired parsers are re-initialized with
+ * {@link SentenceParser#reset(String)} and must be released once the sentence
+ * is no longer used; the same instance is then handed out again for a later
+ * sentence of the same type.
+ * <p>
+ * Pool is not thread-safe and is meant to be owned by a single reader thread.
+ *
+ * @author Key Bridge
+ * @see org.nmea.io.SentenceReader#setRecycling(boolean)
+ */
+public final class SentencePool {
+
+  /**
+   * Default number of idle parsers kept per sentence type.
+   */
+  public static final int DEFAULT_SIZE = 2;
+
+  private final SentenceFactory factory = SentenceFactory.getInstance();
+  // entries of listed sentence types by ordinal, others by sentence id
+  private final Entry[] types = new Entry[SentenceType.values().length];
+  private final Map<String, Entry> entries = new HashMap<>();
+  private final int size;
+
+  /**
+   * Creates a pool with {@link #DEFAULT_SIZE} parsers per type.
+   */
+  public SentencePool() {
+    this(DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates a pool.
+   *
+   * @param size Maximum number of idle parsers kept per sentence type
+   * @throws IllegalArgumentException If size is less than one.
+   */
+  public SentencePool(int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Pool size must be greater than zero");
+    }
+    this.size = size;
+  }
+
+  /**
+   * Returns a parser for specified sentence, reusing an idle parser of the same
+   * type if available.
+   *
+   * @param nmea NMEA 0183 sentence String
+   * @return Sentence parser
+   * @throws IllegalArgumentException If the sentence is invalid or there is no
+   *                                  parser registered for its type.
+   * @see SentenceFactory#createParser(String)
+   */
+  public Sentence acquire(String nmea) {
+    int begin = nmea.startsWith("$P") ? 2 : 3;
+    SentenceType type = SentenceType.lookup(nmea, begin, nmea.indexOf(Sentence.FIELD_DELIMITER));
+    Entry entry = type == SentenceType.UNKNOWN
+                  ? entries.get(SentenceType.parseStr(nmea))
+                  : types[type.ordinal()];
+    if (entry != null && entry.count > 0) {
+      SentenceParser parser = entry.idle[--entry.count];
+      entry.idle[entry.count] = null;
+      try {
+        parser.reset(nmea);
+      } catch (RuntimeException e) {
+        entry.idle[entry.count++] = parser;
+        throw e;
+      }
+      return parser;
+    }
+    return factory.createParser(nmea);
+  }
+
+  /**
+   * Returns a parser to the pool. Parsers not created by the factory, or
+   * exceeding the pool size, are discarded.
+   *
+   * @param sentence Sentence acquired from this pool
+   */
+  public void release(Sentence sentence) {
+    if (!(sentence instanceof SentenceParser)) {
+      return;
+    }
+    SentenceParser parser = (SentenceParser) sentence;
+    String id = parser.getSentenceId();
+    SentenceType type = SentenceType.lookup(id, 0, id.length());
+    Entry entry = type == SentenceType.UNKNOWN ? entries.get(id) : types[type.ordinal()];
+    if (entry == null) {
+      entry = new Entry(size);
+      if (type == SentenceType.UNKNOWN) {
+        entries.put(id, entry);
+      } else {
+        types[type.ordinal()] = entry;
+      }
+    }
+    for (int i = 0; i < entry.count; i++) {
+      if (entry.idle[i] == parser) {
+        return;
+      }
+    }
+    if (entry.count < size) {
+      entry.idle[entry.count++] = parser;
+    }
+  }
+
+  /**
+   * Discards all idle parsers, e.g. after parser registrations have changed in
+   * {@link SentenceFactory}.
+   */
+  public void clear() {
+    Arrays.fill(types, null);
+    entries.clear();
+  }
+
+  /**
+   * Idle parsers of one sentence type.
+   */
+  private static class Entry {
+
+    final SentenceParser[] idle;
+    int count;
+
+    Entry(int size) {
+      idle = new SentenceParser[size];
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser.spec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a getter or setter of a {@link SentenceSpec} interface to a data field.
+ * Supported value types are <code>double</code>, <code>int</code>,
+ * <code>char</code> and <code>String</code>. Getters throw
+ * {@link org.nmea.parser.DataNotAvailableException} on empty fields, like the
+ * hand-written parsers. A <code>boolean</code> getter tells if the field has a
+ * value, for optional fields.
+ *
+ * @author Key Bridge
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Field {
+
+  /**
+   * Data field index, zero-based.
+   *
+   * @return field index
+   */
+  int index();
+
+  /**
+   * Number of digits before decimal separator written by setter, or -1 to
+   * write the value as is.
+   *
+   * @return leading digits
+   */
+  int leading() default -1;
+
+  /**
+   * Maximum number of digits after decimal separator written by setter; used
+   * with {@link #leading()}.
+   *
+   * @return decimals
+   */
+  int decimals() default -1;
+
+  /**
+   * Tells if setter writes degrees [0..360], e.g. course or heading.
+   *
+   * @return True for degrees value
+   */
+  boolean degrees() default false;
+
+  /**
+   * Number of degree digits of a coordinate in degrees and minutes, 2 for
+   * latitude <code>ddmm.mmm</code> and 3 for longitude
+   * <code>dddmm.mmm</code>; 0 for other values.
+   *
+   * @return degree digits
+   */
+  int coordinate() default 0;
+
+  /**
+   * Unit written in the field following the value, e.g. "M" or "C"; set by
+   * setter and in new empty sentences.
+   *
+   * @return unit, empty for none
+   */
+  String unit() default "";
+
+  /**
+   * Index of the hemisphere field giving the sign of the value, or -1 for
+   * none. Getter negates the value if hemisphere is {@link #negative()} and
+   * throws {@link org.nmea.parser.ParseException} if it is neither
+   * {@link #positive()} nor negative; setter writes the absolute value and
+   * hemisphere.
+   *
+   * @return hemisphere field index
+   */
+  int hemisphere() default -1;
+
+  /**
+   * Hemisphere of positive values, e.g. 'N' or 'E'.
+   *
+   * @return hemisphere char
+   */
+  char positive() default 'N';
+
+  /**
+   * Hemisphere of negative values, e.g. 'S' or 'W'.
+   *
+   * @return hemisphere char
+   */
+  char negative() default 'S';
+}
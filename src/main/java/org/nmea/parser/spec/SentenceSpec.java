@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser.spec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a sentence interface from which a parser is generated by
+ * {@link SentenceSpecProcessor}. The annotated interface extends the public
+ * sentence interface and redeclares its getters and setters with a
+ * {@link Field} annotation describing the data field they access. Methods that
+ * can not be described by fields, e.g. constants, are written as default
+ * methods of the interface.
+ * <p>
+ * For example, the following generates <code>MTWParser</code> in the package
+ * of <code>MTWSpec</code>:
+ * <pre>
+ * &#64;SentenceSpec(type = "MTW", fields = 2)
+ * interface MTWSpec extends MTWSentence {
+ *
+ *   &#64;Field(index = 0)
+ *   double getTemperature();
+ *
+ *   &#64;Field(index = 0, leading = 1, decimals = 2, unit = "C")
+ *   void setTemperature(double temp);
+ * }
+ * </pre> The generated parser must be registered in
+ * {@link org.nmea.parser.SentenceFactory} like a hand-written one.
+ *
+ * @author Key Bridge
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface SentenceSpec {
+
+  /**
+   * Sentence id, e.g. "GGA".
+   *
+   * @return sentence id
+   */
+  String type();
+
+  /**
+   * Number of data fields in an empty sentence.
+   *
+   * @return field count
+   */
+  int fields();
+
+  /**
+   * Simple name of the generated parser; defaults to sentence id followed by
+   * <code>Parser</code>.
+   *
+   * @return class name
+   */
+  String parser() default "";
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser.spec;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor generating sentence parsers from {@link SentenceSpec}
+ * interfaces. Each {@link Field} method is implemented with the matching
+ * <code>final</code> accessor of {@link org.nmea.parser.SentenceParser}, using
+ * a constant field index. The accessors decode numbers in place from the field
+ * offsets of the parsed sentence with {@link org.nmea.sentence.NumberParser},
+ * so a generated getter is a single small call the JIT can inline. Setters
+ * write units and hemispheres of their value, making the parser an encoder as
+ * well.
+ * <p>
+ * The processor is compiled before the rest of the library and named
+ * explicitly in the build configuration. It is not registered as a service, so
+ * it does not run when compiling against the library; applications wanting it
+ * must name it with <code>-processor</code>.
+ *
+ * @author Key Bridge
+ */
+@SupportedAnnotationTypes("org.nmea.parser.spec.SentenceSpec")
+public class SentenceSpecProcessor extends AbstractProcessor {
+
+  /*
+   * (non-Javadoc)
+   * @see javax.annotation.processing.AbstractProcessor#getSupportedSourceVersion()
+   */
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see javax.annotation.processing.AbstractProcessor#process(java.util.Set,
+   * javax.annotation.processing.RoundEnvironment)
+   */
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment env) {
+    for (Element e : env.getElementsAnnotatedWith(SentenceSpec.class)) {
+      if (e.getKind() != ElementKind.INTERFACE) {
+        error(e, "@SentenceSpec must annotate an interface");
+        continue;
+      }
+      try {
+        generate((TypeElement) e);
+      } catch (IOException ex) {
+        error(e, "Unable to write parser: " + ex.getMessage());
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the parser of a spec interface, unless the spec is invalid.
+   */
+  private void generate(TypeElement spec) throws IOException {
+    SentenceSpec s = spec.getAnnotation(SentenceSpec.class);
+    String pkg = processingEnv.getElementUtils().getPackageOf(spec).getQualifiedName().toString();
+    String name = s.parser().isEmpty() ? s.type() + "Parser" : s.parser();
+    String type = quote(s.type());
+
+    List<ExecutableElement> methods = new ArrayList<>();
+    Map<Integer, String> units = new TreeMap<>();
+    boolean valid = s.fields() > 0;
+    if (!valid) {
+      error(spec, "Field count must be greater than zero");
+    }
+    for (ExecutableElement m : ElementFilter.methodsIn(spec.getEnclosedElements())) {
+      Field f = m.getAnnotation(Field.class);
+      if (f != null) {
+        valid &= check(m, f, s.fields());
+        methods.add(m);
+        if (!f.unit().isEmpty()) {
+          units.put(f.index() + 1, f.unit());
+        }
+      }
+    }
+    if (!valid) {
+      return;
+    }
+
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(pkg + "." + name, spec);
+    try (PrintWriter out = new PrintWriter(file.openWriter())) {
+      out.println("package " + pkg + ";");
+      out.println();
+      out.println("import org.nmea.parser.SentenceParser;");
+      out.println("import org.nmea.type.TalkerType;");
+      out.println();
+      out.println("/**");
+      out.println(" * " + s.type() + " sentence parser, generated from {@link " + spec.getQualifiedName() + "}.");
+      out.println(" * Do not edit.");
+      out.println(" *");
+      out.println(" * @see org.nmea.parser.spec.SentenceSpecProcessor");
+      out.println(" */");
+      String modifier = spec.getModifiers().contains(Modifier.PUBLIC) ? "public " : "";
+      // sentence interfaces are also implemented directly, as listeners
+      // match sentences by the interfaces of their class
+      StringBuilder types = new StringBuilder().append(spec.getQualifiedName());
+      for (TypeMirror t : spec.getInterfaces()) {
+        types.append(", ").append(t);
+      }
+      out.println(modifier + "class " + name + " extends SentenceParser implements " + types + " {");
+      out.println();
+      out.println("  /**");
+      out.println("   * Creates a new parser for specified sentence.");
+      out.println("   *");
+      out.println("   * @param nmea " + s.type() + " sentence String");
+      out.println("   * @throws IllegalArgumentException If sentence is invalid or not of type " + s.type());
+      out.println("   */");
+      out.println("  public " + name + "(String nmea) {");
+      out.println("    super(nmea, " + type + ");");
+      out.println("  }");
+      out.println();
+      out.println("  /**");
+      out.println("   * Creates a new empty sentence.");
+      out.println("   *");
+      out.println("   * @param talker Talker id to set");
+      out.println("   */");
+      out.println("  public " + name + "(TalkerType talker) {");
+      out.println("    super(talker, " + type + ", " + s.fields() + ");");
+      for (Map.Entry<Integer, String> u : units.entrySet()) {
+        out.println("    setStringValue(" + u.getKey() + ", " + quote(u.getValue()) + ");");
+      }
+      out.println("  }");
+      for (ExecutableElement m : methods) {
+        out.println();
+        out.println("  /*");
+        out.println("   * (non-Javadoc) @see " + spec.getQualifiedName() + "#" + signature(m));
+        out.println("   */");
+        out.println("  @Override");
+        if (m.getParameters().isEmpty()) {
+          writeGetter(out, m, m.getAnnotation(Field.class));
+        } else {
+          writeSetter(out, m, m.getAnnotation(Field.class));
+        }
+      }
+      out.println("}");
+    }
+  }
+
+  /**
+   * Validates a field method, reporting errors.
+   */
+  private boolean check(ExecutableElement m, Field f, int fields) {
+    List<? extends VariableElement> params = m.getParameters();
+    TypeMirror value;
+    if (params.isEmpty() && m.getReturnType().getKind() != TypeKind.VOID) {
+      value = m.getReturnType();
+    } else if (params.size() == 1 && m.getReturnType().getKind() == TypeKind.VOID) {
+      value = params.get(0).asType();
+    } else {
+      error(m, "@Field method must be a getter or a setter");
+      return false;
+    }
+    if (kindOf(value) == null) {
+      error(m, "Unsupported field type " + value);
+      return false;
+    }
+    int last = f.unit().isEmpty() ? f.index() : f.index() + 1;
+    if (f.index() < 0 || last >= fields || f.hemisphere() >= fields) {
+      error(m, "Field index out of range [0.." + (fields - 1) + "]");
+      return false;
+    }
+    if (value.getKind() == TypeKind.BOOLEAN && !params.isEmpty()) {
+      error(m, "Boolean field must be a getter");
+      return false;
+    }
+    boolean numeric = value.getKind() == TypeKind.DOUBLE || value.getKind() == TypeKind.INT;
+    if (f.hemisphere() >= 0 && !numeric) {
+      error(m, "Hemisphere requires a numeric field");
+      return false;
+    }
+    if (f.degrees() && value.getKind() != TypeKind.DOUBLE) {
+      error(m, "Degrees requires a double field");
+      return false;
+    }
+    if (f.coordinate() != 0 && (value.getKind() != TypeKind.DOUBLE || f.degrees() || f.coordinate() < 0)) {
+      error(m, "Coordinate requires a double field and positive number of degree digits");
+      return false;
+    }
+    return true;
+  }
+
+  private void writeGetter(PrintWriter out, ExecutableElement m, Field f) {
+    String kind = kindOf(m.getReturnType());
+    String type = m.getReturnType().toString();
+    String get;
+    if (kind.equals("Boolean")) {
+      get = "hasValue(" + f.index() + ")";
+    } else if (f.coordinate() > 0) {
+      get = "getCoordinateValue(" + f.index() + ", " + f.coordinate() + ")";
+    } else {
+      get = "get" + kind + "Value(" + f.index() + ")";
+    }
+    if (f.hemisphere() >= 0) {
+      get = "getSignValue(" + f.hemisphere() + ", " + quote(f.positive()) + ", "
+        + quote(f.negative()) + ") * " + get;
+    }
+    out.println("  public " + type + " " + m.getSimpleName() + "() {");
+    out.println("    return " + get + ";");
+    out.println("  }");
+  }
+
+  private void writeSetter(PrintWriter out, ExecutableElement m, Field f) {
+    VariableElement param = m.getParameters().get(0);
+    String kind = kindOf(param.asType());
+    String value = param.getSimpleName().toString();
+    out.println("  public void " + m.getSimpleName() + "(" + param.asType() + " " + value + ") {");
+    if (f.hemisphere() >= 0) {
+      out.println("    setCharValue(" + f.hemisphere() + ", " + value + " < 0 ? "
+        + quote(f.negative()) + " : " + quote(f.positive()) + ");");
+      value = "Math.abs(" + value + ")";
+    }
+    if (f.degrees()) {
+      out.println("    setDegreesValue(" + f.index() + ", " + value + ");");
+    } else if (f.coordinate() > 0) {
+      out.println("    setCoordinateValue(" + f.index() + ", " + value + ", " + f.coordinate() + ");");
+    } else if (f.leading() >= 0 && kind.equals("Double")) {
+      out.println("    setDoubleValue(" + f.index() + ", " + value + ", " + f.leading() + ", "
+        + Math.max(f.decimals(), 0) + ");");
+    } else if (f.leading() >= 0 && kind.equals("Int")) {
+      out.println("    setIntValue(" + f.index() + ", " + value + ", " + f.leading() + ");");
+    } else {
+      out.println("    set" + kind + "Value(" + f.index() + ", " + value + ");");
+    }
+    if (!f.unit().isEmpty()) {
+      out.println("    setStringValue(" + (f.index() + 1) + ", " + quote(f.unit()) + ");");
+    }
+    out.println("  }");
+  }
+
+  /**
+   * Returns the name part of SentenceParser accessors for a value type, or
+   * <code>null</code> if not supported. Boolean getters use
+   * <code>hasValue</code>.
+   */
+  private static String kindOf(TypeMirror type) {
+    switch (type.getKind()) {
+      case DOUBLE:
+        return "Double";
+      case INT:
+        return "Int";
+      case CHAR:
+        return "Char";
+      case BOOLEAN:
+        return "Boolean";
+      case DECLARED:
+        return "java.lang.String".equals(type.toString()) ? "String" : null;
+      default:
+        return null;
+    }
+  }
+
+  private static String signature(ExecutableElement m) {
+    StringBuilder sb = new StringBuilder().append(m.getSimpleName()).append('(');
+    for (VariableElement p : m.getParameters()) {
+      sb.append(p.asType());
+    }
+    return sb.append(')').toString();
+  }
+
+  private static String quote(String s) {
+    StringBuilder sb = new StringBuilder("\"");
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\');
+      }
+      sb.append(c);
+    }
+    return sb.append('"').toString();
+  }
+
+  private static String quote(char c) {
+    return c == '\'' || c == '\\' ? "'\\" + c + "'" : "'" + c + "'";
+  }
+
+  private void error(Element e, String msg) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, msg, e);
+  }
+}
@@ -64,6 +64,23 @@ public final class Checksum {
     return String.format("%02X", sum);
   }
 
+  /**
+   * Calculates XOR checksum of a range of characters, without creating
+   * Strings. Used when writing sentences directly into a buffer.
+   *
+   * @param str  Characters to calculate checksum for
+   * @param from Index of first character
+   * @param to   Index after last character
+   * @return Checksum value, 0 to 255
+   */
+  public static int xor(CharSequence str, int from, int to) {
+    int sum = 0;
+    for (int i = from; i < to; i++) {
+      sum ^= str.charAt(i);
+    }
+    return sum & 0xFF;
+  }
+
   /**
    * Returns the index of checksum separator char in specified NMEA sentence. If
    * separator is not found, returns the String length.
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.sentence;
+
+/**
+ * Parses numbers from a range of characters in a sentence or field, without
+ * creating substrings. NMEA numbers are a small subset of Java number syntax:
+ * an optional sign, digits and an optional fraction. Such values are converted
+ * through a long fixed-point mantissa, giving the same result as the JDK
+ * parsers; any other input is delegated to the JDK so that the accepted syntax
+ * and the exceptions thrown remain identical.
+ *
+ * @author Key Bridge
+ */
+public final class NumberParser {
+
+  // returned by internal methods on invalid input
+  private static final long INVALID = Long.MIN_VALUE;
+
+  // largest mantissa converted exactly to double
+  private static final long MAX_EXACT = 1L << 53;
+
+  // exactly representable powers of ten
+  private static final double[] POWERS = new double[23];
+
+  static {
+    POWERS[0] = 1;
+    for (int i = 1; i < POWERS.length; i++) {
+      POWERS[i] = POWERS[i - 1] * 10;
+    }
+  }
+
+  private NumberParser() {
+  }
+
+  /**
+   * Parses an integer from specified range of characters, with the same rules
+   * as {@link Integer#parseInt(String)}.
+   *
+   * @param s    Characters to parse
+   * @param from Index of first character, inclusive
+   * @param to   Index of last character, exclusive
+   * @return Parsed value
+   * @throws NumberFormatException If the range does not contain an integer.
+   */
+  public static int parseInt(CharSequence s, int from, int to) {
+    long value = toInt(s, from, to);
+    if (value == INVALID) {
+      // throws, unless non-ASCII digits
+      return Integer.parseInt(s.subSequence(from, to).toString());
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parses an integer from specified range of characters, returning a default
+   * value instead of throwing if the range does not contain an integer.
+   *
+   * @param s       Characters to parse
+   * @param from    Index of first character, inclusive
+   * @param to      Index of last character, exclusive
+   * @param missing Value to return on invalid input
+   * @return Parsed value or <code>missing</code>
+   */
+  public static int parseInt(CharSequence s, int from, int to, int missing) {
+    long value = toInt(s, from, to);
+    if (value == INVALID) {
+      if (isAscii(s, from, to)) {
+        return missing;
+      }
+      try {
+        return Integer.parseInt(s.subSequence(from, to).toString());
+      } catch (NumberFormatException ex) {
+        return missing;
+      }
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parses a double from specified range of characters, with the same rules
+   * and result as {@link Double#parseDouble(String)}.
+   *
+   * @param s    Characters to parse
+   * @param from Index of first character, inclusive
+   * @param to   Index of last character, exclusive
+   * @return Parsed value
+   * @throws NumberFormatException If the range does not contain a number.
+   */
+  public static double parseDouble(CharSequence s, int from, int to) {
+    double value = toDouble(s, from, to);
+    if (value != value) {
+      // not plain decimal notation, or not exact in fixed-point
+      return Double.parseDouble(s.subSequence(from, to).toString());
+    }
+    return value;
+  }
+
+  /**
+   * Parses a double from specified range of characters, returning a default
+   * value instead of throwing if the range does not contain a number.
+   *
+   * @param s       Characters to parse
+   * @param from    Index of first character, inclusive
+   * @param to      Index of last character, exclusive
+   * @param missing Value to return on invalid input
+   * @return Parsed value or <code>missing</code>
+   */
+  public static double parseDouble(CharSequence s, int from, int to, double missing) {
+    double value = toDouble(s, from, to);
+    if (value != value) {
+      if (!isDoubleSyntax(s, from, to)) {
+        return missing;
+      }
+      try {
+        return Double.parseDouble(s.subSequence(from, to).toString());
+      } catch (NumberFormatException ex) {
+        return missing;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Tells if a range contains only ASCII characters, i.e. no digits other than
+   * those handled by {@link #toInt(CharSequence, int, int)}.
+   */
+  private static boolean isAscii(CharSequence s, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (s.charAt(i) > 0x7F) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tells if a range may be accepted by {@link Double#parseDouble(String)},
+   * i.e. it contains a digit, "NaN" or "Infinity" and only characters of Java
+   * floating-point literals. If not, the JDK parser would certainly throw.
+   */
+  private static boolean isDoubleSyntax(CharSequence s, int from, int to) {
+    boolean digits = false;
+    for (int i = from; i < to; i++) {
+      char c = s.charAt(i);
+      if ((c >= '0' && c <= '9') || c == 'N' || c == 'I') {
+        digits = true;
+      } else if (c > ' ' && "+-.abcdefABCDEFxXpPinty".indexOf(c) < 0) {
+        return false;
+      }
+    }
+    return digits;
+  }
+
+  /**
+   * Parses an optionally signed run of ASCII digits, or returns
+   * {@link #INVALID}.
+   */
+  private static long toInt(CharSequence s, int from, int to) {
+    if (from >= to) {
+      return INVALID;
+    }
+    char first = s.charAt(from);
+    boolean negative = first == '-';
+    int i = negative || first == '+' ? from + 1 : from;
+    if (i == to) {
+      return INVALID;
+    }
+    long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+    long value = 0;
+    for (; i < to; i++) {
+      int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return INVALID;
+      }
+      value = value * 10 + digit;
+      if (value > limit) {
+        return INVALID;
+      }
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Converts plain decimal notation through a fixed-point mantissa, or returns
+   * NaN if the input is not plain decimal or cannot be converted exactly.
+   */
+  private static double toDouble(CharSequence s, int from, int to) {
+    if (from >= to) {
+      return Double.NaN;
+    }
+    char first = s.charAt(from);
+    boolean negative = first == '-';
+    int i = negative || first == '+' ? from + 1 : from;
+    long mantissa = 0;
+    int digits = 0;
+    int scale = -1;
+    for (; i < to; i++) {
+      char c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (++digits > 18) {
+          return Double.NaN;
+        }
+        mantissa = mantissa * 10 + (c - '0');
+        if (scale >= 0) {
+          scale++;
+        }
+      } else if (c == '.' && scale < 0) {
+        scale = 0;
+      } else {
+        return Double.NaN;
+      }
+    }
+    if (digits == 0 || mantissa > MAX_EXACT || scale >= POWERS.length) {
+      return Double.NaN;
+    }
+    // both operands exact, so the quotient is correctly rounded
+    double value = scale > 0 ? mantissa / POWERS[scale] : mantissa;
+    return negative ? -value : value;
+  }
+}
@@ -16,7 +16,6 @@
  */
 package org.nmea.sentence;
 
-import com.sun.javafx.scene.traversal.Direction;
 import org.nmea.parser.DataNotAvailableException;
 import org.nmea.parser.ParseException;
 import org.nmea.type.DataStatusType;
@@ -161,7 +160,7 @@ public interface RMBSentence extends Sentence {
    * translated to positive, set Steer-To to indicate the direction of error.
    *
    * @param xte Cross track error value, will be rounded to one decimal.
-   * @see #setSteerTo(Direction)
+   * @see #setSteerTo(DirectionType)
    */
   void setCrossTrackError(double xte);
 
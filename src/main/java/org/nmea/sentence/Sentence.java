@@ -85,12 +85,28 @@ public interface Sentence {
   /**
    * Gets the talker ID of the sentence. Talker ID is the next two characters
    * after <code>$</code> in sentence address field. For example, in case of
-   * <code>$GPGGA</code>, the method returns {@link TalkerType#GP}.
+   * <code>$GPGGA</code>, the method returns {@link TalkerType#GP}. Sentences
+   * of unrecognized talkers are parsed as usual and return
+   * {@link TalkerType#UNKNOWN}, keeping the original id in sentence output.
    *
    * @return Talker id enum.
    */
   TalkerType getTalkerId();
 
+  /**
+   * Gets the talker ID of the sentence as read, e.g. "GP". Unlike
+   * {@link #getTalkerId()}, this keeps unrecognized talkers apart; consumers
+   * tracking state per talker use it to key talkers that are
+   * {@link TalkerType#UNKNOWN}. The default implementation returns the name
+   * of {@link #getTalkerId()}, which is the id as read for recognized
+   * talkers.
+   *
+   * @return Talker id String, "P" for proprietary sentences.
+   */
+  default String getTalkerString() {
+    return getTalkerId().name();
+  }
+
   /**
    * Tells if this is an AIS sentence.
    *
@@ -134,6 +150,8 @@ public interface Sentence {
    * the sentence is to be sent from a computer to an NMEA device.
    *
    * @param id TalkerId to set
+   * @throws IllegalArgumentException If id is <code>null</code> or
+   *                                  {@link TalkerType#UNKNOWN}
    */
   void setTalkerId(TalkerType id);
 
@@ -18,6 +18,7 @@ package org.nmea.type;
 
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import org.nmea.sentence.NumberParser;
 
 /**
  * Represents a calendar date (day-month-year) transmitted in sentences that
@@ -69,9 +70,9 @@ public class Date {
    * @param date the date string to parse
    */
   public Date(String date) {
-    setDay(Integer.parseInt(date.substring(0, 2)));
-    setMonth(Integer.parseInt(date.substring(2, 4)));
-    setYear(Integer.parseInt(date.substring(4)));
+    setDay(NumberParser.parseInt(date, 0, 2));
+    setMonth(NumberParser.parseInt(date, 2, 4));
+    setYear(NumberParser.parseInt(date, 4, date.length()));
   }
 
   /**
@@ -16,6 +16,7 @@
  */
 package org.nmea.type;
 
+import java.util.Arrays;
 import org.nmea.sentence.SentenceValidator;
 
 /**
@@ -193,7 +194,25 @@ public enum SentenceType {
   /**
    * UTC time and date with local time zone offset
    */
-  ZDA("UTC time and date with local time zone offset");
+  ZDA("UTC time and date with local time zone offset"),
+  /**
+   * Sentence id not listed in this enum, e.g. proprietary sentences.
+   */
+  UNKNOWN("Unknown sentence");
+
+  // ordinals of sentence types by three-letter id, see index(char, char, char)
+  private static final byte[] TABLE = new byte[26 * 26 * 26];
+  private static final SentenceType[] VALUES = values();
+
+  static {
+    Arrays.fill(TABLE, (byte) UNKNOWN.ordinal());
+    for (SentenceType t : VALUES) {
+      String id = t.name();
+      if (id.length() == 3) {
+        TABLE[index(id.charAt(0), id.charAt(1), id.charAt(2))] = (byte) t.ordinal();
+      }
+    }
+  }
 
   private final String label;
 
@@ -203,15 +222,61 @@ public enum SentenceType {
 
   /**
    * Parses the sentence id from specified sentence String and returns a
-   * corresponding <code>SentenceId</code> enum (assuming it exists).
+   * corresponding <code>SentenceId</code> enum.
    *
    * @param nmea Sentence String
-   * @return SentenceId enum
+   * @return SentenceId enum, {@link #UNKNOWN} if not listed.
    * @throws IllegalArgumentException If specified String is not valid sentence
    */
   public static SentenceType parse(String nmea) {
-    String sid = parseStr(nmea);
-    return SentenceType.valueOf(sid);
+    if (!SentenceValidator.isSentence(nmea)) {
+      throw new IllegalArgumentException("String is not a sentence");
+    }
+    int begin = nmea.startsWith("$P") ? 2 : 3;
+    return lookup(nmea, begin, nmea.indexOf(','));
+  }
+
+  /**
+   * Returns the sentence type of an id contained in specified range of
+   * characters, e.g. of a sentence address field.
+   *
+   * @param s    Characters containing the id
+   * @param from Index of first char of id, inclusive
+   * @param to   Index of last char of id, exclusive
+   * @return SentenceId enum, {@link #UNKNOWN} if not listed.
+   */
+  public static SentenceType lookup(CharSequence s, int from, int to) {
+    if (to - from != 3) {
+      return UNKNOWN;
+    }
+    return lookup(s.charAt(from), s.charAt(from + 1), s.charAt(from + 2));
+  }
+
+  /**
+   * Returns the sentence type of specified three-letter id.
+   *
+   * @param first  First char of id
+   * @param second Second char of id
+   * @param third  Third char of id
+   * @return SentenceId enum, {@link #UNKNOWN} if not listed.
+   */
+  public static SentenceType lookup(char first, char second, char third) {
+    int index = index(first, second, third);
+    return index < 0 ? UNKNOWN : VALUES[TABLE[index]];
+  }
+
+  /**
+   * Returns the table index of a three-letter id, or -1 if not upper case
+   * letters.
+   */
+  private static int index(char first, char second, char third) {
+    int a = first - 'A';
+    int b = second - 'A';
+    int c = third - 'A';
+    if (a < 0 || a >= 26 || b < 0 || b >= 26 || c < 0 || c >= 26) {
+      return -1;
+    }
+    return (a * 26 + b) * 26 + c;
   }
 
   /**
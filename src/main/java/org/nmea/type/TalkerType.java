@@ -16,6 +16,7 @@
  */
 package org.nmea.type;
 
+import java.util.Arrays;
 import org.nmea.sentence.SentenceValidator;
 
 /**
@@ -343,7 +344,25 @@ public enum TalkerType {
    * Transducer, Volume (obsolete)
    */
   @Deprecated
-  YV("Transducer, Volume (obsolete)");
+  YV("Transducer, Volume (obsolete)"),
+  /**
+   * Talker id not recognized, e.g. a new satellite system; the sentence is
+   * parsed as usual.
+   */
+  UNKNOWN("Unknown talker");
+
+  // talker types by two-letter id, see index(char, char)
+  private static final TalkerType[] TABLE = new TalkerType[26 * 26];
+
+  static {
+    Arrays.fill(TABLE, UNKNOWN);
+    for (TalkerType t : values()) {
+      String id = t.name();
+      if (id.length() == 2) {
+        TABLE[index(id.charAt(0), id.charAt(1))] = t;
+      }
+    }
+  }
 
   private final String label;
 
@@ -353,10 +372,10 @@ public enum TalkerType {
 
   /**
    * Parses the talker id from specified sentence String and returns the
-   * corresponding TalkerId enum using the {@link #valueOf(String)} method.
+   * corresponding TalkerId enum.
    *
    * @param nmea Sentence String
-   * @return TalkerId enum
+   * @return TalkerId enum, {@link #UNKNOWN} if not recognized.
    * @throws IllegalArgumentException If specified String is not recognized as
    *                                  NMEA sentence
    */
@@ -365,13 +384,47 @@ public enum TalkerType {
     if (!SentenceValidator.isSentence(nmea)) {
       throw new IllegalArgumentException("String is not a sentence");
     }
+    return lookup(nmea);
+  }
 
-    String tid = "";
-    if (nmea.startsWith("$P")) {
-      tid = "P";
-    } else {
-      tid = nmea.substring(1, 3);
+  /**
+   * Returns the talker of a sentence, without validating it.
+   *
+   * @param nmea Sentence, starting with the begin char
+   * @return TalkerId enum, {@link #UNKNOWN} if not recognized.
+   */
+  public static TalkerType lookup(CharSequence nmea) {
+    if (nmea.length() < 3) {
+      return UNKNOWN;
+    }
+    if (nmea.charAt(0) == '$' && nmea.charAt(1) == 'P') {
+      return P;
+    }
+    return lookup(nmea.charAt(1), nmea.charAt(2));
+  }
+
+  /**
+   * Returns the talker of specified two-letter id.
+   *
+   * @param first  First char of id
+   * @param second Second char of id
+   * @return TalkerId enum, {@link #UNKNOWN} if not recognized.
+   */
+  public static TalkerType lookup(char first, char second) {
+    int index = index(first, second);
+    return index < 0 ? UNKNOWN : TABLE[index];
+  }
+
+  /**
+   * Returns the table index of a two-letter id, or -1 if not upper case
+   * letters.
+   */
+  private static int index(char first, char second) {
+    int a = first - 'A';
+    int b = second - 'A';
+    if (a < 0 || a >= 26 || b < 0 || b >= 26) {
+      return -1;
     }
-    return TalkerType.valueOf(tid);
+    return a * 26 + b;
   }
 }
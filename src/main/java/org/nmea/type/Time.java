@@ -21,6 +21,7 @@ import java.text.DecimalFormatSymbols;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import org.nmea.sentence.NumberParser;
 
 /**
  * Represents a time of day in 24-hour clock, i.e. the UTC time used as default
@@ -75,9 +76,9 @@ public final class Time {
    * @param time Timestamp String
    */
   public Time(String time) {
-    setHour(Integer.parseInt(time.substring(0, 2)));
-    setMinutes(Integer.parseInt(time.substring(2, 4)));
-    setSeconds(Double.parseDouble(time.substring(4)));
+    setHour(NumberParser.parseInt(time, 0, 2));
+    setMinutes(NumberParser.parseInt(time, 2, 4));
+    setSeconds(NumberParser.parseDouble(time, 4, time.length()));
   }
 
   /**
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.keybridge.lib.nmea.provider;
+
+import ch.keybridge.lib.nmea.provider.event.PositionEvent;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.nmea.event.SentenceEvent;
+import org.nmea.io.SentenceReader;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.type.GpsFixQualityType;
+import org.nmea.type.TalkerType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fuses a GPS receiver and a better DGPS multi-constellation receiver.
+ */
+public class FusedPositionProviderTest {
+
+  @Test
+  public void testFusion() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    FusedPositionProvider provider = new FusedPositionProvider(reader);
+    List<PositionEvent> events = new ArrayList<>();
+    provider.addListener(events::add);
+
+    read(provider, "$GPGGA,120000.000,6000.0000,N,02500.0000,E,1,06,2.0,10.0,M,18.0,M,,*62");
+    assertEquals(1, events.size());
+    assertEquals(TalkerType.GP, provider.getPrimaryTalker());
+    assertEquals(60.0, events.get(0).getPosition().getLatitude(), 1e-9);
+
+    read(provider, "$GNGGA,120000.000,6000.0060,N,02500.0000,E,2,12,0.8,12.0,M,18.0,M,,*74");
+    assertEquals(TalkerType.GN, provider.getPrimaryTalker());
+    assertEquals(2, events.size());
+    double fused = 60 + 0.0001 * 3.125 / 3.25;
+    assertEquals(60 + (fused - 60) * 0.5, events.get(1).getPosition().getLatitude(), 1e-9);
+
+    // secondary talker updates state only
+    read(provider, "$GPGGA,120001.000,6000.0000,N,02500.0000,E,1,06,2.0,10.0,M,18.0,M,,*63");
+    assertEquals(2, events.size());
+    read(provider, "$GNGGA,120001.000,6000.0060,N,02500.0000,E,2,12,0.8,12.0,M,18.0,M,,*75");
+    assertEquals(3, events.size());
+    double previous = events.get(1).getPosition().getLatitude();
+    assertEquals(previous + (fused - previous) * 0.5, events.get(2).getPosition().getLatitude(), 1e-9);
+    assertEquals(25.0, events.get(2).getPosition().getLongitude(), 1e-9);
+    assertEquals(GpsFixQualityType.DGPS, events.get(2).getFixQuality());
+  }
+
+  @Test
+  public void testCombinedGSA() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    FusedPositionProvider provider = new FusedPositionProvider(reader);
+
+    read(provider, "$GPGGA,120000.000,6000.0000,N,02500.0000,E,1,06,2.0,10.0,M,18.0,M,,*62");
+    assertEquals(0.5 / 4, provider.getWeight(TalkerType.GP), 1e-9);
+
+    // GSA of a combined receiver applies to talkers without own GSA
+    read(provider, "$GNGSA,A,3,01,02,03,04,05,06,,,,,,,1.8,1.0,1.5*27");
+    read(provider, "$GPGGA,120001.000,6000.0000,N,02500.0000,E,1,06,2.0,10.0,M,18.0,M,,*63");
+    assertEquals(0.5, provider.getWeight(TalkerType.GP), 1e-9);
+
+    read(provider, "$GPGSA,A,3,01,02,03,04,05,06,,,,,,,1.2,0.5,1.1*33");
+    read(provider, "$GPGGA,120001.000,6000.0000,N,02500.0000,E,1,06,2.0,10.0,M,18.0,M,,*63");
+    assertEquals(2, provider.getWeight(TalkerType.GP), 1e-9);
+  }
+
+  @Test
+  public void testUnknownTalkers() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    FusedPositionProvider provider = new FusedPositionProvider(reader);
+    List<PositionEvent> events = new ArrayList<>();
+    provider.addListener(events::add);
+
+    read(provider, "$GXGGA,120000.000,6000.0000,N,02500.0000,E,1,06,2.0,10.0,M,18.0,M,,*6A");
+    assertEquals(1, events.size());
+    assertEquals(TalkerType.UNKNOWN, provider.getPrimaryTalker());
+
+    // another unrecognized talker is a separate, secondary source
+    read(provider, "$GYGGA,120000.000,6000.0060,N,02500.0000,E,1,06,2.0,10.0,M,18.0,M,,*6D");
+    assertEquals(1, events.size());
+    read(provider, "$GXGGA,120001.000,6000.0000,N,02500.0000,E,1,06,2.0,10.0,M,18.0,M,,*6B");
+    assertEquals(2, events.size());
+    assertEquals(60 + 0.00005 * 0.5, events.get(1).getPosition().getLatitude(), 1e-9);
+  }
+
+  @Test
+  public void testWeight() {
+    assertEquals(0, FusedPositionProvider.weight(GpsFixQualityType.INVALID, 12, 1), 0);
+    assertEquals(0, FusedPositionProvider.weight(GpsFixQualityType.NORMAL, 3, 1), 0);
+    assertEquals(1, FusedPositionProvider.weight(GpsFixQualityType.NORMAL, 12, 1), 1e-9);
+    assertEquals(0.25, FusedPositionProvider.weight(GpsFixQualityType.NORMAL, 12, 2), 1e-9);
+    assertTrue(FusedPositionProvider.weight(GpsFixQualityType.RTK, 6, 1)
+      > FusedPositionProvider.weight(GpsFixQualityType.DGPS, 12, 1));
+  }
+
+  private static void read(FusedPositionProvider provider, String nmea) {
+    provider.sentenceRead(new SentenceEvent(provider, SentenceFactory.getInstance().createParser(nmea)));
+  }
+}
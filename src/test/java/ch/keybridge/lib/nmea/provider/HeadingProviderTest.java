@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.keybridge.lib.nmea.provider;
+
+import ch.keybridge.lib.nmea.provider.event.HeadingEvent;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import org.junit.Test;
+import org.nmea.event.SentenceEvent;
+import org.nmea.io.SentenceReader;
+import org.nmea.parser.SentenceFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Combines gyro, compass and rate of turn sentences.
+ */
+public class HeadingProviderTest {
+
+  private static final String HDT = "$HEHDT,100.0,T*2E";
+  private static final String HDG = "$HCHDG,90.0,1.5,E,3.0,W*6E";
+  private static final String HDM = "$HCHDM,92.0,M*12";
+  private static final String ROT = "$HEROT,60.0,A*1D";
+
+  @Test
+  public void testFusion() {
+    HeadingProvider provider = new HeadingProvider(new SentenceReader(new ByteArrayInputStream(new byte[0])));
+    List<HeadingEvent> events = new ArrayList<>();
+    provider.addListener(events::add);
+
+    read(provider, HDM);
+    assertEquals(1, events.size());
+    assertEquals(92.0, events.get(0).getHeading(), 1e-9);
+    assertFalse(events.get(0).isTrue());
+
+    read(provider, HDG);
+    assertEquals(2, events.size());
+    assertEquals(88.5, events.get(1).getHeading(), 1e-9);
+    assertTrue(events.get(1).isTrue());
+
+    long time = read(provider, HDT);
+    assertEquals(3, events.size());
+    assertEquals(100.0, events.get(2).getHeading(), 1e-9);
+
+    // compass is not reported while gyro is available
+    read(provider, HDG);
+    assertEquals(3, events.size());
+
+    read(provider, ROT);
+    assertEquals(100.5, provider.estimate(time + 500).getHeading(), 1e-9);
+    assertEquals(101.0, provider.estimate(time + 1500).getHeading(), 1e-9);
+    assertEquals(3, events.size());
+  }
+
+  @Test
+  public void testFixedRate() throws InterruptedException {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      HeadingProvider provider = new HeadingProvider(new SentenceReader(new ByteArrayInputStream(new byte[0])),
+                                                     scheduler, 10, TimeUnit.MILLISECONDS);
+      CountDownLatch latch = new CountDownLatch(3);
+      provider.addListener(e -> latch.countDown());
+      provider.readingStarted();
+      read(provider, HDT);
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFixedRateRunningReader() throws InterruptedException {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    try {
+      reader.start();
+      assertTrue(reader.isRunning());
+      HeadingProvider provider = new HeadingProvider(reader, scheduler, 10, TimeUnit.MILLISECONDS);
+      CountDownLatch latch = new CountDownLatch(3);
+      provider.addListener(e -> latch.countDown());
+      read(provider, HDT);
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+    } finally {
+      reader.stop();
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFixedRateRestart() throws InterruptedException {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      HeadingProvider provider = new HeadingProvider(new SentenceReader(new ByteArrayInputStream(new byte[0])),
+                                                     scheduler, 10, TimeUnit.MILLISECONDS);
+      List<HeadingEvent> events = new CopyOnWriteArrayList<>();
+      provider.addListener(events::add);
+      read(provider, HDT);
+      Thread.sleep(50);
+      assertTrue(events.isEmpty());
+
+      provider.readingStarted();
+      provider.readingStarted();
+      read(provider, HDT);
+      Thread.sleep(50);
+      provider.readingStopped();
+      int count = events.size();
+      assertTrue(count > 0);
+      Thread.sleep(50);
+      assertTrue(events.size() <= count + 1);
+
+      CountDownLatch latch = new CountDownLatch(3);
+      provider.addListener(e -> latch.countDown());
+      provider.readingStarted();
+      read(provider, HDT);
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  private static long read(HeadingProvider provider, String nmea) {
+    SentenceEvent event = new SentenceEvent(provider, SentenceFactory.getInstance().createParser(nmea));
+    provider.sentenceRead(event);
+    return event.getTimeStamp();
+  }
+}
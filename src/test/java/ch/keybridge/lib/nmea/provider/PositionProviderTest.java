@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.keybridge.lib.nmea.provider;
+
+import ch.keybridge.lib.nmea.provider.event.PositionEvent;
+import ch.keybridge.lib.nmea.provider.event.PositionListener;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.nmea.event.SentenceEvent;
+import org.nmea.io.SentenceReader;
+import org.nmea.parser.SentenceFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Feeds sentences of two fix epochs to a PositionProvider.
+ */
+public class PositionProviderTest {
+
+  @Test
+  public void testEpochs() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    PositionProvider provider = new PositionProvider(reader);
+    List<PositionEvent> events = new ArrayList<>();
+    provider.addListener(events::add);
+
+    read(provider, "$GPGGA,192914.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*69");
+    assertTrue(events.isEmpty());
+    read(provider, "$GPRMC,192914.000,A,3856.6580,N,07714.3166,W,0.10,357.51,291117,,,A*77");
+    assertEquals(1, events.size());
+    assertEquals(0.10 * 1.852, events.get(0).getSpeed(), 1e-9);
+    assertEquals(122.4, events.get(0).getPosition().getAltitude(), 1e-9);
+
+    // late sentences of reported epoch
+    read(provider, "$GPGLL,3856.6580,N,07714.3166,W,192914.000,A,A*49");
+    read(provider, "$GPVTG,357.5,T,,M,5.0,N,9.3,K,A*06");
+    assertEquals(1, events.size());
+
+    // next epoch waits for its RMC
+    read(provider, "$GPGGA,192915.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*68");
+    assertEquals(1, events.size());
+    read(provider, "$GPRMC,192915.000,A,3856.6580,N,07714.3166,W,0.10,357.51,291117,,,A*76");
+    assertEquals(2, events.size());
+    assertEquals(0.10 * 1.852, events.get(1).getSpeed(), 1e-9);
+    assertEquals(15, events.get(1).getTime().getSeconds(), 1e-9);
+    assertEquals(29, events.get(1).getDate().getDay());
+    read(provider, "$GPVTG,357.5,T,,M,5.0,N,9.3,K,A*06");
+    assertEquals(2, events.size());
+  }
+
+  @Test
+  public void testWithoutRMC() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    PositionProvider provider = new PositionProvider(reader);
+    List<PositionEvent> events = new ArrayList<>();
+    provider.addListener(events::add);
+
+    // VTG preceding GGA is kept for the epoch of the GGA
+    read(provider, "$GPVTG,357.5,T,,M,5.0,N,9.3,K,A*06");
+    read(provider, "$GPGGA,192914.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*69");
+    assertEquals(1, events.size());
+    read(provider, "$GPVTG,357.5,T,,M,6.0,N,11.1,K,A*3E");
+    assertEquals(1, events.size());
+    read(provider, "$GPGGA,192915.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*68");
+    assertEquals(2, events.size());
+    assertEquals(6.0 * 1.852, events.get(1).getSpeed(), 1e-9);
+    assertEquals(15, events.get(1).getTime().getSeconds(), 1e-9);
+  }
+
+  @Test
+  public void testListenersAndExecutor() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    PositionProvider provider = new PositionProvider(reader);
+    List<Runnable> tasks = new ArrayList<>();
+    List<PositionEvent> events = new ArrayList<>();
+    provider.addListener(new PositionListener() {
+      @Override
+      public void providerUpdate(PositionEvent evt) {
+        // removing while dispatching must not fail
+        provider.removeListener(this);
+        events.add(evt);
+      }
+    });
+    provider.addListener(events::add);
+    provider.setExecutor(tasks::add);
+
+    read(provider, "$GPGGA,192914.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*69");
+    read(provider, "$GPRMC,192914.000,A,3856.6580,N,07714.3166,W,0.10,357.51,291117,,,A*77");
+    assertEquals(2, tasks.size());
+    assertTrue(events.isEmpty());
+    tasks.forEach(Runnable::run);
+    assertEquals(2, events.size());
+
+    provider.setExecutor(null);
+    read(provider, "$GPGGA,192915.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*68");
+    read(provider, "$GPRMC,192915.000,A,3856.6580,N,07714.3166,W,0.10,357.51,291117,,,A*76");
+    assertEquals(3, events.size());
+  }
+
+  private static void read(PositionProvider provider, String nmea) {
+    provider.sentenceRead(new SentenceEvent(provider, SentenceFactory.getInstance().createParser(nmea)));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.keybridge.lib.nmea.provider;
+
+import ch.keybridge.lib.nmea.provider.event.SatelliteInfoEvent;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.nmea.event.SentenceEvent;
+import org.nmea.io.SentenceReader;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.type.Satellite;
+import org.nmea.type.TalkerType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Assembles interleaved GPS and GLONASS GSV sequences.
+ */
+public class SatelliteInfoProviderTest {
+
+  private static final String GSA = "$GPGSA,A,3,01,02,12,14,15,,,,,,,,1.9,1.1,1.6*3C";
+  private static final String GP1 = "$GPGSV,2,1,06,01,40,083,46,02,17,308,41,12,07,344,39,14,22,228,45*7B";
+  private static final String GP2 = "$GPGSV,2,2,06,15,56,182,51,17,38,163,*7E";
+  private static final String GL1 = "$GLGSV,1,1,03,65,12,045,30,66,50,120,35,70,05,300,*55";
+  private static final String GX1 = "$GXGSV,2,1,06,01,40,083,46,02,17,308,41,12,07,344,39,14,22,228,45*73";
+  private static final String GX2 = "$GXGSV,2,2,06,15,56,182,51,17,38,163,*76";
+  private static final String GA1 = "$GAGSV,1,1,03,301,12,045,30,302,50,120,35,401,05,300,28*60";
+  private static final String GY1 = "$GYGSV,1,1,03,65,12,045,30,66,50,120,35,70,05,300,*40";
+
+  @Test
+  public void testInterleavedSequences() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    SatelliteInfoProvider provider = new SatelliteInfoProvider(reader);
+    List<SatelliteInfoEvent> events = new ArrayList<>();
+    provider.addListener(events::add);
+
+    read(provider, GSA, GP1, GL1, GP2);
+    assertTrue(events.isEmpty());
+
+    // next GSA ends the epoch
+    read(provider, GSA);
+    assertEquals(1, events.size());
+    SatelliteInfoEvent e = events.get(0);
+    assertEquals(7, e.getSatelliteInfo().size());
+    assertEquals(5, e.getSatelliteInfo(TalkerType.GP).size());
+    assertEquals(2, e.getSatelliteInfo(TalkerType.GL).size());
+    assertEquals("65", e.getSatelliteInfo(TalkerType.GL).get(0).getId());
+    assertEquals(35, e.getSatelliteInfo(TalkerType.GL).get(1).getNoise());
+    assertEquals(1.1, e.getHorizontalPrecision(), 1e-9);
+
+    // reported as soon as both talkers have completed
+    read(provider, GL1, GP1, GP2);
+    assertEquals(2, events.size());
+    read(provider, GSA);
+    assertEquals(2, events.size());
+
+    // incomplete sequence is discarded
+    read(provider, GP2, GL1, GSA);
+    assertEquals(3, events.size());
+    assertEquals(1, events.get(2).getTalkers().size());
+  }
+
+  @Test
+  public void testUnknownTalkers() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    SatelliteInfoProvider provider = new SatelliteInfoProvider(reader);
+    List<SatelliteInfoEvent> events = new ArrayList<>();
+    provider.addListener(events::add);
+
+    // unrecognized talkers are assembled apart and reported together
+    read(provider, GSA, GX1, GY1, GX2, GSA);
+    assertEquals(1, events.size());
+    assertEquals(7, events.get(0).getSatelliteInfo(TalkerType.UNKNOWN).size());
+  }
+
+  @Test
+  public void testLargeSatelliteIds() {
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(new byte[0]));
+    SatelliteInfoProvider provider = new SatelliteInfoProvider(reader);
+    List<SatelliteInfoEvent> events = new ArrayList<>();
+    provider.addListener(events::add);
+
+    // 3-digit ids above the fixed table are kept
+    read(provider, GSA, GA1, GSA);
+    assertEquals(1, events.size());
+    List<Satellite> satellites = events.get(0).getSatelliteInfo();
+    assertEquals(3, satellites.size());
+    assertEquals("301", satellites.get(0).getId());
+    assertEquals("401", satellites.get(2).getId());
+    assertEquals(5, satellites.get(2).getElevation());
+    assertEquals(300, satellites.get(2).getAzimuth());
+    assertEquals(28, satellites.get(2).getNoise());
+  }
+
+  private static void read(SatelliteInfoProvider provider, String... nmea) {
+    for (String s : nmea) {
+      provider.sentenceRead(new SentenceEvent(provider, SentenceFactory.getInstance().createParser(s)));
+    }
+  }
+}
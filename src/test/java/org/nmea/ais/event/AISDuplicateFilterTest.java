@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.nmea.ais.message.AISMessage01;
+import org.nmea.ais.message.AISMessage05;
+import org.nmea.event.SentenceEvent;
+import org.nmea.event.SentenceListener;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.AISSentence;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drops AIS messages received more than once within the time window.
+ */
+public class AISDuplicateFilterTest {
+
+  private static final String AIS1 = "!AIVDM,1,1,,B,177KQJ5000G?tO`K>RA1wUbN0TKH,0*5C";
+  private static final String AIS1_REPEATED = "!AIVDM,1,1,,B,1W7KQJ5000G?tO`K>RA1wUbN0TKH,0*3C";
+  private static final String AIS5A = "!AIVDM,2,1,1,A,55?MbV02;H;s<HtKR20EHE:0@T4@Dn2222222216L961O5Gf0NSQEp6ClRp8,0*1C";
+  private static final String AIS5B = "!AIVDM,2,2,1,A,88888888880,2*25";
+
+  @Test
+  public void testWindow() {
+    AISDuplicateFilter filter = new AISDuplicateFilter(1000, 1000, true);
+    assertFalse(filter.isDuplicate(parse(AIS1), 0));
+    assertTrue(filter.isDuplicate(parse(AIS1), 10));
+    assertTrue(filter.isDuplicate(parse(AIS1_REPEATED), 20));
+    assertFalse(filter.isDuplicate(parse(AIS5A, AIS5B), 30));
+    assertTrue(filter.isDuplicate(parse(AIS5A, AIS5B), 1500));
+    // not seen since two windows
+    assertFalse(filter.isDuplicate(parse(AIS1), 2100));
+    assertEquals(6, filter.getMessageCount());
+    assertEquals(3, filter.getDuplicateCount());
+    assertEquals(0.5, filter.getHitRate(), 0.0);
+
+    filter = new AISDuplicateFilter(1000, 1000, false);
+    assertFalse(filter.isDuplicate(parse(AIS1), 0));
+    assertFalse(filter.isDuplicate(parse(AIS1_REPEATED), 10));
+  }
+
+  @Test
+  public void testDispatcher() {
+    List<AISMessage01> positions = new ArrayList<>();
+    List<AISMessage05> statics = new ArrayList<>();
+    AISDuplicateDispatcher dispatcher = new AISDuplicateDispatcher(new AISDuplicateFilter());
+    // two listeners sharing one filter through the dispatcher
+    dispatcher.addSentenceListener(new AbstractAISMessageListener<AISMessage01>() {
+      @Override
+      public void onMessage(AISMessage01 msg) {
+        positions.add(msg);
+      }
+    });
+    dispatcher.addSentenceListener(new AbstractAISMessageListener<AISMessage05>() {
+      @Override
+      public void onMessage(AISMessage05 msg) {
+        statics.add(msg);
+      }
+    });
+    // same traffic from two readers, fragments interleaved
+    Object reader1 = new Object();
+    Object reader2 = new Object();
+    send(dispatcher, reader1, AIS1);
+    send(dispatcher, reader1, AIS5A);
+    send(dispatcher, reader2, AIS1_REPEATED);
+    send(dispatcher, reader2, AIS5A);
+    send(dispatcher, reader1, AIS5B);
+    send(dispatcher, reader2, AIS5B);
+    // second fragment without first
+    send(dispatcher, reader1, AIS5B);
+
+    assertEquals(1, positions.size());
+    assertEquals(1, statics.size());
+    assertEquals(4, dispatcher.getFilter().getMessageCount());
+    assertEquals(2, dispatcher.getFilter().getDuplicateCount());
+  }
+
+  private static void send(SentenceListener listener, Object source, String nmea) {
+    listener.sentenceRead(new SentenceEvent(source, SentenceFactory.getInstance().createParser(nmea)));
+  }
+
+  private static AISSentence[] parse(String... nmea) {
+    AISSentence[] sentences = new AISSentence[nmea.length];
+    for (int i = 0; i < nmea.length; i++) {
+      sentences[i] = (AISSentence) SentenceFactory.getInstance().createParser(nmea[i]);
+    }
+    return sentences;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.nmea.ais.message.AISMessage;
+import org.nmea.ais.message.AISPositionReport;
+import org.nmea.ais.util.Sixbit;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.AISSentence;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes AIS messages in an archive and reads them back by MMSI and time.
+ */
+public class AISArchiveTest {
+
+  private static final String TYPE_1 = "!AIVDM,1,1,,B,177KQJ5000G?tO`K>RA1wUbN0TKH,0*5C";
+  private static final String TYPE_18 = "!AIVDM,1,1,,B,B52K>;h00Fc>jpUlNV@ikwpUoP06,0*4F";
+
+  @Test
+  public void testWriteAndFind() throws Exception {
+    File file = File.createTempFile("ais", ".archive");
+    File index = AISArchiveIndex.getIndexFile(file);
+    AISSentence type1 = (AISSentence) SentenceFactory.getInstance().createParser(TYPE_1);
+    AISSentence type18 = (AISSentence) SentenceFactory.getInstance().createParser(TYPE_18);
+    int mmsi1 = getMMSI(type1);
+    int mmsi18 = getMMSI(type18);
+    try {
+      try (AISArchiveWriter writer = new AISArchiveWriter(file, 256)) {
+        for (int i = 0; i < 100; i++) {
+          writer.write(1000L * i, type1);
+          writer.write(1000L * i + 500, type18);
+        }
+      }
+      // reopen and append
+      try (AISArchiveWriter writer = new AISArchiveWriter(file, 256)) {
+        writer.write(100000L, type1);
+      }
+
+      try (AISArchiveReader reader = new AISArchiveReader(file)) {
+        assertTrue(reader.getBlockCount() > 10);
+        assertEquals(2, reader.getMMSIs().size());
+
+        List<AISArchiveRecord> records = reader.find(mmsi1, 10000, 19999);
+        assertEquals(10, records.size());
+        assertEquals(10000, records.get(0).getTime());
+        AISMessage message = records.get(0).getMessage();
+        assertEquals(mmsi1, message.getMMSI());
+        assertTrue(message instanceof AISPositionReport);
+        assertArrayEquals(new Sixbit(type1.getPayload(), type1.getFillBits()).toByteArray(),
+                          records.get(0).getPayload().toByteArray());
+
+        assertEquals(101, reader.find(mmsi1, 0, Long.MAX_VALUE).size());
+        assertEquals(100, reader.find(mmsi18, 0, Long.MAX_VALUE).size());
+        assertEquals(18, reader.find(mmsi18, 0, 500).get(0).getMessageType());
+        assertTrue(reader.find(123456789, 0, Long.MAX_VALUE).isEmpty());
+        assertEquals(3, reader.find(99000, 100000).size());
+      }
+    } finally {
+      file.delete();
+      index.delete();
+    }
+  }
+
+  @Test
+  public void testRecoverUnindexedBlocks() throws Exception {
+    File file = File.createTempFile("ais", ".archive");
+    File index = AISArchiveIndex.getIndexFile(file);
+    AISSentence type1 = (AISSentence) SentenceFactory.getInstance().createParser(TYPE_1);
+    AISSentence type18 = (AISSentence) SentenceFactory.getInstance().createParser(TYPE_18);
+    int mmsi18 = getMMSI(type18);
+    try {
+      try (AISArchiveWriter writer = new AISArchiveWriter(file, 256)) {
+        for (int i = 0; i < 10; i++) {
+          writer.write(1000L * i, type1);
+        }
+      }
+      byte[] staleIndex = Files.readAllBytes(index.toPath());
+      try (AISArchiveWriter writer = new AISArchiveWriter(file, 256)) {
+        for (int i = 10; i < 100; i++) {
+          writer.write(1000L * i, type18);
+        }
+      }
+      long length = file.length();
+      // index saved before the blocks above and a partial block at the end,
+      // as left by a writer that was not flushed
+      Files.write(index.toPath(), staleIndex);
+      try (FileOutputStream out = new FileOutputStream(file, true)) {
+        out.write(new byte[]{0, 0, 0, 100, 0, 0, 1, 0});
+      }
+
+      try (AISArchiveWriter writer = new AISArchiveWriter(file, 256)) {
+        assertEquals(length, file.length());
+        writer.write(100000L, type1);
+      }
+
+      try (AISArchiveReader reader = new AISArchiveReader(file)) {
+        assertTrue(reader.getBlockCount() > 2);
+        assertEquals(2, reader.getMMSIs().size());
+        List<AISArchiveRecord> records = reader.find(mmsi18, 0, Long.MAX_VALUE);
+        assertEquals(90, records.size());
+        assertEquals(10000, records.get(0).getTime());
+        assertEquals(99000, records.get(89).getTime());
+        assertEquals(18, records.get(0).getMessageType());
+        assertEquals(101, reader.find(0, Long.MAX_VALUE).size());
+      }
+    } finally {
+      file.delete();
+      index.delete();
+    }
+  }
+
+  @Test
+  public void testSixbitBytes() {
+    Sixbit s = new Sixbit("177KQJ5000G?tO`K>RA1wUbN0TKH", 0);
+    Sixbit copy = new Sixbit(s.toByteArray(), s.length());
+    assertEquals(s.length(), copy.length());
+    assertTrue(Arrays.equals(s.toByteArray(), copy.toByteArray()));
+    assertEquals(s.getInt(8, 38), copy.getInt(8, 38));
+  }
+
+  /**
+   * Reads the MMSI of a single sentence message.
+   */
+  private static int getMMSI(AISSentence sentence) {
+    return new Sixbit(sentence.getPayload(), sentence.getFillBits()).getInt(8, 38);
+  }
+}
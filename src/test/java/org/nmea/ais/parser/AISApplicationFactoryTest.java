@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.junit.Test;
+import org.nmea.ais.message.*;
+import org.nmea.ais.util.SixbitWriter;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.AISSentence;
+import org.nmea.sentence.Checksum;
+
+import static org.junit.Assert.*;
+
+/**
+ * Dispatches binary broadcast messages by DAC and FI.
+ */
+public class AISApplicationFactoryTest {
+
+  private final AISApplicationFactory factory = AISApplicationFactory.getInstance();
+  private final SixbitWriter bits = new SixbitWriter();
+
+  @Test
+  public void testMeteoHydro() {
+    header(1, 31);
+    bits.putInt((int) Math.round(-70.5 * 60000), 25);
+    bits.putInt((int) Math.round(41.25 * 60000), 24);
+    bits.putBoolean(true);
+    bits.putInt(17, 5);
+    bits.putInt(13, 5);
+    bits.putInt(45, 6);
+    bits.putInt(12, 7);
+    bits.putInt(20, 7);
+    bits.putInt(270, 9);
+    bits.putInt(275, 9);
+    bits.putInt(-52, 11);
+    bits.putInt(80, 7);
+    bits.putInt(-90, 10);
+    bits.putInt(1013 - 799, 9);
+    bits.putInt(0, 2);
+    bits.putInt(55, 8);
+    bits.putInt(1150, 12);
+    bits.putInt(0, 32);
+    bits.putInt(0, 31);
+    bits.putInt(15, 8);
+    bits.putInt(0, 32);
+    bits.putInt(0, 10);
+    bits.putInt(183, 10);
+    bits.putInt(0, 3);
+    bits.putInt(320, 9);
+    bits.putInt(0, 12);
+
+    AISMeteoHydroData m = (AISMeteoHydroData) factory.decode(sentence());
+    assertEquals(1, m.getDesignatedAreaCode());
+    assertEquals(31, m.getFunctionalId());
+    assertEquals(-70.5, m.getLongitudeInDegrees(), 1e-9);
+    assertEquals(41.25, m.getLatitudeInDegrees(), 1e-9);
+    assertTrue(m.getPositionAccuracy());
+    assertEquals(17, m.getUtcDay());
+    assertEquals(45, m.getUtcMinute());
+    assertEquals(12, m.getWindSpeed());
+    assertEquals(20, m.getWindGust());
+    assertEquals(270, m.getWindDirection());
+    assertEquals(-52, m.getAirTemperature());
+    assertEquals(80, m.getRelativeHumidity());
+    assertEquals(-90, m.getDewPoint());
+    assertEquals(1013, m.getAirPressure());
+    assertEquals(55, m.getVisibility());
+    assertEquals(150, m.getWaterLevel());
+    assertEquals(15, m.getWaveHeight());
+    assertEquals(83, m.getWaterTemperature());
+    assertEquals(320, m.getSalinity());
+  }
+
+  @Test
+  public void testAreaNotice() {
+    header(1, 22);
+    bits.putInt(7, 10);
+    bits.putInt(25, 7);
+    bits.putInt(3, 4);
+    bits.putInt(14, 5);
+    bits.putInt(8, 5);
+    bits.putInt(30, 6);
+    bits.putInt(1440, 18);
+    bits.putInt(0, 3);
+    bits.putInt(0, 32);
+    bits.putInt(0, 32);
+    bits.putInt(0, 20);
+    bits.putInt(4, 3);
+    bits.putInt(0, 32);
+    bits.putInt(0, 32);
+    bits.putInt(0, 20);
+    AISAreaNotice m = (AISAreaNotice) factory.decode(sentence());
+    assertEquals(7, m.getLinkageId());
+    assertEquals(25, m.getNoticeType());
+    assertEquals(14, m.getDay());
+    assertEquals(1440, m.getDuration());
+    assertEquals(2, m.getSubAreaCount());
+    assertEquals(0, m.getSubAreaShape(0));
+    assertEquals(4, m.getSubAreaShape(1));
+  }
+
+  @Test
+  public void testRegistry() {
+    header(366, 56);
+    bits.putInt(0xAB, 8);
+    AISSentence s = sentence();
+    assertFalse(factory.isSupported(366, 56));
+    assertNull(factory.decode(s));
+
+    factory.register(366, 56, m -> new AISApplicationParser(m, 8) {
+    });
+    try {
+      AISApplicationMessage m = factory.decode(s);
+      assertEquals(366, m.getDesignatedAreaCode());
+      assertEquals(56 & 63, m.getFunctionalId());
+      assertEquals(0xAB, m.getMessage().getData().getInt(0, 8));
+    } finally {
+      factory.unregister(366, 56);
+    }
+    assertNull(factory.decode(s));
+  }
+
+  private void header(int dac, int fi) {
+    bits.reset();
+    bits.putInt(8, 6);
+    bits.putInt(0, 2);
+    bits.putInt(3669713, 30);
+    bits.putInt(0, 2);
+    bits.putInt(dac, 10);
+    bits.putInt(fi, 6);
+  }
+
+  private AISSentence sentence() {
+    StringBuilder sb = new StringBuilder("!AIVDM,1,1,,A,");
+    bits.armor(sb, 0, bits.getCharCount());
+    sb.append(',').append(bits.getFillBits());
+    sb.append(String.format("*%02X", Checksum.xor(sb, 1, sb.length())));
+    return (AISSentence) SentenceFactory.getInstance().createParser(sb.toString());
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import java.util.List;
+import org.junit.Test;
+import org.nmea.ais.message.*;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.AISSentence;
+
+import static org.junit.Assert.*;
+
+/**
+ * Encodes decoded messages back into sentences and decodes them again.
+ */
+public class AISMessageEncoderTest {
+
+  private static final String AIS1 = "!AIVDM,1,1,,B,177KQJ5000G?tO`K>RA1wUbN0TKH,0*5C";
+  private static final String AIS5A = "!AIVDM,2,1,1,A,55?MbV02;H;s<HtKR20EHE:0@T4@Dn2222222216L961O5Gf0NSQEp6ClRp8,0*1C";
+  private static final String AIS5B = "!AIVDM,2,2,1,A,88888888880,2*25";
+  private static final String AIS24A = "!AIVDM,1,1,,A,H42O55i18tMET00000000000000,2*6D";
+  private static final String AIS24B = "!AIVDM,1,1,,A,H42O55lti4hhhilD3nink000?050,0*40";
+  private static final String AIS4 = "!AIVDM,1,1,,A,403OviQuMGCqWrRO9>E6fE700@GO,0*4D";
+  private static final String AIS9 = "!AIVDM,1,1,,B,91b55wi;hbOS@OdQAC062Ch2089h,0*30";
+  private static final String AIS18 = "!AIVDM,1,1,,B,B52K>;h00Fc>jpUlNV@ikwpUoP06,0*4F";
+  private static final String AIS19 = "!AIVDM,1,1,,B,C5N3SRgPEnJGEBT>NhWAwwo862PaLELTBJ:V00000000S0D:R220,0*0B";
+  private static final String AIS21A = "!AIVDM,2,1,5,B,E1mg=5J1T4W0h97aRh6ba84<h2d;W:Te=eLvH50```q,0*46";
+  private static final String AIS21B = "!AIVDM,2,2,5,B,:D44QDlp0C1DU00,2*36";
+
+  private final AISMessageEncoder encoder = new AISMessageEncoder();
+
+  @Test
+  public void testStaticDataB() {
+    StringBuilder out = new StringBuilder();
+    assertEquals(1, encoder.encode(decode(AIS24A), out));
+    assertEquals(AIS24A + "\r\n", out.toString());
+    out.setLength(0);
+    encoder.encode(decode(AIS24B), out);
+    assertEquals(AIS24B + "\r\n", out.toString());
+  }
+
+  @Test
+  public void testPositionReport() {
+    AISPositionReport expected = (AISPositionReport) decode(AIS1);
+    AISPositionReport actual = (AISPositionReport) roundTrip(expected, 1);
+    assertEquals(expected.getMMSI(), actual.getMMSI());
+    assertEquals(expected.getNavigationalStatus(), actual.getNavigationalStatus());
+    assertEquals(expected.getRateOfTurn(), actual.getRateOfTurn());
+    assertEquals(expected.getSpeedOverGround(), actual.getSpeedOverGround());
+    assertEquals(expected.getLatitudeInDegrees(), actual.getLatitudeInDegrees(), 1e-9);
+    assertEquals(expected.getLongitudeInDegrees(), actual.getLongitudeInDegrees(), 1e-9);
+    assertEquals(expected.getCourseOverGround(), actual.getCourseOverGround());
+    assertEquals(expected.getTrueHeading(), actual.getTrueHeading());
+    assertEquals(expected.getTimeStamp(), actual.getTimeStamp());
+  }
+
+  @Test
+  public void testFragments() {
+    AISMessage05 expected = (AISMessage05) decode(AIS5A, AIS5B);
+    AISMessage05 actual = (AISMessage05) roundTrip(expected, 2);
+    assertEquals(expected.getMMSI(), actual.getMMSI());
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.getCallSign(), actual.getCallSign());
+    assertEquals(expected.getDestination(), actual.getDestination());
+    assertEquals(expected.getTypeOfShipAndCargoType(), actual.getTypeOfShipAndCargoType());
+    assertEquals(expected.getBow(), actual.getBow());
+    assertEquals(expected.getETAMinute(), actual.getETAMinute());
+    assertEquals(expected.getMaximumDraught(), actual.getMaximumDraught());
+
+    List<AISSentence> sentences = encoder.toSentences(expected);
+    assertEquals("1", sentences.get(0).getMessageId());
+    assertEquals("1", sentences.get(1).getMessageId());
+    assertEquals(2, sentences.get(1).getFillBits());
+  }
+
+  @Test
+  public void testUTCReport() {
+    AISMessage04 expected = (AISMessage04) decode(AIS4);
+    AISMessage04 actual = (AISMessage04) roundTrip(expected, 1);
+    assertEquals(expected.getMMSI(), actual.getMMSI());
+    assertEquals(expected.getUtcYear(), actual.getUtcYear());
+    assertEquals(expected.getUtcMonth(), actual.getUtcMonth());
+    assertEquals(expected.getUtcDay(), actual.getUtcDay());
+    assertEquals(expected.getUtcHour(), actual.getUtcHour());
+    assertEquals(expected.getUtcMinute(), actual.getUtcMinute());
+    assertEquals(expected.getUtcSecond(), actual.getUtcSecond());
+    assertEquals(expected.getPositionAccuracy(), actual.getPositionAccuracy());
+    assertEquals(expected.getLatitudeInDegrees(), actual.getLatitudeInDegrees(), 1e-9);
+    assertEquals(expected.getLongitudeInDegrees(), actual.getLongitudeInDegrees(), 1e-9);
+    assertEquals(expected.getTypeOfEPFD(), actual.getTypeOfEPFD());
+  }
+
+  @Test
+  public void testSARReport() {
+    AISMessage09 expected = (AISMessage09) decode(AIS9);
+    AISMessage09 actual = (AISMessage09) roundTrip(expected, 1);
+    assertEquals(expected.getMMSI(), actual.getMMSI());
+    assertEquals(expected.getAltitude(), actual.getAltitude());
+    assertEquals(expected.getSpeedOverGround(), actual.getSpeedOverGround());
+    assertEquals(expected.getPositionAccuracy(), actual.getPositionAccuracy());
+    assertEquals(expected.getLatitudeInDegrees(), actual.getLatitudeInDegrees(), 1e-9);
+    assertEquals(expected.getLongitudeInDegrees(), actual.getLongitudeInDegrees(), 1e-9);
+    assertEquals(expected.getCourseOverGround(), actual.getCourseOverGround());
+    assertEquals(expected.getTimeStamp(), actual.getTimeStamp());
+    assertEquals(expected.getDTEFlag(), actual.getDTEFlag());
+    assertEquals(expected.getAssignedModeFlag(), actual.getAssignedModeFlag());
+    assertEquals(expected.getRAIMFlag(), actual.getRAIMFlag());
+  }
+
+  @Test
+  public void testPositionReportB() {
+    AISMessage18 expected = (AISMessage18) decode(AIS18);
+    AISMessage18 actual = (AISMessage18) roundTrip(expected, 1);
+    assertEquals(expected.getMMSI(), actual.getMMSI());
+    assertEquals(expected.getSpeedOverGround(), actual.getSpeedOverGround());
+    assertEquals(expected.getPositionAccuracy(), actual.getPositionAccuracy());
+    assertEquals(expected.getLatitudeInDegrees(), actual.getLatitudeInDegrees(), 1e-9);
+    assertEquals(expected.getLongitudeInDegrees(), actual.getLongitudeInDegrees(), 1e-9);
+    assertEquals(expected.getCourseOverGround(), actual.getCourseOverGround());
+    assertEquals(expected.getTrueHeading(), actual.getTrueHeading());
+    assertEquals(expected.getTimeStamp(), actual.getTimeStamp());
+  }
+
+  @Test
+  public void testExtendedReportB() {
+    AISMessage19 expected = (AISMessage19) decode(AIS19);
+    AISMessage19 actual = (AISMessage19) roundTrip(expected, 1);
+    assertEquals(expected.getMMSI(), actual.getMMSI());
+    assertEquals(expected.getSpeedOverGround(), actual.getSpeedOverGround());
+    assertEquals(expected.getLatitudeInDegrees(), actual.getLatitudeInDegrees(), 1e-9);
+    assertEquals(expected.getLongitudeInDegrees(), actual.getLongitudeInDegrees(), 1e-9);
+    assertEquals(expected.getCourseOverGround(), actual.getCourseOverGround());
+    assertEquals(expected.getTrueHeading(), actual.getTrueHeading());
+    assertEquals(expected.getTimeStamp(), actual.getTimeStamp());
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.getTypeOfShipAndCargoType(), actual.getTypeOfShipAndCargoType());
+    assertEquals(expected.getBow(), actual.getBow());
+    assertEquals(expected.getStern(), actual.getStern());
+    assertEquals(expected.getPort(), actual.getPort());
+    assertEquals(expected.getStarboard(), actual.getStarboard());
+    assertEquals(expected.getTypeOfEPFD(), actual.getTypeOfEPFD());
+  }
+
+  @Test
+  public void testAidToNavigation() {
+    AISMessage21 expected = (AISMessage21) decode(AIS21A, AIS21B);
+    assertFalse(expected.getNameExtension().isEmpty());
+    AISMessage21 actual = (AISMessage21) roundTrip(expected, 1);
+    assertEquals(expected.getMMSI(), actual.getMMSI());
+    assertEquals(expected.getAidType(), actual.getAidType());
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.getNameExtension(), actual.getNameExtension());
+    assertEquals(expected.getPositionAccuracy(), actual.getPositionAccuracy());
+    assertEquals(expected.getLatitudeInDegrees(), actual.getLatitudeInDegrees(), 1e-9);
+    assertEquals(expected.getLongitudeInDegrees(), actual.getLongitudeInDegrees(), 1e-9);
+    assertEquals(expected.getBow(), actual.getBow());
+    assertEquals(expected.getStern(), actual.getStern());
+    assertEquals(expected.getPort(), actual.getPort());
+    assertEquals(expected.getStarboard(), actual.getStarboard());
+    assertEquals(expected.getTypeOfEPFD(), actual.getTypeOfEPFD());
+    assertEquals(expected.getUtcSecond(), actual.getUtcSecond());
+    assertEquals(expected.getOffPositionIndicator(), actual.getOffPositionIndicator());
+    assertEquals(expected.getRAIMFlag(), actual.getRAIMFlag());
+    assertEquals(expected.getVirtualAidFlag(), actual.getVirtualAidFlag());
+    assertEquals(expected.getAssignedModeFlag(), actual.getAssignedModeFlag());
+  }
+
+  private static AISMessage decode(String... nmea) {
+    AISSentence[] sentences = new AISSentence[nmea.length];
+    for (int i = 0; i < nmea.length; i++) {
+      sentences[i] = (AISSentence) SentenceFactory.getInstance().createParser(nmea[i]);
+    }
+    return AISMessageFactory.getInstance().create(sentences);
+  }
+
+  private AISMessage roundTrip(AISMessage message, int fragments) {
+    List<AISSentence> sentences = encoder.toSentences(message);
+    assertEquals(fragments, sentences.size());
+    return AISMessageFactory.getInstance().create(sentences.toArray(new AISSentence[sentences.size()]));
+  }
+}
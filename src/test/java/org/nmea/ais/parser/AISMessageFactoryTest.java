@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.parser;
+
+import org.junit.Test;
+import org.nmea.ais.message.*;
+import org.nmea.ais.util.SixbitWriter;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.AISSentence;
+
+import static org.junit.Assert.*;
+
+/**
+ * Decodes the message types added to the registry, and unsupported types.
+ */
+public class AISMessageFactoryTest {
+
+  private final AISMessageFactory factory = AISMessageFactory.getInstance();
+  private final SixbitWriter bits = new SixbitWriter();
+
+  @Test
+  public void testBinaryBroadcast() {
+    header(8, 2);
+    bits.putInt(1, 10);
+    bits.putInt(31, 6);
+    bits.putInt(0xABCD, 16);
+    AISMessage08 m = (AISMessage08) factory.decode(bits.toSixbit());
+    assertEquals(1, m.getDesignatedAreaCode());
+    assertEquals(31, m.getFunctionalId());
+    assertEquals(16, m.getData().length());
+    assertEquals(0xABCD, m.getData().getInt(0, 16));
+  }
+
+  @Test
+  public void testBinaryAddressed() {
+    header(6, 0);
+    bits.putInt(3, 2);
+    bits.putInt(366999999, 30);
+    bits.putBoolean(true);
+    bits.putInt(0, 1);
+    bits.putInt(235, 10);
+    bits.putInt(10, 6);
+    bits.putInt(5, 8);
+    AISMessage06 m = (AISMessage06) factory.decode(bits.toSixbit());
+    assertEquals(3, m.getSequenceNumber());
+    assertEquals(366999999, m.getDestinationMMSI());
+    assertTrue(m.getRetransmitFlag());
+    assertEquals(235, m.getDesignatedAreaCode());
+    assertEquals(10, m.getFunctionalId());
+    assertEquals(5, m.getData().getInt(0, 8));
+  }
+
+  @Test
+  public void testSafetyBroadcast() {
+    header(14, 2);
+    bits.putString("TEST MESSAGE", 12);
+    assertEquals("TEST MESSAGE", ((AISMessage14) factory.decode(bits.toSixbit())).getText());
+  }
+
+  @Test
+  public void testDataLinkManagement() {
+    header(20, 2);
+    bits.putInt(100, 12);
+    bits.putInt(2, 4);
+    bits.putInt(7, 3);
+    bits.putInt(225, 11);
+    bits.putInt(200, 12);
+    bits.putInt(1, 4);
+    bits.putInt(3, 3);
+    bits.putInt(375, 11);
+    AISMessage20 m = (AISMessage20) factory.decode(bits.toSixbit());
+    assertEquals(2, m.getReservationCount());
+    assertEquals(100, m.getOffsetNumber(0));
+    assertEquals(7, m.getTimeout(0));
+    assertEquals(1, m.getNumberOfSlots(1));
+    assertEquals(375, m.getIncrement(1));
+  }
+
+  @Test
+  public void testChannelManagement() {
+    header(22, 2);
+    bits.putInt(2087, 12);
+    bits.putInt(2088, 12);
+    bits.putInt(1, 4);
+    bits.putBoolean(true);
+    bits.putInt(-4410, 18);
+    bits.putInt(27600, 17);
+    bits.putInt(-4470, 18);
+    bits.putInt(27540, 17);
+    bits.putBoolean(false);
+    bits.putInt(0, 2);
+    bits.putInt(4, 3);
+    bits.putInt(0, 23);
+    AISMessage22 m = (AISMessage22) factory.decode(bits.toSixbit());
+    assertEquals(2087, m.getChannelA());
+    assertEquals(2088, m.getChannelB());
+    assertTrue(m.isLowPower());
+    assertFalse(m.isAddressed());
+    assertEquals(-1, m.getDestinationMMSI1());
+    assertEquals(-7.35, m.getNorthEastLongitude(), 1e-9);
+    assertEquals(46.0, m.getNorthEastLatitude(), 1e-9);
+    assertEquals(-7.45, m.getSouthWestLongitude(), 1e-9);
+    assertEquals(4, m.getZoneSize());
+  }
+
+  @Test
+  public void testGroupAssignment() {
+    header(23, 2);
+    bits.putInt(-4410, 18);
+    bits.putInt(27600, 17);
+    bits.putInt(-4470, 18);
+    bits.putInt(27540, 17);
+    bits.putInt(6, 4);
+    bits.putInt(70, 8);
+    bits.putInt(0, 22);
+    bits.putInt(2, 2);
+    bits.putInt(9, 4);
+    bits.putInt(5, 4);
+    bits.putInt(0, 6);
+    AISMessage23 m = (AISMessage23) factory.decode(bits.toSixbit());
+    assertEquals(45.9, m.getSouthWestLatitude(), 1e-9);
+    assertEquals(6, m.getStationType());
+    assertEquals(70, m.getTypeOfShipAndCargoType());
+    assertEquals(2, m.getTxRxMode());
+    assertEquals(9, m.getReportingInterval());
+    assertEquals(5, m.getQuietTime());
+  }
+
+  @Test
+  public void testLongRange() {
+    bits.reset();
+    bits.putInt(27, 6);
+    bits.putInt(3, 2);
+    bits.putInt(230123450, 30);
+    bits.putBoolean(true);
+    bits.putBoolean(false);
+    bits.putInt(5, 4);
+    bits.putInt(13830, 18);
+    bits.putInt(-20034, 17);
+    bits.putInt(12, 6);
+    bits.putInt(271, 9);
+    bits.putBoolean(true);
+    bits.putInt(0, 1);
+    AISMessage27 m = (AISMessage27) factory.decode(bits.toSixbit());
+    assertEquals(3, m.getRepeatIndicator());
+    assertEquals(230123450, m.getMMSI());
+    assertTrue(m.getPositionAccuracy());
+    assertEquals(5, m.getNavigationalStatus());
+    assertEquals(23.05, m.getLongitudeInDegrees(), 1e-9);
+    assertEquals(-33.39, m.getLatitudeInDegrees(), 1e-9);
+    assertEquals(12, m.getSpeedOverGround());
+    assertEquals(271, m.getCourseOverGround());
+    assertTrue(m.getGNSSPositionStatus());
+  }
+
+  @Test
+  public void testUnsupported() {
+    // type 7, binary acknowledge
+    AISSentence s = (AISSentence) SentenceFactory.getInstance().createParser("!AIVDM,1,1,,A,702R5`hwCjq8,0*6B");
+    assertFalse(factory.isSupported(7));
+    assertNull(factory.decode(s));
+    try {
+      factory.create(s);
+      fail("unsupported type created");
+    } catch (IllegalArgumentException expected) {
+    }
+    factory.register(7, p -> new AISMessageParser(p) {
+    });
+    try {
+      assertEquals(7, factory.decode(s).getMessageType());
+    } finally {
+      factory.unregister(7);
+    }
+    assertNull(factory.decode(s));
+  }
+
+  private void header(int type, int spare) {
+    bits.reset();
+    bits.putInt(type, 6);
+    bits.putInt(0, 2);
+    bits.putInt(123456789, 30);
+    if (spare > 0) {
+      bits.putInt(0, spare);
+    }
+  }
+}
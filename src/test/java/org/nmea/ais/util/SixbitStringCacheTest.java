@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.util;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Resolves repeated string fields to the same instance.
+ */
+public class SixbitStringCacheTest {
+
+  // type 5 payload with name EVER DIADEM
+  private static final String PAYLOAD = "55?MbV02;H;s<HtKR20EHE:0@T4@Dn2222222216L961O5Gf0NSQEp6ClRp888888888880";
+
+  @Test
+  public void testCache() {
+    SixbitStringCache cache = new SixbitStringCache(16);
+    Sixbit bits = new Sixbit(PAYLOAD, 2);
+    String name = cache.get(bits, 112, 232);
+    assertEquals("EVER DIADEM", name.trim());
+    assertSame(name, cache.get(new Sixbit(PAYLOAD, 2), 112, 232));
+    assertEquals(bits.decodeString(70, 112), cache.get(bits, 70, 112));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+  }
+
+  @Test
+  public void testDecode() {
+    SixbitStringCache cache = new SixbitStringCache(4);
+    Random random = new Random(42);
+    char[] payload = new char[28];
+    for (int n = 0; n < 1000; n++) {
+      for (int i = 0; i < payload.length; i++) {
+        int v = random.nextInt(64);
+        payload[i] = (char) (v < 40 ? v + 48 : v + 56);
+      }
+      Sixbit bits = new Sixbit(new String(payload), 0);
+      int from = random.nextInt(40);
+      int to = from + Sixbit.BITSPERCHAR * (1 + random.nextInt(21));
+      assertEquals(bits.decodeString(from, to), cache.get(bits, from, to));
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+import org.junit.Test;
+import org.nmea.ais.message.AISMessage24;
+
+import static org.junit.Assert.*;
+import static org.nmea.ais.vessel.VesselStateTableTest.decode;
+
+/**
+ * Combines parts A and B of Class B static data reports.
+ */
+public class StaticDataMergerTest {
+
+  private static final String PART_A = "!AIVDM,1,1,,A,H42O55i18tMET00000000000000,2*6D";
+  private static final String PART_B = "!AIVDM,1,1,,A,H42O55lti4hhhilD3nink000?050,0*40";
+
+  @Test
+  public void testMerge() {
+    StaticDataMerger merger = new StaticDataMerger(16);
+    AISMessage24 a = (AISMessage24) decode(PART_A);
+    AISMessage24 b = (AISMessage24) decode(PART_B);
+
+    assertNull(merger.update(b, 1000));
+    assertNull(merger.get(a.getMMSI(), 1000));
+    StaticVesselData data = merger.update(a, 2000);
+    assertNotNull(data);
+    assertEquals(271041815, data.getMMSI());
+    assertEquals("PROGUY", data.getName());
+    assertEquals(b.getCallSign().trim(), data.getCallSign());
+    assertEquals(b.getTypeOfShipAndCargoType(), data.getShipType());
+    assertEquals(b.getBow(), data.getBow());
+    assertEquals(data, merger.get(271041815, 2000));
+    // part B older than maximum age
+    assertNull(merger.get(271041815, 1001 + merger.getMaxAge()));
+
+    // unchanged
+    assertNull(merger.update(a, 3000));
+    assertNull(merger.update(b, 4000));
+    assertEquals(1, merger.size());
+
+    merger.setMaxAge(10000);
+    assertEquals(0, merger.expire(13000));
+    assertEquals(1, merger.expire(20000));
+    assertEquals(0, merger.size());
+  }
+
+  @Test
+  public void testEviction() {
+    StaticDataMerger merger = new StaticDataMerger(1);
+    AISMessage24 a = (AISMessage24) decode(PART_A);
+    merger.update(a, 1000);
+    merger.update((AISMessage24) decode("!AIVDM,1,1,,A,H42O66i18tMET00000000000000,2*6D"), 1000);
+    assertEquals(1, merger.size());
+    assertNull(merger.get(a.getMMSI()));
+  }
+}
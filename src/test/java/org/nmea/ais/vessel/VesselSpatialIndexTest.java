@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import org.nmea.type.Position;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares spatial index queries against a linear scan.
+ */
+public class VesselSpatialIndexTest {
+
+  private static final int N = 5000;
+
+  @Test
+  public void testQueries() {
+    Random random = new Random(1);
+    VesselSpatialIndex index = new VesselSpatialIndex(0.5);
+    double[] lat = new double[N];
+    double[] lon = new double[N];
+    for (int i = 0; i < N; i++) {
+      // cluster around the antimeridian and the equator
+      lat[i] = random.nextDouble() * 20 - 10;
+      lon[i] = random.nextDouble() * 20 - 10 + (i % 2 == 0 ? 0 : 180);
+      lon[i] = lon[i] > 180 ? lon[i] - 360 : lon[i];
+      index.update(i, lat[i], lon[i], i);
+    }
+    // move half of them
+    for (int i = 0; i < N; i += 2) {
+      lat[i] += 0.3;
+      index.update(i, lat[i], lon[i], N + i);
+    }
+    assertEquals(N, index.size());
+
+    for (int q = 0; q < 20; q++) {
+      double qlat = random.nextDouble() * 20 - 10;
+      double qlon = q % 2 == 0 ? random.nextDouble() * 20 - 10 : 179.5;
+      double radius = 50000 + random.nextDouble() * 200000;
+
+      int[] found = index.findWithinRadius(qlat, qlon, radius);
+      Arrays.sort(found);
+      assertArrayEquals(scanRadius(lat, lon, qlat, qlon, radius), found);
+
+      int[] nearest = index.findNearest(qlat, qlon, 10);
+      assertEquals(10, nearest.length);
+      double[] d = new double[N];
+      for (int i = 0; i < N; i++) {
+        d[i] = new Position(qlat, qlon).distanceTo(new Position(lat[i], lon[i]));
+      }
+      double[] sorted = d.clone();
+      Arrays.sort(sorted);
+      for (int i = 0; i < 10; i++) {
+        assertEquals(sorted[i], d[nearest[i]], 1e-6);
+      }
+    }
+
+    int[] box = index.findWithinBox(-1, 178, 1, -178);
+    int expected = 0;
+    for (int i = 0; i < N; i++) {
+      if (lat[i] >= -1 && lat[i] <= 1 && (lon[i] >= 178 || lon[i] <= -178)) {
+        expected++;
+      }
+    }
+    assertEquals(expected, box.length);
+
+    assertEquals(N / 2, index.removeOlderThan(N));
+    assertTrue(index.remove(0));
+    assertFalse(index.remove(1));
+    assertEquals(N / 2 - 1, index.size());
+  }
+
+  @Test
+  public void testNearestFewAndFar() {
+    VesselSpatialIndex index = new VesselSpatialIndex();
+    index.update(1, 60, 25, 0);
+    index.update(2, -33, 151, 0);
+    index.update(3, 40, -74, 0);
+    assertArrayEquals(new int[]{3, 1, 2}, index.findNearest(38, -77, 5));
+    for (int i = 10; i < 20; i++) {
+      index.update(i, -60 + i, 100 + i, 0);
+    }
+    // all vessels far from the query
+    assertArrayEquals(new int[]{3}, index.findNearest(38, -77, 1));
+    assertArrayEquals(new int[]{3, 1}, index.findNearest(38, -77, 2));
+  }
+
+  private static int[] scanRadius(double[] lat, double[] lon, double qlat, double qlon, double radius) {
+    Position p = new Position(qlat, qlon);
+    int[] result = new int[N];
+    int n = 0;
+    for (int i = 0; i < N; i++) {
+      if (p.distanceTo(new Position(lat[i], lon[i])) <= radius) {
+        result[n++] = i;
+      }
+    }
+    return Arrays.copyOf(result, n);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.ais.vessel;
+
+import org.junit.Test;
+import org.nmea.ais.message.AISMessage;
+import org.nmea.ais.parser.AISMessageFactory;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.AISSentence;
+
+import static org.junit.Assert.*;
+
+/**
+ * Feeds sample AIS messages in the vessel state table.
+ */
+public class VesselStateTableTest {
+
+  static AISMessage decode(String... nmea) {
+    AISSentence[] sentences = new AISSentence[nmea.length];
+    for (int i = 0; i < nmea.length; i++) {
+      sentences[i] = (AISSentence) SentenceFactory.getInstance().createParser(nmea[i]);
+    }
+    return AISMessageFactory.getInstance().create(sentences);
+  }
+
+  @Test
+  public void testUpdate() {
+    VesselStateTable table = new VesselStateTable(4);
+    assertTrue(table.update(decode("!AIVDM,1,1,,B,177KQJ5000G?tO`K>RA1wUbN0TKH,0*5C"), 1000));
+    assertTrue(table.update(decode("!AIVDM,2,1,1,A,55?MbV02;H;s<HtKR20EHE:0@T4@Dn2222222216L961O5Gf0NSQEp6ClRp8,0*1C",
+                                   "!AIVDM,2,2,1,A,88888888880,2*25"), 2000));
+    assertTrue(table.update(decode("!AIVDM,1,1,,A,H42O55i18tMET00000000000000,2*6D"), 3000));
+    assertTrue(table.update(decode("!AIVDM,1,1,,A,H42O55lti4hhhilD3nink000?050,0*40"), 3000));
+    assertEquals(3, table.size());
+
+    VesselState s = table.get(477553000);
+    assertNotNull(s);
+    assertTrue(s.hasPosition());
+    assertEquals(47.58283, s.getLatitude(), 1e-5);
+    assertEquals(-122.34583, s.getLongitude(), 1e-5);
+    assertEquals(181, s.getTrueHeading());
+    assertEquals(5, s.getNavigationalStatus());
+    assertEquals(1000, s.getLastSeen());
+
+    assertTrue(table.get(351759000, s));
+    assertEquals("EVER DIADEM", s.getName());
+    assertEquals("3FOF8", s.getCallSign());
+    assertFalse(s.hasPosition());
+
+    assertTrue(table.get(271041815, s));
+    assertEquals("PROGUY", s.getName());
+    assertEquals("TC6163", s.getCallSign());
+
+    table.setMaxAge(1500);
+    assertEquals(1, table.expire(3000));
+    assertNull(table.get(477553000));
+    assertTrue(table.contains(351759000));
+  }
+
+  @Test
+  public void testGrowAndRemove() {
+    VesselStateTable table = new VesselStateTable(4);
+    AISMessage message = decode("!AIVDM,1,1,,B,177KQJ5000G?tO`K>RA1wUbN0TKH,0*5C");
+    table.update(message, 1000);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(table.remove(477553000));
+      table.update(message, 1000 + i);
+    }
+    assertEquals(1, table.size());
+    assertEquals(1999, table.get(477553000).getLastSeen());
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.event;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.nmea.ais.event.AbstractAISMessageListener;
+import org.nmea.ais.message.AISMessage05;
+import org.nmea.io.SentenceReader;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.Sentence;
+
+import static org.junit.Assert.*;
+
+/**
+ * Conflates sentences by talker and sentence id, and AIS messages by MMSI.
+ */
+public class ConflatingDispatcherTest {
+
+  private static final String GGA1 = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+  private static final String GGA2 = "$GPGGA,085756,3856.6512,N,07714.3095,W,2,06,1.40,110.62,M,-33.942,M,,*7D";
+  private static final String GXGGA = "$GXGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*4F";
+  private static final String GYGGA = "$GYGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*4E";
+  private static final String HDT = "$HEHDT,100.0,T*2E";
+  private static final String AIS1 = "!AIVDM,1,1,,B,177KQJ5000G?tO`K>RA1wUbN0TKH,0*5C";
+  private static final String AIS5A = "!AIVDM,2,1,1,A,55?MbV02;H;s<HtKR20EHE:0@T4@Dn2222222216L961O5Gf0NSQEp6ClRp8,0*1C";
+  private static final String AIS5B = "!AIVDM,2,2,1,A,88888888880,2*25";
+
+  @Test
+  public void testConflation() {
+    ConflatingDispatcher dispatcher = new ConflatingDispatcher(new SentenceReader(new ByteArrayInputStream(new byte[0])));
+    List<Sentence> received = new ArrayList<>();
+    SentenceListener listener = collect(received);
+
+    for (String nmea : new String[]{GGA1, HDT, GGA2, AIS1, GGA1, AIS1}) {
+      read(dispatcher, nmea);
+    }
+    assertEquals(3, dispatcher.size());
+    assertEquals(3, dispatcher.getPendingCount());
+    assertEquals(3, dispatcher.drain(listener));
+    assertEquals(3, received.size());
+    assertEquals(GGA1, received.get(0).toSentence());
+    assertEquals(HDT, received.get(1).toSentence());
+    assertEquals(AIS1, received.get(2).toSentence());
+
+    assertEquals(0, dispatcher.drain(listener));
+    read(dispatcher, GGA2);
+    assertEquals(1, dispatcher.drain(listener));
+    assertEquals(GGA2, received.get(3).toSentence());
+  }
+
+  @Test
+  public void testUnknownTalkers() {
+    ConflatingDispatcher dispatcher = new ConflatingDispatcher(new SentenceReader(new ByteArrayInputStream(new byte[0])));
+    List<Sentence> received = new ArrayList<>();
+
+    for (String nmea : new String[]{GXGGA, GYGGA, GXGGA, GGA1}) {
+      read(dispatcher, nmea);
+    }
+    assertEquals(3, dispatcher.size());
+    assertEquals(3, dispatcher.drain(collect(received)));
+    assertEquals(GXGGA, received.get(0).toSentence());
+    assertEquals(GYGGA, received.get(1).toSentence());
+  }
+
+  @Test
+  public void testFragments() {
+    ConflatingDispatcher dispatcher = new ConflatingDispatcher(new SentenceReader(new ByteArrayInputStream(new byte[0])));
+    List<AISMessage05> received = new ArrayList<>();
+    AbstractAISMessageListener<AISMessage05> listener = new AbstractAISMessageListener<AISMessage05>() {
+      @Override
+      public void onMessage(AISMessage05 msg) {
+        received.add(msg);
+      }
+    };
+
+    read(dispatcher, AIS5B);
+    assertEquals(0, dispatcher.size());
+    read(dispatcher, AIS5A);
+    read(dispatcher, AIS5B);
+    read(dispatcher, AIS5A);
+    read(dispatcher, AIS5B);
+    assertEquals(1, dispatcher.drain(listener));
+    assertEquals(1, received.size());
+    assertEquals(351759000, received.get(0).getMMSI());
+  }
+
+  @Test
+  public void testEviction() throws InterruptedException {
+    ConflatingDispatcher dispatcher = new ConflatingDispatcher(new SentenceReader(new ByteArrayInputStream(new byte[0])), 20);
+    List<Sentence> received = new ArrayList<>();
+    SentenceListener listener = collect(received);
+
+    // pending slots are kept regardless of age
+    read(dispatcher, GGA1);
+    read(dispatcher, HDT);
+    Thread.sleep(50);
+    read(dispatcher, GGA2);
+    assertEquals(2, dispatcher.size());
+    assertEquals(2, dispatcher.drain(listener));
+
+    // drained and idle slots are removed
+    Thread.sleep(50);
+    read(dispatcher, AIS1);
+    assertEquals(1, dispatcher.size());
+    assertEquals(1, dispatcher.drain(listener));
+    assertEquals(3, received.size());
+
+    // evicted key is added again
+    read(dispatcher, HDT);
+    assertEquals(2, dispatcher.size());
+    assertEquals(1, dispatcher.drain(listener));
+    assertEquals(HDT, received.get(3).toSentence());
+  }
+
+  @Test
+  public void testMMSI() {
+    assertEquals(477553000, ConflatingDispatcher.mmsiOf("177KQJ5000G?tO`K>RA1wUbN0TKH"));
+    assertEquals(-1, ConflatingDispatcher.mmsiOf("177KQ"));
+  }
+
+  private static SentenceListener collect(List<Sentence> received) {
+    return new SentenceListener() {
+      @Override
+      public void sentenceRead(SentenceEvent event) {
+        received.add(event.getSentence());
+      }
+
+      @Override
+      public void readingPaused() {
+      }
+
+      @Override
+      public void readingStarted() {
+      }
+
+      @Override
+      public void readingStopped() {
+      }
+    };
+  }
+
+  private static void read(ConflatingDispatcher dispatcher, String nmea) {
+    dispatcher.sentenceRead(new SentenceEvent(dispatcher, SentenceFactory.getInstance().createParser(nmea)));
+  }
+}
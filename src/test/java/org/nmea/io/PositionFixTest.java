@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.GGASentence;
+import org.nmea.sentence.Sentence;
+import org.nmea.sentence.SentenceValidator;
+import org.nmea.type.GpsFixQualityType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Round-trips the GGA and RMC fixes of the sample log through the columnar
+ * position fix format.
+ */
+public class PositionFixTest {
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    SentenceFactory factory = SentenceFactory.getInstance();
+    List<GGASentence> gga = new ArrayList<>();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    long text = 0;
+    try (PositionFixWriter writer = new PositionFixWriter(bytes, 256);
+         BufferedReader in = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/ttyUSB0.txt")))) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (!SentenceValidator.isValidSentence(line) || !StreamClock.isClockSentence(line)) {
+          continue;
+        }
+        Sentence s;
+        try {
+          s = factory.createParser(line);
+        } catch (RuntimeException ex) {
+          continue; // truncated lines in sample log
+        }
+        if (writer.write(s)) {
+          text += line.length() + 2;
+          if (s instanceof GGASentence) {
+            gga.add((GGASentence) s);
+          }
+        }
+      }
+    }
+    assertTrue("compression ratio", text / bytes.size() >= 8);
+
+    PositionFixBlock block = new PositionFixBlock(16);
+    int count = 0;
+    long previous = 0;
+    try (PositionFixReader reader = new PositionFixReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+      while (reader.read(block)) {
+        for (int i = 0; i < block.size(); i++) {
+          assertTrue(block.getTime(i) > previous);
+          previous = block.getTime(i);
+          if (block.getSatelliteCounts()[i] < 0) {
+            continue; // RMC without GGA
+          }
+          GGASentence expected = gga.get(count++);
+          assertEquals(expected.getPosition().getLatitude(), block.getLatitude(i), 1e-7);
+          assertEquals(expected.getPosition().getLongitude(), block.getLongitude(i), 1e-7);
+          assertEquals(expected.getFixQuality(), block.getFixQuality(i));
+          assertEquals(expected.getSatelliteCount(), block.getSatelliteCounts()[i]);
+          assertEquals(expected.getHorizontalDOP(), block.getHorizontalDOPs()[i], 0.05);
+        }
+      }
+    }
+    assertEquals(gga.size(), count);
+  }
+
+  @Test
+  public void testNotAvailable() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (PositionFixWriter writer = new PositionFixWriter(bytes)) {
+      writer.write(1000L, -45.5, 179.9999999, GpsFixQualityType.INVALID, -1, Double.NaN);
+    }
+    PositionFixBlock block = new PositionFixBlock();
+    PositionFixReader reader = new PositionFixReader(new ByteArrayInputStream(bytes.toByteArray()));
+    assertTrue(reader.read(block));
+    assertEquals(1, block.size());
+    assertEquals(179.9999999, block.getLongitude(0), 1e-9);
+    assertEquals(-1, block.getSatelliteCounts()[0]);
+    assertTrue(Float.isNaN(block.getHorizontalDOPs()[0]));
+    assertFalse(reader.read(block));
+  }
+
+  @Test
+  public void testMergeAcrossFlush() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (PositionFixWriter writer = new PositionFixWriter(bytes)) {
+      writer.write(1000L, 60.0, 25.0, GpsFixQualityType.INVALID, -1, Double.NaN);
+      writer.write(2000L, 60.1, 25.1, GpsFixQualityType.DGPS, 9, 1.1);
+      writer.flush();
+      assertTrue(bytes.size() > 0);
+      writer.write(2000L, 60.2, 25.2, GpsFixQualityType.NORMAL, -1, Double.NaN);
+      writer.flush();
+    }
+    PositionFixBlock block = new PositionFixBlock();
+    PositionFixReader reader = new PositionFixReader(new ByteArrayInputStream(bytes.toByteArray()));
+    assertTrue(reader.read(block));
+    assertEquals(1, block.size());
+    assertEquals(1000L, block.getTime(0));
+    assertTrue(reader.read(block));
+    assertEquals(1, block.size());
+    assertEquals(2000L, block.getTime(0));
+    assertEquals(60.1, block.getLatitude(0), 1e-9);
+    assertEquals(GpsFixQualityType.DGPS, block.getFixQuality(0));
+    assertEquals(9, block.getSatelliteCounts()[0]);
+    assertFalse(reader.read(block));
+  }
+
+  @Test(expected = IOException.class)
+  public void testCorruptedBlock() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (PositionFixWriter writer = new PositionFixWriter(bytes)) {
+      for (int i = 0; i < 100; i++) {
+        writer.write(1000L * i, 60.0 + i, 25.0, GpsFixQualityType.NORMAL, 8, 1.0);
+      }
+    }
+    // second block ends in the middle of a varint
+    bytes.write(new byte[]{1, 4, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80});
+    PositionFixBlock block = new PositionFixBlock();
+    PositionFixReader reader = new PositionFixReader(new ByteArrayInputStream(bytes.toByteArray()));
+    assertTrue(reader.read(block));
+    reader.read(block);
+  }
+}
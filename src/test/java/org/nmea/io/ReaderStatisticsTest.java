@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+import org.junit.Test;
+import org.nmea.event.AbstractSentenceListener;
+import org.nmea.sentence.GGASentence;
+import org.nmea.type.TalkerType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Collects statistics of a reader reading a mix of valid and invalid lines.
+ */
+public class ReaderStatisticsTest {
+
+  private static final String DATA
+    = "$GPGGA,120044.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*6C\r\n"
+    + "$GPGGA,120044.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*6D\r\n"
+    + "$GPXYZ,1,2*4F\r\n"
+    + "$GP GGA\r\n"
+    + "hello\r\n"
+    + "$GPGGA,120044.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*6C\r\n";
+
+  @Test
+  public void testHistogram() {
+    LatencyHistogram h = new LatencyHistogram();
+    for (int i = 1; i <= 100000; i++) {
+      h.record(i * 1000L);
+    }
+    assertEquals(100000, h.getCount());
+    assertEquals(100000000, h.getMax());
+    assertEquals(50000500, h.getMean(), 1);
+    assertEquals(50000000, h.getPercentile(50), 50000000 * 0.032);
+    assertEquals(99000000, h.getPercentile(99), 99000000 * 0.032);
+    assertTrue(h.getPercentile(99.9) >= 99900000);
+    for (long v = 0; v < 1L << 43; v = v * 3 / 2 + 1) {
+      int index = LatencyHistogram.indexOf(v);
+      assertTrue(LatencyHistogram.highestValueOf(index) >= v);
+      assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < v);
+    }
+  }
+
+  @Test
+  public void testReaderStatistics() throws Exception {
+    ReaderStatistics stats = new ReaderStatistics();
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(DATA.getBytes("US-ASCII")));
+    reader.addMetrics(stats);
+    reader.addSentenceListener(new AbstractSentenceListener<GGASentence>() {
+      @Override
+      public void sentenceRead(GGASentence sentence) {
+        throw new IllegalStateException("listener failure");
+      }
+    });
+    reader.setExceptionListener(e -> {
+    });
+    reader.start();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (stats.getLineCount() < 6 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(50);
+    reader.stop();
+
+    assertEquals(6, stats.getLineCount());
+    assertEquals(2, stats.getSentenceCount());
+    assertEquals(2, stats.getSentenceCount("GGA"));
+    assertEquals(2, stats.getTalkerCount(TalkerType.GP));
+    assertEquals(1, stats.getChecksumFailureCount());
+    assertEquals(1, stats.getParseFailureCount());
+    assertEquals(1, stats.getInvalidSentenceCount());
+    assertEquals(1, stats.getNonNMEACount());
+    assertEquals(2, stats.getListenerFailureCount());
+    assertEquals(2, stats.getLatency().getCount());
+
+    ObjectName name = stats.register("test");
+    try {
+      assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "SentenceCount"));
+    } finally {
+      stats.unregister();
+    }
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    stats.reset();
+    assertEquals(0, stats.getSentenceCount("GGA"));
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.nmea.event.AbstractSentenceListener;
+import org.nmea.event.SentenceEvent;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.RMCSentence;
+import org.nmea.sentence.Sentence;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes the sample log in an archive and replays a time range of it.
+ */
+public class SentenceArchiveTest {
+
+  private static final long FROM = LocalDateTime.of(2017, 11, 29, 19, 30, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+  private static final long TO = FROM + 59999;
+
+  @Test
+  public void testWriteAndReplay() throws Exception {
+    File file = File.createTempFile("nmea", ".archive");
+    file.delete();
+    File index = SentenceArchive.getIndexFile(file);
+    try {
+      try (SentenceArchiveWriter writer = new SentenceArchiveWriter(file, 1024);
+           BufferedReader in = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/ttyUSB0.txt")))) {
+        String line;
+        while ((line = in.readLine()) != null) {
+          writer.append(line);
+        }
+      }
+      SentenceArchive archive = new SentenceArchive(file);
+      assertTrue(archive.getBlockCount() > 100);
+      assertEquals(FROM - 46000, archive.getStartTime());
+      assertEquals(1, replay(archive, FROM, FROM).size());
+
+      List<RMCSentence> rmc = replay(archive, FROM, TO);
+      assertEquals(60, rmc.size());
+      assertEquals(19, rmc.get(0).getTime().getHour());
+      assertEquals(30, rmc.get(0).getTime().getMinutes());
+      assertEquals(0, rmc.get(0).getTime().getSeconds(), 0.001);
+
+      // index is rebuilt identically when missing
+      assertTrue(index.delete());
+      SentenceArchive rebuilt = new SentenceArchive(new File(file.getPath()));
+      assertTrue(index.isFile());
+      assertTrue(rebuilt.getBlockCount() > 0);
+      assertEquals(60, replay(rebuilt, FROM, TO).size());
+    } finally {
+      file.delete();
+      index.delete();
+    }
+  }
+
+  @Test
+  public void testReopen() throws Exception {
+    File file = File.createTempFile("nmea", ".archive");
+    file.delete();
+    File index = SentenceArchive.getIndexFile(file);
+    try {
+      long end;
+      try (SentenceArchiveWriter writer = new SentenceArchiveWriter(file, 1024);
+           BufferedReader in = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/ttyUSB0.txt")))) {
+        String line;
+        while ((line = in.readLine()) != null) {
+          writer.append(line);
+        }
+        end = writer.getTimestamp();
+      }
+      long length = file.length();
+      int blocks = new SentenceArchive(file, 1024).getBlockCount();
+      assertEquals(end, new SentenceArchive(file, 1024).getEndTime());
+
+      // last index entry lost, stale entry past end of data, partial record
+      try (RandomAccessFile raf = new RandomAccessFile(index, "rw")) {
+        raf.setLength(raf.length() - SentenceArchive.INDEX_ENTRY_SIZE);
+      }
+      assertEquals(blocks, new SentenceArchive(file, 1024).getBlockCount());
+      try (DataOutputStream out = new DataOutputStream(new FileOutputStream(index, true))) {
+        out.writeLong(end);
+        out.writeLong(length + 100);
+      }
+      assertEquals(blocks, new SentenceArchive(file, 1024).getBlockCount());
+      try (FileOutputStream out = new FileOutputStream(file, true)) {
+        out.write(new byte[]{0, 0, 1});
+      }
+
+      // GGA is stamped on the date of the last record
+      long midnight = end - end % (24 * 3600 * 1000L);
+      try (SentenceArchiveWriter writer = new SentenceArchiveWriter(file, 1024)) {
+        assertEquals(end, writer.getTimestamp());
+        assertEquals(length, file.length());
+        writer.append("$GPGGA,235959.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*6E");
+        assertEquals(midnight + 86399000, writer.getTimestamp());
+      }
+      SentenceArchive archive = new SentenceArchive(file, 1024);
+      assertEquals(midnight + 86399000, archive.getEndTime());
+      assertEquals(blocks + 1, archive.getBlockCount());
+      assertEquals(60, replay(archive, FROM, TO).size());
+    } finally {
+      file.delete();
+      index.delete();
+    }
+  }
+
+  @Test
+  public void testMalformedClockSentence() throws Exception {
+    File file = File.createTempFile("nmea", ".archive");
+    file.delete();
+    File index = SentenceArchive.getIndexFile(file);
+    try {
+      Sentence zda = SentenceFactory.getInstance().createParser("$GPZDA,201530.00,04,07,2002,00,00*60");
+      // hour out of range
+      Sentence bad = SentenceFactory.getInstance().createParser("$GPZDA,253519.00,19,09,2026,00,00*68");
+      try (SentenceArchiveWriter writer = new SentenceArchiveWriter(file, 1024)) {
+        writer.append(zda);
+        long timestamp = writer.getTimestamp();
+        assertTrue(timestamp > 0);
+        writer.append(bad);
+        assertEquals(timestamp, writer.getTimestamp());
+        writer.sentenceRead(new SentenceEvent(this, bad));
+        assertEquals(timestamp, writer.getTimestamp());
+      }
+      int record = 10 + zda.toString().length();
+      assertEquals(3 * record, file.length());
+    } finally {
+      file.delete();
+      index.delete();
+    }
+  }
+
+  private List<RMCSentence> replay(SentenceArchive archive, long from, long to) throws InterruptedException {
+    final List<RMCSentence> result = new ArrayList<>();
+    final CountDownLatch done = new CountDownLatch(1);
+    SentenceReader reader = new SentenceReader(archive, from, to, SentenceArchive.MAX_SPEED);
+    reader.addSentenceListener(new AbstractSentenceListener<RMCSentence>() {
+      @Override
+      public void sentenceRead(RMCSentence sentence) {
+        result.add(sentence);
+      }
+
+      @Override
+      public void readingStopped() {
+        done.countDown();
+      }
+    });
+    reader.start();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    return result;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.io;
+
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Profiles a synthetic 4800 baud bus carrying GPS and heading sentences.
+ */
+public class TrafficProfilerTest {
+
+  private static final String GGA = "$GPGGA,120044.000,3856.6580,N,07714.3166,W,1,09,1.1,122.4,M,-33.4,M,,0000*6C";
+  private static final String HDT = "$HEHDT,274.07,T*03";
+
+  @Test
+  public void testProfile() {
+    TrafficProfiler profiler = new TrafficProfiler(4800, 10, 4);
+    long start = 1_000_000;
+    for (int s = 0; s < 20; s++) {
+      for (int i = 0; i < 5; i++) {
+        profiler.record(GGA, start + s * 1000 + i * 200);
+      }
+      for (int i = 0; i < 10; i++) {
+        profiler.record(HDT, start + s * 1000 + i * 100);
+      }
+      profiler.record("garbage", start + s * 1000);
+    }
+    long now = start + 19999;
+    List<TrafficStatistics> stats = profiler.getStatistics(now);
+    assertEquals(3, stats.size());
+    TrafficStatistics gga = stats.get(0);
+    assertEquals("GP", gga.getTalkerId());
+    assertEquals("GGA", gga.getSentenceId());
+    assertEquals(5, gga.getSentenceRate(), 1e-9);
+    assertEquals(5 * (GGA.length() + 2), gga.getByteRate(), 1e-9);
+    assertEquals("HE", stats.get(1).getTalkerId());
+    assertEquals(10, stats.get(1).getSentenceRate(), 1e-9);
+    assertEquals("", stats.get(2).getSentenceId());
+
+    double bytes = 5 * (GGA.length() + 2) + 10 * (HDT.length() + 2) + 9;
+    assertEquals(bytes * 10 / 4800, profiler.getUtilization(now), 1e-9);
+
+    List<TrafficStatistics> candidates = profiler.getReductionCandidates(now, 0.7, 1);
+    assertEquals(1, candidates.size());
+    assertEquals("GGA", candidates.get(0).getSentenceId());
+    assertEquals(2, profiler.getReductionCandidates(now, 0.5, 1).size());
+    assertTrue(profiler.getReductionCandidates(now, 1.5, 1).isEmpty());
+
+    // window slides past the end of traffic
+    assertTrue(profiler.getStatistics(now + 10000).isEmpty());
+  }
+
+  @Test
+  public void testProprietary() {
+    TrafficProfiler profiler = new TrafficProfiler(4800, 10, 4);
+    profiler.record("$PGRMZ,93,f,3*21", 1000);
+    profiler.record("$PSRF103,00,01,00,01*25", 1000);
+    profiler.record("$PSRF103,00,01,00,01*25", 1100);
+    profiler.record("$PABCDEFGHI,*00", 1000);
+    List<TrafficStatistics> stats = profiler.getStatistics(1100);
+    assertEquals(3, stats.size());
+    assertEquals("P", stats.get(0).getTalkerId());
+    assertEquals("SRF103", stats.get(0).getSentenceId());
+    assertEquals("P", stats.get(1).getTalkerId());
+    assertEquals("GRMZ", stats.get(1).getSentenceId());
+    assertEquals("", stats.get(2).getTalkerId());
+    assertEquals("", stats.get(2).getSentenceId());
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser;
+
+import org.junit.Test;
+import org.nmea.type.Measurement;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reads optional fields without exceptions.
+ */
+public class SentenceParserTest {
+
+  private static final String GSV = "$GPGSV,3,1,12,05,,,42,12,x1,101,-3,07,45.5,+12,*2A";
+
+  @Test
+  public void testHasValue() {
+    SentenceParser s = new SentenceParser(GSV);
+    assertTrue(s.hasValue(0));
+    assertFalse(s.hasValue(4));
+    assertFalse(s.hasValue(14));
+    assertFalse(s.hasValue(-1));
+    assertFalse(s.hasValue(100));
+  }
+
+  @Test
+  public void testGetOr() {
+    SentenceParser s = new SentenceParser(GSV);
+    assertEquals(12, s.getIntOr(2, -1));
+    assertEquals(-1, s.getIntOr(4, -1));
+    assertEquals(-1, s.getIntOr(8, -1));
+    assertEquals(-3, s.getIntOr(10, -1));
+    assertEquals(12, s.getIntOr(13, -1));
+    assertEquals(-1, s.getIntOr(14, -1));
+    assertEquals(45.5, s.getDoubleOr(12, Double.NaN), 0);
+    assertTrue(Double.isNaN(s.getDoubleOr(8, Double.NaN)));
+    assertTrue(Double.isNaN(s.getDoubleOr(5, Double.NaN)));
+    assertEquals("05", s.getStringOr(3, null));
+    assertNull(s.getStringOr(4, null));
+  }
+
+  @Test
+  public void testShrinkFieldCount() {
+    XDRParser xdr = new XDRParser("$IIXDR,P,1.02481,B,Barometer,C,19.5,C,Air");
+    assertEquals(8, xdr.getFieldCount());
+    xdr.setMeasurement(new Measurement("C", 20.5, "C", "Air"));
+    assertEquals(4, xdr.getFieldCount());
+    assertEquals(1, xdr.getMeasurements().size());
+    assertTrue(xdr.toString().startsWith("$IIXDR,C,20.5,C,Air*"));
+  }
+
+  @Test
+  public void testStacklessException() {
+    SentenceParser s = new SentenceParser(GSV);
+    try {
+      s.getStringValue(4);
+      fail("DataNotAvailableException expected");
+    } catch (DataNotAvailableException e) {
+      assertEquals(0, e.getStackTrace().length);
+    }
+    try {
+      s.getIntValue(8);
+      fail("ParseException expected");
+    } catch (ParseException e) {
+      assertEquals(0, e.getStackTrace().length);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.nmea.event.SentenceEvent;
+import org.nmea.event.SentenceListener;
+import org.nmea.io.SentenceReader;
+import org.nmea.sentence.GGASentence;
+import org.nmea.sentence.Sentence;
+import org.nmea.type.TalkerType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reuses parsers of the same type.
+ */
+public class SentencePoolTest {
+
+  private static final String GGA1 = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+  private static final String GGA2 = "$GNGGA,085756,3856.6512,N,07714.3095,W,2,06,1.40,110.62,M,-33.942,M,,*63";
+  private static final String GLL = "$GPGLL,4916.45,N,12311.12,W,225444,A,*1D";
+
+  @Test
+  public void testAcquire() {
+    SentencePool pool = new SentencePool(1);
+    Sentence first = pool.acquire(GGA1);
+    pool.release(first);
+    pool.release(first);
+    Sentence second = pool.acquire(GGA2);
+    assertSame(first, second);
+    assertEquals(TalkerType.GN, second.getTalkerId());
+    assertEquals(GGA2, second.toSentence());
+    assertEquals(6, ((GGASentence) second).getSatelliteCount());
+    // pool is empty until released
+    assertNotSame(second, pool.acquire(GGA1));
+    Sentence gll = pool.acquire(GLL);
+    assertEquals("GLL", gll.getSentenceId());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testResetType() {
+    SentenceParser parser = (SentenceParser) SentenceFactory.getInstance().createParser(GGA1);
+    parser.reset(GLL);
+  }
+
+  @Test
+  public void testRetain() {
+    Sentence s = SentenceFactory.getInstance().createParser(GGA1);
+    SentenceEvent event = new SentenceEvent(this, s);
+    assertSame(event, event.retain());
+
+    SentenceEvent recycled = new SentenceEvent(this, s, true);
+    SentenceEvent retained = recycled.retain();
+    assertNotSame(s, retained.getSentence());
+    assertEquals(s, retained.getSentence());
+    assertEquals(recycled.getTimeStamp(), retained.getTimeStamp());
+    assertFalse(retained.isRecycled());
+  }
+
+  @Test
+  public void testRecyclingReader() throws Exception {
+    String data = GGA1 + "\r\n" + GGA2 + "\r\n" + GGA1 + "\r\n";
+    SentenceReader reader = new SentenceReader(new ByteArrayInputStream(data.getBytes("US-ASCII")));
+    reader.setRecycling(true);
+    final List<Sentence> seen = new ArrayList<>();
+    final List<Sentence> retained = new ArrayList<>();
+    reader.addSentenceListener(new SentenceListener() {
+      @Override
+      public void readingPaused() {
+      }
+
+      @Override
+      public void readingStarted() {
+      }
+
+      @Override
+      public void readingStopped() {
+      }
+
+      @Override
+      public void sentenceRead(SentenceEvent event) {
+        assertTrue(event.isRecycled());
+        synchronized (seen) {
+          seen.add(event.getSentence());
+          retained.add(event.retain().getSentence());
+        }
+      }
+    });
+    reader.start();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (System.currentTimeMillis() < deadline) {
+      synchronized (seen) {
+        if (seen.size() == 3) {
+          break;
+        }
+      }
+      Thread.sleep(10);
+    }
+    reader.stop();
+
+    synchronized (seen) {
+      assertEquals(3, seen.size());
+      assertSame(seen.get(0), seen.get(1));
+      assertSame(seen.get(1), seen.get(2));
+      assertEquals(GGA1, retained.get(0).toSentence());
+      assertEquals(GGA2, retained.get(1).toSentence());
+      assertEquals(GGA1, retained.get(2).toSentence());
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.parser;
+
+import org.junit.Test;
+import org.nmea.parser.spec.Field;
+import org.nmea.parser.spec.SentenceSpec;
+import org.nmea.sentence.GGASentence;
+import org.nmea.sentence.HDTSentence;
+import org.nmea.sentence.MTWSentence;
+import org.nmea.sentence.Sentence;
+import org.nmea.type.GpsFixQualityType;
+import org.nmea.type.Position;
+import org.nmea.type.SentenceType;
+import org.nmea.type.TalkerType;
+import org.nmea.type.UnitType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Parsers generated from sentence specifications.
+ */
+public class SentenceSpecProcessorTest {
+
+  @SentenceSpec(type = "XYZ", fields = 5)
+  interface XYZSpec extends Sentence {
+
+    @Field(index = 0, hemisphere = 1)
+    double getLatitude();
+
+    @Field(index = 0, hemisphere = 1, leading = 4, decimals = 2)
+    void setLatitude(double lat);
+
+    @Field(index = 2)
+    int getCount();
+
+    @Field(index = 2, leading = 3)
+    void setCount(int count);
+
+    @Field(index = 3)
+    char getStatus();
+
+    @Field(index = 3)
+    void setStatus(char status);
+
+    @Field(index = 4)
+    String getName();
+
+    @Field(index = 4)
+    void setName(String name);
+  }
+
+  @Test
+  public void testGenerated() {
+    String nmea = "$GPXYZ,4916.45,S,012,A,hello*06";
+    XYZSpec xyz = new XYZParser(nmea);
+    assertEquals(-4916.45, xyz.getLatitude(), 0);
+    assertEquals(12, xyz.getCount());
+    assertEquals('A', xyz.getStatus());
+    assertEquals("hello", xyz.getName());
+
+    XYZSpec empty = new XYZParser(TalkerType.GP);
+    empty.setLatitude(-4916.45);
+    empty.setCount(12);
+    empty.setStatus('A');
+    empty.setName("hello");
+    assertEquals(nmea, empty.toSentence());
+    empty.setLatitude(4916.45);
+    assertEquals(4916.45, empty.getLatitude(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testType() {
+    new XYZParser("$HCHDT,202.5,T*2C");
+  }
+
+  @Test
+  public void testMTW() {
+    SentenceFactory factory = SentenceFactory.getInstance();
+    MTWSentence mtw = (MTWSentence) factory.createParser("$YXMTW,17.75,C*26");
+    assertEquals(17.75, mtw.getTemperature(), 0);
+    MTWSentence empty = (MTWSentence) factory.createParser(TalkerType.YX, SentenceType.MTW);
+    assertEquals("$YXMTW,,C*0C", empty.toSentence());
+    empty.setTemperature(17.75);
+    assertEquals(mtw, empty);
+  }
+
+  @Test
+  public void testGGA() {
+    SentenceFactory factory = SentenceFactory.getInstance();
+    String nmea = "$GPGGA,120044.567,6011.552,S,02501.941,W,1,09,2.0,28.0,M,19.6,M,,*65";
+    GGASentence gga = (GGASentence) factory.createParser(nmea);
+    Position pos = gga.getPosition();
+    assertEquals(-60.1925333, pos.getLatitude(), 1e-7);
+    assertEquals(-25.0323500, pos.getLongitude(), 1e-7);
+    assertEquals(28.0, pos.getAltitude(), 0);
+    assertEquals(GpsFixQualityType.NORMAL, gga.getFixQuality());
+    assertEquals(9, gga.getSatelliteCount());
+    assertEquals(UnitType.METER, gga.getGeoidalHeightUnits());
+    assertEquals("120044.567", gga.getTime().toString());
+    assertFalse(((SentenceParser) gga).hasValue(12));
+
+    GGASentence empty = (GGASentence) factory.createParser(TalkerType.GP, SentenceType.GGA);
+    empty.setTime(gga.getTime());
+    empty.setPosition(pos);
+    empty.setFixQuality(GpsFixQualityType.NORMAL);
+    empty.setSatelliteCount(9);
+    empty.setHorizontalDOP(2.0);
+    empty.setGeoidalHeight(19.6);
+    empty.setGeoidalHeightUnits(UnitType.METER);
+    assertEquals(nmea, empty.toSentence());
+  }
+
+  @Test(expected = ParseException.class)
+  public void testGGAHemisphere() {
+    String nmea = "$GPGGA,120044.567,6011.552,X,02501.941,W,1,09,2.0,28.0,M,19.6,M,,*6E";
+    GGASentence gga = (GGASentence) SentenceFactory.getInstance().createParser(nmea);
+    gga.getPosition();
+  }
+
+  @Test
+  public void testHDT() {
+    SentenceFactory factory = SentenceFactory.getInstance();
+    HDTSentence hdt = (HDTSentence) factory.createParser("$HCHDT,202.5,T*2C");
+    assertEquals(202.5, hdt.getHeading(), 0);
+    assertTrue(hdt.isTrue());
+    HDTSentence empty = (HDTSentence) factory.createParser(TalkerType.HC, SentenceType.HDT);
+    empty.setHeading(202.5);
+    assertEquals(hdt, empty);
+  }
+}
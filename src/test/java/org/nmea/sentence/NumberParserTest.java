@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.sentence;
+
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares numeric parsing against the JDK parsers on random input.
+ */
+public class NumberParserTest {
+
+  private static final String ALPHABET = "0123456789000111999..--+eE x";
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testFields() {
+    String s = "$GPRMC,120044.567,A,6011.552,N,02501.941,E,000.0,360.0,160705,006.1,E*";
+    assertEquals(120044.567, NumberParser.parseDouble(s, 7, 17), 0);
+    assertEquals(60, NumberParser.parseInt(s, 20, 22));
+    assertEquals(11.552, NumberParser.parseDouble(s, 22, 28), 0);
+    assertEquals(25, NumberParser.parseInt(s, 31, 34));
+    assertEquals(-1, NumberParser.parseInt(s, 6, 8, -1));
+    assertEquals(-1, NumberParser.parseInt(s, 7, 7, -1));
+    assertTrue(Double.isNaN(NumberParser.parseDouble(s, 18, 19, Double.NaN)));
+  }
+
+  @Test
+  public void testMissing() {
+    for (String s : new String[]{"", "A", "-", "+.", "N/A", "1,5", "4.5\u0661", "--1", "1e"}) {
+      assertSame(s, s, 0, s.length());
+      assertEquals(-1, NumberParser.parseDouble(s, 0, s.length(), -1), 0);
+    }
+    for (String s : new String[]{"1e3", " 2.5 ", "0x1p4", "3d", "NaN", "-Infinity", "12345678901234567890"}) {
+      assertSame(s, s, 0, s.length());
+      assertEquals(Double.parseDouble(s), NumberParser.parseDouble(s, 0, s.length(), -1), 0);
+    }
+  }
+
+  @Test
+  public void testRandomText() {
+    StringBuilder sb = new StringBuilder("**");
+    for (int n = 0; n < 200000; n++) {
+      sb.setLength(2);
+      int length = random.nextInt(14);
+      for (int i = 0; i < length; i++) {
+        sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+      sb.append(",*");
+      assertSame(sb.substring(2, 2 + length), sb, 2, 2 + length);
+    }
+  }
+
+  @Test
+  public void testRandomNumbers() {
+    for (int n = 0; n < 200000; n++) {
+      String s;
+      switch (n % 4) {
+        case 0:
+          s = Integer.toString(random.nextInt());
+          break;
+        case 1:
+          s = Long.toString(random.nextLong() >> random.nextInt(64));
+          break;
+        case 2:
+          s = String.format(Locale.US, "%." + random.nextInt(10) + "f", (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12)));
+          break;
+        default:
+          s = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+          break;
+      }
+      assertSame(s, s, 0, s.length());
+    }
+  }
+
+  /**
+   * Asserts that parsing a range gives the same result as the JDK, including
+   * the exception.
+   */
+  private static void assertSame(String expected, CharSequence s, int from, int to) {
+    Object jdk;
+    Object own;
+    try {
+      jdk = Integer.parseInt(expected);
+    } catch (NumberFormatException e) {
+      jdk = e.getClass();
+    }
+    try {
+      own = NumberParser.parseInt(s, from, to);
+    } catch (NumberFormatException e) {
+      own = e.getClass();
+    }
+    assertEquals(expected, jdk, own);
+    if (jdk instanceof Integer) {
+      assertEquals(expected, jdk, NumberParser.parseInt(s, from, to, -1));
+    }
+
+    try {
+      jdk = Double.parseDouble(expected);
+    } catch (NumberFormatException e) {
+      jdk = e.getClass();
+    }
+    try {
+      own = NumberParser.parseDouble(s, from, to);
+    } catch (NumberFormatException e) {
+      own = e.getClass();
+    }
+    assertEquals(expected, jdk, own);
+    if (jdk instanceof Double) {
+      assertEquals(expected, jdk, NumberParser.parseDouble(s, from, to, Double.NaN));
+    } else {
+      assertTrue(expected, Double.isNaN(NumberParser.parseDouble(s, from, to, Double.NaN)));
+    }
+  }
+}
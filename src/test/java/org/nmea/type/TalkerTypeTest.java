@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2019 Key Bridge
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nmea.type;
+
+import org.junit.Test;
+import org.nmea.parser.SentenceFactory;
+import org.nmea.sentence.GGASentence;
+
+import static org.junit.Assert.*;
+
+/**
+ * Looks up talker and sentence types from sentence characters.
+ */
+public class TalkerTypeTest {
+
+  @Test
+  public void testLookup() {
+    for (TalkerType t : TalkerType.values()) {
+      if (t.name().length() == 2) {
+        assertSame(t, TalkerType.lookup(t.name().charAt(0), t.name().charAt(1)));
+      }
+    }
+    assertSame(TalkerType.GP, TalkerType.lookup("$GPGGA,"));
+    assertSame(TalkerType.AI, TalkerType.lookup("!AIVDM,"));
+    assertSame(TalkerType.P, TalkerType.lookup("$PGRME,"));
+    assertSame(TalkerType.UNKNOWN, TalkerType.lookup('G', 'X'));
+    assertSame(TalkerType.UNKNOWN, TalkerType.lookup('g', 'p'));
+    assertSame(TalkerType.UNKNOWN, TalkerType.lookup("$G"));
+  }
+
+  @Test
+  public void testSentenceType() {
+    for (SentenceType t : SentenceType.values()) {
+      if (t != SentenceType.UNKNOWN) {
+        assertSame(t, SentenceType.lookup(t.name(), 0, 3));
+      }
+    }
+    assertSame(SentenceType.GGA, SentenceType.parse("$GPGGA,1*00"));
+    assertSame(SentenceType.ALK, SentenceType.parse("$STALK,1*00"));
+    assertSame(SentenceType.UNKNOWN, SentenceType.parse("$PGRME,1*00"));
+    assertSame(SentenceType.UNKNOWN, SentenceType.parse("$GPXYZ,1*00"));
+    assertSame(SentenceType.UNKNOWN, SentenceType.lookup("GG1", 0, 3));
+  }
+
+  @Test
+  public void testUnknownTalker() {
+    String nmea = "$GXGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*4F";
+    GGASentence gga = (GGASentence) SentenceFactory.getInstance().createParser(nmea);
+    assertSame(TalkerType.UNKNOWN, gga.getTalkerId());
+    assertEquals("GX", gga.getTalkerString());
+    assertEquals(8, gga.getSatelliteCount());
+    assertEquals(nmea, gga.toSentence());
+    gga.setTalkerId(TalkerType.GN);
+    assertTrue(gga.toSentence().startsWith("$GNGGA,"));
+    assertEquals("GN", gga.getTalkerString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSetUnknown() {
+    SentenceFactory.getInstance().createParser(TalkerType.GP, SentenceType.GGA).setTalkerId(TalkerType.UNKNOWN);
+  }
+}